@@ -0,0 +1,280 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.model.Goal;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.BudgetRepository;
+import com.example.finance_tracker.repository.GoalRepository;
+import com.example.finance_tracker.repository.TransactionRepository;
+import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.service.ExpenseService;
+import com.example.finance_tracker.service.GoalsAndSavingsServiceImpl;
+import com.example.finance_tracker.service.MongoTransactions;
+import com.example.finance_tracker.service.NotificationService;
+import com.example.finance_tracker.service.TransactionServiceImpl;
+import com.mongodb.MongoClientSettings;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocating savings over a user's active goals: {@code allocateSavings} through {@link GoalsAndSavingsServiceImpl}
+ * against the loop it replaced ({@code legacyAllocateSavings}), which added one transaction per goal and then
+ * tracked the goal's progress by re-reading all of the user's transactions. The legacy loop is copied from before the
+ * change, with the allocation built as it is today, since the old constructor left it empty. Goals either carry their
+ * running total or have none yet ({@code totals}), which the service counts first. The repositories and
+ * {@link MongoTemplate} are in-memory, so the scores are the service's own cost; the {@code reads} and {@code writes}
+ * counters give the database round trips per allocation, which dominate against a real server. Transactions are
+ * disabled here; with them the allocation adds one commit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocateSavingsBenchmark {
+
+    private static final double AMOUNT = 1_000;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long reads;
+        public long writes;
+    }
+
+    @Param({"100"})
+    private int goals;
+
+    @Param({"counted", "missing"})
+    private String totals;
+
+    // The user's history, scanned by the legacy progress tracking. Allocations are counted but not kept
+    @Param({"1000"})
+    private int transactions;
+
+    private final Map<String, Goal> goalsById = new HashMap<>();
+    private final List<Transaction> history = new ArrayList<>();
+    private long reads;
+    private long writes;
+
+    private GoalsAndSavingsServiceImpl goalsService;
+    private GoalRepository goalRepository;
+    private BudgetRepository budgetRepository;
+    private TransactionRepository transactionRepository;
+    private ExpenseService expenseService;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        // Far enough away that no goal is near its deadline, and targets high enough that none is achieved
+        Date deadline = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365));
+        for (int i = 0; i < goals; i++) {
+            Goal goal = new Goal();
+            goal.setId("goal-" + i);
+            goal.setUserId(Fixtures.USER_ID);
+            goal.setName("Goal " + i);
+            goal.setTargetAmount(100_000 + random.nextInt(900_000));
+            goal.setDeadline(deadline);
+            goalsById.put(goal.getId(), goal);
+        }
+        for (int i = 0; i < transactions; i++) {
+            history.add(Transaction.builder()
+                    .id("tx-" + i)
+                    .userId(Fixtures.USER_ID)
+                    .type("Expense")
+                    .category(i % 10 == 0 ? "Goals" : Fixtures.category(i % 10))
+                    .goalId(i % 10 == 0 ? "goal-" + random.nextInt(goals) : null)
+                    .amount(random.nextInt(1_000))
+                    .build());
+        }
+
+        goalRepository = Stubs.of(GoalRepository.class, Map.of(
+                "findByUserIdAndDeadlineAfter", args -> read(activeGoals()),
+                "findById", args -> read(Optional.ofNullable(goalsById.get((String) args[0])).map(this::copy)),
+                "save", args -> write(args[0])));
+        budgetRepository = Stubs.of(BudgetRepository.class, Map.of(
+                "findByGoalIdIn", args -> read(List.<Budget>of()),
+                "findByGoalId", args -> read(Optional.<Budget>empty())));
+        int[] ids = new int[1];
+        transactionRepository = Stubs.of(TransactionRepository.class, Map.of(
+                "findByUserId", args -> read(history),
+                "save", args -> write(args[0]),
+                "insert", args -> {
+                    @SuppressWarnings("unchecked")
+                    List<Transaction> inserted = (List<Transaction>) args[0];
+                    inserted.forEach(transaction -> transaction.setId("allocation-" + ids[0]++));
+                    return write(inserted);
+                }));
+        expenseService = Stubs.of(ExpenseService.class, Map.of(
+                "addExpense", args -> write(args[0]),
+                "addExpenses", args -> write(args[0])));
+        UserRepository userRepository = Stubs.userRepository(Map.of(Fixtures.USER_ID, Fixtures.user()));
+        NotificationService notificationService = Stubs.of(NotificationService.class, Map.of());
+        MongoTransactions mongoTransactions = new MongoTransactions((MongoTransactionManager) null);
+
+        // Only the goals' listeners are wired; the others run for any allocation alike
+        GoalsAndSavingsServiceImpl[] listener = new GoalsAndSavingsServiceImpl[1];
+        TransactionServiceImpl transactionService = new TransactionServiceImpl(transactionRepository, null, null, null,
+                expenseService, null, null, Stubs.currencyUtil(userRepository), event -> {
+                    if (event instanceof TransactionsCreatedEvent created) {
+                        listener[0].onTransactionsCreated(created);
+                    } else if (event instanceof TransactionChangedEvent changed) {
+                        listener[0].onTransactionChanged(changed);
+                    }
+                }, null, mongoTransactions);
+        goalsService = new GoalsAndSavingsServiceImpl(goalRepository, transactionService, notificationService,
+                budgetRepository, expenseService, null, userRepository, event -> { }, null,
+                Stubs.timeZoneUtil(userRepository), mongoTemplate(), 1000, mongoTransactions);
+        listener[0] = goalsService;
+    }
+
+    @Benchmark
+    public int legacyAllocateSavings(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        List<Goal> activeGoals = goalRepository.findByUserIdAndDeadlineAfter(Fixtures.USER_ID, new Date());
+
+        double totalTargetAmount = activeGoals.stream()
+                .mapToDouble(Goal::getTargetAmount)
+                .sum();
+
+        for (Goal goal : activeGoals) {
+            double allocation = (goal.getTargetAmount() / totalTargetAmount) * AMOUNT;
+            Transaction savedTransaction = transactionRepository.save(allocation(goal, allocation));
+            Expense expense = new Expense();
+            expense.setUserId(savedTransaction.getUserId());
+            expense.setAmount(savedTransaction.getAmount());
+            expense.setCategory(savedTransaction.getCategory());
+            expense.setDate(savedTransaction.getDate());
+            expenseService.addExpense(expense);
+
+            legacyTrackGoalProgress(goal.getId());
+        }
+        count(roundTrips, r, w);
+        return activeGoals.size();
+    }
+
+    @Benchmark
+    public int allocateSavings(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        goalsService.allocateSavings(Fixtures.USER_ID, AMOUNT);
+        count(roundTrips, r, w);
+        return goals;
+    }
+
+    private Goal legacyTrackGoalProgress(String goalId) {
+        Goal goal = goalRepository.findById(goalId).orElseThrow();
+        Budget budget = budgetRepository.findByGoalId(goalId).orElse(null);
+
+        double totalSavingsFromTransactions = transactionRepository.findByUserId(goal.getUserId()).stream()
+                .filter(transaction -> transaction.getCategory().equals("Goals") && transaction.getGoalId() != null && transaction.getGoalId().equals(goalId))
+                .mapToDouble(Transaction::getAmount)
+                .sum();
+        double totalSavingsFromBudget = (budget != null) ? budget.getLimit() : 0;
+        double totalSavings = totalSavingsFromTransactions + totalSavingsFromBudget + goal.getManualContribution();
+        goal.setCurrentAmount(totalSavings);
+        goal.setProgressPercentage((totalSavings / goal.getTargetAmount()) * 100);
+        goalRepository.save(goal);
+        return goal;
+    }
+
+    // Fresh copies on every read, as from the database, so allocations do not accumulate over a run
+    private List<Goal> activeGoals() {
+        List<Goal> active = new ArrayList<>(goalsById.size());
+        for (int i = 0; i < goals; i++) {
+            active.add(copy(goalsById.get("goal-" + i)));
+        }
+        return active;
+    }
+
+    private Goal copy(Goal stored) {
+        Goal goal = new Goal();
+        goal.setId(stored.getId());
+        goal.setUserId(stored.getUserId());
+        goal.setName(stored.getName());
+        goal.setTargetAmount(stored.getTargetAmount());
+        goal.setDeadline(stored.getDeadline());
+        goal.setContributedAmount("counted".equals(totals) ? 0.0 : null);
+        return goal;
+    }
+
+    private static Transaction allocation(Goal goal, double amount) {
+        Transaction transaction = new Transaction();
+        transaction.setUserId(goal.getUserId());
+        transaction.setType("Expense");
+        transaction.setCategory("Goals");
+        transaction.setGoalId(goal.getId());
+        transaction.setAmount(amount);
+        transaction.setDescription("Savings allocation for goal: " + goal.getName());
+        return transaction;
+    }
+
+    // Answers the bulk updates and aggregations the service sends, one round trip each, without a server
+    private MongoTemplate mongoTemplate() {
+        MongoDatabaseFactory databaseFactory = Stubs.of(MongoDatabaseFactory.class, Map.of(
+                "getExceptionTranslator", args -> new MongoExceptionTranslator(),
+                "getCodecRegistry", args -> MongoClientSettings.getDefaultCodecRegistry()));
+        return new MongoTemplate(databaseFactory) {
+            @Override
+            public BulkOperations bulkOps(BulkOperations.BulkMode mode, Class<?> entityClass) {
+                BulkOperations[] bulk = new BulkOperations[1];
+                bulk[0] = Stubs.of(BulkOperations.class, Map.of(
+                        "updateOne", args -> bulk[0],
+                        "execute", args -> write(null)));
+                return bulk[0];
+            }
+
+            @Override
+            public <O> AggregationResults<O> aggregate(Aggregation aggregation, Class<?> inputType, Class<O> outputType) {
+                return read(new AggregationResults<>(List.of(), new Document()));
+            }
+        };
+    }
+
+    private <T> T read(T result) {
+        reads++;
+        return result;
+    }
+
+    private <T> T write(T result) {
+        writes++;
+        return result;
+    }
+
+    private void count(RoundTrips roundTrips, long readsBefore, long writesBefore) {
+        roundTrips.reads += reads - readsBefore;
+        roundTrips.writes += writes - writesBefore;
+    }
+}
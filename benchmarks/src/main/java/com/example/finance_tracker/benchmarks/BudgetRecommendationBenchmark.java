@@ -0,0 +1,81 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.repository.BudgetRepository;
+import com.example.finance_tracker.repository.ExpenseRepository;
+import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.service.BudgetServiceImpl;
+import com.example.finance_tracker.service.GoalsAndSavingsService;
+import com.example.finance_tracker.service.NotificationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BudgetServiceImpl#provideBudgetAdjustmentRecommendations}, which sums three months of expenses for every
+ * budget of the user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BudgetRecommendationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int expenses;
+
+    @Param({"10", "100"})
+    private int budgets;
+
+    private BudgetServiceImpl budgetService;
+    private Notification sent;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        Date now = new Date();
+        List<Budget> budgetList = Fixtures.budgets(budgets, random);
+        List<Expense> expenseList = Fixtures.expenses(expenses, budgets, Fixtures.daysAgo(now, 90), now, random);
+
+        UserRepository userRepository = Stubs.userRepository(Map.of(Fixtures.USER_ID, Fixtures.user()));
+        BudgetRepository budgetRepository = Stubs.of(BudgetRepository.class,
+                Map.of("findByUserId", args -> budgetList));
+        ExpenseRepository expenseRepository = Stubs.of(ExpenseRepository.class,
+                Map.of("findByUserIdAndDateBetween", args -> expenseList));
+        GoalsAndSavingsService goalsAndSavingsService = Stubs.of(GoalsAndSavingsService.class,
+                Map.of("calculateNetSavings", args -> 25_000.0));
+        NotificationService notificationService = Stubs.of(NotificationService.class,
+                Map.of("sendNotification", args -> {
+                    sent = (Notification) args[0];
+                    return null;
+                }));
+
+        budgetService = new BudgetServiceImpl(budgetRepository, notificationService, expenseRepository,
+                Stubs.currencyConverter(Fixtures.RATES), goalsAndSavingsService, Stubs.currencyUtil(userRepository),
+                Stubs.timeZoneUtil(userRepository), null, null, null);
+    }
+
+    @Benchmark
+    public Notification provideBudgetAdjustmentRecommendations() {
+        budgetService.provideBudgetAdjustmentRecommendations(Fixtures.USER_ID);
+        return sent;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.service.CurrencyConverterImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting a batch of amounts, the way reports and budget checks convert every expense they sum.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyConverterBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int amounts;
+
+    private CurrencyConverterImpl converter;
+    private String[] currencies;
+    private double[] values;
+
+    @Setup
+    public void setUp() {
+        converter = Stubs.currencyConverter(Fixtures.RATES);
+        Random random = new Random(Fixtures.SEED);
+        currencies = new String[amounts];
+        values = new double[amounts];
+        for (int i = 0; i < amounts; i++) {
+            currencies[i] = Fixtures.CURRENCIES[random.nextInt(Fixtures.CURRENCIES.length)];
+            values[i] = 1 + random.nextInt(5_000);
+        }
+    }
+
+    @Benchmark
+    public double convertToBaseCurrency() {
+        double total = 0;
+        for (int i = 0; i < amounts; i++) {
+            total += converter.convertToBaseCurrency(currencies[i], values[i], Fixtures.BASE_CURRENCY);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double convertCurrency() {
+        double total = 0;
+        for (int i = 0; i < amounts; i++) {
+            total += converter.convertCurrency(currencies[i], "USD", values[i], Fixtures.BASE_CURRENCY);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.User;
+import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.util.DateUtil;
+import com.example.finance_tracker.util.TimeZoneUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The date math of budgets, reports and goal reminders over a batch of dates: the {@code Calendar} and JVM-zone
+ * code it replaced ({@code legacy*}, copied from before the change) against {@link DateUtil} in the user's zone.
+ * The {@code zone*} pair compares loading the user for every lookup with {@link TimeZoneUtil}'s per-user cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateMathBenchmark {
+
+    @Param({"1000"})
+    private int dates;
+
+    private Date[] values;
+    private Date now;
+    private ZoneId zone;
+    private UserRepository userRepository;
+    private TimeZoneUtil timeZoneUtil;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        now = new Date(1_760_000_000_000L);
+        values = new Date[dates];
+        for (int i = 0; i < dates; i++) {
+            values[i] = new Date(now.getTime() + (long) random.nextInt(730) * DateUtil.MILLIS_PER_DAY - 365 * DateUtil.MILLIS_PER_DAY);
+        }
+        zone = ZoneId.of("Asia/Colombo");
+
+        userRepository = Stubs.userRepository(Map.of(Fixtures.USER_ID, Fixtures.user()));
+        timeZoneUtil = Stubs.timeZoneUtil(userRepository);
+    }
+
+    @Benchmark
+    public long legacyMonthBounds() {
+        long sum = 0;
+        for (Date date : values) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTime(date);
+            calendar.set(Calendar.DAY_OF_MONTH, 1);
+            Date startDate = calendar.getTime();
+            calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
+            Date endDate = calendar.getTime();
+            sum += startDate.getTime() + endDate.getTime();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long monthBounds() {
+        long sum = 0;
+        for (Date date : values) {
+            sum += DateUtil.startOfMonth(date, zone).getTime() + DateUtil.startOfNextMonth(date, zone).getTime();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long legacyMonthsSpanned() {
+        long sum = 0;
+        for (Date date : values) {
+            LocalDate start = date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            LocalDate end = now.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            Period period = Period.between(start, end);
+            sum += period.getYears() * 12 + period.getMonths() + 1;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long monthsSpanned() {
+        long sum = 0;
+        for (Date date : values) {
+            sum += DateUtil.monthsSpanned(date, now, zone);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long legacyDaysRemaining() {
+        long sum = 0;
+        for (Date deadline : values) {
+            LocalDate today = LocalDate.now();
+            LocalDate day = deadline.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+            sum += ChronoUnit.DAYS.between(today, day);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long daysRemaining() {
+        long sum = 0;
+        for (Date deadline : values) {
+            sum += DateUtil.daysBetween(now, deadline, zone);
+        }
+        return sum;
+    }
+
+    // Each iteration is one record whose user's zone is needed, as in the recurrence job. The stub repository
+    // answers from memory, so the difference understates the database round trips the cache saves.
+    @Benchmark
+    public int zoneLoadingUserPerLookup() {
+        int sum = 0;
+        for (int i = 0; i < dates; i++) {
+            User user = userRepository.findById(Fixtures.USER_ID).orElse(null);
+            sum += timeZoneUtil.getZoneId(user).hashCode();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int zoneCachedPerUser() {
+        int sum = 0;
+        for (int i = 0; i < dates; i++) {
+            sum += timeZoneUtil.getZoneIdForUser(Fixtures.USER_ID).hashCode();
+        }
+        return sum;
+    }
+}
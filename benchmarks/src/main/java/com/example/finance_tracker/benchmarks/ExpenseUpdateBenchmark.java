@@ -0,0 +1,165 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.repository.ExpenseRepository;
+import com.example.finance_tracker.service.DocumentPatcher;
+import com.example.finance_tracker.service.ExpenseServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoClientSettings;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changing the amount of an expense through {@link ExpenseServiceImpl}: {@code put} sets every field of the document,
+ * as the PUT endpoint does, and {@code patch} sets only the changed one, with and without a version to check; both go
+ * through {@link DocumentPatcher}. The repository and {@link MongoTemplate} are in-memory, so the scores are the service's own cost
+ * of building the write; the {@code reads} and {@code writes} counters give the database round trips per update, and
+ * {@code bytes} the size of the BSON sent, which is what an update costs the server and the oplog. The load test
+ * measures the updates against MongoDB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseUpdateBenchmark {
+
+    private static final String EXPENSE_ID = "expense-1";
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long reads;
+        public long writes;
+        public long bytes;
+    }
+
+    private final Codec<Document> codec = MongoClientSettings.getDefaultCodecRegistry().get(Document.class);
+    private long reads;
+    private long writes;
+    private long bytes;
+
+    private ExpenseServiceImpl expenseService;
+    private MongoTemplate mongoTemplate;
+    private Expense stored;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        stored = new Expense();
+        stored.setId(EXPENSE_ID);
+        stored.setUserId(Fixtures.USER_ID);
+        stored.setCategory(Fixtures.category(1));
+        stored.setAmount(2_500);
+        stored.setDate(new Date(1_760_000_000_000L));
+        stored.setDescription("Weekly groceries and household supplies from the supermarket near the office");
+        stored.setTags(new ArrayList<>(List.of("groceries", "household", "weekly", "card", "shared")));
+        stored.setCurrencyCode(Fixtures.BASE_CURRENCY);
+        stored.setTransactionId("tx-1");
+        stored.setVersion(7L);
+
+        mongoTemplate = mongoTemplate();
+        ExpenseRepository expenseRepository = Stubs.of(ExpenseRepository.class, Map.of());
+        expenseService = new ExpenseServiceImpl(expenseRepository, null, null,
+                new DocumentPatcher(mongoTemplate, new ObjectMapper()));
+    }
+
+    @Benchmark
+    public Expense put(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        long b = bytes;
+        // The client sends back the document it read, with the amount changed
+        Expense expense = mongoTemplate.getConverter().read(Expense.class, document(stored));
+        expense.setAmount(nextAmount());
+        Expense updated = expenseService.updateExpense(expense);
+        count(roundTrips, r, w, b);
+        return updated;
+    }
+
+    @Benchmark
+    public Expense patch(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        long b = bytes;
+        Expense updated = expenseService.patchExpense(EXPENSE_ID, Map.of("amount", nextAmount()));
+        count(roundTrips, r, w, b);
+        return updated;
+    }
+
+    @Benchmark
+    public Expense patchVersioned(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        long b = bytes;
+        Expense updated = expenseService.patchExpense(EXPENSE_ID,
+                Map.of("amount", nextAmount(), DocumentPatcher.VERSION_FIELD, stored.getVersion()));
+        count(roundTrips, r, w, b);
+        return updated;
+    }
+
+    private double nextAmount() {
+        next = (next + 1) % 1_000;
+        return 2_000 + next;
+    }
+
+    // Answers the findAndModify of an update with the stored expense, one round trip each, without a server
+    private MongoTemplate mongoTemplate() {
+        MongoDatabaseFactory databaseFactory = Stubs.of(MongoDatabaseFactory.class, Map.of(
+                "getExceptionTranslator", args -> new MongoExceptionTranslator(),
+                "getCodecRegistry", args -> MongoClientSettings.getDefaultCodecRegistry()));
+        return new MongoTemplate(databaseFactory) {
+            @Override
+            public <T> T findAndModify(Query query, UpdateDefinition update, FindAndModifyOptions options, Class<T> entityClass) {
+                bytes += size(query.getQueryObject()) + size(update.getUpdateObject());
+                return write(entityClass.cast(getConverter().read(Expense.class, document(stored))));
+            }
+        };
+    }
+
+    private Document document(Expense expense) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(expense, document);
+        return document;
+    }
+
+    private long size(Document document) {
+        return new RawBsonDocument(document, codec).getByteBuffer().remaining();
+    }
+
+    private <T> T write(T result) {
+        writes++;
+        return result;
+    }
+
+    private void count(RoundTrips roundTrips, long readsBefore, long writesBefore, long bytesBefore) {
+        roundTrips.reads += reads - readsBefore;
+        roundTrips.writes += writes - writesBefore;
+        roundTrips.bytes += bytes - bytesBefore;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.model.User;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generated test data. Each benchmark seeds its own {@link Random}, so a size produces the same data on every run
+ * and results stay comparable between runs.
+ */
+final class Fixtures {
+
+    static final String USER_ID = "benchmark-user";
+    static final String BASE_CURRENCY = "LKR";
+
+    static final Map<String, Double> RATES = Map.of(
+            "LKR", 1.0, "USD", 0.0034, "EUR", 0.0031, "GBP", 0.0027, "INR", 0.28, "JPY", 0.51);
+    static final String[] CURRENCIES = RATES.keySet().stream().sorted().toArray(String[]::new);
+
+    static final long SEED = 42;
+
+    private Fixtures() {
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername("benchmark");
+        user.setBaseCurrency(BASE_CURRENCY);
+        user.setTimeZone("Asia/Colombo");
+        return user;
+    }
+
+    static String category(int index) {
+        return "Category " + index;
+    }
+
+    static List<Budget> budgets(int categories, Random random) {
+        List<Budget> budgets = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            Budget budget = new Budget();
+            budget.setId("budget-" + i);
+            budget.setUserId(USER_ID);
+            budget.setCategory(category(i));
+            budget.setLimit(10_000 + random.nextInt(90_000));
+            budget.setCurrencyCode(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            budgets.add(budget);
+        }
+        return budgets;
+    }
+
+    /**
+     * Expenses spread over the categories and currencies, dated within the given period. Categories differ in
+     * case and surrounding spaces the way user input does.
+     */
+    static List<Expense> expenses(int count, int categories, Date start, Date end, Random random) {
+        long span = end.getTime() - start.getTime();
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String category = category(random.nextInt(categories));
+            Expense expense = new Expense();
+            expense.setId("expense-" + i);
+            expense.setUserId(USER_ID);
+            expense.setCategory(i % 3 == 0 ? " " + category.toUpperCase() : category);
+            expense.setAmount(1 + random.nextInt(5_000));
+            expense.setCurrencyCode(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            expense.setDate(new Date(start.getTime() + (long) (random.nextDouble() * span)));
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    static Date daysAgo(Date date, int days) {
+        return new Date(date.getTime() - Duration.ofDays(days).toMillis());
+    }
+}
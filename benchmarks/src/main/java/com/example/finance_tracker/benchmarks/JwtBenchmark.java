@@ -0,0 +1,75 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.User;
+import com.example.finance_tracker.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing and reading the tokens every authenticated request carries. Validation parses the token once per claim
+ * it reads, which these benchmarks make visible.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"1", "10"})
+    private int roles;
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        byte[] key = new byte[32];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) i;
+        }
+        ReflectionTestUtils.setField(jwtUtil, "secret", Base64.getEncoder().encodeToString(key));
+        ReflectionTestUtils.setField(jwtUtil, "expirationTime", 3_600_000L);
+
+        user = Fixtures.user();
+        List<String> userRoles = new ArrayList<>(roles);
+        for (int i = 0; i < roles; i++) {
+            userRoles.add(i == 0 ? "USER" : "ROLE_" + i);
+        }
+        user.setRoles(userRoles);
+        token = jwtUtil.generateToken(user, user.getId());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user, user.getId());
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, user);
+    }
+}
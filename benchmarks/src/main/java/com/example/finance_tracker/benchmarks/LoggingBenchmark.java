@@ -0,0 +1,202 @@
+package com.example.finance_tracker.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import com.example.finance_tracker.logging.RedactingMessageConverter;
+import com.example.finance_tracker.logging.SamplingTurboFilter;
+import com.example.finance_tracker.model.Expense;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The logging done by one request that adds an expense and lists the user's expenses, as the services logged it
+ * before and as they log it now, each through its logback setup: before, a synchronous console appender at info
+ * with entity dumps and the exchange-rate URL; after, ids only at info, redaction, the sampled request line and
+ * the asynchronous appender of {@code logback-spring.xml}.
+ * <p>
+ * The console is replaced by a stream that discards its bytes, so the figures are the cost of building, formatting
+ * and encoding the events, not of the terminal. The asynchronous appender blocks here when its queue is full
+ * instead of dropping events, so the after figure includes keeping up with the events rather than discarding them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    @State(Scope.Benchmark)
+    public static class Request {
+
+        Expense expense;
+        List<Expense> expenses;
+        String url = "https://v6.exchangerate-api.com/v6/0123456789abcdef01234567/latest/LKR";
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(Fixtures.SEED);
+            Date now = new Date();
+            expenses = Fixtures.expenses(20, 5, Fixtures.daysAgo(now, 90), now, random);
+            expense = expenses.get(0);
+            expense.setId("expense-1");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Before {
+
+        LoggerContext context;
+        Logger expenses;
+        Logger jwt;
+        Logger exchangeRates;
+
+        @Setup
+        public void setUp() {
+            context = new LoggerContext();
+            Appender<ILoggingEvent> console = console(context, false);
+            Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+            root.setLevel(Level.INFO);
+            root.addAppender(console);
+            expenses = context.getLogger("com.example.finance_tracker.service.ExpenseServiceImpl");
+            jwt = context.getLogger("com.example.finance_tracker.util.JwtUtil");
+            exchangeRates = context.getLogger("com.example.finance_tracker.service.api.ExchangeRateApiClientImpl");
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.stop();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class After {
+
+        LoggerContext context;
+        Logger expenses;
+        Logger jwt;
+        Logger exchangeRates;
+        Logger requests;
+
+        @Setup
+        public void setUp() {
+            context = new LoggerContext();
+            SamplingTurboFilter sampling = new SamplingTurboFilter();
+            sampling.setContext(context);
+            sampling.setRates("com.example.finance_tracker.filter.RequestResourcesFilter=0.1");
+            sampling.start();
+            context.addTurboFilter(sampling);
+
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(0);
+            async.setIncludeCallerData(false);
+            async.addAppender(console(context, true));
+            async.start();
+
+            Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+            root.setLevel(Level.INFO);
+            root.addAppender(async);
+            expenses = context.getLogger("com.example.finance_tracker.service.ExpenseServiceImpl");
+            jwt = context.getLogger("com.example.finance_tracker.util.JwtUtil");
+            exchangeRates = context.getLogger("com.example.finance_tracker.service.api.ExchangeRateApiClientImpl");
+            requests = context.getLogger("com.example.finance_tracker.filter.RequestResourcesFilter");
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.stop();
+        }
+    }
+
+    @Benchmark
+    public void before(Request request, Before log) {
+        log.jwt.info("Validating token for user: {}", "benchmark");
+        log.jwt.info("Token validation successful for user: {}", "benchmark");
+        log.expenses.info("Attempting to add expense: {}", request.expense);
+        log.expenses.info("Expense added successfully: {}", request.expense);
+
+        log.jwt.info("Validating token for user: {}", "benchmark");
+        log.jwt.info("Token validation successful for user: {}", "benchmark");
+        log.expenses.info("Fetching expenses for user with ID: {} in preferred currency: {}", Fixtures.USER_ID, "USD");
+        log.expenses.info("Found {} expenses for user with ID: {}", request.expenses.size(), Fixtures.USER_ID);
+        log.exchangeRates.info("Fetching exchange rates from URL: {}", request.url);
+        log.exchangeRates.info("Exchange rate API result: {}", "success");
+        log.exchangeRates.info("Exchange rates retrieved successfully");
+        for (Expense expense : request.expenses) {
+            log.expenses.info("Converting expense to preferred currency: {}", "USD");
+            log.expenses.info("Expense converted successfully: {}", expense);
+        }
+        log.expenses.info("Converted {} expenses to preferred currency: {}", request.expenses.size(), "USD");
+    }
+
+    @Benchmark
+    public void after(Request request, After log) {
+        log.jwt.debug("Validating token: username={}", "benchmark");
+        log.jwt.debug("Token valid: username={}", "benchmark");
+        log.expenses.debug("Adding expense: {}", request.expense);
+        log.expenses.info("Expense added: id={} userId={}", request.expense.getId(), request.expense.getUserId());
+        log.requests.info("method={} uri={} status={} {}", "POST", "/api/expenses", 201,
+                "mongo=2, docsRead=1, docsWritten=1");
+
+        log.jwt.debug("Validating token: username={}", "benchmark");
+        log.jwt.debug("Token valid: username={}", "benchmark");
+        log.expenses.debug("Fetching expenses: userId={} currency={}", Fixtures.USER_ID, "USD");
+        log.expenses.debug("Found expenses: userId={} count={}", Fixtures.USER_ID, request.expenses.size());
+        log.exchangeRates.debug("Fetching exchange rates: base={}", "LKR");
+        log.exchangeRates.debug("Exchange rates retrieved: base={}", "LKR");
+        for (Expense expense : request.expenses) {
+            log.expenses.debug("Expense converted: {}", expense);
+        }
+        log.expenses.debug("Converted expenses: count={} currency={}", request.expenses.size(), "USD");
+        log.requests.info("method={} uri={} status={} {}", "GET", "/api/expenses", 200,
+                "mongo=2, docsRead=20, docsWritten=0");
+    }
+
+    private static Appender<ILoggingEvent> console(LoggerContext context, boolean redacting) {
+        PatternLayout layout = new PatternLayout();
+        layout.setContext(context);
+        if (redacting) {
+            layout.getInstanceConverterMap().put("m", RedactingMessageConverter::new);
+        }
+        layout.setPattern(PATTERN);
+        layout.start();
+
+        LayoutWrappingEncoder<ILoggingEvent> encoder = new LayoutWrappingEncoder<>();
+        encoder.setContext(context);
+        encoder.setLayout(layout);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName("console");
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+}
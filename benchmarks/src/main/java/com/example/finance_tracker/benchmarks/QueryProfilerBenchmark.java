@@ -0,0 +1,73 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.metrics.QueryProfiler;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost the query profiler adds to each MongoDB command, against a listener that does nothing. Switched off, it
+ * should be within noise of the baseline; switched on, the cost is mostly computing the query shape.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryProfilerBenchmark {
+
+    private static final CommandListener NO_OP = new CommandListener() {
+    };
+
+    @Param({"false", "true"})
+    private boolean enabled;
+
+    private QueryProfiler profiler;
+    private CommandStartedEvent started;
+    private CommandSucceededEvent succeeded;
+
+    @Setup
+    public void setUp() {
+        profiler = new QueryProfiler(new SimpleMeterRegistry(), enabled, 100, 0.01, 1000, 300_000, 50);
+
+        ConnectionDescription connection = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+        BsonDocument command = BsonDocument.parse("{find: 'transactions', filter: {userId: 'user123', "
+                + "date: {$gte: {$date: 0}, $lt: {$date: 86400000}}}, sort: {date: -1}, limit: 5, $db: 'finance'}");
+        BsonDocument response = BsonDocument.parse("{cursor: {firstBatch: [{}, {}, {}, {}, {}], id: 0}, ok: 1}");
+        started = new CommandStartedEvent(null, 1, 1, connection, "finance", "find", command);
+        succeeded = new CommandSucceededEvent(null, 1, 1, connection, "finance", "find", response,
+                TimeUnit.MILLISECONDS.toNanos(2));
+    }
+
+    @Benchmark
+    public void baseline() {
+        NO_OP.commandStarted(started);
+        NO_OP.commandSucceeded(succeeded);
+    }
+
+    @Benchmark
+    public void profiled() {
+        profiler.commandStarted(started);
+        profiler.commandSucceeded(succeeded);
+    }
+}
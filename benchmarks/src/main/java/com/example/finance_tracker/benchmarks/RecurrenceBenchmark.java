@@ -0,0 +1,59 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.service.RecurrenceServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RecurrenceServiceImpl#calculateNextRecurrenceDate} stepping through a schedule, as catching up on missed
+ * occurrences does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceBenchmark {
+
+    @Param({"daily", "monthly", "FREQ=DAILY;INTERVAL=3", "FREQ=MONTHLY;BYMONTHDAY=-1",
+            "FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1"})
+    private String pattern;
+
+    @Param({"1", "100"})
+    private int occurrences;
+
+    private RecurrenceServiceImpl recurrenceService;
+    private ZoneId zone;
+    private Date start;
+
+    @Setup
+    public void setUp() {
+        // The zone is passed in, so none of the service's collaborators are used
+        recurrenceService = new RecurrenceServiceImpl(null, null, null, null, null, null, null);
+        zone = ZoneId.of("Asia/Colombo");
+        start = new Date(1_760_000_000_000L);
+    }
+
+    @Benchmark
+    public Date calculateNextRecurrenceDate() {
+        Date date = start;
+        for (int i = 0; i < occurrences; i++) {
+            date = recurrenceService.calculateNextRecurrenceDate(pattern, date, zone);
+        }
+        return date;
+    }
+}
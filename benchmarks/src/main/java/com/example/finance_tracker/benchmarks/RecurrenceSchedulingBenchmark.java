@@ -0,0 +1,153 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.service.RecurrenceWheel;
+import com.example.finance_tracker.util.DateUtil;
+import com.example.finance_tracker.util.HierarchicalTimingWheel;
+import com.example.finance_tracker.util.RecurrenceRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A day of recurrence scheduling over many templates. {@code legacyDailyScan} is the check the daily job used to run
+ * on every template, copied from before the timing wheel; the others are what {@link RecurrenceWheel} does: place
+ * each template at its next run, and tick through the day handing out the due ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceSchedulingBenchmark {
+
+    private static final String[] PATTERNS = {"daily", "weekly", "monthly", "biweekly", "FREQ=MONTHLY;BYMONTHDAY=-1"};
+    private static final long TICK_MS = 60_000;
+
+    @Param({"100000", "1000000"})
+    private int templates;
+
+    private Transaction[] values;
+    private long[] dueAts;
+    private long now;
+    private ZoneId zone;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        now = 1_760_000_000_000L;
+        zone = ZoneId.of("Asia/Colombo");
+        values = new Transaction[templates];
+        dueAts = new long[templates];
+        for (int i = 0; i < templates; i++) {
+            // Last run within the past month, next run within the coming day
+            Date date = new Date(now - (long) random.nextInt(30) * DateUtil.MILLIS_PER_DAY - random.nextInt((int) DateUtil.MILLIS_PER_DAY));
+            Date nextRunAt = new Date(now + random.nextInt((int) DateUtil.MILLIS_PER_DAY));
+            values[i] = Transaction.builder()
+                    .id("template-" + i)
+                    .userId(Fixtures.USER_ID)
+                    .date(date)
+                    .IsRecurring(true)
+                    .recurrencePattern(PATTERNS[random.nextInt(PATTERNS.length)])
+                    .nextRunAt(nextRunAt)
+                    .build();
+            dueAts[i] = nextRunAt.getTime();
+        }
+    }
+
+    @Benchmark
+    public int legacyDailyScan() {
+        int due = 0;
+        for (Transaction transaction : values) {
+            if (legacyShouldProcessTransaction(transaction)) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+    // Filling the wheel, as a rebuild or refill does with templates that carry their nextRunAt
+    @Benchmark
+    public int schedule() {
+        HierarchicalTimingWheel<Transaction> wheel = new HierarchicalTimingWheel<>(TICK_MS, 60, now);
+        for (int i = 0; i < values.length; i++) {
+            wheel.add(values[i], dueAts[i]);
+        }
+        return wheel.size();
+    }
+
+    // Filling the wheel, then one tick per minute for a day
+    @Benchmark
+    public int scheduleAndFireDay() {
+        HierarchicalTimingWheel<Transaction> wheel = new HierarchicalTimingWheel<>(TICK_MS, 60, now);
+        for (int i = 0; i < values.length; i++) {
+            wheel.add(values[i], dueAts[i]);
+        }
+        int[] fired = new int[1];
+        for (long tick = now + TICK_MS; tick <= now + DateUtil.MILLIS_PER_DAY + TICK_MS; tick += TICK_MS) {
+            wheel.advance(tick, template -> fired[0]++);
+        }
+        return fired[0];
+    }
+
+    // Templates without a stored nextRunAt have it computed from their pattern before they are placed
+    @Benchmark
+    public long computeDueTimes() {
+        long sum = 0;
+        for (Transaction template : values) {
+            sum += RecurrenceRule.parse(template.getRecurrencePattern()).next(template.getDate(), zone).getTime();
+        }
+        return sum;
+    }
+
+    private static boolean legacyShouldProcessTransaction(Transaction transaction) {
+        Date today = new Date();
+        Date lastProcessedDate = transaction.getDate();
+
+        switch (transaction.getRecurrencePattern()) {
+            case "daily":
+                return true; // Process every day
+            case "weekly":
+                return legacyIsSameDayOfWeek(today, lastProcessedDate);
+            case "monthly":
+                return legacyIsSameDayOfMonth(today, lastProcessedDate);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean legacyIsSameDayOfWeek(Date date1, Date date2) {
+        Calendar cal1 = Calendar.getInstance();
+        cal1.setTime(date1);
+
+        Calendar cal2 = Calendar.getInstance();
+        cal2.setTime(date2);
+
+        return cal1.get(Calendar.DAY_OF_WEEK) == cal2.get(Calendar.DAY_OF_WEEK);
+    }
+
+    private static boolean legacyIsSameDayOfMonth(Date date1, Date date2) {
+        Calendar cal1 = Calendar.getInstance();
+        cal1.setTime(date1);
+
+        Calendar cal2 = Calendar.getInstance();
+        cal2.setTime(date2);
+
+        return cal1.get(Calendar.DAY_OF_MONTH) == cal2.get(Calendar.DAY_OF_MONTH);
+    }
+}
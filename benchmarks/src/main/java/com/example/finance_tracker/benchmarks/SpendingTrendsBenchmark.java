@@ -0,0 +1,66 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.service.ReportServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReportServiceImpl#calculateSpendingTrends} over a year of expenses, the part of a report computed after
+ * the budgets and expenses are loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpendingTrendsBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int expenses;
+
+    @Param({"10", "100"})
+    private int categories;
+
+    private ReportServiceImpl reportService;
+    private List<Budget> budgetList;
+    private List<Expense> expenseList;
+    private Date startDate;
+    private Date endDate;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = Stubs.userRepository(Map.of(Fixtures.USER_ID, Fixtures.user()));
+        reportService = new ReportServiceImpl(null, null, Stubs.currencyConverter(Fixtures.RATES), null, null, null,
+                Stubs.currencyUtil(userRepository), Stubs.timeZoneUtil(userRepository));
+
+        Random random = new Random(Fixtures.SEED);
+        endDate = new Date(1_760_000_000_000L);
+        startDate = Fixtures.daysAgo(endDate, 365);
+        budgetList = Fixtures.budgets(categories, random);
+        expenseList = Fixtures.expenses(expenses, categories, startDate, endDate, random);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Object>> calculateSpendingTrends() {
+        return reportService.calculateSpendingTrends(Fixtures.USER_ID, budgetList, expenseList, startDate, endDate);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.User;
+import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.service.CurrencyConverterImpl;
+import com.example.finance_tracker.service.api.ExchangeRateApiClientImpl;
+import com.example.finance_tracker.util.CurrencyUtil;
+import com.example.finance_tracker.util.TimeZoneUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the repositories and the exchange-rate API, so the services run without MongoDB or the
+ * network. Repositories are proxies that answer the methods a benchmark names and fail on any other, so a
+ * benchmark cannot silently measure a call it did not stub.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * A repository (or other interface) whose methods are answered by name. {@code Object} methods are handled
+     * by the proxy itself.
+     */
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return self == args[0];
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "toString":
+                    return "Stub of " + type.getSimpleName();
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                    }
+                    return answer.apply(args);
+            }
+        });
+        return type.cast(proxy);
+    }
+
+    static UserRepository userRepository(Map<String, User> users) {
+        return of(UserRepository.class, Map.of("findById", args -> Optional.ofNullable(users.get((String) args[0]))));
+    }
+
+    /**
+     * The real converter, reading rates from the given table instead of the exchange-rate API.
+     */
+    static CurrencyConverterImpl currencyConverter(Map<String, Double> rates) {
+        ExchangeRateApiClientImpl client = new ExchangeRateApiClientImpl(null, null, new SimpleMeterRegistry()) {
+            @Override
+            public Map<String, Double> getLatestExchangeRates(String baseCurrency) {
+                return rates;
+            }
+        };
+        CurrencyConverterImpl converter = new CurrencyConverterImpl();
+        ReflectionTestUtils.setField(converter, "exchangeRateApiClientImpl", client);
+        return converter;
+    }
+
+    static CurrencyUtil currencyUtil(UserRepository userRepository) {
+        CurrencyUtil currencyUtil = new CurrencyUtil();
+        ReflectionTestUtils.setField(currencyUtil, "userRepository", userRepository);
+        ReflectionTestUtils.setField(currencyUtil, "defaultBaseCurrency", "LKR");
+        return currencyUtil;
+    }
+
+    static TimeZoneUtil timeZoneUtil(UserRepository userRepository) {
+        TimeZoneUtil timeZoneUtil = new TimeZoneUtil();
+        ReflectionTestUtils.setField(timeZoneUtil, "userRepository", userRepository);
+        ReflectionTestUtils.setField(timeZoneUtil, "defaultTimeZone", "UTC");
+        return timeZoneUtil;
+    }
+}
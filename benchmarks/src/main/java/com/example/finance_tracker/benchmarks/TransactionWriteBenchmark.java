@@ -0,0 +1,217 @@
+package com.example.finance_tracker.benchmarks;
+
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.model.Income;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.ExpenseRepository;
+import com.example.finance_tracker.repository.IncomeRepository;
+import com.example.finance_tracker.repository.TransactionRepository;
+import com.example.finance_tracker.service.ExpenseService;
+import com.example.finance_tracker.service.IncomeService;
+import com.example.finance_tracker.service.MongoTransactions;
+import com.example.finance_tracker.service.TransactionServiceImpl;
+import com.example.finance_tracker.util.CurrencyUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding and updating a transaction through {@link TransactionServiceImpl}, which keeps the linked income or expense
+ * record in step, against the code before the change ({@code legacy*}), which copied the record on add and left it
+ * behind on update. The repositories are in-memory, so the scores are the service's own cost; the {@code reads} and
+ * {@code writes} counters give the database round trips per operation, which dominate against a real server.
+ * Transactions are disabled here; with them each operation adds a commit. The load test measures the writes
+ * against MongoDB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionWriteBenchmark {
+
+    // Transactions are added with ids from a fixed range, so the in-memory store does not grow during a run
+    private static final int STORED = 10_000;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long reads;
+        public long writes;
+    }
+
+    private final Map<String, Transaction> transactions = new HashMap<>();
+    private final Map<String, Income> incomes = new HashMap<>(); // By transaction id
+    private final Map<String, Expense> expenses = new HashMap<>();
+    private long reads;
+    private long writes;
+
+    private TransactionServiceImpl transactionService;
+    private TransactionRepository transactionRepository;
+    private IncomeService incomeService;
+    private ExpenseService expenseService;
+    private CurrencyUtil currencyUtil;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        transactionRepository = Stubs.of(TransactionRepository.class, Map.of(
+                "findById", args -> read(Optional.ofNullable(transactions.get((String) args[0]))),
+                "save", args -> {
+                    Transaction transaction = (Transaction) args[0];
+                    transactions.put(transaction.getId(), transaction);
+                    return write(transaction);
+                }));
+        IncomeRepository incomeRepository = Stubs.of(IncomeRepository.class, Map.of(
+                "findByTransactionId", args -> read(Optional.ofNullable(incomes.get((String) args[0]))),
+                "save", args -> {
+                    Income income = (Income) args[0];
+                    if (income.getId() == null) {
+                        income.setId("income-" + income.getTransactionId());
+                    }
+                    return write(store(incomes, income, income.getTransactionId()));
+                },
+                "deleteByTransactionId", args -> write(incomes.remove((String) args[0]) != null ? 1L : 0L)));
+        ExpenseRepository expenseRepository = Stubs.of(ExpenseRepository.class, Map.of(
+                "findByTransactionId", args -> read(Optional.ofNullable(expenses.get((String) args[0]))),
+                "save", args -> {
+                    Expense expense = (Expense) args[0];
+                    if (expense.getId() == null) {
+                        expense.setId("expense-" + expense.getTransactionId());
+                    }
+                    return write(store(expenses, expense, expense.getTransactionId()));
+                },
+                "deleteByTransactionId", args -> write(expenses.remove((String) args[0]) != null ? 1L : 0L)));
+        incomeService = Stubs.of(IncomeService.class, Map.of("addIncome", args -> incomeRepository.save((Income) args[0])));
+        expenseService = Stubs.of(ExpenseService.class,
+                Map.of("addExpense", args -> expenseRepository.save((Expense) args[0])));
+        currencyUtil = Stubs.currencyUtil(Stubs.userRepository(Map.of(Fixtures.USER_ID, Fixtures.user())));
+
+        transactionService = new TransactionServiceImpl(transactionRepository, null, null, incomeService, expenseService,
+                incomeRepository, expenseRepository, currencyUtil, event -> { }, null,
+                new MongoTransactions((MongoTransactionManager) null));
+    }
+
+    @Setup(Level.Iteration)
+    public void seed() {
+        transactions.clear();
+        incomes.clear();
+        expenses.clear();
+        for (int i = 0; i < STORED; i++) {
+            transactionService.addTransaction(transaction("tx-" + i, i));
+        }
+    }
+
+    @Benchmark
+    public Transaction legacyAdd(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        Transaction transaction = transaction(nextId(), next);
+        transaction.setCurrencyCode(currencyUtil.getBaseCurrencyForUser(transaction.getUserId()));
+        Transaction savedTransaction = transactionRepository.save(transaction);
+
+        // The copy had no link back to its transaction
+        if ("Income".equalsIgnoreCase(savedTransaction.getType())) {
+            Income income = new Income();
+            income.setUserId(savedTransaction.getUserId());
+            income.setAmount(savedTransaction.getAmount());
+            income.setCurrencyCode(savedTransaction.getCurrencyCode());
+            income.setSource(savedTransaction.getSource());
+            income.setDate(savedTransaction.getDate());
+            incomeService.addIncome(income);
+        } else {
+            Expense expense = new Expense();
+            expense.setUserId(savedTransaction.getUserId());
+            expense.setAmount(savedTransaction.getAmount());
+            expense.setCategory(savedTransaction.getCategory());
+            expense.setDate(savedTransaction.getDate());
+            expense.setCurrencyCode(savedTransaction.getCurrencyCode());
+            expenseService.addExpense(expense);
+        }
+        count(roundTrips, r, w);
+        return savedTransaction;
+    }
+
+    @Benchmark
+    public Transaction add(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        Transaction saved = transactionService.addTransaction(transaction(nextId(), next));
+        count(roundTrips, r, w);
+        return saved;
+    }
+
+    @Benchmark
+    public Transaction legacyUpdate(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        Transaction saved = transactionRepository.save(transaction(nextId(), next + 2));
+        count(roundTrips, r, w);
+        return saved;
+    }
+
+    @Benchmark
+    public Transaction update(RoundTrips roundTrips) {
+        long r = reads;
+        long w = writes;
+        Transaction saved = transactionService.updateTransaction(transaction(nextId(), next + 2));
+        count(roundTrips, r, w);
+        return saved;
+    }
+
+    private String nextId() {
+        next = (next + 1) % STORED;
+        return "tx-" + next;
+    }
+
+    // Even amounts are income and odd ones expenses, so an update by an even amount keeps the type
+    private static Transaction transaction(String id, int amount) {
+        return Transaction.builder()
+                .id(id)
+                .userId(Fixtures.USER_ID)
+                .type(amount % 2 == 0 ? "Income" : "Expense")
+                .amount(amount)
+                .category(Fixtures.category(amount % 10))
+                .source("Salary")
+                .build();
+    }
+
+    // Unlinked copies are counted but not kept, as nothing reads them back
+    private static <T> T store(Map<String, T> records, T record, String transactionId) {
+        if (transactionId != null) {
+            records.put(transactionId, record);
+        }
+        return record;
+    }
+
+    private <T> T read(T result) {
+        reads++;
+        return result;
+    }
+
+    private <T> T write(T result) {
+        writes++;
+        return result;
+    }
+
+    private void count(RoundTrips roundTrips, long readsBefore, long writesBefore) {
+        roundTrips.reads += reads - readsBefore;
+        roundTrips.writes += writes - writesBefore;
+    }
+}
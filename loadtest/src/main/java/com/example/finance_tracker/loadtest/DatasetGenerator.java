@@ -0,0 +1,185 @@
+package com.example.finance_tracker.loadtest;
+
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.CurrencyTotals;
+import com.example.finance_tracker.model.DashboardSnapshot;
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.model.Goal;
+import com.example.finance_tracker.model.Income;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.model.User;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills a database with generated users and their history, for testing at production scale. Users are generated in
+ * parallel and written with unordered bulk inserts; indexes are left to the application, which creates them when it
+ * starts. The admin totals and dashboard snapshots, which the application derives from the data, are cleared so they
+ * are rebuilt from it.
+ * <p>
+ * Run with {@code java -jar loadtest/target/loadtest.jar generate --mongo-uri=mongodb://localhost/finance_tracker},
+ * or before a load test with its {@code --dataset-users} option. All users have the password {@value UserDataGenerator#PASSWORD}.
+ */
+final class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final List<Class<?>> GENERATED = List.of(User.class, Budget.class, Goal.class, Transaction.class,
+            Expense.class, Income.class);
+    private static final List<Class<?>> DERIVED = List.of(CurrencyTotals.class, DashboardSnapshot.class);
+    /** Users generated by one task; small enough to balance the threads when activity is skewed. */
+    private static final int USERS_PER_TASK = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final DatasetOptions options;
+    private final Map<Class<?>, LongAdder> written = new LinkedHashMap<>();
+
+    DatasetGenerator(MongoTemplate mongoTemplate, DatasetOptions options) {
+        this.mongoTemplate = mongoTemplate;
+        this.options = options;
+        GENERATED.forEach(type -> written.put(type, new LongAdder()));
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        DatasetOptions options = DatasetOptions.parse(args);
+        generate(options, options.mongoUri);
+    }
+
+    /**
+     * Generates the dataset into the database of the connection string, which must name one.
+     */
+    static Map<String, Long> generate(DatasetOptions options, String mongoUri) throws InterruptedException, ExecutionException {
+        String database = new ConnectionString(mongoUri).getDatabase();
+        if (database == null) {
+            throw new IllegalArgumentException("The MongoDB URI must name a database: " + mongoUri);
+        }
+        try (MongoClient client = MongoClients.create(mongoUri)) {
+            return new DatasetGenerator(new MongoTemplate(client, database), options).generate();
+        }
+    }
+
+    /**
+     * Generates and writes the dataset.
+     *
+     * @return the number of documents written per collection
+     */
+    Map<String, Long> generate() throws InterruptedException, ExecutionException {
+        if (options.drop) {
+            GENERATED.forEach(mongoTemplate::dropCollection);
+        }
+        UserDataGenerator generator = new UserDataGenerator(options, passwordHash());
+        logger.info("Generating {} users with {} years of history up to {} (seed {})", options.users, options.years,
+                options.asOf, options.seed);
+
+        long start = System.nanoTime();
+        AtomicInteger usersDone = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int first = 0; first < options.users; first += USERS_PER_TASK) {
+                int from = first;
+                int to = Math.min(options.users, first + USERS_PER_TASK);
+                tasks.add(executor.submit(() -> {
+                    Batches batches = new Batches();
+                    for (int index = from; index < to; index++) {
+                        generator.generate(index, batches::add);
+                        usersDone.incrementAndGet();
+                    }
+                    batches.flushAll();
+                }));
+            }
+            long nextReport = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            for (Future<?> task : tasks) {
+                while (true) {
+                    try {
+                        task.get(1, TimeUnit.SECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        if (System.nanoTime() > nextReport) {
+                            logger.info("{} of {} users, {} documents", usersDone.get(), options.users, total());
+                            nextReport += TimeUnit.SECONDS.toNanos(10);
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        DERIVED.forEach(mongoTemplate::dropCollection);
+
+        double minutes = (System.nanoTime() - start) / 6e10;
+        Map<String, Long> counts = new LinkedHashMap<>();
+        written.forEach((type, count) -> counts.put(mongoTemplate.getCollectionName(type), count.sum()));
+        logger.info("Wrote {} documents in {} s ({} per minute): {}", total(), Math.round(minutes * 60),
+                Math.round(total() / minutes), counts);
+        return counts;
+    }
+
+    private long total() {
+        return written.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * The users' password hash, with a salt drawn from the seed so the dataset is the same on every run.
+     */
+    private String passwordHash() {
+        try {
+            SecureRandom random = SecureRandom.getInstance("SHA1PRNG");
+            random.setSeed(options.seed);
+            return BCrypt.hashpw(UserDataGenerator.PASSWORD, BCrypt.gensalt(10, random));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Documents of one task waiting to be written, per collection.
+     */
+    private final class Batches {
+
+        private final Map<Class<?>, List<Object>> pending = new LinkedHashMap<>();
+
+        void add(Object document) {
+            List<Object> batch = pending.computeIfAbsent(document.getClass(), type -> new ArrayList<>(options.batchSize));
+            batch.add(document);
+            if (batch.size() >= options.batchSize) {
+                flush(document.getClass(), batch);
+            }
+        }
+
+        void flushAll() {
+            pending.forEach(this::flush);
+        }
+
+        private void flush(Class<?> type, List<Object> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(batch).execute();
+            written.get(type).add(batch.size());
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.finance_tracker.loadtest;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Shape of a generated dataset, given as {@code --name=value}. The same options and seed always produce the same
+ * documents; {@code as-of} fixes the date the history ends at, which otherwise is today.
+ */
+final class DatasetOptions {
+
+    int users = 10_000;
+    /** Years of history; users joined at a uniformly random point within them. */
+    int years = 3;
+    /** Mean one-off transactions per user per month, before the cap. */
+    double transactionsPerMonth = 20;
+    /** No user makes more one-off transactions per month than this, however heavy. */
+    int maxTransactionsPerMonth = 3_000;
+    /** Exponent of the Zipf distribution of activity: the user of rank r is 1/r^s as active as the most active one. */
+    double zipfExponent = 1.0;
+    long seed = 42;
+    LocalDate asOf = LocalDate.now(ZoneOffset.UTC);
+    int batchSize = 5_000;
+    int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /** Drop the collections written to before generating. */
+    boolean drop = false;
+    String mongoUri;
+
+    static DatasetOptions parse(String[] args) {
+        DatasetOptions options = new DatasetOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.set(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        if (options.mongoUri == null) {
+            throw new IllegalArgumentException("--mongo-uri is required");
+        }
+        return options.validate();
+    }
+
+    /**
+     * Sets an option by its command-line name.
+     *
+     * @throws IllegalArgumentException if there is no such option
+     */
+    void set(String name, String value) {
+        switch (name) {
+            case "users" -> users = Integer.parseInt(value);
+            case "years" -> years = Integer.parseInt(value);
+            case "transactions-per-month" -> transactionsPerMonth = Double.parseDouble(value);
+            case "max-transactions-per-month" -> maxTransactionsPerMonth = Integer.parseInt(value);
+            case "zipf-exponent" -> zipfExponent = Double.parseDouble(value);
+            case "seed" -> seed = Long.parseLong(value);
+            case "as-of" -> asOf = LocalDate.parse(value);
+            case "batch-size" -> batchSize = Integer.parseInt(value);
+            case "threads" -> threads = Integer.parseInt(value);
+            case "drop" -> drop = Boolean.parseBoolean(value);
+            case "mongo-uri" -> mongoUri = value;
+            default -> throw new IllegalArgumentException("Unknown option: --" + name);
+        }
+    }
+
+    DatasetOptions validate() {
+        if (users < 1 || years < 1 || batchSize < 1 || threads < 1 || maxTransactionsPerMonth < 0) {
+            throw new IllegalArgumentException("Users, years, batch size and threads must be positive");
+        }
+        if (transactionsPerMonth < 0 || zipfExponent < 0) {
+            throw new IllegalArgumentException("Transactions per month and the Zipf exponent cannot be negative");
+        }
+        return this;
+    }
+
+    /** The end of the generated history: the start of the day after {@code as-of}, in UTC. */
+    Date end() {
+        return Date.from(asOf.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
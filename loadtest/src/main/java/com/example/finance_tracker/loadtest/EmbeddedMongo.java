@@ -0,0 +1,45 @@
+package com.example.finance_tracker.loadtest;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+import java.util.Locale;
+
+/**
+ * A {@code mongod} started for the run. The distribution is downloaded on first use and cached under
+ * {@code ~/.embedmongo}; later runs start from the cache without network access.
+ */
+final class EmbeddedMongo implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> process;
+
+    private EmbeddedMongo(TransitionWalker.ReachedState<RunningMongodProcess> process) {
+        this.process = process;
+    }
+
+    /**
+     * @param version a major version such as {@code 7.0}
+     */
+    static EmbeddedMongo start(String version) {
+        Version.Main main;
+        try {
+            main = Version.Main.valueOf("V" + version.replace('.', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported MongoDB version: " + version, e);
+        }
+        return new EmbeddedMongo(Mongod.instance().start(main));
+    }
+
+    String uri(String database) {
+        ServerAddress address = process.current().getServerAddress();
+        return "mongodb://" + address.getHost() + ":" + address.getPort() + "/" + database;
+    }
+
+    @Override
+    public void close() {
+        process.close();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.finance_tracker.loadtest;
+
+import com.example.finance_tracker.FinanceTrackerApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Boots the application in this process against an embedded MongoDB and a stub of the exchange-rate API, registers
+ * users with some history, and drives a mix of calls at a fixed arrival rate over HTTP. Everything runs on the
+ * loopback interface, so the figures are for one instance on this machine, with the load generator sharing its CPUs.
+ * <p>
+ * Example: {@code java -jar loadtest/target/loadtest.jar --rate=200 --duration=120 --mix=login=5,list=50,dashboard=45}
+ * <p>
+ * With {@code generate} as the first argument, fills a database with {@link DatasetGenerator} instead.
+ */
+public final class LoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final String DATABASE = "finance_tracker_loadtest";
+    private static final String PASSWORD = "load-test-password";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("generate")) {
+            DatasetGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        EmbeddedMongo mongo = null;
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(options.clientThreads);
+        try (StubExchangeRateServer exchangeRates = new StubExchangeRateServer(SeedData.RATES)) {
+            String mongoUri = options.mongoUri;
+            if (mongoUri == null) {
+                logger.info("Starting embedded MongoDB {}", options.mongoVersion);
+                mongo = EmbeddedMongo.start(options.mongoVersion);
+                mongoUri = mongo.uri(DATABASE);
+            }
+            if (options.dataset != null) {
+                DatasetGenerator.generate(options.dataset, mongoUri);
+            }
+
+            try (ConfigurableApplicationContext context = startApplication(options, mongoUri, mongo == null, exchangeRates.url())) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                URI baseUri = URI.create("http://127.0.0.1:" + port);
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(clientExecutor)
+                        .connectTimeout(Operation.REQUEST_TIMEOUT)
+                        .build();
+
+                List<VirtualUser> users = options.dataset != null
+                        ? datasetUsers(client, baseUri, options, clientExecutor)
+                        : createUsers(client, baseUri, options, clientExecutor);
+                MongoCommandCounter mongoCommands = context.getBean(MongoCommandCounter.class);
+                OpenLoopRunner.RunResult result = new OpenLoopRunner(client, baseUri, users, options).run(mongoCommands::commands);
+
+                Map<String, Object> summary = LoadTestResults.summarize(result, options);
+                LoadTestResults.print(summary, System.out);
+                LoadTestResults.write(summary, result, options.out);
+                logger.info("Results written to {}", options.out.toAbsolutePath());
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+            if (mongo != null) {
+                mongo.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options, String mongoUri,
+                                                                   boolean transactions, String exchangeRateUrl) {
+        byte[] jwtKey = new byte[32];
+        new SecureRandom().nextBytes(jwtKey);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.data.mongodb.uri", mongoUri);
+        // The embedded server is standalone, which does not support multi-document transactions
+        properties.put("mongo.transactions.enabled", transactions);
+        properties.put("exchange.rate.api.url", exchangeRateUrl);
+        properties.put("exchange.rate.api.key", "load-test");
+        properties.put("jwt.secret", Base64.getEncoder().encodeToString(jwtKey));
+        properties.put("jwt.expiration", 86_400_000);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.finance_tracker.loadtest", "INFO");
+
+        return new SpringApplicationBuilder(FinanceTrackerApplication.class, LoadTestConfiguration.class)
+                .properties(properties)
+                .run(options.applicationArgs.toArray(String[]::new));
+    }
+
+    /**
+     * Registers the users and gives each of them a budget per category and the configured number of transactions,
+     * through the API as a client would.
+     */
+    private static List<VirtualUser> createUsers(HttpClient client, URI baseUri, LoadTestOptions options,
+                                                 ExecutorService executor) throws InterruptedException, ExecutionException {
+        logger.info("Creating {} users with {} transactions each", options.users, options.seedTransactions);
+        // Unique per run, so runs against an existing database do not collide
+        String prefix = "lt" + Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+
+        List<Future<VirtualUser>> futures = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            String username = prefix + "-" + i;
+            Random random = new Random(options.seed + i);
+            futures.add(executor.submit(() -> createUser(client, baseUri, username, options.seedTransactions, random)));
+        }
+        List<VirtualUser> users = new ArrayList<>();
+        for (Future<VirtualUser> future : futures) {
+            users.add(future.get());
+        }
+        return users;
+    }
+
+    /**
+     * Logs in as generated users spread evenly over the dataset's activity ranks, so both its heavy and its light
+     * users are among them.
+     */
+    private static List<VirtualUser> datasetUsers(HttpClient client, URI baseUri, LoadTestOptions options,
+                                                  ExecutorService executor) throws InterruptedException, ExecutionException {
+        List<Future<VirtualUser>> futures = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            int index = (int) ((long) i * options.dataset.users / options.users);
+            futures.add(executor.submit(() -> {
+                VirtualUser user = new VirtualUser(UserDataGenerator.userId(index), UserDataGenerator.username(index),
+                        UserDataGenerator.PASSWORD, null);
+                String token = send(client, Operation.LOGIN.request(baseUri, user, null));
+                return new VirtualUser(user.id(), user.username(), user.password(), token);
+            }));
+        }
+        List<VirtualUser> users = new ArrayList<>();
+        for (Future<VirtualUser> future : futures) {
+            users.add(future.get());
+        }
+        return users;
+    }
+
+    private static VirtualUser createUser(HttpClient client, URI baseUri, String username, int transactions, Random random)
+            throws IOException, InterruptedException {
+        String registered = send(client, Operation.post(baseUri, "/api/user/register", null,
+                Json.write(SeedData.user(username, PASSWORD))));
+        String id = Json.read(registered).get("id").asText();
+        VirtualUser user = new VirtualUser(id, username, PASSWORD, null);
+        String token = send(client, Operation.LOGIN.request(baseUri, user, random));
+        user = new VirtualUser(id, username, PASSWORD, token);
+
+        long now = System.currentTimeMillis();
+        for (String category : SeedData.CATEGORIES) {
+            send(client, Operation.post(baseUri, "/api/budgets", user, Json.write(SeedData.budget(category, random, now))));
+        }
+        for (int i = 0; i < transactions; i++) {
+            send(client, Operation.post(baseUri, "/api/transactions", user, Json.write(SeedData.transaction(user, random, now))));
+        }
+        return user;
+    }
+
+    private static String send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " failed during setup with HTTP "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
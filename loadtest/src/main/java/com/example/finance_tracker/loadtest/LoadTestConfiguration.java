@@ -0,0 +1,22 @@
+package com.example.finance_tracker.loadtest;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Added to the application context under test, to observe it from inside the process.
+ */
+@Configuration
+class LoadTestConfiguration {
+
+    @Bean
+    MongoCommandCounter mongoCommandCounter() {
+        return new MongoCommandCounter();
+    }
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer mongoCommandCounting(MongoCommandCounter counter) {
+        return settings -> settings.addCommandListener(counter);
+    }
+}
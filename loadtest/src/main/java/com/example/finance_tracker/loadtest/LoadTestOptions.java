@@ -0,0 +1,128 @@
+package com.example.finance_tracker.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options of the load test, given as {@code --name=value}. Arguments the load test does not know are
+ * passed on to the application, so any of its properties can be set the same way.
+ */
+final class LoadTestOptions {
+
+    /** Requests started per second, independent of how fast responses come back. */
+    double rate = 100;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    /** Spacing of the requests: evenly ("constant") or exponentially distributed ("poisson"). */
+    boolean poisson = false;
+    /** Requests still waiting for a response beyond this count are not started and are reported as dropped. */
+    int maxInFlight = 2_000;
+    int clientThreads = 8;
+    int users = 50;
+    int seedTransactions = 50;
+    Map<Operation, Integer> mix = defaultMix();
+    long seed = 42;
+    /** An existing MongoDB to use instead of starting an embedded one. */
+    String mongoUri;
+    String mongoVersion = "7.0";
+    Path out = Path.of("loadtest-results.json");
+    /** A dataset to generate before the run, set by the {@code dataset-*} options; the virtual users are drawn from it. */
+    DatasetOptions dataset;
+    List<String> applicationArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "warmup" -> options.warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "arrivals" -> options.poisson = parseArrivals(value);
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "client-threads" -> options.clientThreads = Integer.parseInt(value);
+                case "users" -> options.users = Integer.parseInt(value);
+                case "seed-transactions" -> options.seedTransactions = Integer.parseInt(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "mongo-uri" -> options.mongoUri = value;
+                case "mongo-version" -> options.mongoVersion = value;
+                case "out" -> options.out = Path.of(value);
+                default -> {
+                    if (name.startsWith("dataset-")) {
+                        if (options.dataset == null) {
+                            options.dataset = new DatasetOptions();
+                        }
+                        options.dataset.set(name.substring("dataset-".length()), value);
+                    } else {
+                        options.applicationArgs.add(arg);
+                    }
+                }
+            }
+        }
+        if (options.rate <= 0 || options.users < 1 || options.maxInFlight < 1 || options.clientThreads < 1) {
+            throw new IllegalArgumentException("Rate, users, max-in-flight and client-threads must be positive");
+        }
+        if (options.dataset != null) {
+            options.dataset.validate();
+            if (options.dataset.users < options.users) {
+                throw new IllegalArgumentException("The dataset needs at least as many users as the load test");
+            }
+        }
+        return options;
+    }
+
+    private static boolean parseArrivals(String value) {
+        switch (value) {
+            case "constant":
+                return false;
+            case "poisson":
+                return true;
+            default:
+                throw new IllegalArgumentException("Arrivals must be 'constant' or 'poisson': " + value);
+        }
+    }
+
+    /**
+     * Parses weights such as {@code login=5,add-transaction=30,list=30}. Operations not named are not run.
+     */
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in the mix but got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights in the mix cannot be negative: " + entry);
+            }
+            if (weight > 0) {
+                mix.put(Operation.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operation with a positive weight");
+        }
+        return mix;
+    }
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.LOGIN, 5);
+        mix.put(Operation.ADD_TRANSACTION, 30);
+        mix.put(Operation.LIST, 30);
+        mix.put(Operation.DASHBOARD, 25);
+        mix.put(Operation.REPORT, 10);
+        return mix;
+    }
+}
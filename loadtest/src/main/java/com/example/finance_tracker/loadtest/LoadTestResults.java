@@ -0,0 +1,117 @@
+package com.example.finance_tracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes the outcome of a run: a summary table to the console, the same figures as JSON, and the full latency
+ * distribution of each operation in HdrHistogram's percentile format next to the JSON file.
+ */
+final class LoadTestResults {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    /** Latencies are recorded in microseconds and reported in milliseconds. */
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTestResults() {
+    }
+
+    static Map<String, Object> summarize(OpenLoopRunner.RunResult result, LoadTestOptions options) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long failed = 0;
+        long dropped = 0;
+        for (Map.Entry<Operation, OperationStats> entry : result.stats().entrySet()) {
+            OperationStats stats = entry.getValue();
+            failed += stats.failed();
+            dropped += stats.dropped();
+            operations.put(entry.getKey().label(), summarize(stats, result.measuredSeconds()));
+        }
+
+        long completed = result.completed();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("offeredRate", options.rate);
+        summary.put("arrivals", options.poisson ? "poisson" : "constant");
+        summary.put("measuredSeconds", round(result.measuredSeconds()));
+        summary.put("users", result.users());
+        summary.put("completed", completed);
+        summary.put("throughput", round(completed / result.measuredSeconds()));
+        summary.put("errorRate", rate(failed, completed));
+        summary.put("dropped", dropped);
+        summary.put("maxInFlight", result.maxInFlight());
+        summary.put("mongoCommands", result.mongoCommands());
+        summary.put("mongoCommandsPerRequest", completed == 0 ? 0 : round((double) result.mongoCommands() / completed));
+        summary.put("operations", operations);
+        return summary;
+    }
+
+    private static Map<String, Object> summarize(OperationStats stats, double seconds) {
+        Histogram histogram = stats.histogram();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(histogram.getMean() / MICROS_PER_MILLI));
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + format(percentile), round(histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI));
+        }
+        latency.put("max", round(histogram.getMaxValue() / MICROS_PER_MILLI));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("completed", stats.completed());
+        summary.put("throughput", round(stats.completed() / seconds));
+        summary.put("errorRate", rate(stats.failed(), stats.completed()));
+        summary.put("failures", stats.failures());
+        summary.put("dropped", stats.dropped());
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    static void print(Map<String, Object> summary, PrintStream out) {
+        out.printf("%nThroughput: %s requests/s (offered %s), error rate %s%%, dropped %s, Mongo commands per request %s%n",
+                summary.get("throughput"), summary.get("offeredRate"), percent(summary.get("errorRate")),
+                summary.get("dropped"), summary.get("mongoCommandsPerRequest"));
+        out.printf("%n%-16s %10s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Map<String, Map<String, Object>> operations = (Map<String, Map<String, Object>>) summary.get("operations");
+        operations.forEach((name, stats) -> {
+            Map<String, Object> latency = (Map<String, Object>) stats.get("latencyMs");
+            out.printf("%-16s %10s %8s %7s%% %9s %9s %9s %9s %9s%n", name, stats.get("completed"), stats.get("throughput"),
+                    percent(stats.get("errorRate")), latency.get("p50"), latency.get("p90"), latency.get("p99"),
+                    latency.get("p99.9"), latency.get("max"));
+        });
+    }
+
+    static void write(Map<String, Object> summary, OpenLoopRunner.RunResult result, Path out) throws IOException {
+        Path directory = out.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Files.writeString(out, Json.writePretty(summary));
+
+        String baseName = out.getFileName().toString().replaceFirst("\\.json$", "");
+        for (Map.Entry<Operation, OperationStats> entry : result.stats().entrySet()) {
+            Path distribution = directory.resolve(baseName + "-" + entry.getKey().label() + ".hgrm");
+            try (PrintStream stream = new PrintStream(Files.newOutputStream(distribution))) {
+                entry.getValue().histogram().outputPercentileDistribution(stream, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0 ? 0 : round((double) count / total);
+    }
+
+    private static String percent(Object rate) {
+        return format(round(((Number) rate).doubleValue() * 100));
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.finance_tracker.loadtest;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the commands the application sends to MongoDB, leaving out the driver's own handshakes and heartbeats.
+ */
+final class MongoCommandCounter implements CommandListener {
+
+    private static final Set<String> DRIVER_COMMANDS = Set.of("hello", "isMaster", "ismaster", "buildInfo", "buildinfo",
+            "saslStart", "saslContinue", "endSessions", "ping");
+
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!DRIVER_COMMANDS.contains(event.getCommandName())) {
+            commands.increment();
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        failed.increment();
+    }
+
+    long commands() {
+        return commands.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.finance_tracker.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Starts requests at a fixed arrival rate regardless of how long earlier ones take, as independent clients would.
+ * A closed loop of clients that wait for each response would slow down with the server and hide its queueing.
+ * <p>
+ * Requests are scheduled from one thread; when it falls behind it sends the overdue requests at once, and their
+ * latency still counts from when they were due.
+ */
+final class OpenLoopRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenLoopRunner.class);
+
+    private static final Duration DRAIN_TIMEOUT = Operation.REQUEST_TIMEOUT.plusSeconds(5);
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final List<VirtualUser> users;
+    private final LoadTestOptions options;
+    private final Random random;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenLoopRunner(HttpClient client, URI baseUri, List<VirtualUser> users, LoadTestOptions options) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.users = users;
+        this.options = options;
+        this.random = new Random(options.seed);
+        this.operations = options.mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Runs the warmup and then the measured period, and waits for the measured requests to complete.
+     *
+     * @param mongoCommands the number of commands sent to MongoDB so far
+     */
+    RunResult run(LongSupplier mongoCommands) throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            stats.put(operation, new OperationStats());
+        }
+
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        long mongoCommandsAtStart = -1;
+        int maxInFlight = 0;
+
+        logger.info("Warming up for {}s at {} requests/s", options.warmup.toSeconds(), options.rate);
+        double next = start;
+        while (next < end) {
+            long due = (long) next;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = due >= measureFrom;
+            if (measured && mongoCommandsAtStart < 0) {
+                mongoCommandsAtStart = mongoCommands.getAsLong();
+                logger.info("Measuring for {}s", options.duration.toSeconds());
+            }
+
+            Operation operation = pick();
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            OperationStats operationStats = stats.get(operation);
+            int current = inFlight.get();
+            if (current >= options.maxInFlight) {
+                if (measured) {
+                    operationStats.drop();
+                }
+            } else {
+                inFlight.incrementAndGet();
+                maxInFlight = Math.max(maxInFlight, current + 1);
+                client.sendAsync(operation.request(baseUri, user, random), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            long latency = System.nanoTime() - due;
+                            if (measured) {
+                                record(operationStats, latency, response, error);
+                            }
+                            inFlight.decrementAndGet();
+                        });
+            }
+            next += options.poisson ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+        }
+        long scheduledUntil = System.nanoTime();
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        if (inFlight.get() > 0) {
+            logger.warn("{} requests were still in flight at the end of the run", inFlight.get());
+        }
+        long mongoCommandsDuringRun = mongoCommands.getAsLong() - Math.max(mongoCommandsAtStart, 0);
+        double measuredSeconds = (scheduledUntil - measureFrom) / 1e9;
+        return new RunResult(stats, users.size(), measuredSeconds, mongoCommandsDuringRun, maxInFlight);
+    }
+
+    private Operation pick() {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weights exhausted");
+    }
+
+    private static void record(OperationStats stats, long latency, HttpResponse<?> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            stats.failure(latency, cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName());
+        } else if (response.statusCode() >= 400) {
+            stats.failure(latency, "HTTP " + response.statusCode());
+        } else {
+            stats.success(latency);
+        }
+    }
+
+    /**
+     * @param mongoCommands commands sent to MongoDB from the start of the measured period until its requests
+     *                      completed, including those of background jobs running meanwhile
+     */
+    record RunResult(Map<Operation, OperationStats> stats, int users, double measuredSeconds, long mongoCommands,
+                     int maxInFlight) {
+
+        long completed() {
+            return stats.values().stream().mapToLong(OperationStats::completed).sum();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.finance_tracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * The calls a client makes, as HTTP requests for one virtual user.
+ */
+enum Operation {
+
+    LOGIN {
+        @Override
+        HttpRequest request(URI baseUri, VirtualUser user, Random random) {
+            return post(baseUri, "/api/user/login", null, Json.write(user.credentials()));
+        }
+    },
+    ADD_TRANSACTION {
+        @Override
+        HttpRequest request(URI baseUri, VirtualUser user, Random random) {
+            return post(baseUri, "/api/transactions", user, Json.write(SeedData.transaction(user, random, System.currentTimeMillis())));
+        }
+    },
+    LIST {
+        @Override
+        HttpRequest request(URI baseUri, VirtualUser user, Random random) {
+            return get(baseUri, "/api/transactions/user/" + user.id(), user);
+        }
+    },
+    DASHBOARD {
+        @Override
+        HttpRequest request(URI baseUri, VirtualUser user, Random random) {
+            return get(baseUri, "/api/dashboard/user/" + user.id(), user);
+        }
+    },
+    REPORT {
+        @Override
+        HttpRequest request(URI baseUri, VirtualUser user, Random random) {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            return get(baseUri, "/api/reports/spending-trend/" + user.id()
+                    + "?startDate=" + today.minusMonths(3) + "&endDate=" + today, user);
+        }
+    };
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    abstract HttpRequest request(URI baseUri, VirtualUser user, Random random);
+
+    /** The name used in the mix and the results, e.g. {@code add-transaction}. */
+    String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.label().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + name + "'; expected one of "
+                        + Arrays.stream(values()).map(Operation::label).toList()));
+    }
+
+    static HttpRequest get(URI baseUri, String path, VirtualUser user) {
+        return builder(baseUri, path, user).GET().build();
+    }
+
+    static HttpRequest post(URI baseUri, String path, VirtualUser user, String body) {
+        return builder(baseUri, path, user)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest.Builder builder(URI baseUri, String path, VirtualUser user) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (user != null) {
+            builder.header("Authorization", "Bearer " + user.token());
+        }
+        return builder;
+    }
+}
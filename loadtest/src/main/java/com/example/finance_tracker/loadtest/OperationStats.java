@@ -0,0 +1,69 @@
+package com.example.finance_tracker.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes of one operation during the measured part of a run. Latency is recorded in microseconds from the time
+ * the request was scheduled to start, so time spent waiting behind slow responses counts against the server.
+ */
+final class OperationStats {
+
+    private final Recorder latency = new Recorder(3);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private Histogram histogram;
+
+    void success(long latencyNanos) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        succeeded.increment();
+    }
+
+    void failure(long latencyNanos, String cause) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        failed.increment();
+        failures.computeIfAbsent(cause, c -> new LongAdder()).increment();
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    /** All latencies recorded so far; call once the run has finished. */
+    synchronized Histogram histogram() {
+        if (histogram == null) {
+            histogram = latency.getIntervalHistogram();
+        }
+        return histogram;
+    }
+
+    long succeeded() {
+        return succeeded.sum();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+
+    long completed() {
+        return succeeded() + failed();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    Map<String, Long> failures() {
+        Map<String, Long> counts = new TreeMap<>();
+        failures.forEach((cause, count) -> counts.put(cause, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.finance_tracker.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Request bodies for the data users create, drawn from a seeded {@link Random} so runs are repeatable.
+ */
+final class SeedData {
+
+    static final List<String> CATEGORIES = List.of("Food", "Transport", "Rent", "Utilities", "Entertainment", "Health");
+    static final Map<String, Double> RATES = Map.of(
+            "LKR", 1.0, "USD", 0.0034, "EUR", 0.0031, "GBP", 0.0027, "INR", 0.28, "JPY", 0.51);
+    static final List<String> CURRENCIES = RATES.keySet().stream().sorted().toList();
+
+    private SeedData() {
+    }
+
+    static Map<String, Object> user(String username, String password) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("username", username);
+        user.put("email", username + "@loadtest.local");
+        user.put("password", password);
+        user.put("baseCurrency", "LKR");
+        return user;
+    }
+
+    /**
+     * A transaction of the user dated within the 90 days before {@code now}; one in five is an income.
+     */
+    static Map<String, Object> transaction(VirtualUser user, Random random, long now) {
+        boolean income = random.nextInt(5) == 0;
+        Map<String, Object> transaction = new LinkedHashMap<>();
+        transaction.put("userId", user.id());
+        transaction.put("type", income ? "Income" : "Expense");
+        transaction.put("amount", 1 + random.nextInt(income ? 200_000 : 20_000));
+        transaction.put("currencyCode", CURRENCIES.get(random.nextInt(CURRENCIES.size())));
+        if (income) {
+            transaction.put("source", "Salary");
+        } else {
+            transaction.put("category", CATEGORIES.get(random.nextInt(CATEGORIES.size())));
+        }
+        transaction.put("date", now - (long) (random.nextDouble() * Duration.ofDays(90).toMillis()));
+        transaction.put("description", "Load test");
+        return transaction;
+    }
+
+    static Map<String, Object> budget(String category, Random random, long now) {
+        Map<String, Object> budget = new LinkedHashMap<>();
+        budget.put("category", category);
+        budget.put("limit", 10_000 + random.nextInt(90_000));
+        budget.put("startDate", now - Duration.ofDays(90).toMillis());
+        budget.put("endDate", now + Duration.ofDays(275).toMillis());
+        budget.put("notificationEnabled", false);
+        return budget;
+    }
+}
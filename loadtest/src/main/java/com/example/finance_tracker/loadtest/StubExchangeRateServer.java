@@ -0,0 +1,62 @@
+package com.example.finance_tracker.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Answers the exchange-rate API's {@code /v6/{key}/latest/{base}} with a fixed rate table on a loopback port, so the
+ * application under test never reaches the real API.
+ */
+final class StubExchangeRateServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    StubExchangeRateServer(Map<String, Double> rates) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v6/", exchange -> respond(exchange, rates));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, Map<String, Double> rates) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String base = path.substring(path.lastIndexOf('/') + 1);
+        Double baseRate = rates.get(base);
+        byte[] body;
+        if (baseRate == null) {
+            body = Json.write(Map.of("result", "error", "error-type", "unsupported-code")).getBytes(StandardCharsets.UTF_8);
+        } else {
+            // The table is relative to LKR; rebase it on the requested currency
+            Map<String, Double> rebased = new LinkedHashMap<>();
+            rates.forEach((currency, rate) -> rebased.put(currency, rate / baseRate));
+            body = Json.write(Map.of("result", "success", "base_code", base, "conversion_rates", rebased))
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
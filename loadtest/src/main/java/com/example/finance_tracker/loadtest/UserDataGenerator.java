@@ -0,0 +1,397 @@
+package com.example.finance_tracker.loadtest;
+
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.model.Goal;
+import com.example.finance_tracker.model.Income;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.model.User;
+import com.example.finance_tracker.util.RecurrenceRule;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Generates one user's documents: the user, budgets, goals with their contributions, recurring templates with the
+ * occurrences generated so far, and one-off transactions, with the income and expense records the application keeps
+ * for each transaction. Everything is drawn from a {@link Random} seeded with the dataset seed and the user's index,
+ * so a user's documents do not depend on which thread generates them or in which order.
+ */
+final class UserDataGenerator {
+
+    static final String PASSWORD = "dataset-password";
+
+    private static final String GOALS_CATEGORY = "Goals";
+    private static final String SAVINGS_CATEGORY = "Savings";
+
+    // Document kinds, part of the generated ids
+    private static final int USER = 0;
+    private static final int BUDGET = 1;
+    private static final int GOAL = 2;
+    private static final int TRANSACTION = 3;
+    private static final int EXPENSE = 4;
+    private static final int INCOME = 5;
+
+    /** Base currencies of users, with their share of users and their usual time zone. */
+    private static final Weighted<String[]> BASE_CURRENCIES = new Weighted<String[]>()
+            .add(50, new String[]{"LKR", "Asia/Colombo"})
+            .add(20, new String[]{"USD", "America/New_York"})
+            .add(10, new String[]{"EUR", "Europe/Berlin"})
+            .add(8, new String[]{"GBP", "Europe/London"})
+            .add(10, new String[]{"INR", "Asia/Kolkata"})
+            .add(2, new String[]{"JPY", "Asia/Tokyo"});
+
+    /** Spending categories, by how often they occur, with their median amount in LKR and its spread. */
+    private static final Weighted<Category> CATEGORIES = new Weighted<Category>()
+            .add(30, new Category("Food", 2_500, 0.8))
+            .add(15, new Category("Transport", 1_200, 0.7))
+            .add(15, new Category("Shopping", 7_000, 1.0))
+            .add(10, new Category("Entertainment", 3_500, 0.9))
+            .add(6, new Category("Utilities", 6_000, 0.5))
+            .add(5, new Category("Health", 5_000, 1.0))
+            .add(3, new Category("Travel", 40_000, 1.0))
+            .add(2, new Category("Education", 25_000, 0.6));
+
+    private static final Weighted<Category> INCOME_SOURCES = new Weighted<Category>()
+            .add(50, new Category("Freelance", 40_000, 0.9))
+            .add(20, new Category("Bonus", 100_000, 0.7))
+            .add(20, new Category("Interest", 3_000, 1.0))
+            .add(10, new Category("Gift", 10_000, 0.8));
+
+    private static final Weighted<Integer> GOAL_COUNTS = new Weighted<Integer>().add(40, 0).add(35, 1).add(18, 2).add(7, 3);
+
+    private static final String[] TAGS = {"work", "family", "online", "cash", "card", "weekend", "urgent", "shared"};
+    private static final String[] GOAL_NAMES = {"Emergency fund", "Vacation", "New car", "House deposit", "Laptop",
+            "Wedding", "Education fund", "Retirement"};
+
+    private final DatasetOptions options;
+    private final double[] zipfWeights;
+    private final double zipfNormalizer;
+    private final String passwordHash;
+    private final Date end;
+
+    UserDataGenerator(DatasetOptions options, String passwordHash) {
+        this.options = options;
+        this.passwordHash = passwordHash;
+        this.end = options.end();
+        this.zipfWeights = new double[options.users];
+        double total = 0;
+        for (int rank = 1; rank <= options.users; rank++) {
+            zipfWeights[rank - 1] = Math.pow(rank, -options.zipfExponent);
+            total += zipfWeights[rank - 1];
+        }
+        this.zipfNormalizer = total;
+    }
+
+    static String username(int index) {
+        return "ds" + index;
+    }
+
+    static String userId(int index) {
+        return id(index, USER, 0);
+    }
+
+    /**
+     * Ids are valid ObjectId strings built from the user, the kind of document and a sequence, so they are stored as
+     * ObjectIds like the application's own and are the same on every run.
+     */
+    static String id(int userIndex, int kind, long sequence) {
+        return String.format("%08x%02x%014x", userIndex, kind, sequence);
+    }
+
+    /**
+     * One-off transactions the user makes per month: the mean scaled by the user's Zipf share, so user 0 is the
+     * most active, and capped.
+     */
+    double monthlyTransactions(int index) {
+        double share = zipfWeights[index] / zipfNormalizer;
+        return Math.min(options.maxTransactionsPerMonth, options.transactionsPerMonth * options.users * share);
+    }
+
+    void generate(int index, Consumer<Object> out) {
+        Random random = new Random(options.seed * 1_000_003L + index);
+        long[] sequence = new long[6];
+
+        String[] currencyAndZone = BASE_CURRENCIES.pick(random);
+        String baseCurrency = currencyAndZone[0];
+        ZoneId zone = ZoneId.of(currencyAndZone[1]);
+        double rate = SeedData.RATES.get(baseCurrency);
+        // How much more or less than the median this user earns and spends
+        double wealth = lognormal(random, 1, 0.5);
+
+        User user = new User();
+        user.setId(userId(index));
+        user.setUsername(username(index));
+        user.setEmail(username(index) + "@dataset.local");
+        user.setPassword(passwordHash);
+        user.setRoles(List.of("ROLE_USER"));
+        user.setBaseCurrency(baseCurrency);
+        user.setTimeZone(zone.getId());
+        out.accept(user);
+
+        long historyDays = options.years * 365L;
+        Date joined = daysBefore(end, 1 + (long) (random.nextDouble() * (historyDays - 1)));
+        double monthsActive = (end.getTime() - joined.getTime()) / (double) Duration.ofDays(30).toMillis();
+
+        // Budgets for the categories the user tracks, for the current year
+        LocalDate today = options.asOf;
+        Date yearStart = Date.from(today.withDayOfYear(1).atStartOfDay(zone).toInstant());
+        Date yearEnd = Date.from(today.withDayOfYear(today.lengthOfYear()).atStartOfDay(zone).toInstant());
+        int budgetCount = 3 + random.nextInt(6);
+        List<String> budgeted = new ArrayList<>();
+        for (int i = 0; i < budgetCount; i++) {
+            Category category = CATEGORIES.pick(random);
+            if (budgeted.contains(category.name)) {
+                continue;
+            }
+            budgeted.add(category.name);
+            double monthlySpend = category.median * rate * wealth * Math.max(1, monthlyTransactions(index) * CATEGORIES.share(category));
+            out.accept(budget(index, sequence, category.name, round(monthlySpend * (0.8 + random.nextDouble() * 0.7)),
+                    baseCurrency, yearStart, yearEnd, random.nextBoolean()));
+        }
+        Budget savings = null;
+        if (random.nextInt(10) < 3) {
+            savings = budget(index, sequence, SAVINGS_CATEGORY, round(50_000 * rate * wealth * (0.5 + random.nextDouble())),
+                    baseCurrency, yearStart, yearEnd, false);
+        }
+
+        // Goals, saved towards by monthly "Goals" expenses since they were set
+        int goalCount = GOAL_COUNTS.pick(random);
+        for (int i = 0; i < goalCount; i++) {
+            Goal goal = new Goal();
+            goal.setId(id(index, GOAL, sequence[GOAL]++));
+            goal.setUserId(user.getId());
+            goal.setName(GOAL_NAMES[random.nextInt(GOAL_NAMES.length)]);
+            goal.setTargetAmount(round(lognormal(random, 500_000, 0.8) * rate * wealth));
+            goal.setDeadline(daysBefore(end, -180 + random.nextInt(910)));
+            goal.setManualContribution(random.nextInt(4) == 0 ? round(goal.getTargetAmount() * random.nextDouble() * 0.2) : 0);
+
+            double contributed = 0;
+            double monthly = goal.getTargetAmount() / (6 + random.nextInt(30));
+            Date contribution = daysAfter(joined, random.nextInt(60));
+            while (contribution.before(end) && contribution.before(goal.getDeadline())) {
+                Transaction transaction = transaction(index, sequence, user, "Expense", round(monthly * (0.5 + random.nextDouble() * 0.7)),
+                        baseCurrency, contribution);
+                transaction.setCategory(GOALS_CATEGORY);
+                transaction.setGoalId(goal.getId());
+                transaction.setDescription("Savings for " + goal.getName());
+                emit(index, sequence, transaction, out);
+                contributed += transaction.getAmount();
+                contribution = daysAfter(contribution, 28 + random.nextInt(6));
+            }
+            goal.setContributedAmount(round(contributed));
+
+            // The first goal saves from the savings budget, if the user has one
+            double fromBudget = 0;
+            if (i == 0 && savings != null) {
+                goal.setBudgetId(savings.getId());
+                savings.setGoalId(goal.getId());
+                fromBudget = savings.getLimit();
+            }
+            goal.setCurrentAmount(round(contributed + goal.getManualContribution() + fromBudget));
+            goal.setProgressPercentage(goal.getTargetAmount() > 0 ? goal.getCurrentAmount() / goal.getTargetAmount() * 100 : 0);
+            out.accept(goal);
+        }
+        if (savings != null) {
+            out.accept(savings);
+        }
+
+        // Recurring templates, with their occurrences up to now
+        double salary = round(lognormal(random, 150_000, 0.4) * rate * wealth);
+        if (random.nextInt(10) < 7) {
+            recurring(index, sequence, user, zone, "Income", "monthly", salary, joined, random, out, t -> t.setSource("Salary"));
+        }
+        if (random.nextInt(10) < 4) {
+            recurring(index, sequence, user, zone, "Expense", "monthly", round(salary * (0.2 + random.nextDouble() * 0.2)),
+                    joined, random, out, t -> t.setCategory("Rent"));
+        }
+        int subscriptions = random.nextInt(4);
+        for (int i = 0; i < subscriptions; i++) {
+            recurring(index, sequence, user, zone, "Expense", i == 0 ? "FREQ=MONTHLY;BYMONTHDAY=-1" : "monthly",
+                    round(lognormal(random, 2_000, 0.5) * rate), joined, random, out, t -> t.setCategory("Entertainment"));
+        }
+        if (random.nextInt(10) < 2) {
+            recurring(index, sequence, user, zone, "Expense", "weekly", round(lognormal(random, 8_000, 0.3) * rate * wealth),
+                    joined, random, out, t -> t.setCategory("Food"));
+        }
+
+        // One-off transactions over the time the user has been active; one in ten is an income
+        long count = Math.round(monthlyTransactions(index) * monthsActive * (0.8 + random.nextDouble() * 0.4));
+        long span = end.getTime() - joined.getTime();
+        for (long i = 0; i < count; i++) {
+            Date date = new Date(joined.getTime() + (long) (random.nextDouble() * span));
+            boolean income = random.nextInt(10) == 0;
+            Category category = income ? INCOME_SOURCES.pick(random) : CATEGORIES.pick(random);
+            Transaction transaction = transaction(index, sequence, user, income ? "Income" : "Expense",
+                    round(lognormal(random, category.median, category.spread) * rate * wealth), baseCurrency, date);
+            if (income) {
+                transaction.setSource(category.name);
+            } else {
+                transaction.setCategory(category.name);
+            }
+            if (random.nextInt(5) == 0) {
+                transaction.setTags(random.nextBoolean() ? List.of(TAGS[random.nextInt(TAGS.length)])
+                        : List.of(TAGS[random.nextInt(TAGS.length)], TAGS[random.nextInt(TAGS.length)]));
+            }
+            emit(index, sequence, transaction, out);
+
+            // Records entered directly rather than as transactions, some in a foreign currency
+            if (random.nextInt(10) == 0) {
+                String currency = random.nextInt(10) < 3 ? SeedData.CURRENCIES.get(random.nextInt(SeedData.CURRENCIES.size())) : baseCurrency;
+                double amount = round(transaction.getAmount() / rate * SeedData.RATES.get(currency));
+                out.accept(income ? income(index, sequence, user.getId(), category.name, amount, currency, date)
+                        : expense(index, sequence, user.getId(), category.name, amount, currency, date));
+            }
+        }
+    }
+
+    private void recurring(int index, long[] sequence, User user, ZoneId zone, String type, String pattern, double amount,
+                           Date joined, Random random, Consumer<Object> out, Consumer<Transaction> details) {
+        Transaction template = transaction(index, sequence, user, type, amount, user.getBaseCurrency(),
+                daysAfter(joined, random.nextInt(30)));
+        template.setIsRecurring(true);
+        template.setRecurrencePattern(pattern);
+        template.setDescription("Recurring " + type.toLowerCase());
+        details.accept(template);
+
+        // The template is the first occurrence; later ones are plain transactions without income or expense records
+        RecurrenceRule rule = RecurrenceRule.parse(pattern);
+        Date next = rule.next(template.getDate(), zone);
+        while (next.before(end)) {
+            Transaction occurrence = transaction(index, sequence, user, type, amount, user.getBaseCurrency(), next);
+            occurrence.setCategory(template.getCategory());
+            occurrence.setSource(template.getSource());
+            occurrence.setDescription(template.getDescription());
+            occurrence.setRecurrenceTemplateId(template.getId());
+            occurrence.setOccurrenceKey(template.getId() + ":" + next.toInstant());
+            out.accept(occurrence);
+            next = rule.next(next, zone);
+        }
+        if (template.getDate().before(end)) {
+            template.setNextRunAt(next);
+            emit(index, sequence, template, out);
+        }
+    }
+
+    private Transaction transaction(int index, long[] sequence, User user, String type, double amount, String currency, Date date) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id(index, TRANSACTION, sequence[TRANSACTION]++));
+        transaction.setUserId(user.getId());
+        transaction.setType(type);
+        transaction.setAmount(amount);
+        transaction.setCurrencyCode(currency);
+        transaction.setDate(date);
+        return transaction;
+    }
+
+    /** The transaction and the income or expense record the application keeps for it. */
+    private void emit(int index, long[] sequence, Transaction transaction, Consumer<Object> out) {
+        out.accept(transaction);
+        if ("Income".equals(transaction.getType())) {
+            Income income = income(index, sequence, transaction.getUserId(), transaction.getSource(), transaction.getAmount(),
+                    transaction.getCurrencyCode(), transaction.getDate());
+            income.setTransactionId(transaction.getId());
+            out.accept(income);
+        } else {
+            Expense expense = expense(index, sequence, transaction.getUserId(), transaction.getCategory(), transaction.getAmount(),
+                    transaction.getCurrencyCode(), transaction.getDate());
+            expense.setDescription(transaction.getDescription());
+            expense.setTags(transaction.getTags());
+            expense.setRecurring(transaction.isIsRecurring());
+            expense.setRecurrencePattern(transaction.getRecurrencePattern());
+            expense.setTransactionId(transaction.getId());
+            out.accept(expense);
+        }
+    }
+
+    private static Expense expense(int index, long[] sequence, String userId, String category, double amount, String currency, Date date) {
+        Expense expense = new Expense();
+        expense.setId(id(index, EXPENSE, sequence[EXPENSE]++));
+        expense.setUserId(userId);
+        expense.setCategory(category);
+        expense.setAmount(amount);
+        expense.setCurrencyCode(currency);
+        expense.setDate(date);
+        return expense;
+    }
+
+    private static Income income(int index, long[] sequence, String userId, String source, double amount, String currency, Date date) {
+        Income income = new Income();
+        income.setId(id(index, INCOME, sequence[INCOME]++));
+        income.setUserId(userId);
+        income.setSource(source);
+        income.setAmount(amount);
+        income.setCurrencyCode(currency);
+        income.setDate(date);
+        return income;
+    }
+
+    private static Budget budget(int index, long[] sequence, String category, double limit, String currency,
+                                 Date start, Date end, boolean notificationEnabled) {
+        Budget budget = new Budget();
+        budget.setId(id(index, BUDGET, sequence[BUDGET]++));
+        budget.setUserId(userId(index));
+        budget.setCategory(category);
+        budget.setLimit(limit);
+        budget.setCurrencyCode(currency);
+        budget.setStartDate(start);
+        budget.setEndDate(end);
+        budget.setNotificationEnabled(notificationEnabled);
+        return budget;
+    }
+
+    private static double lognormal(Random random, double median, double spread) {
+        return median * Math.exp(spread * random.nextGaussian());
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private static Date daysBefore(Date date, long days) {
+        return new Date(date.getTime() - Duration.ofDays(days).toMillis());
+    }
+
+    private static Date daysAfter(Date date, long days) {
+        return new Date(date.getTime() + Duration.ofDays(days).toMillis());
+    }
+
+    private record Category(String name, double median, double spread) {
+    }
+
+    /** Picks values in proportion to their weights. */
+    private static final class Weighted<T> {
+
+        private final List<T> values = new ArrayList<>();
+        private final List<Integer> cumulative = new ArrayList<>();
+        private int total;
+
+        Weighted<T> add(int weight, T value) {
+            total += weight;
+            values.add(value);
+            cumulative.add(total);
+            return this;
+        }
+
+        T pick(Random random) {
+            int value = random.nextInt(total);
+            for (int i = 0; i < values.size(); i++) {
+                if (value < cumulative.get(i)) {
+                    return values.get(i);
+                }
+            }
+            throw new IllegalStateException("Weights exhausted");
+        }
+
+        double share(T value) {
+            int index = values.indexOf(value);
+            return (cumulative.get(index) - (index == 0 ? 0 : cumulative.get(index - 1))) / (double) total;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.finance_tracker.loadtest;
+
+import java.util.Map;
+
+/**
+ * A registered user the load test makes requests as.
+ */
+record VirtualUser(String id, String username, String password, String token) {
+
+    Map<String, String> credentials() {
+        return Map.of("username", username, "password", password);
+    }
+}
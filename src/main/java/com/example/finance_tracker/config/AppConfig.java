@@ -1,9 +1,14 @@
 package com.example.finance_tracker.config;
 
+import com.example.finance_tracker.metrics.RequestResources;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 @Configuration
 public class AppConfig {
 
@@ -11,4 +16,24 @@ public class AppConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
-}
\ No newline at end of file
+
+    /**
+     * Bounded pool used to fan out the independent dashboard queries.
+     * When the queue is full the caller runs the query itself instead of failing the request.
+     * The queries count against the resources of the request that fanned them out.
+     */
+    @Bean(name = "dashboardExecutor")
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${dashboard.executor.core-size:8}") int coreSize,
+                                                    @Value("${dashboard.executor.max-size:16}") int maxSize,
+                                                    @Value("${dashboard.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(RequestResources::propagate);
+        executor.initialize();
+        return executor;
+    }
+}
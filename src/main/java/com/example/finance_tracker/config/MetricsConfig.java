@@ -0,0 +1,38 @@
+package com.example.finance_tracker.config;
+
+import com.example.finance_tracker.metrics.MongoResourceListener;
+import com.example.finance_tracker.metrics.QueryProfiler;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Loads the defaults for the actuator endpoints and metric distributions from {@code metrics.properties}.
+ * They have the lowest precedence, so any of them can be overridden by the application's own configuration.
+ * <p>
+ * Mongo commands ({@code mongodb.driver.commands}, tagged with collection and command) and repository methods
+ * ({@code spring.data.repository.invocations}) are timed by Spring Boot's auto-configuration; the executors
+ * defined in {@link AppConfig} and {@link NotificationConfig} get their pool and queue gauges the same way.
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+
+    /**
+     * Adds the {@link QueryProfiler} to the Mongo client. It stays registered while switched off, so it can be
+     * switched on at runtime without a restart.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer queryProfiling(QueryProfiler queryProfiler) {
+        return settings -> settings.addCommandListener(queryProfiler);
+    }
+
+    /**
+     * Adds the {@link MongoResourceListener} to the Mongo client, to count each request's commands.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer requestResourceAccounting(MongoResourceListener mongoResourceListener) {
+        return settings -> settings.addCommandListener(mongoResourceListener);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.finance_tracker.config;
+
+import com.mongodb.MongoException;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Multi-document transactions, for writes that must apply together, such as a transaction and its income or expense
+ * record. They need a replica set or sharded cluster, so they are off unless {@code mongo.transactions.enabled} is
+ * true; without them the writes are applied one after the other. When enabled, startup fails if the server is a
+ * standalone one, rather than every transactional write failing later.
+ */
+@Configuration
+public class MongoTransactionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoTransactionConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "mongo.transactions.enabled", havingValue = "true")
+    public MongoTransactionManager mongoTransactionManager(MongoDatabaseFactory databaseFactory) {
+        requireTransactionSupport(databaseFactory);
+        return new MongoTransactionManager(databaseFactory);
+    }
+
+    // A replica set member reports its set name and a mongos reports "isdbgrid"; a standalone server reports neither
+    private static void requireTransactionSupport(MongoDatabaseFactory databaseFactory) {
+        Document hello;
+        try {
+            hello = databaseFactory.getMongoDatabase().runCommand(new Document("hello", 1));
+        } catch (MongoException e) {
+            // An unreachable server fails its first write anyway; the check is only for a reachable standalone one
+            logger.warn("Could not check that MongoDB supports transactions: {}", e.getMessage());
+            return;
+        }
+        if (hello.get("setName") == null && !"isdbgrid".equals(hello.get("msg"))) {
+            throw new IllegalStateException("mongo.transactions.enabled is true, but the MongoDB server is standalone. "
+                    + "Transactions need a replica set or sharded cluster; set mongo.transactions.enabled=false or "
+                    + "start the server as a replica set");
+        }
+    }
+}
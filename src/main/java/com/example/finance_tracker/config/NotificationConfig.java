@@ -0,0 +1,59 @@
+package com.example.finance_tracker.config;
+
+import com.example.finance_tracker.service.email.EmailSender;
+import com.example.finance_tracker.service.email.LoggingEmailSender;
+import com.example.finance_tracker.service.email.SmtpEmailSender;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class NotificationConfig {
+
+    /**
+     * Sends through SMTP when {@code spring.mail.host} is set, otherwise only logs the emails.
+     */
+    @Bean
+    public EmailSender emailSender(ObjectProvider<JavaMailSender> mailSender,
+                                   @Value("${notifications.email.from:no-reply@finance-tracker.local}") String from) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        return sender != null ? new SmtpEmailSender(sender, from) : new LoggingEmailSender();
+    }
+
+    /**
+     * Delivers notification emails off the request thread. The queue is bounded; emails that do not fit
+     * are rejected and counted by the dispatcher rather than blocking the caller.
+     */
+    @Bean(name = "notificationEmailExecutor")
+    public ThreadPoolTaskExecutor notificationEmailExecutor(@Value("${notifications.email.threads:2}") int threads,
+                                                            @Value("${notifications.email.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-email-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes the events of the notification streams. A slow client only occupies a thread while its own
+     * buffered events are written.
+     */
+    @Bean(name = "notificationStreamExecutor")
+    public ThreadPoolTaskExecutor notificationStreamExecutor(@Value("${notifications.stream.threads:4}") int threads,
+                                                             @Value("${notifications.stream.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.finance_tracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Scheduler for the @Scheduled jobs. Several jobs fire at the same time and a sharded job
+     * waits for its shards to finish, so a single scheduler thread would serialise them.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduler.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduler-");
+        return scheduler;
+    }
+
+    /**
+     * Runs the shards of a sharded job that this instance acquired.
+     */
+    @Bean(name = "shardExecutor")
+    public ThreadPoolTaskExecutor shardExecutor(@Value("${scheduler.shard-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("shard-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.finance_tracker.config;
 
 import com.example.finance_tracker.exception.CustomAccessDeniedHandler;
 import com.example.finance_tracker.filter.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,7 +39,12 @@ public class SecurityConfig {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        // The request was authorised when it started; a notification stream ends in an async dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/user/register", "/api/user/login", "/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                        // Scraped without a token; see metrics.properties
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex
@@ -24,6 +24,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -93,6 +94,25 @@ public class AuthController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    @Operation(summary = "Update fields of a user",
+            description = "Changes only the password, base currency or time zone given in the request body. " +
+                    "If the body has a version, the user is only updated if it still has that version.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User updated successfully",
+                    content = @Content(schema = @Schema(implementation = User.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid or unknown field provided"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "409", description = "User was changed since the given version")
+    })
+    @PatchMapping("/update/{id}")
+    @PreAuthorize("#id == authentication.principal.id or hasRole('ROLE_ADMIN')")
+    public ResponseEntity<User> patchUser(
+            @Parameter(description = "User ID to update") @PathVariable String id,
+            @RequestBody Map<String, Object> changes) {
+        User updatedUser = userService.patchUser(id, changes);
+        return ResponseEntity.ok(updatedUser);
+    }
+
     @Operation(summary = "Delete a user", description = "Deletes a user by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User deleted successfully"),
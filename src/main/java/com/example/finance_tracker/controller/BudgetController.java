@@ -15,6 +15,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/budgets")
@@ -74,6 +75,30 @@ public class BudgetController {
         return ResponseEntity.ok(updatedBudget);
     }
 
+    @PatchMapping("/{id}")
+    @PreAuthorize("@budgetService.isOwner(#id, authentication.principal.id)")
+    @Operation(
+            summary = "Update fields of an existing budget",
+            description = "Changes only the fields in the request body. If the body has a version, the budget is only " +
+                    "updated if it still has that version. Only the owner of the budget can update it."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Budget updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid or unknown field provided"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "404", description = "Budget not found"),
+            @ApiResponse(responseCode = "409", description = "Budget was changed since the given version"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Budget> patchBudget(
+            @Parameter(description = "ID of the budget to update", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Fields to change, and optionally the version they are based on", required = true)
+            @RequestBody Map<String, Object> changes) {
+        Budget updatedBudget = budgetService.patchBudget(id, changes);
+        return ResponseEntity.ok(updatedBudget);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("@budgetService.isOwner(#id, authentication.principal.id)")
     @Operation(
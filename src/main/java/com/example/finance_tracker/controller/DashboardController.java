@@ -12,6 +12,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import static org.springframework.security.authorization.AuthorityAuthorizationManager.hasRole;
 
 @RestController
@@ -54,6 +57,15 @@ public class DashboardController {
             @Parameter(description = "ID of the user to fetch dashboard data for", required = true)
             @PathVariable String userId) {
         Dashboard summary = dashboardService.getUserDashboardSummary(userId);
-        return ResponseEntity.ok(summary);
+        return ResponseEntity.ok()
+                .header("Server-Timing", toServerTiming(summary.getSectionTimings()))
+                .body(summary);
+    }
+
+    // Formats the per-section timings as a Server-Timing header, e.g. "budgets;dur=4, goals;dur=7"
+    private static String toServerTiming(Map<String, Long> sectionTimings) {
+        return sectionTimings.entrySet().stream()
+                .map(entry -> entry.getKey() + ";dur=" + entry.getValue())
+                .collect(Collectors.joining(", "));
     }
 }
\ No newline at end of file
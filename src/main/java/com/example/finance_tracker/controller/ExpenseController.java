@@ -13,6 +13,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/expenses")
@@ -71,6 +72,30 @@ public class ExpenseController {
         return ResponseEntity.ok(updatedExpense);
     }
 
+    @PatchMapping("/{id}")
+    @PreAuthorize("@expenseService.isOwner(#id, authentication.principal.id)")
+    @Operation(
+            summary = "Update fields of an existing expense",
+            description = "Changes only the fields in the request body. If the body has a version, the expense is only " +
+                    "updated if it still has that version. Only the owner of the expense can update it."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Expense updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid or unknown field provided"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "404", description = "Expense not found"),
+            @ApiResponse(responseCode = "409", description = "Expense was changed since the given version"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Expense> patchExpense(
+            @Parameter(description = "ID of the expense to update", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Fields to change, and optionally the version they are based on", required = true)
+            @RequestBody Map<String, Object> changes) {
+        Expense updatedExpense = expenseService.patchExpense(id, changes);
+        return ResponseEntity.ok(updatedExpense);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("@expenseService.isOwner(#id, authentication.principal.id)")
     @Operation(
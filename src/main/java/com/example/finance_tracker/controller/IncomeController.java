@@ -13,6 +13,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/incomes")
@@ -71,6 +72,30 @@ public class IncomeController {
         return ResponseEntity.ok(updatedIncome);
     }
 
+    @PatchMapping("/{id}")
+    @PreAuthorize("@incomeService.isOwner(#id, authentication.principal.id) or hasRole('ROLE_ADMIN')")
+    @Operation(
+            summary = "Update fields of an existing income",
+            description = "Changes only the fields in the request body. If the body has a version, the income is only " +
+                    "updated if it still has that version. Only the owner of the income or an admin can update it."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Income updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid or unknown field provided"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "404", description = "Income not found"),
+            @ApiResponse(responseCode = "409", description = "Income was changed since the given version"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Income> patchIncome(
+            @Parameter(description = "ID of the income to update", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Fields to change, and optionally the version they are based on", required = true)
+            @RequestBody Map<String, Object> changes) {
+        Income updatedIncome = incomeService.patchIncome(id, changes);
+        return ResponseEntity.ok(updatedIncome);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("@incomeService.isOwner(#id, authentication.principal.id) or hasRole('ROLE_ADMIN')")
     @Operation(
@@ -1,16 +1,20 @@
 package com.example.finance_tracker.controller;
 
 import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.model.NotificationInbox;
 import com.example.finance_tracker.service.NotificationService;
+import com.example.finance_tracker.service.NotificationStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -20,10 +24,12 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStream notificationStream;
 
     @Autowired
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, NotificationStream notificationStream) {
         this.notificationService = notificationService;
+        this.notificationStream = notificationStream;
     }
 
     @PostMapping("/notifications")
@@ -52,7 +58,8 @@ public class NotificationController {
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ROLE_ADMIN')")
     @Operation(
             summary = "Get notifications by user ID",
-            description = "Retrieve all notifications for a specific user. Users can only view their own notifications unless they are admins."
+            description = "Retrieve a page of a user's notifications, unread first and then newest first, with the user's unread count. " +
+                    "Users can only view their own notifications unless they are admins."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully"),
@@ -60,11 +67,72 @@ public class NotificationController {
             @ApiResponse(responseCode = "404", description = "User not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<Notification>> getNotificationsByUser(
+    public ResponseEntity<NotificationInbox> getNotificationsByUser(
             @Parameter(description = "ID of the user to retrieve notifications for", required = true)
+            @PathVariable String userId,
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size, at most 100")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Only return unread notifications")
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        NotificationInbox inbox = notificationService.getInbox(userId, page, size, unreadOnly);
+        return ResponseEntity.ok(inbox);
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("#userId == authentication.principal.id or hasRole('ROLE_ADMIN')")
+    @Operation(
+            summary = "Stream notifications",
+            description = "Open a server-sent event stream that receives the user's new notifications as 'notification' events, " +
+                    "with periodic heartbeat comments. Clients reconnect when the stream ends and read the inbox for anything missed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened successfully"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public SseEmitter streamNotifications(
+            @Parameter(description = "ID of the user to stream notifications for", required = true)
+            @PathVariable String userId) {
+        return notificationStream.subscribe(userId);
+    }
+
+    @GetMapping("/user/{userId}/unread-count")
+    @PreAuthorize("#userId == authentication.principal.id or hasRole('ROLE_ADMIN')")
+    @Operation(
+            summary = "Get the unread notification count",
+            description = "Retrieve the number of unread notifications of a user. Users can only view their own count unless they are admins."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Unread count retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Long> getUnreadCount(
+            @Parameter(description = "ID of the user", required = true)
             @PathVariable String userId) {
-        List<Notification> notifications = notificationService.getNotificationsByUser(userId);
-        return ResponseEntity.ok(notifications);
+        return ResponseEntity.ok(notificationService.getUnreadCount(userId));
+    }
+
+    @PutMapping("/user/{userId}/mark-as-read")
+    @PreAuthorize("#userId == authentication.principal.id or hasRole('ROLE_ADMIN')")
+    @Operation(
+            summary = "Mark notifications as read",
+            description = "Mark the given notifications of a user as read, or all of them when no IDs are given. " +
+                    "Returns the number of notifications that were unread."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Notifications marked as read successfully"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Long> markNotificationsAsRead(
+            @Parameter(description = "ID of the user", required = true)
+            @PathVariable String userId,
+            @Parameter(description = "IDs of the notifications to mark as read; all when omitted")
+            @RequestBody(required = false) List<String> notificationIds) {
+        return ResponseEntity.ok(notificationService.markAsRead(userId, notificationIds));
     }
 
     @PutMapping("/{id}/mark-as-read")
@@ -15,6 +15,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -72,6 +73,30 @@ public class TransactionController {
         return ResponseEntity.ok(updatedTransaction);
     }
 
+    @PatchMapping("/{id}")
+    @PreAuthorize("@transactionService.isOwner(#id, authentication.principal.id)")
+    @Operation(
+            summary = "Update fields of an existing transaction",
+            description = "Changes only the fields in the request body. If the body has a version, the transaction is only " +
+                    "updated if it still has that version. Only the owner of the transaction can update it."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transaction updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid or unknown field provided"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized access"),
+            @ApiResponse(responseCode = "404", description = "Transaction not found"),
+            @ApiResponse(responseCode = "409", description = "Transaction was changed since the given version"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Transaction> patchTransaction(
+            @Parameter(description = "ID of the transaction to update", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Fields to change, and optionally the version they are based on", required = true)
+            @RequestBody Map<String, Object> changes) {
+        Transaction updatedTransaction = transactionService.patchTransaction(id, changes);
+        return ResponseEntity.ok(updatedTransaction);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("@transactionService.isOwner(#id, authentication.principal.id)")
     @Operation(
@@ -0,0 +1,15 @@
+package com.example.finance_tracker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a budget is created, updated or deleted.
+ * userId may be null when only the budget ID is known (e.g. on delete).
+ */
+@Getter
+@AllArgsConstructor
+public class BudgetChangedEvent {
+    private final String userId;
+    private final String budgetId;
+}
@@ -0,0 +1,16 @@
+package com.example.finance_tracker.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a goal is created, updated or deleted.
+ * userId may be null when only the goal ID is known (e.g. on delete),
+ * and goalId may be null when several of the user's goals changed together.
+ */
+@Getter
+@AllArgsConstructor
+public class GoalChangedEvent {
+    private final String userId;
+    private final String goalId;
+}
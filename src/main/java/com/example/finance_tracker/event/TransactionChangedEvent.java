@@ -0,0 +1,32 @@
+package com.example.finance_tracker.event;
+
+import com.example.finance_tracker.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a transaction is written.
+ * previous is null for a newly created transaction, current is null for a deleted one.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionChangedEvent {
+    private final Transaction previous;
+    private final Transaction current;
+
+    public static TransactionChangedEvent created(Transaction transaction) {
+        return new TransactionChangedEvent(null, transaction);
+    }
+
+    public static TransactionChangedEvent deleted(Transaction transaction) {
+        return new TransactionChangedEvent(transaction, null);
+    }
+
+    public boolean isCreated() {
+        return previous == null && current != null;
+    }
+
+    public String getUserId() {
+        return current != null ? current.getUserId() : previous.getUserId();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.finance_tracker.event;
+
+import com.example.finance_tracker.model.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published after several transactions of one user are inserted together, in place of a
+ * {@link TransactionChangedEvent} for each. Listeners that react to created transactions handle both.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionsCreatedEvent {
+    private final String userId;
+    private final List<Transaction> transactions;
+}
@@ -0,0 +1,77 @@
+package com.example.finance_tracker.filter;
+
+import com.example.finance_tracker.metrics.RequestResources;
+import com.example.finance_tracker.metrics.ResourceUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Counts the resources each request uses (see {@link RequestResources}) and reports them in the
+ * {@code X-Resource-Usage} response header and a {@code key=value} log line. Runs ahead of the security filters,
+ * so the cost of authenticating the request is part of it.
+ * <p>
+ * The header is set when the response is committed, which can be before the request ends; the log line has the
+ * final figures.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestResourcesFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestResourcesFilter.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestResources resources = RequestResources.open();
+        ResourceHeaderResponse wrapped = new ResourceHeaderResponse(response, resources);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            resources.close();
+            ResourceUsage usage = resources.usage();
+            wrapped.setUsageHeader(usage);
+            // Sampled (see SamplingTurboFilter); the check and the call count as one event, so the fields are only
+            // built for the requests that are logged
+            if (logger.isInfoEnabled()) {
+                logger.info("method={} uri={} status={} {}", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), usage.toLogFields());
+            }
+        }
+    }
+
+    /**
+     * Sets the header just before the response is committed, after which headers can no longer be added.
+     */
+    private static final class ResourceHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final RequestResources resources;
+
+        ResourceHeaderResponse(HttpServletResponse response, RequestResources resources) {
+            super(response);
+            this.resources = resources;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setUsageHeader(resources.usage());
+        }
+
+        void setUsageHeader(ResourceUsage usage) {
+            if (!isCommitted() && !isDisableOnResponseCommitted()) {
+                disableOnResponseCommitted();
+                setHeader(ResourceUsage.HEADER, usage.toHeader());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.finance_tracker.logging;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.regex.Pattern;
+
+/**
+ * The log message with secrets masked: the exchange-rate API key in its URL path, bearer tokens and JWTs, and
+ * password fields. Replaces {@code %m}, {@code %msg} and {@code %message} in {@code logback-spring.xml}, so it
+ * applies to every appender's pattern, including messages from libraries.
+ * <p>
+ * Most messages hold none of the markers the patterns start from, and are returned without running them.
+ */
+public class RedactingMessageConverter extends MessageConverter {
+
+    static final String MASK = "****";
+
+    private static final Pattern API_KEY_PATH = Pattern.compile("(/v6/)[^/\\s]+");
+    private static final Pattern BEARER = Pattern.compile("(Bearer\\s+)[A-Za-z0-9._~+/=-]+");
+    private static final Pattern JWT = Pattern.compile("eyJ[A-Za-z0-9_-]*\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+    private static final Pattern PASSWORD = Pattern.compile("(password\\s*[=:]\\s*)[^,)}\\s]+", Pattern.CASE_INSENSITIVE);
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        return redact(super.convert(event));
+    }
+
+    static String redact(String message) {
+        if (message == null) {
+            return null;
+        }
+        if (message.contains("/v6/")) {
+            message = API_KEY_PATH.matcher(message).replaceAll("$1" + MASK);
+        }
+        if (message.contains("Bearer")) {
+            message = BEARER.matcher(message).replaceAll("$1" + MASK);
+        }
+        if (message.contains("eyJ")) {
+            message = JWT.matcher(message).replaceAll(MASK);
+        }
+        if (containsIgnoreCase(message, "password")) {
+            message = PASSWORD.matcher(message).replaceAll("$1" + MASK);
+        }
+        return message;
+    }
+
+    private static boolean containsIgnoreCase(String message, String word) {
+        for (int i = 0; i <= message.length() - word.length(); i++) {
+            if (message.regionMatches(true, i, word, 0, word.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.finance_tracker.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps only a share of the info, debug and trace events of hot-path loggers, so a logger that writes on every
+ * request costs a fraction of that under load. Warnings and errors always pass.
+ * <p>
+ * The rates are set in {@code logging.sampling.rates} as {@code logger=rate} pairs, such as
+ * {@code com.example.finance_tracker.filter.RequestResourcesFilter=0.1}; a name covers the loggers below it, and the
+ * longest matching name applies.
+ * <p>
+ * Each event is sampled once. The filter is consulted by {@code isInfoEnabled()} as well as by the log call it guards,
+ * so a check that lets its event through is remembered for the thread, and the next call of that logger at that level
+ * passes without a second draw. A guarded statement therefore keeps the configured share, and skips building its
+ * arguments when it is sampled out.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String rates = "";
+    private Map<String, Double> ratesByLogger = Map.of();
+
+    // The logger and level whose enabled check on this thread was let through, until their log call consumes it
+    private final ThreadLocal<Admitted> admitted = ThreadLocal.withInitial(Admitted::new);
+
+    public void setRates(String rates) {
+        this.rates = rates;
+    }
+
+    @Override
+    public void start() {
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        for (String entry : rates.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            String logger = entry.substring(0, separator).trim();
+            try {
+                parsed.put(logger, Double.parseDouble(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                addWarn("Ignoring the sampling rate of " + logger + ": " + e.getMessage());
+            }
+        }
+        ratesByLogger = Map.copyOf(parsed);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Events below the logger's level are dropped by the level check anyway
+        if (level.isGreaterOrEqual(Level.WARN) || ratesByLogger.isEmpty()
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        double rate = rate(logger.getName());
+        if (rate >= 1.0) {
+            return FilterReply.NEUTRAL;
+        }
+        Admitted check = admitted.get();
+        // An enabled check has no format; the log call it guards does
+        if (format != null && check.logger == logger && check.level == level) {
+            check.clear();
+            return FilterReply.NEUTRAL;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= rate) {
+            check.clear();
+            return FilterReply.DENY;
+        }
+        if (format == null) {
+            check.logger = logger;
+            check.level = level;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private double rate(String name) {
+        double rate = 1.0;
+        int matched = -1;
+        for (Map.Entry<String, Double> entry : ratesByLogger.entrySet()) {
+            String prefix = entry.getKey();
+            if (prefix.length() > matched && name.startsWith(prefix)
+                    && (name.length() == prefix.length() || name.charAt(prefix.length()) == '.')) {
+                rate = entry.getValue();
+                matched = prefix.length();
+            }
+        }
+        return rate;
+    }
+
+    private static final class Admitted {
+        private Logger logger;
+        private Level level;
+
+        private void clear() {
+            logger = null;
+            level = null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.finance_tracker.metrics;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonReader;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Counts the MongoDB commands of a request against its {@link RequestResources}. The synchronous driver raises the
+ * events on the thread that sent the command, so commands sent outside a request, such as those of the scheduled
+ * jobs, are not counted.
+ */
+@Component
+public class MongoResourceListener implements CommandListener {
+
+    private static final Set<String> READ_COMMANDS = Set.of("find", "aggregate", "getMore");
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete");
+
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        RequestResources resources = RequestResources.current();
+        if (resources != null && !QueryShape.DRIVER_COMMANDS.contains(event.getCommandName())) {
+            resources.mongoCommand(sizeInBytes(event.getCommand()));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        RequestResources resources = RequestResources.current();
+        if (resources == null || QueryShape.DRIVER_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        String commandName = event.getCommandName();
+        BsonDocument response = event.getResponse();
+        long read = READ_COMMANDS.contains(commandName) ? QueryProfiler.documents(response) : 0;
+        long written = WRITE_COMMANDS.contains(commandName) ? QueryProfiler.documents(response) : 0;
+        if ("findAndModify".equals(commandName)) {
+            BsonValue value = response.get("value");
+            read = value != null && value.isDocument() ? 1 : 0;
+            BsonValue lastError = response.get("lastErrorObject");
+            written = lastError != null && lastError.isDocument()
+                    ? lastError.asDocument().getNumber("n", new BsonInt32(0)).longValue() : 0;
+        }
+        resources.mongoReply(read, written, sizeInBytes(response));
+    }
+
+    /**
+     * The encoded size of a document. The driver hands out replies and most commands in their encoded form, whose
+     * size is in its first four bytes; only the documents it assembles, such as an insert with its documents, are
+     * encoded again.
+     */
+    static long sizeInBytes(BsonDocument document) {
+        if (document instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        try (BsonReader reader = document.asBsonReader()) {
+            if (reader instanceof BsonBinaryReader binary) {
+                return binary.getBsonInput().readInt32();
+            }
+        }
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            CODEC.encode(writer, document, EncoderContext.builder().build());
+        }
+        return buffer.getPosition();
+    }
+}
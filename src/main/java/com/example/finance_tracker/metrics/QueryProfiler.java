@@ -0,0 +1,372 @@
+package com.example.finance_tracker.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Profiles the commands the application sends to MongoDB by query shape (see {@link QueryShape}): how often each
+ * shape ran, the total and longest time it took and the documents it returned. The totals are kept per window of
+ * {@code mongo.profiler.window-ms}; the current and the previous window are read through {@link QueryProfilerEndpoint}.
+ * <p>
+ * Queries over {@code mongo.profiler.slow-threshold-ms} are always logged and kept among the recent slow queries;
+ * a {@code mongo.profiler.sample-rate} share of the others is kept, and logged at debug level, as a sample of the
+ * normal traffic. The structures are concurrent maps of adders and rings of references, so recording a command
+ * never takes a lock.
+ * <p>
+ * Off by default. While off, each command costs one volatile read; it can be switched on at runtime through the
+ * endpoint.
+ */
+@Component
+public class QueryProfiler implements CommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryProfiler.class);
+
+    /** The explain commands the endpoint sends for plan summaries, which would otherwise profile themselves. */
+    private static final String EXPLAIN = "explain";
+
+    /** Commands {@link QueryProfilerEndpoint} can explain for a plan summary. */
+    static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "findAndModify",
+            "update", "delete");
+
+    private volatile boolean enabled;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final int maxShapes;
+    private final long windowNanos;
+
+    // Commands started while profiling, by request id; the command document is only readable when it starts
+    private final Map<Integer, Started> started = new ConcurrentHashMap<>();
+    private final AtomicReference<Window> current;
+    private volatile Window previous;
+    private final RecentQueries slow;
+    private final RecentQueries sampled;
+
+    private final Counter slowQueries;
+
+    @Autowired
+    public QueryProfiler(MeterRegistry meterRegistry,
+                         @Value("${mongo.profiler.enabled:false}") boolean enabled,
+                         @Value("${mongo.profiler.slow-threshold-ms:100}") long slowThresholdMs,
+                         @Value("${mongo.profiler.sample-rate:0.01}") double sampleRate,
+                         @Value("${mongo.profiler.max-shapes:1000}") int maxShapes,
+                         @Value("${mongo.profiler.window-ms:300000}") long windowMs,
+                         @Value("${mongo.profiler.recent:50}") int recent) {
+        if (maxShapes < 1 || windowMs < 1 || recent < 1) {
+            throw new IllegalArgumentException("Query profiler shapes, window and recent queries must be positive");
+        }
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.sampleRate = sampleRate;
+        this.maxShapes = maxShapes;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.current = new AtomicReference<>(new Window(System.nanoTime(), Instant.now()));
+        this.slow = new RecentQueries(recent);
+        this.sampled = new RecentQueries(recent);
+
+        this.slowQueries = meterRegistry.counter("mongodb.queries.slow");
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String commandName = event.getCommandName();
+        if (QueryShape.DRIVER_COMMANDS.contains(commandName) || EXPLAIN.equals(commandName)) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        String collection = QueryShape.collection(commandName, command, event.getDatabaseName());
+        String shape = QueryShape.of(commandName, command);
+        String key = collection + ' ' + commandName + ' ' + shape;
+
+        // Keep one concrete command per shape and window, for the endpoint to explain; the event's copy is released
+        BsonDocument example = EXPLAINABLE_COMMANDS.contains(commandName) && !current.get().stats.containsKey(key)
+                ? command.clone() : null;
+        started.put(event.getRequestId(),
+                new Started(key, event.getDatabaseName(), collection, commandName, shape, example));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Started command = started.remove(event.getRequestId());
+        if (command != null) {
+            record(command, event.getElapsedTime(TimeUnit.NANOSECONDS), documents(event.getResponse()));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Started command = started.remove(event.getRequestId());
+        if (command != null) {
+            record(command, event.getElapsedTime(TimeUnit.NANOSECONDS), 0);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches profiling on or off. Switching it on starts a new window, so the totals do not mix in a gap.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            previous = null;
+            current.set(new Window(System.nanoTime(), Instant.now()));
+        }
+        this.enabled = enabled;
+        started.clear();
+    }
+
+    /**
+     * The shapes with the highest total time in the current window, highest first.
+     */
+    public List<ShapeStats> top(int limit) {
+        return top(currentWindow(System.nanoTime()), limit);
+    }
+
+    /**
+     * The shapes with the highest total time in the previous, complete window, or none before the first one ends.
+     */
+    public List<ShapeStats> topOfPreviousWindow(int limit) {
+        currentWindow(System.nanoTime());
+        Window window = previous;
+        return window == null ? List.of() : top(window, limit);
+    }
+
+    public Instant windowStart() {
+        return currentWindow(System.nanoTime()).startedAt;
+    }
+
+    public List<QuerySample> slowQueries() {
+        return slow.newestFirst();
+    }
+
+    public List<QuerySample> sampledQueries() {
+        return sampled.newestFirst();
+    }
+
+    private void record(Started command, long nanos, long documents) {
+        Window window = currentWindow(System.nanoTime());
+        ShapeStats stats = window.stats.get(command.key);
+        if (stats == null) {
+            // Past the bound, new shapes are only counted together, so a query built with varying fields cannot grow the map
+            stats = window.stats.size() < maxShapes
+                    ? window.stats.computeIfAbsent(command.key, key -> new ShapeStats(command))
+                    : window.overflow;
+        }
+        stats.add(nanos, documents);
+
+        boolean isSlow = nanos >= slowThresholdNanos;
+        if (isSlow) {
+            slowQueries.increment();
+            slow.add(command.sample(nanos, documents));
+            logger.warn("Slow query on {}: {} {} took {} ms and returned {} documents",
+                    command.collection, command.commandName, command.shape, TimeUnit.NANOSECONDS.toMillis(nanos), documents);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            sampled.add(command.sample(nanos, documents));
+            logger.debug("Sampled query on {}: {} {} took {} us and returned {} documents",
+                    command.collection, command.commandName, command.shape, TimeUnit.NANOSECONDS.toMicros(nanos), documents);
+        }
+    }
+
+    private Window currentWindow(long now) {
+        Window window = current.get();
+        if (now - window.startNanos < windowNanos) {
+            return window;
+        }
+        Window next = new Window(now, Instant.now());
+        if (current.compareAndSet(window, next)) {
+            previous = window;
+            return next;
+        }
+        return current.get();
+    }
+
+    private static List<ShapeStats> top(Window window, int limit) {
+        List<ShapeStats> shapes = new ArrayList<>(window.stats.values());
+        if (window.overflow.count() > 0) {
+            shapes.add(window.overflow);
+        }
+        shapes.sort(Comparator.comparingLong(ShapeStats::totalNanos).reversed());
+        return shapes.size() > limit ? new ArrayList<>(shapes.subList(0, limit)) : shapes;
+    }
+
+    /**
+     * The documents a command returned or wrote: the size of a cursor's batch, or the count a write or count reports.
+     */
+    static long documents(BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().get("firstBatch");
+            if (batch == null) {
+                batch = cursor.asDocument().get("nextBatch");
+            }
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : 0;
+    }
+
+    private record Started(String key, String database, String collection, String commandName, String shape,
+                           BsonDocument example) {
+
+        QuerySample sample(long nanos, long documents) {
+            return new QuerySample(Instant.now(), collection, commandName, shape, nanos / 1_000_000.0, documents);
+        }
+    }
+
+    private static final class Window {
+
+        private final long startNanos;
+        private final Instant startedAt;
+        private final Map<String, ShapeStats> stats = new ConcurrentHashMap<>();
+        private final ShapeStats overflow = new ShapeStats(new Started("", "", "*", "*", "(other shapes)", null));
+
+        Window(long startNanos, Instant startedAt) {
+            this.startNanos = startNanos;
+            this.startedAt = startedAt;
+        }
+    }
+
+    /**
+     * The totals of one query shape in one window.
+     */
+    public static final class ShapeStats {
+
+        private final Started command;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder documents = new LongAdder();
+        // Filled in by the endpoint the first time it shows this shape
+        private volatile String planSummary;
+
+        private ShapeStats(Started command) {
+            this.command = command;
+        }
+
+        private void add(long nanos, long documents) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            this.documents.add(documents);
+        }
+
+        public String database() {
+            return command.database;
+        }
+
+        public String collection() {
+            return command.collection;
+        }
+
+        public String commandName() {
+            return command.commandName;
+        }
+
+        public String shape() {
+            return command.shape;
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long maxNanos() {
+            return maxNanos.get();
+        }
+
+        public long documents() {
+            return documents.sum();
+        }
+
+        /**
+         * A concrete command of this shape, with the values it was sent with, or null when none can be explained.
+         */
+        BsonDocument example() {
+            return command.example;
+        }
+
+        String planSummary() {
+            return planSummary;
+        }
+
+        void planSummary(String planSummary) {
+            this.planSummary = planSummary;
+        }
+    }
+
+    /**
+     * One query, as kept among the recent slow or sampled queries.
+     */
+    public record QuerySample(Instant at, String collection, String command, String shape, double durationMs,
+                              long documents) {
+    }
+
+    /**
+     * The last queries added, in a ring that overwrites the oldest.
+     */
+    private static final class RecentQueries {
+
+        private final AtomicReferenceArray<QuerySample> ring;
+        private final AtomicLong next = new AtomicLong();
+
+        RecentQueries(int size) {
+            this.ring = new AtomicReferenceArray<>(size);
+        }
+
+        void add(QuerySample sample) {
+            ring.set((int) (next.getAndIncrement() % ring.length()), sample);
+        }
+
+        List<QuerySample> newestFirst() {
+            long end = next.get();
+            List<QuerySample> samples = new ArrayList<>(ring.length());
+            for (long i = end - 1; i >= 0 && i >= end - ring.length(); i--) {
+                QuerySample sample = ring.get((int) (i % ring.length()));
+                if (sample != null) {
+                    samples.add(sample);
+                }
+            }
+            return samples;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.finance_tracker.metrics;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/queries}: the query shapes with the highest total time in the current and the previous window of
+ * {@link QueryProfiler}, with the recent slow and sampled queries. A POST of {@code {"enabled": true}} switches the
+ * profiler on or off.
+ * <p>
+ * Each shape shown carries a summary of the plan MongoDB picks for it, such as {@code FETCH <- IXSCAN userId_1_date_-1}.
+ * It comes from explaining a concrete command of the shape at the planner level, which does not run the query, the
+ * first time the shape is read, rather than from the commands the application sends.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryProfilerEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryProfilerEndpoint.class);
+
+    private final QueryProfiler queryProfiler;
+    private final MongoTemplate mongoTemplate;
+    private final int topN;
+
+    @Autowired
+    public QueryProfilerEndpoint(QueryProfiler queryProfiler, MongoTemplate mongoTemplate,
+                                 @Value("${mongo.profiler.top-n:20}") int topN) {
+        this.queryProfiler = queryProfiler;
+        this.mongoTemplate = mongoTemplate;
+        this.topN = topN;
+    }
+
+    @ReadOperation
+    public QueryProfile profile() {
+        return new QueryProfile(queryProfiler.isEnabled(), queryProfiler.windowStart(),
+                queryProfiler.top(topN).stream().map(this::describe).toList(),
+                queryProfiler.topOfPreviousWindow(topN).stream().map(this::describe).toList(),
+                queryProfiler.slowQueries(), queryProfiler.sampledQueries());
+    }
+
+    @WriteOperation
+    public QueryProfile enable(boolean enabled) {
+        queryProfiler.setEnabled(enabled);
+        logger.info("Query profiler {}", enabled ? "enabled" : "disabled");
+        return profile();
+    }
+
+    private ShapeSummary describe(QueryProfiler.ShapeStats stats) {
+        long count = stats.count();
+        return new ShapeSummary(stats.collection(), stats.commandName(), stats.shape(), count,
+                stats.totalNanos() / 1_000_000.0, count == 0 ? 0 : stats.totalNanos() / 1_000_000.0 / count,
+                stats.maxNanos() / 1_000_000.0, stats.documents(), planSummary(stats));
+    }
+
+    private String planSummary(QueryProfiler.ShapeStats stats) {
+        String summary = stats.planSummary();
+        if (summary != null || stats.example() == null) {
+            return summary;
+        }
+        try {
+            BsonDocument explain = new BsonDocument("explain", withoutSessionFields(stats.example()))
+                    .append("verbosity", new BsonString("queryPlanner"));
+            BsonDocument result = mongoTemplate.getMongoDatabaseFactory().getMongoDatabase(stats.database())
+                    .runCommand(explain, BsonDocument.class);
+            BsonDocument winningPlan = find(result, "winningPlan");
+            summary = winningPlan == null ? "unknown" : summarize(winningPlan.containsKey("queryPlan")
+                    ? winningPlan.getDocument("queryPlan") : winningPlan);
+        } catch (RuntimeException e) {
+            logger.debug("Could not explain {} on {}: {}", stats.commandName(), stats.collection(), e.getMessage());
+            summary = "unavailable";
+        }
+        stats.planSummary(summary);
+        return summary;
+    }
+
+    /**
+     * The command without the fields the driver adds for the session and the server, which explain does not accept.
+     */
+    private static BsonDocument withoutSessionFields(BsonDocument command) {
+        BsonDocument stripped = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber") && !key.equals("autocommit")
+                    && !key.equals("startTransaction") && !key.equals("readConcern") && !key.equals("writeConcern")) {
+                stripped.append(key, entry.getValue());
+            }
+        }
+        return stripped;
+    }
+
+    /**
+     * The first document under the given key, searching depth first; an aggregation nests it under its first stage.
+     */
+    private static BsonDocument find(BsonValue value, String key) {
+        if (value.isDocument()) {
+            BsonDocument document = value.asDocument();
+            BsonValue found = document.get(key);
+            if (found != null && found.isDocument()) {
+                return found.asDocument();
+            }
+            for (BsonValue child : document.values()) {
+                BsonDocument nested = find(child, key);
+                if (nested != null) {
+                    return nested;
+                }
+            }
+        } else if (value.isArray()) {
+            for (BsonValue child : value.asArray()) {
+                BsonDocument nested = find(child, key);
+                if (nested != null) {
+                    return nested;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The stages of a plan from the last to the first, each with the index it scans.
+     */
+    static String summarize(BsonDocument stage) {
+        StringBuilder summary = new StringBuilder(stage.getString("stage", new BsonString("?")).getValue());
+        if (stage.containsKey("indexName")) {
+            summary.append(' ').append(stage.getString("indexName").getValue());
+        }
+        if (stage.containsKey("inputStage") && stage.get("inputStage").isDocument()) {
+            summary.append(" <- ").append(summarize(stage.getDocument("inputStage")));
+        } else if (stage.containsKey("inputStages") && stage.get("inputStages").isArray()) {
+            BsonArray inputs = stage.getArray("inputStages");
+            summary.append(" <- (");
+            for (int i = 0; i < inputs.size(); i++) {
+                if (i > 0) {
+                    summary.append(", ");
+                }
+                summary.append(inputs.get(i).isDocument() ? summarize(inputs.get(i).asDocument()) : "?");
+            }
+            summary.append(')');
+        }
+        return summary.toString();
+    }
+
+    public record QueryProfile(boolean enabled, Instant windowStart, List<ShapeSummary> top,
+                               List<ShapeSummary> previousWindow, List<QueryProfiler.QuerySample> slow,
+                               List<QueryProfiler.QuerySample> sampled) {
+    }
+
+    public record ShapeSummary(String collection, String command, String shape, long count, double totalMs,
+                               double meanMs, double maxMs, long documents, String plan) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.finance_tracker.metrics;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduces the query of a MongoDB command to its shape: the filter, sort and pipeline with every literal value
+ * replaced by {@code ?}. Queries that differ only in their values, such as the same lookup for two
+ * users, have the same shape, and the shape carries no user data, so it can be logged and kept.
+ * <p>
+ * Field names and operators are kept, as are sort directions, which pick the index as much as the filter does.
+ */
+public final class QueryShape {
+
+    static final String LITERAL = "?";
+
+    /** The driver's own handshakes, heartbeats and session housekeeping, which no application code sends. */
+    static final Set<String> DRIVER_COMMANDS = Set.of("hello", "isMaster", "ismaster", "buildInfo", "buildinfo",
+            "saslStart", "saslContinue", "endSessions", "ping");
+
+    /** Commands that carry no query of their own and are aggregated by collection only. */
+    private static final Set<String> NO_FILTER = Set.of("insert", "getMore", "killCursors", "create", "createIndexes",
+            "listIndexes", "drop", "dropIndexes");
+
+    private QueryShape() {
+    }
+
+    /**
+     * The collection a command runs against, or the database name for commands without one.
+     */
+    public static String collection(String commandName, BsonDocument command, String databaseName) {
+        BsonValue target = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return target != null && target.isString() ? target.asString().getValue() : databaseName;
+    }
+
+    /**
+     * The shape of the query in a command, such as {@code {"userId": ?, "date": {"$gte": ?}} sort {"date": -1}}.
+     */
+    public static String of(String commandName, BsonDocument command) {
+        if (NO_FILTER.contains(commandName)) {
+            return "";
+        }
+        StringBuilder shape = new StringBuilder();
+        switch (commandName) {
+            case "find" -> {
+                append(shape, command.get("filter"));
+                appendVerbatim(shape, "sort", command.get("sort"));
+            }
+            case "aggregate" -> append(shape, command.get("pipeline"));
+            case "count" -> append(shape, command.get("query"));
+            case "distinct" -> {
+                shape.append(command.getString("key", new BsonString(LITERAL)).getValue()).append(' ');
+                append(shape, command.get("query"));
+            }
+            case "findAndModify" -> {
+                append(shape, command.get("query"));
+                appendVerbatim(shape, "sort", command.get("sort"));
+                append(shape.append(" update "), command.get("update"));
+            }
+            case "update" -> appendFirst(shape, command.get("updates"), "q", "u");
+            case "delete" -> appendFirst(shape, command.get("deletes"), "q", null);
+            default -> shape.append("{...}");
+        }
+        return shape.toString();
+    }
+
+    private static void appendFirst(StringBuilder shape, BsonValue statements, String queryKey, String updateKey) {
+        // A bulk write sends many statements of the same shape; the first stands for all of them
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()
+                || !statements.asArray().get(0).isDocument()) {
+            shape.append("{}");
+            return;
+        }
+        BsonDocument statement = statements.asArray().get(0).asDocument();
+        append(shape, statement.get(queryKey));
+        if (updateKey != null) {
+            append(shape.append(" update "), statement.get(updateKey));
+        }
+        if (statements.asArray().size() > 1) {
+            shape.append(" (bulk)");
+        }
+    }
+
+    private static void appendVerbatim(StringBuilder shape, String label, BsonValue value) {
+        if (value != null && value.isDocument() && !value.asDocument().isEmpty()) {
+            shape.append(' ').append(label).append(' ').append(value.asDocument().toJson());
+        }
+    }
+
+    private static void append(StringBuilder shape, BsonValue value) {
+        if (value == null) {
+            shape.append("{}");
+        } else if (value.isDocument()) {
+            appendDocument(shape, value.asDocument());
+        } else if (value.isArray()) {
+            appendArray(shape, value.asArray());
+        } else {
+            shape.append(LITERAL);
+        }
+    }
+
+    private static void appendDocument(StringBuilder shape, BsonDocument document) {
+        shape.append('{');
+        boolean first = true;
+        for (Map.Entry<String, BsonValue> entry : document.entrySet()) {
+            if (!first) {
+                shape.append(", ");
+            }
+            first = false;
+            shape.append('"').append(entry.getKey()).append("\": ");
+            if ("$sort".equals(entry.getKey())) {
+                shape.append(entry.getValue().isDocument() ? entry.getValue().asDocument().toJson() : LITERAL);
+            } else {
+                append(shape, entry.getValue());
+            }
+        }
+        shape.append('}');
+    }
+
+    private static void appendArray(StringBuilder shape, BsonArray array) {
+        // The values of an $in or $nin are one literal however many there are; pipelines and $and/$or keep their parts
+        boolean literals = true;
+        for (BsonValue element : array) {
+            if (element.isDocument() || element.isArray()) {
+                literals = false;
+                break;
+            }
+        }
+        if (literals) {
+            shape.append('[').append(LITERAL).append(']');
+            return;
+        }
+        shape.append('[');
+        for (int i = 0; i < array.size(); i++) {
+            if (i > 0) {
+                shape.append(", ");
+            }
+            append(shape, array.get(i));
+        }
+        shape.append(']');
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.finance_tracker.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What one request cost: the MongoDB commands it sent, the documents they read and wrote and the bytes they
+ * exchanged, the exchange-rate API calls it made, and the CPU time and memory its threads used.
+ * <p>
+ * The resources of the current thread are found through {@link #current()}. {@code RequestResourcesFilter} opens them
+ * for each HTTP request and reports them in the {@code X-Resource-Usage} header and a log line. Work handed to an
+ * executor decorated with {@link #propagate(Runnable)} is counted against the request that handed it over.
+ * <p>
+ * Tests can measure a call the same way:
+ * <pre>{@code
+ * try (RequestResources resources = RequestResources.open()) {
+ *     dashboardService.getUserDashboardSummary(userId);
+ *     assertTrue(resources.usage().mongoCommands() <= 3);
+ * }
+ * }</pre>
+ */
+public final class RequestResources implements AutoCloseable {
+
+    private static final ThreadLocal<RequestResources> CURRENT = new ThreadLocal<>();
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+    private static final boolean ALLOCATED_BYTES = THREADS instanceof com.sun.management.ThreadMXBean sun
+            && sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled();
+
+    private final RequestResources previous;
+    private final Thread owner;
+    private final long startNanos;
+    private final long startCpuNanos;
+    private final long startAllocatedBytes;
+    private volatile long wallNanos = -1;
+
+    // Adders, since the commands of a request can run on the threads it fanned out to
+    private final LongAdder mongoCommands = new LongAdder();
+    private final LongAdder documentsRead = new LongAdder();
+    private final LongAdder documentsWritten = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder exchangeRateCalls = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private RequestResources(RequestResources previous) {
+        this.previous = previous;
+        this.owner = Thread.currentThread();
+        this.startNanos = System.nanoTime();
+        this.startCpuNanos = cpuTime();
+        this.startAllocatedBytes = allocatedBytes();
+    }
+
+    /**
+     * Starts counting the resources used on this thread until {@link #close()}.
+     */
+    public static RequestResources open() {
+        RequestResources resources = new RequestResources(CURRENT.get());
+        CURRENT.set(resources);
+        return resources;
+    }
+
+    /**
+     * The resources being counted on this thread, or null outside a request.
+     */
+    public static RequestResources current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Counts a call to the exchange-rate API against the current request, if there is one.
+     */
+    public static void exchangeRateCall() {
+        RequestResources resources = CURRENT.get();
+        if (resources != null) {
+            resources.exchangeRateCalls.increment();
+        }
+    }
+
+    /**
+     * Wraps a task so that the resources it uses, on whichever thread runs it, are counted against the request that
+     * submitted it. Meant as an executor's task decorator.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestResources resources = CURRENT.get();
+        if (resources == null) {
+            return task;
+        }
+        return () -> {
+            RequestResources running = CURRENT.get();
+            if (running == resources) {
+                // Run by the submitting thread itself, whose time the request already counts
+                task.run();
+                return;
+            }
+            CURRENT.set(resources);
+            long cpu = cpuTime();
+            long allocated = allocatedBytes();
+            try {
+                task.run();
+            } finally {
+                resources.cpuNanos.add(cpuTime() - cpu);
+                resources.allocatedBytes.add(allocatedBytes() - allocated);
+                if (running == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(running);
+                }
+            }
+        };
+    }
+
+    void mongoCommand(long bytesSent) {
+        mongoCommands.increment();
+        this.bytesSent.add(bytesSent);
+    }
+
+    void mongoReply(long documentsRead, long documentsWritten, long bytesReceived) {
+        this.documentsRead.add(documentsRead);
+        this.documentsWritten.add(documentsWritten);
+        this.bytesReceived.add(bytesReceived);
+    }
+
+    /**
+     * Stops counting on this thread, adding the CPU time and memory it used since {@link #open()}.
+     */
+    @Override
+    public void close() {
+        if (wallNanos >= 0) {
+            return;
+        }
+        wallNanos = System.nanoTime() - startNanos;
+        cpuNanos.add(cpuTime() - startCpuNanos);
+        allocatedBytes.add(allocatedBytes() - startAllocatedBytes);
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * The resources counted so far. Before {@link #close()}, the CPU time and memory of the opening thread are only
+     * included when it is the one asking, as it is when the response is committed.
+     */
+    public ResourceUsage usage() {
+        long cpu = cpuNanos.sum();
+        long allocated = allocatedBytes.sum();
+        long wall = wallNanos;
+        if (wall < 0) {
+            wall = System.nanoTime() - startNanos;
+            if (Thread.currentThread() == owner) {
+                cpu += cpuTime() - startCpuNanos;
+                allocated += allocatedBytes() - startAllocatedBytes;
+            }
+        }
+        return new ResourceUsage(mongoCommands.sum(), documentsRead.sum(), documentsWritten.sum(), bytesSent.sum(),
+                bytesReceived.sum(), exchangeRateCalls.sum(), cpu / 1_000, allocated, wall / 1_000);
+    }
+
+    private static long cpuTime() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATED_BYTES ? ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes() : 0;
+    }
+}
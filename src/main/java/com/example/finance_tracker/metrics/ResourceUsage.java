@@ -0,0 +1,55 @@
+package com.example.finance_tracker.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The resources counted by {@link RequestResources}, in the form of the {@code X-Resource-Usage} header:
+ * {@code mongo=3, docsRead=42, docsWritten=0, bytesOut=1210, bytesIn=8934, fx=0, cpuUs=2150, allocBytes=412360, wallUs=5400}.
+ */
+public record ResourceUsage(long mongoCommands, long documentsRead, long documentsWritten, long bytesSent,
+                            long bytesReceived, long exchangeRateCalls, long cpuMicros, long allocatedBytes,
+                            long wallMicros) {
+
+    public static final String HEADER = "X-Resource-Usage";
+
+    public String toHeader() {
+        return fields(", ");
+    }
+
+    /**
+     * The same fields separated by spaces, for a structured log line.
+     */
+    public String toLogFields() {
+        return fields(" ");
+    }
+
+    private String fields(String separator) {
+        return "mongo=" + mongoCommands
+                + separator + "docsRead=" + documentsRead
+                + separator + "docsWritten=" + documentsWritten
+                + separator + "bytesOut=" + bytesSent
+                + separator + "bytesIn=" + bytesReceived
+                + separator + "fx=" + exchangeRateCalls
+                + separator + "cpuUs=" + cpuMicros
+                + separator + "allocBytes=" + allocatedBytes
+                + separator + "wallUs=" + wallMicros;
+    }
+
+    /**
+     * Reads a header written by {@link #toHeader()}, so tests can assert the budget of an endpoint from its response.
+     */
+    public static ResourceUsage parse(String header) {
+        Map<String, Long> values = new HashMap<>();
+        for (String pair : header.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                values.put(pair.substring(0, separator).trim(), Long.parseLong(pair.substring(separator + 1).trim()));
+            }
+        }
+        return new ResourceUsage(values.getOrDefault("mongo", 0L), values.getOrDefault("docsRead", 0L),
+                values.getOrDefault("docsWritten", 0L), values.getOrDefault("bytesOut", 0L),
+                values.getOrDefault("bytesIn", 0L), values.getOrDefault("fx", 0L), values.getOrDefault("cpuUs", 0L),
+                values.getOrDefault("allocBytes", 0L), values.getOrDefault("wallUs", 0L));
+    }
+}
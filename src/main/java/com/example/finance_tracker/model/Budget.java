@@ -19,6 +19,7 @@ public class Budget {
     private boolean notificationEnabled;
     private String currencyCode;
     private String goalId;
+    private Long version;
 
     public Budget(String number, String user1, String food, double v, String usd) {
     }
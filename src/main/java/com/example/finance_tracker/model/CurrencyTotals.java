@@ -0,0 +1,19 @@
+package com.example.finance_tracker.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Document(collection = "global_totals")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class CurrencyTotals {
+    @Id
+    private String currencyCode;
+    private double totalIncome;
+    private double totalExpenses;
+    private long transactionCount;
+    private Date updatedAt;
+    private Date reconciledAt;
+}
@@ -1,17 +1,29 @@
 package com.example.finance_tracker.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class Dashboard {
     private int totalUsers;// For Admin
     private double totalIncome;
     private double totalExpenses;
+    private String reportingCurrency; // Currency totalIncome/totalExpenses are expressed in
+    private Map<String, Double> incomeByCurrency; // Unconverted totals per transaction currency
+    private Map<String, Double> expensesByCurrency;
 
     private List<Transaction> recentTransactions; // For user
     private List<Budget> budgets;
     private List<Goal> goals;
     private double netSavings;
-}
\ No newline at end of file
+
+    private List<String> degradedSections = new ArrayList<>(); // Sections that timed out or failed
+
+    @JsonIgnore
+    private Map<String, Long> sectionTimings = new LinkedHashMap<>(); // Section name -> elapsed millis
+}
@@ -0,0 +1,24 @@
+package com.example.finance_tracker.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.List;
+
+@Document(collection = "dashboard_snapshots")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class DashboardSnapshot {
+    @Id
+    private String userId;
+    private List<Transaction> recentTransactions;
+    private List<Budget> budgets;
+    private List<Goal> goals;
+    private double netSavings;
+
+    private int schemaVersion; // Layout version; snapshots written by an older layout are rebuilt
+    private long version;      // Incremented on every write, used for optimistic rebuilds
+    private boolean stale;     // Set when a change cannot be applied incrementally
+    private Date updatedAt;
+}
@@ -2,6 +2,7 @@ package com.example.finance_tracker.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -23,6 +24,9 @@ public class Expense {
     private boolean isRecurring;
     private String recurrencePattern;
     private String currencyCode;
+    @Indexed(unique = true, sparse = true)
+    private String transactionId; // Set when this record is the projection of a Transaction
+    private Long version;
 
     public Expense() {
         this.date = new Date();
@@ -1,13 +1,18 @@
 package com.example.finance_tracker.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
 @Document(collection = "goals")
+@CompoundIndex(name = "shard_deadline", def = "{ 'shardBucket': 1, 'deadline': 1 }")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
 public class Goal {
     @Id
@@ -17,10 +22,16 @@ public class Goal {
     private double targetAmount;
     private double currentAmount;
     private double manualContribution;
+    // Running total of the "Goals" transactions for this goal, kept with $inc. Null until first counted
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double contributedAmount;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Indexed
     private Date deadline;
     private String budgetId;
     private double progressPercentage;
+    @JsonIgnore
+    private Integer shardBucket; // Hash bucket of userId, set on save; the sharded deadline sweep selects goals by it
 
 
 
@@ -2,6 +2,9 @@ package com.example.finance_tracker.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
@@ -10,6 +13,8 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
+@Document(collection = "notification")
+@CompoundIndex(name = "userId_read_createdAt", def = "{'userId': 1, 'read': 1, 'createdAt': -1}") // Inbox, unread first
 public class Notification {
     @Id
     private String id;
@@ -19,7 +24,22 @@ public class Notification {
     private String type;
     private boolean read;
     private Date createdAt;
+    @Indexed(name = "readAt_ttl", expireAfter = "90d") // Read notifications are removed after 90 days
+    private Date readAt;
     private String email;
 
+    // Identifies repeats of the same alert, see dedupeKey(); repeats update this notification instead of adding one
+    @Indexed(unique = true, sparse = true)
+    private String dedupeKey;
+    private int occurrences = 1; // Number of alerts coalesced into this notification
+    private Date lastOccurredAt;
+
+    /**
+     * Builds the key under which repeats of an alert are coalesced: one notification per user, type and subject
+     * within a period, e.g. {@code "2025-10"} for a monthly budget alert.
+     */
+    public static String dedupeKey(String userId, String type, String subject, String period) {
+        return userId + "|" + type + "|" + subject + "|" + period;
+    }
 }
 
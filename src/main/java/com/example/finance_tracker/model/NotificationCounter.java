@@ -0,0 +1,13 @@
+package com.example.finance_tracker.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document(collection = "notification_counters")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class NotificationCounter {
+    @Id
+    private String id; // User id
+    private long unread; // Unread notifications of the user
+}
@@ -0,0 +1,14 @@
+package com.example.finance_tracker.model;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class NotificationInbox {
+    private List<Notification> notifications; // Unread first, then newest first
+    private long unreadCount;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
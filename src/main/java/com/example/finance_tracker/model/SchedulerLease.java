@@ -0,0 +1,17 @@
+package com.example.finance_tracker.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Document(collection = "scheduler_leases")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class SchedulerLease {
+    @Id
+    private String id; // "<job>:<shard>"
+    private String owner; // Instance currently holding the lease
+    private Date expiresAt; // Lease is free once this has passed, e.g. after its owner died
+    private String completedRunKey; // Last run of the job this shard finished
+}
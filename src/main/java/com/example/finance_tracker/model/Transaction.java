@@ -1,16 +1,26 @@
 package com.example.finance_tracker.model;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 
-@Builder
+@Builder(toBuilder = true)
 @Document(collection = "transactions")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_date", def = "{ 'userId': 1, 'date': -1 }"),
+        @CompoundIndex(name = "userId_category", def = "{ 'userId': 1, 'category': 1 }"),
+        @CompoundIndex(name = "recurring_nextRunAt", def = "{ 'IsRecurring': 1, 'nextRunAt': 1 }"),
+        @CompoundIndex(name = "recurring_shard_nextRunAt", def = "{ 'IsRecurring': 1, 'shardBucket': 1, 'nextRunAt': 1 }")
+})
 @Getter @Setter  @AllArgsConstructor @ToString
 public class Transaction {
     @Id
@@ -24,16 +34,22 @@ public class Transaction {
     private Date date;
     private String description;
     private List<String> tags;
+    @Indexed(sparse = true)
     private String goalId;
 
     private boolean IsRecurring;
     private String recurrencePattern; // e.g., "daily", "weekly", "monthly"
     private Date recurrenceEndDate;
+    private Date nextRunAt; // Date of the next occurrence to generate from this recurring template
+
+    private String recurrenceTemplateId; // Set on occurrences generated from a recurring template
+    @Indexed(unique = true, sparse = true)
+    private String occurrenceKey; // Template id + occurrence date; makes generation idempotent
+    private Long version;
+    @JsonIgnore
+    private Integer shardBucket; // Hash bucket of userId, set on save; sharded jobs select their templates by it
 
     public Transaction() {
         this.date = new Date();
     }
-
-    public Transaction(String userId, double allocation, String savings, Date now, String s) {
-    }
 }
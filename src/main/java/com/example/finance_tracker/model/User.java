@@ -39,6 +39,8 @@ public class User implements UserDetails {
     private String password;
     private List<String> roles = Collections.emptyList();
     private String baseCurrency;
+    private String timeZone; // IANA zone id, e.g. "Asia/Colombo"; the application default when not set
+    private Long version;
 
     @JsonIgnore
     private boolean authorities;
@@ -4,6 +4,7 @@ import com.example.finance_tracker.model.Budget;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +13,7 @@ public interface BudgetRepository extends MongoRepository<Budget, String> {
     List<Budget> findByUserId(String userId);
 
     Optional<Budget> findByGoalId(String goalId); // Corrected return type
+    List<Budget> findByGoalIdIn(Collection<String> goalIds);
 
     Optional<Object> findByUserIdAndCategory(String userId, String savings);
 }
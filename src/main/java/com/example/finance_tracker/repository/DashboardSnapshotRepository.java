@@ -0,0 +1,9 @@
+package com.example.finance_tracker.repository;
+
+import com.example.finance_tracker.model.DashboardSnapshot;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DashboardSnapshotRepository extends MongoRepository<DashboardSnapshot, String> {
+}
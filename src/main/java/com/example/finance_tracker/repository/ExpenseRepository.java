@@ -5,8 +5,10 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 public interface ExpenseRepository extends MongoRepository<Expense, String> {
 //    List<Expense> findByUserIdAndCategory(String userId, String category);
@@ -25,4 +27,10 @@ public interface ExpenseRepository extends MongoRepository<Expense, String> {
     // Calculate total spending for a specific user across all categories
     @Query(value = "{ 'userId': ?0 }", fields = "{ 'amount': 1 }")
     List<Expense> findAmountsByUserId(String userId);
+
+    Optional<Expense> findByTransactionId(String transactionId);
+
+    List<Expense> findByTransactionIdIn(Collection<String> transactionIds);
+
+    long deleteByTransactionId(String transactionId);
 }
@@ -2,6 +2,8 @@ package com.example.finance_tracker.repository;
 
 import com.example.finance_tracker.model.Goal;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -21,5 +23,15 @@ public interface GoalRepository extends MongoRepository<Goal, String> {
     List<Goal> findByUserIdAndDeadlineBeforeAndProgressPercentageLessThan(String userId, Date date, int i);
 
     List<Goal> findByDeadlineAfter(Date date);
+
+    // Adds to the running total of transaction contributions; goals without a total yet are left to be counted
+    @Query("{ '_id': ?0, 'contributedAmount': { '$ne': null } }")
+    @Update("{ '$inc': { 'contributedAmount': ?1 } }")
+    long incrementContributedAmount(String goalId, double delta);
+
+    // Sets the running total unless a concurrent writer already did
+    @Query("{ '_id': ?0, 'contributedAmount': null }")
+    @Update("{ '$set': { 'contributedAmount': ?1 } }")
+    long initContributedAmount(String goalId, double contributedAmount);
 }
 
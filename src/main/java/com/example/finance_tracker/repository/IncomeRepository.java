@@ -4,10 +4,18 @@ import com.example.finance_tracker.model.Income;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface IncomeRepository extends MongoRepository<Income, String> {
     List<Income> findByUserIdAndDateBetween(String userId, LocalDate startDate, LocalDate endDate);
 
     List<Income> findByUserId(String userId);
-}
\ No newline at end of file
+
+    Optional<Income> findByTransactionId(String transactionId);
+
+    List<Income> findByTransactionIdIn(Collection<String> transactionIds);
+
+    long deleteByTransactionId(String transactionId);
+}
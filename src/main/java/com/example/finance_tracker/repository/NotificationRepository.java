@@ -1,10 +1,17 @@
 package com.example.finance_tracker.repository;
 
 import com.example.finance_tracker.model.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
 
 public interface NotificationRepository extends MongoRepository<Notification, String> {
     List<Notification> findByUserId(String userId);
+
+    // Both served by the { userId, read, createdAt } index; a Slice avoids counting the user's notifications
+    Slice<Notification> findByUserIdOrderByReadAscCreatedAtDesc(String userId, Pageable pageable);
+
+    Slice<Notification> findByUserIdAndReadOrderByCreatedAtDesc(String userId, boolean read, Pageable pageable);
 }
@@ -1,6 +1,8 @@
 package com.example.finance_tracker.repository;
 
 import com.example.finance_tracker.model.Transaction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -15,23 +17,33 @@ public interface TransactionRepository extends MongoRepository<Transaction, Stri
     List<Transaction> findByUserIdAndTagsIn(String userId, List<String> tags);
     List<Transaction> findByIsRecurring(boolean isRecurring);
 
-    // Fetch recent transactions for a user (sorted by date in descending order)
-    @Query(value = "{ 'userId': ?0 }", sort = "{ 'date': -1 }")
-    List<Transaction> findRecentTransactionsByUser(String userId, int limit);
-
-    // Fetch all income transactions (for admin)
-    @Query(value = "{ 'type': 'Income' }", fields = "{ 'amount': 1 }")
-    List<Transaction> findAllIncomeTransactions();
+    // Top-N by date; served by the { userId: 1, date: -1 } index so only 'limit' documents are examined
+    List<Transaction> findByUserIdOrderByDateDesc(String userId, Limit limit);
 
-    // Fetch all expense transactions (for admin)
-    @Query(value = "{ 'type': 'Expense' }", fields = "{ 'amount': 1 }")
-    List<Transaction> findAllExpenseTransactions();
+    // Fetch recent transactions for a user (sorted by date in descending order)
+    default List<Transaction> findRecentTransactionsByUser(String userId, int limit) {
+        return findByUserIdOrderByDateDesc(userId, Limit.of(limit));
+    }
 
     // Fetch income transactions for a specific user
     @Query(value = "{ 'userId': ?0, 'type': 'Income' }", fields = "{ 'amount': 1 }")
     List<Transaction> findIncomeTransactionsByUser(String userId);
 
-    // Fetch expense transactions for a specific user
-    @Query(value = "{ 'userId': ?0, 'type': 'Expense' }", fields = "{ 'amount': 1 }")
+    // Fetch expense transactions for a specific user, except contributions to goals, which are savings
+    @Query(value = "{ 'userId': ?0, 'type': 'Expense', 'category': { '$ne': 'Goals' } }", fields = "{ 'amount': 1 }")
     List<Transaction> findExpenseTransactionsByUser(String userId);
+
+    // Sum of the contributions to a goal; served by the { goalId: 1 } index. Null when there are none
+    @Aggregation(pipeline = {
+            "{ '$match': { 'goalId': ?0, 'category': 'Goals' } }",
+            "{ '$group': { '_id': null, 'total': { '$sum': '$amount' } } }"
+    })
+    Double sumGoalContributions(String goalId);
+
+    // Sum of a user's transactions in a category; served by the { userId: 1, category: 1 } index. Null when there are none
+    @Aggregation(pipeline = {
+            "{ '$match': { 'userId': ?0, 'category': ?1 } }",
+            "{ '$group': { '_id': null, 'total': { '$sum': '$amount' } } }"
+    })
+    Double sumAmountByUserAndCategory(String userId, String category);
 }
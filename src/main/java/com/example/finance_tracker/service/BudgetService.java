@@ -4,10 +4,13 @@ import com.example.finance_tracker.model.Budget;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface BudgetService {
     Budget setBudget(Budget budget);
     Budget updateBudget(Budget budget);
+
+    Budget patchBudget(String budgetId, Map<String, Object> changes);
     boolean deleteBudget(String budgetId);
     List<Budget> getBudgetsByUser(String userId);
     void checkBudgetExceeded(String userId);
@@ -1,17 +1,29 @@
 package com.example.finance_tracker.service;
 
+import com.example.finance_tracker.event.BudgetChangedEvent;
 import com.example.finance_tracker.model.*;
 import com.example.finance_tracker.repository.BudgetRepository;
 import com.example.finance_tracker.repository.ExpenseRepository;
 import com.example.finance_tracker.util.CurrencyUtil;
+import com.example.finance_tracker.util.DateUtil;
+import com.example.finance_tracker.util.TimeZoneUtil;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.ZoneId;
 import java.util.*;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 @Service("budgetService")
 public class BudgetServiceImpl implements BudgetService {
 
@@ -23,17 +35,32 @@ public class BudgetServiceImpl implements BudgetService {
     private final CurrencyConverterImpl currencyConverterImpl;
     private final GoalsAndSavingsService goalsAndSavingsService;
     private final CurrencyUtil currencyUtil;
+    private final TimeZoneUtil timeZoneUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MongoTemplate mongoTemplate;
+    private final DocumentPatcher documentPatcher;
+
+    // Fields a client may change with a PATCH; the owner and the linked goal are changed through their own operations,
+    // and the currency is always the owner's base currency, as set by setBudget
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "category", "limit", "startDate", "endDate", "notificationEnabled");
 
     @Autowired
     public BudgetServiceImpl(BudgetRepository budgetRepository, NotificationService notificationService,
                              ExpenseRepository expenseRepository, CurrencyConverterImpl currencyConverterImpl,
-                             GoalsAndSavingsService goalsAndSavingsService, CurrencyUtil currencyUtil) {
+                             GoalsAndSavingsService goalsAndSavingsService, CurrencyUtil currencyUtil,
+                             TimeZoneUtil timeZoneUtil, ApplicationEventPublisher eventPublisher,
+                             MongoTemplate mongoTemplate, DocumentPatcher documentPatcher) {
         this.budgetRepository = budgetRepository;
         this.notificationService = notificationService;
         this.expenseRepository = expenseRepository;
         this.currencyConverterImpl = currencyConverterImpl;
         this.goalsAndSavingsService = goalsAndSavingsService;
         this.currencyUtil = currencyUtil;
+        this.timeZoneUtil = timeZoneUtil;
+        this.eventPublisher = eventPublisher;
+        this.mongoTemplate = mongoTemplate;
+        this.documentPatcher = documentPatcher;
     }
 
     @Override
@@ -42,32 +69,43 @@ public class BudgetServiceImpl implements BudgetService {
         budget.setCurrencyCode(baseCurrency);
         budget.setStartDate(new Date());
 
-        logger.info("Setting budget for user: {}", budget.getUserId());
+        logger.info("Setting budget: userId={} category={}", budget.getUserId(), budget.getCategory());
         Budget savedBudget = budgetRepository.save(budget);
         logger.debug("Budget saved successfully: {}", savedBudget);
+        eventPublisher.publishEvent(new BudgetChangedEvent(savedBudget.getUserId(), savedBudget.getId()));
         return savedBudget;
     }
 
     @Override
     public Budget updateBudget(Budget budget) {
-        budget.setId(budget.getId());
-        logger.info("Updating budget with ID: {}", budget.getId());
-        Budget updatedBudget = budgetRepository.save(budget);
+        logger.info("Updating budget: id={}", budget.getId());
+        Budget updatedBudget = documentPatcher.replace(Budget.class, budget).current();
         logger.debug("Budget updated successfully: {}", updatedBudget);
+        eventPublisher.publishEvent(new BudgetChangedEvent(updatedBudget.getUserId(), updatedBudget.getId()));
+        return updatedBudget;
+    }
+
+    @Override
+    public Budget patchBudget(String budgetId, Map<String, Object> changes) {
+        logger.info("Updating budget: id={} fields={}", budgetId, changes.keySet());
+        Budget updatedBudget = documentPatcher.apply(Budget.class, budgetId, changes, PATCHABLE_FIELDS).current();
+        logger.debug("Budget updated successfully: {}", updatedBudget);
+        eventPublisher.publishEvent(new BudgetChangedEvent(updatedBudget.getUserId(), updatedBudget.getId()));
         return updatedBudget;
     }
 
     @Override
     public boolean deleteBudget(String budgetId) {
-        logger.info("Deleting budget with ID: {}", budgetId);
+        logger.info("Deleting budget: id={}", budgetId);
         budgetRepository.deleteById(budgetId);
         logger.debug("Budget deleted successfully: {}", budgetId);
+        eventPublisher.publishEvent(new BudgetChangedEvent(null, budgetId));
         return true;
     }
 
     @Override
     public List<Budget> getBudgetsByUser(String userId) {
-        logger.info("Fetching budgets for user: {}", userId);
+        logger.debug("Fetching budgets: userId={}", userId);
         List<Budget> budgets = budgetRepository.findByUserId(userId);
         logger.debug("Fetched {} budgets for user: {}", budgets.size(), userId);
         return budgets;
@@ -75,25 +113,22 @@ public class BudgetServiceImpl implements BudgetService {
 
     @Override
     public void checkBudgetExceeded(String userId) {
-        logger.info("Checking if budget is exceeded for user: {}", userId);
+        logger.debug("Checking budgets: userId={}", userId);
 
         List<Budget> budgets = budgetRepository.findByUserId(userId);
         logger.debug("Fetched {} budgets for user: {}", budgets.size(), userId);
 
         Date now = new Date(); // Current date
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(now);
 
         // Fetch the user's base currency
         String baseCurrency = currencyUtil.getBaseCurrencyForUser(userId);
         logger.debug("Base currency for user {}: {}", userId, baseCurrency);
 
-        calendar.set(Calendar.DAY_OF_MONTH, 1);
-        Date startDate = calendar.getTime();
-
-        // Set the end date to the last day of the current month
-        calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
-        Date endDate = calendar.getTime();
+        // The current month in the user's time zone; Between is exclusive, so the bounds are widened by a millisecond
+        ZoneId zone = timeZoneUtil.getZoneIdForUser(userId);
+        Date startDate = new Date(DateUtil.startOfMonth(now, zone).getTime() - 1);
+        Date endDate = DateUtil.startOfNextMonth(now, zone);
+        String month = DateUtil.monthKey(now, zone); // Budget alerts are repeated at most once a month
 
         logger.debug("Checking budget for period: {} to {}", startDate, endDate);
 
@@ -127,17 +162,17 @@ public class BudgetServiceImpl implements BudgetService {
                 String message = String.format("You are nearing your budget for %s. Total spent: %.2f %s, Budget: %.2f %s",
                         category, totalExpenses, budget.getCurrencyCode(), budget.getLimit(), budget.getCurrencyCode());
 
-                logger.info("Budget nearing limit for category {}: {}", category, message);
+                logger.info("Budget nearing limit: userId={} category={} used={}", userId, category, budgetUsed);
 
-                Notification notification = createNotification(userId, "Budget Nearing Limit", message);
+                Notification notification = createNotification(userId, "Budget Nearing Limit", message, category, month);
                 notificationService.sendNotification(notification);
             } else if (budgetUsed >= 1.0) {
                 String message = String.format("Your budget for %s has been exceeded. Total spent: %.2f %s, Budget: %.2f %s",
                         category, totalExpenses, budget.getCurrencyCode(), budget.getLimit(), budget.getCurrencyCode());
 
-                logger.info("Budget exceeded for category {}: {}", category, message);
+                logger.info("Budget exceeded: userId={} category={} used={}", userId, category, budgetUsed);
 
-                Notification notification = createNotification(userId, "Budget Exceeded", message);
+                Notification notification = createNotification(userId, "Budget Exceeded", message, category, month);
                 notificationService.sendNotification(notification);
             }
         }
@@ -145,16 +180,14 @@ public class BudgetServiceImpl implements BudgetService {
 
     @Override
     public void provideBudgetAdjustmentRecommendations(String userId) {
-        logger.info("Providing budget adjustment recommendations for user: {}", userId);
+        logger.debug("Recommending budget adjustments: userId={}", userId);
 
         // Get the current date
         Date now = new Date();
 
         // Calculate the date 3 months ago
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(now);
-        calendar.add(Calendar.MONTH, -3);
-        Date threeMonthsAgo = calendar.getTime();
+        ZoneId zone = timeZoneUtil.getZoneIdForUser(userId);
+        Date threeMonthsAgo = DateUtil.plusMonths(now, -3, zone);
 
         logger.debug("Calculating recommendations for period: {} to {}", threeMonthsAgo, now);
 
@@ -197,14 +230,14 @@ public class BudgetServiceImpl implements BudgetService {
                         category, totalSpending, baseCurrency, budgetLimit, baseCurrency
                 );
                 recommendations.add(recommendation);
-                logger.info("Recommendation for category {}: {}", category, recommendation);
+                logger.debug("Recommendation for category {}: {}", category, recommendation);
             } else if (totalSpending < budgetLimit * 0.9) {
                 String recommendation = String.format(
                         "Consider decreasing your budget for %s. Average spending: %.2f %s, Current budget: %.2f %s",
                         category, totalSpending, baseCurrency, budgetLimit, baseCurrency
                 );
                 recommendations.add(recommendation);
-                logger.info("Recommendation for category {}: {}", category, recommendation);
+                logger.debug("Recommendation for category {}: {}", category, recommendation);
             }
         }
 
@@ -212,54 +245,75 @@ public class BudgetServiceImpl implements BudgetService {
         String netSavingsMessage = String.format("Your net savings over the last 3 months: %.2f %s",
                 netSavings, baseCurrency);
         recommendations.add(netSavingsMessage);
-        logger.info("Net savings recommendation: {}", netSavingsMessage);
+        logger.debug("Net savings recommendation: {}", netSavingsMessage);
 
         // Notify the user with recommendations
         if (!recommendations.isEmpty()) {
             String message = "Budget adjustment recommendations:\n" + String.join("\n", recommendations);
-            logger.info("Sending budget adjustment recommendations to user: {}", userId);
+            logger.debug("Sending budget adjustment recommendations: userId={}", userId);
 
-            Notification notification = createNotification(userId, "Budget Adjustment Recommendations", message);
+            Notification notification = createNotification(userId, "Budget Adjustment Recommendations", message,
+                    "recommendations", DateUtil.monthKey(now, zone));
             notificationService.sendNotification(notification);
         }
     }
 
     @Override
     public void allocateBudgetToGoal(String userId, String goalId, double amount) {
-        logger.info("Allocating budget to goal for user: {}, goal ID: {}, amount: {}", userId, goalId, amount);
-
-        Goal goal = goalsAndSavingsService.getGoalById(goalId);
-        Budget budget = (Budget) budgetRepository.findByUserIdAndCategory(userId, "Savings")
-                .orElseThrow(() -> new ResourceNotFoundException("Savings budget not found"));
+        logger.info("Allocating budget to goal: userId={} goalId={} amount={}", userId, goalId, amount);
 
-        // Ensure the allocation does not exceed the budget limit
-        if (amount > budget.getLimit()) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Allocation amount must be greater than 0");
+        }
+        goalsAndSavingsService.getGoalById(goalId); // Fails before the budget is touched if the goal does not exist
+
+        // Deduct the allocated amount only if the budget still covers it, checked and applied in one update
+        Query savingsBudget = query(where("userId").is(userId).and("category").is("Savings").and("limit").gte(amount));
+        Budget budget = mongoTemplate.findAndModify(savingsBudget, new Update().inc("limit", -amount),
+                FindAndModifyOptions.options().returnNew(true), Budget.class);
+        if (budget == null) {
+            budgetRepository.findByUserIdAndCategory(userId, "Savings")
+                    .orElseThrow(() -> new ResourceNotFoundException("Savings budget not found"));
             logger.error("Allocation amount exceeds budget limit for user: {}", userId);
             throw new IllegalArgumentException("Allocation amount exceeds budget limit");
         }
-
-        // Deduct the allocated amount from the budget
-        budget.setLimit(budget.getLimit() - amount);
-        budgetRepository.save(budget);
         logger.debug("Budget updated after allocation: {}", budget);
 
-        // Add the allocated amount to the goal
-        goal.setCurrentAmount(goal.getCurrentAmount() + amount);
-        goalsAndSavingsService.updateGoal(goal);
+        // Add the allocated amount to the goal. If that fails, e.g. because the goal was deleted since the check
+        // above, the amount is given back to the budget
+        Goal goal;
+        try {
+            goal = goalsAndSavingsService.addManualContribution(goalId, amount);
+        } catch (RuntimeException e) {
+            refundBudget(budget.getId(), amount, e);
+            throw e;
+        }
         logger.debug("Goal updated after allocation: {}", goal);
+        eventPublisher.publishEvent(new BudgetChangedEvent(userId, budget.getId()));
 
         // Notify the user
         String message = String.format("Allocated %.2f %s from your budget to the goal '%s'",
                 amount, budget.getCurrencyCode(), goal.getName());
-        logger.info("Sending allocation notification to user: {}", userId);
+        logger.debug("Sending allocation notification: userId={}", userId);
 
         Notification notification = createNotification(userId, "Budget Allocation", message);
         notificationService.sendNotification(notification);
     }
 
+    // Reverses a deduction with a $inc, so allocations made to the budget meanwhile are kept
+    private void refundBudget(String budgetId, double amount, RuntimeException cause) {
+        logger.warn("Goal update failed, returning {} to budget {}: {}", amount, budgetId, cause.getMessage());
+        try {
+            mongoTemplate.updateFirst(query(where("_id").is(budgetId)), new Update().inc("limit", amount), Budget.class);
+        } catch (RuntimeException e) {
+            logger.error("Failed to return {} to budget {}, its limit is short by that amount", amount, budgetId, e);
+            cause.addSuppressed(e);
+        }
+    }
+
     @Override
     public boolean isOwner(String budgetId, String userId) {
-        logger.info("Checking if user {} owns budget {}", userId, budgetId);
+        logger.debug("Checking budget ownership: id={} userId={}", budgetId, userId);
 
         Budget budget = budgetRepository.findById(budgetId)
                 .orElseThrow(() -> new ResourceNotFoundException("Budget not found"));
@@ -282,4 +336,11 @@ public class BudgetServiceImpl implements BudgetService {
 
         return notification;
     }
+
+    // A notification that repeats of the same alert for the subject within the period are coalesced into
+    private Notification createNotification(String userId, String title, String message, String subject, String period) {
+        Notification notification = createNotification(userId, title, message);
+        notification.setDedupeKey(Notification.dedupeKey(userId, notification.getType(), title + ":" + subject, period));
+        return notification;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.example.finance_tracker.service;
 
+import com.example.finance_tracker.model.CurrencyTotals;
 import com.example.finance_tracker.model.Dashboard;
+import com.example.finance_tracker.model.DashboardSnapshot;
 import com.example.finance_tracker.model.Transaction;
 import com.example.finance_tracker.model.Budget;
 import com.example.finance_tracker.model.Goal;
@@ -9,10 +11,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.example.finance_tracker.repository.*;
+import com.example.finance_tracker.service.api.ExchangeRateApiClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class DashboardServiceImpl implements DashboardService {
@@ -34,6 +47,28 @@ public class DashboardServiceImpl implements DashboardService {
     @Autowired
     private GoalRepository goalRepository;
 
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Autowired
+    private GlobalTotalsService globalTotalsService;
+
+    @Autowired
+    private RecentTransactionsCache recentTransactionsCache;
+
+    @Autowired
+    private ExchangeRateApiClient exchangeRateApiClient;
+
+    @Value("${app.base-currency:LKR}")
+    private String reportingCurrency;
+
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private Executor dashboardExecutor;
+
+    @Value("${dashboard.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
+
     @Override
     public Dashboard getAdminDashboardSummary() {
         Dashboard summary = new Dashboard();
@@ -41,12 +76,40 @@ public class DashboardServiceImpl implements DashboardService {
         logger.info("Total Users: {}", totalUsers);
         summary.setTotalUsers((int) totalUsers);
 
-        double totalIncome = transactionService.calculateTotalIncome();
-        logger.info("Total Income: {}", totalIncome);
+        // Reads one pre-aggregated document per currency instead of scanning the transactions collection
+        List<CurrencyTotals> totals = globalTotalsService.getTotalsByCurrency();
+        Map<String, Double> incomeByCurrency = new LinkedHashMap<>();
+        Map<String, Double> expensesByCurrency = new LinkedHashMap<>();
+        for (CurrencyTotals currencyTotals : totals) {
+            incomeByCurrency.put(currencyTotals.getCurrencyCode(), currencyTotals.getTotalIncome());
+            expensesByCurrency.put(currencyTotals.getCurrencyCode(), currencyTotals.getTotalExpenses());
+        }
+        summary.setIncomeByCurrency(incomeByCurrency);
+        summary.setExpensesByCurrency(expensesByCurrency);
+        summary.setReportingCurrency(reportingCurrency);
+
+        Map<String, Double> rates = totals.isEmpty() ? Collections.emptyMap()
+                : exchangeRateApiClient.getLatestExchangeRates(reportingCurrency);
+        if (rates == null) {
+            logger.warn("Exchange rates unavailable, admin totals reported per currency only");
+            summary.getDegradedSections().add("reportingTotals");
+            return summary;
+        }
+
+        double totalIncome = 0;
+        double totalExpenses = 0;
+        for (CurrencyTotals currencyTotals : totals) {
+            Double rate = rates.get(currencyTotals.getCurrencyCode());
+            if (rate == null || rate == 0) {
+                logger.warn("No exchange rate for {}, excluded from {} totals", currencyTotals.getCurrencyCode(), reportingCurrency);
+                continue;
+            }
+            totalIncome += currencyTotals.getTotalIncome() / rate;
+            totalExpenses += currencyTotals.getTotalExpenses() / rate;
+        }
+        logger.info("Total Income: {} {}", totalIncome, reportingCurrency);
         summary.setTotalIncome(totalIncome);
-
-        double totalExpenses = transactionService.calculateTotalExpenses();
-        logger.info("Total Expenses: {}", totalExpenses);
+        logger.info("Total Expenses: {} {}", totalExpenses, reportingCurrency);
         summary.setTotalExpenses(totalExpenses);
 
         return summary;
@@ -54,13 +117,85 @@ public class DashboardServiceImpl implements DashboardService {
 
     @Override
     public Dashboard getUserDashboardSummary(String userId) {
+        long start = System.nanoTime();
+        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot(userId).orElse(null);
+        if (dashboardSnapshotService.isFresh(snapshot)) {
+            Dashboard summary = toDashboard(snapshot);
+            summary.getSectionTimings().put("snapshot", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return summary;
+        }
+
+        // Missing or stale snapshot: rebuild from the source collections and store it for the next read
+        long expectedVersion = snapshot != null ? snapshot.getVersion() : -1;
+        Dashboard summary = loadUserDashboard(userId);
+        if (summary.getDegradedSections().isEmpty()) {
+            dashboardSnapshotService.saveSnapshot(userId, summary, expectedVersion);
+        }
+        return summary;
+    }
+
+    private Dashboard loadUserDashboard(String userId) {
+        Dashboard summary = new Dashboard();
+
+        // The sections are independent, so run them concurrently; latency becomes the slowest query, not the sum
+        Section<List<Transaction>> recentTransactions = submit("recentTransactions",
+                () -> recentTransactionsCache.getRecent(userId, DashboardSnapshotServiceImpl.RECENT_TRANSACTIONS_LIMIT,
+                        limit -> transactionRepository.findRecentTransactionsByUser(userId, limit)));
+        Section<List<Budget>> budgets = submit("budgets", () -> budgetRepository.findByUserId(userId));
+        Section<List<Goal>> goals = submit("goals", () -> goalRepository.findByUserId(userId));
+        Section<Double> netSavings = submit("netSavings", () -> transactionService.calculateNetSavings(userId));
+
+        summary.setRecentTransactions(recentTransactions.await(summary, Collections.emptyList()));
+        summary.setBudgets(budgets.await(summary, Collections.emptyList()));
+        summary.setGoals(goals.await(summary, Collections.emptyList()));
+        summary.setNetSavings(netSavings.await(summary, 0.0));
+
+        logger.debug("Dashboard sections for user {}: {}", userId, summary.getSectionTimings());
+        return summary;
+    }
+
+    private static Dashboard toDashboard(DashboardSnapshot snapshot) {
         Dashboard summary = new Dashboard();
-        summary.setRecentTransactions(transactionRepository.findRecentTransactionsByUser(userId, 5));
-        summary.setBudgets(budgetRepository.findByUserId(userId));
-        summary.setGoals(goalRepository.findByUserId(userId));
-        summary.setNetSavings(transactionService.calculateNetSavings(userId));
+        summary.setRecentTransactions(snapshot.getRecentTransactions());
+        summary.setBudgets(snapshot.getBudgets());
+        summary.setGoals(snapshot.getGoals());
+        summary.setNetSavings(snapshot.getNetSavings());
         return summary;
     }
 
+    private <T> Section<T> submit(String name, Supplier<T> query) {
+        Section<T> section = new Section<>(name);
+        section.future = CompletableFuture.supplyAsync(query, dashboardExecutor)
+                .orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((result, ex) -> section.endNanos = System.nanoTime());
+        return section;
+    }
 
-}
\ No newline at end of file
+    /**
+     * A single dashboard query running on the dashboard executor.
+     * A section that fails or exceeds the timeout is replaced by its fallback and reported as degraded.
+     */
+    private static final class Section<T> {
+        private final String name;
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        private CompletableFuture<T> future;
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        private T await(Dashboard summary, T fallback) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                logger.warn("Dashboard section '{}' degraded: {}", name, e.getCause() != null ? e.getCause().toString() : e.toString());
+                summary.getDegradedSections().add(name);
+                return fallback;
+            } finally {
+                long end = endNanos != 0 ? endNanos : System.nanoTime();
+                summary.getSectionTimings().put(name, TimeUnit.NANOSECONDS.toMillis(end - startNanos));
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.model.Dashboard;
+import com.example.finance_tracker.model.DashboardSnapshot;
+
+import java.util.Optional;
+
+public interface DashboardSnapshotService {
+    Optional<DashboardSnapshot> getSnapshot(String userId);
+
+    boolean isFresh(DashboardSnapshot snapshot);
+
+    void saveSnapshot(String userId, Dashboard dashboard, long expectedVersion);
+
+    void markStale(String userId);
+}
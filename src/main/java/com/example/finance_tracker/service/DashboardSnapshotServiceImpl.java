@@ -0,0 +1,188 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.event.BudgetChangedEvent;
+import com.example.finance_tracker.event.GoalChangedEvent;
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
+import com.example.finance_tracker.model.Dashboard;
+import com.example.finance_tracker.model.DashboardSnapshot;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.BudgetRepository;
+import com.example.finance_tracker.repository.DashboardSnapshotRepository;
+import com.example.finance_tracker.repository.GoalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Service
+public class DashboardSnapshotServiceImpl implements DashboardSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardSnapshotServiceImpl.class);
+
+    public static final int SCHEMA_VERSION = 2; // 2: goal contributions no longer reduce the net savings
+    public static final int RECENT_TRANSACTIONS_LIMIT = 5;
+
+    private final DashboardSnapshotRepository dashboardSnapshotRepository;
+    private final BudgetRepository budgetRepository;
+    private final GoalRepository goalRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${dashboard.snapshot.max-age-minutes:60}")
+    private long maxAgeMinutes = 60;
+
+    @Autowired
+    public DashboardSnapshotServiceImpl(DashboardSnapshotRepository dashboardSnapshotRepository, BudgetRepository budgetRepository,
+                                        GoalRepository goalRepository, MongoTemplate mongoTemplate) {
+        this.dashboardSnapshotRepository = dashboardSnapshotRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<DashboardSnapshot> getSnapshot(String userId) {
+        return dashboardSnapshotRepository.findById(userId);
+    }
+
+    @Override
+    public boolean isFresh(DashboardSnapshot snapshot) {
+        if (snapshot == null || snapshot.isStale() || snapshot.getSchemaVersion() != SCHEMA_VERSION
+                || snapshot.getUpdatedAt() == null) {
+            return false;
+        }
+        // Bound the damage of a missed event: old snapshots are rebuilt even if nothing marked them stale
+        long ageMillis = System.currentTimeMillis() - snapshot.getUpdatedAt().getTime();
+        return ageMillis <= TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+    }
+
+    @Override
+    public void saveSnapshot(String userId, Dashboard dashboard, long expectedVersion) {
+        DashboardSnapshot snapshot = new DashboardSnapshot(userId, dashboard.getRecentTransactions(), dashboard.getBudgets(),
+                dashboard.getGoals(), dashboard.getNetSavings(), SCHEMA_VERSION, expectedVersion + 1, false, new Date());
+
+        // Only replace the version the rebuild started from; a concurrent incremental update wins and the next read rebuilds
+        try {
+            mongoTemplate.findAndReplace(query(where("_id").is(userId).and("version").is(expectedVersion)), snapshot,
+                    FindAndReplaceOptions.options().upsert());
+            logger.debug("Dashboard snapshot rebuilt for user {} at version {}", userId, snapshot.getVersion());
+        } catch (DuplicateKeyException e) {
+            logger.debug("Dashboard snapshot for user {} changed during rebuild, keeping the newer one", userId);
+        }
+    }
+
+    @Override
+    public void markStale(String userId) {
+        mongoTemplate.updateFirst(query(where("_id").is(userId)),
+                new Update().set("stale", true).inc("version", 1), DashboardSnapshot.class);
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        try {
+            if (!event.isCreated()) {
+                // Updates and deletes may evict an entry from the recent list, so let the next read rebuild
+                markStale(event.getUserId());
+                return;
+            }
+
+            Transaction transaction = event.getCurrent();
+            Update update = new Update()
+                    .push("recentTransactions")
+                    .sort(Sort.by(Sort.Direction.DESC, "date"))
+                    .slice(RECENT_TRANSACTIONS_LIMIT)
+                    .each(transaction)
+                    .inc("netSavings", signedAmount(transaction))
+                    .inc("version", 1)
+                    .set("updatedAt", new Date());
+            mongoTemplate.updateFirst(query(where("_id").is(transaction.getUserId()).and("stale").is(false)),
+                    update, DashboardSnapshot.class);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply transaction change to dashboard snapshot for user {}: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onTransactionsCreated(TransactionsCreatedEvent event) {
+        try {
+            double netSavings = event.getTransactions().stream().mapToDouble(DashboardSnapshotServiceImpl::signedAmount).sum();
+            Update update = new Update()
+                    .push("recentTransactions")
+                    .sort(Sort.by(Sort.Direction.DESC, "date"))
+                    .slice(RECENT_TRANSACTIONS_LIMIT)
+                    .each(event.getTransactions().toArray())
+                    .inc("netSavings", netSavings)
+                    .inc("version", 1)
+                    .set("updatedAt", new Date());
+            mongoTemplate.updateFirst(query(where("_id").is(event.getUserId()).and("stale").is(false)),
+                    update, DashboardSnapshot.class);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply created transactions to dashboard snapshot for user {}: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onBudgetChanged(BudgetChangedEvent event) {
+        try {
+            if (event.getUserId() == null) {
+                markStaleWhere("budgets.id", event.getBudgetId());
+                return;
+            }
+            Update update = new Update()
+                    .set("budgets", budgetRepository.findByUserId(event.getUserId()))
+                    .inc("version", 1)
+                    .set("updatedAt", new Date());
+            mongoTemplate.updateFirst(query(where("_id").is(event.getUserId())), update, DashboardSnapshot.class);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply budget change to dashboard snapshot for user {}: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onGoalChanged(GoalChangedEvent event) {
+        try {
+            if (event.getUserId() == null) {
+                markStaleWhere("goals.id", event.getGoalId());
+                return;
+            }
+            Update update = new Update()
+                    .set("goals", goalRepository.findByUserId(event.getUserId()))
+                    .inc("version", 1)
+                    .set("updatedAt", new Date());
+            mongoTemplate.updateFirst(query(where("_id").is(event.getUserId())), update, DashboardSnapshot.class);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply goal change to dashboard snapshot for user {}: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    private void markStaleWhere(String field, String value) {
+        mongoTemplate.updateMulti(query(where(field).is(value)),
+                new Update().set("stale", true).inc("version", 1), DashboardSnapshot.class);
+    }
+
+    // Mirrors calculateNetSavings, which sums 'Income' and 'Expense' transactions by exact type, leaving out
+    // contributions to goals
+    private static double signedAmount(Transaction transaction) {
+        if ("Income".equals(transaction.getType())) {
+            return transaction.getAmount();
+        }
+        if ("Expense".equals(transaction.getType()) && !GoalsAndSavingsServiceImpl.GOALS_CATEGORY.equals(transaction.getCategory())) {
+            return -transaction.getAmount();
+        }
+        return 0;
+    }
+}
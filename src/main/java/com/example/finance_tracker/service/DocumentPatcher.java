@@ -0,0 +1,192 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.exception.InvalidInputException;
+import com.example.finance_tracker.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Applies client updates as a {@code $set} of the changed fields instead of saving the whole document: a PATCH sets
+ * the fields it names, a PUT through {@link #replace} sets all of them. Every update increments the document's
+ * {@code version}; an update that carries a {@code version} is only applied if the document still has it, so two
+ * clients editing the same document cannot overwrite each other's changes unnoticed, whichever endpoint they use.
+ * <p>
+ * The version is kept by these updates rather than Spring Data's {@code @Version}, which would turn the
+ * {@code save} of a document written before the field existed into an insert. A plain {@code save} of a versioned
+ * document would neither check nor increment it, so client updates of these documents must go through here.
+ */
+@Component
+public class DocumentPatcher {
+
+    public static final String VERSION_FIELD = "version";
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public DocumentPatcher(MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The document before and after a patch, and the fields the patch set.
+     */
+    public record Patch<T>(T previous, T current, Set<String> fields) {
+    }
+
+    /**
+     * Sets the given fields of the document. Values are converted to the field types the same way a request body
+     * is; fields not in {@code patchableFields} are rejected.
+     *
+     * @throws InvalidInputException              if a field cannot be patched or no field is given
+     * @throws ResourceNotFoundException          if the document does not exist
+     * @throws OptimisticLockingFailureException if the document no longer has the version in the patch
+     */
+    public <T> Patch<T> apply(Class<T> type, String id, Map<String, Object> changes, Set<String> patchableFields) {
+        Map<String, Object> values = new HashMap<>(changes);
+        boolean versioned = values.containsKey(VERSION_FIELD);
+        Object expectedVersion = values.remove(VERSION_FIELD);
+        if (values.isEmpty()) {
+            throw new InvalidInputException("No fields to update");
+        }
+
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        T converted = convert(values, type);
+        PersistentPropertyAccessor<T> convertedValues = entity.getPropertyAccessor(converted);
+        Map<MongoPersistentProperty, Object> changedValues = new HashMap<>();
+        Update update = new Update();
+        for (String field : values.keySet()) {
+            MongoPersistentProperty property = patchableFields.contains(field) ? entity.getPersistentProperty(field) : null;
+            if (property == null) {
+                throw new InvalidInputException("Field cannot be updated: " + field);
+            }
+            if (values.get(field) == null && property.getType().isPrimitive()) {
+                throw new InvalidInputException("Field cannot be null: " + field);
+            }
+            Object value = convertedValues.getProperty(property);
+            changedValues.put(property, value);
+            update.set(property.getFieldName(), value);
+        }
+        update.inc(VERSION_FIELD, 1);
+
+        T previous = modify(type, id, versioned, expectedVersion, update);
+
+        // The result of the update, built from the previous state rather than read back
+        T current = copy(previous, type);
+        PersistentPropertyAccessor<T> currentValues = entity.getPropertyAccessor(current);
+        changedValues.forEach(currentValues::setProperty);
+        return new Patch<>(previous, withNextVersion(entity, previous, currentValues), values.keySet());
+    }
+
+    /**
+     * Sets every field of {@code document} to its value, removing the ones that are null, as a PUT replaces the whole
+     * document. The id and version are not written: a document that carries a version is only updated if the stored
+     * one still has it, and the version is incremented either way.
+     *
+     * @throws InvalidInputException              if the document has no id
+     * @throws ResourceNotFoundException          if the document does not exist
+     * @throws OptimisticLockingFailureException if the stored document no longer has the version of {@code document}
+     */
+    public <T> Patch<T> replace(Class<T> type, T document) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        PersistentPropertyAccessor<T> values = entity.getPropertyAccessor(document);
+        Object id = values.getProperty(entity.getRequiredIdProperty());
+        if (id == null) {
+            throw new InvalidInputException(type.getSimpleName() + " ID cannot be null");
+        }
+        MongoPersistentProperty version = entity.getPersistentProperty(VERSION_FIELD);
+        Object expectedVersion = version != null ? values.getProperty(version) : null;
+
+        Update update = new Update();
+        Set<String> fields = new HashSet<>();
+        for (MongoPersistentProperty property : entity) {
+            if (property.isIdProperty() || property.equals(version)) {
+                continue;
+            }
+            Object value = values.getProperty(property);
+            if (value == null) {
+                update.unset(property.getFieldName());
+            } else {
+                update.set(property.getFieldName(), value);
+            }
+            fields.add(property.getName());
+        }
+        update.inc(VERSION_FIELD, 1);
+
+        T previous = modify(type, id, expectedVersion != null, expectedVersion, update);
+        return new Patch<>(previous, withNextVersion(entity, previous, values), fields);
+    }
+
+    // Applies the update to the document if it still has the expected version, returning its previous state
+    private <T> T modify(Class<T> type, Object id, boolean versioned, Object expectedVersion, Update update) {
+        Criteria criteria = where("_id").is(id);
+        if (versioned) {
+            // A null version also matches documents written before versions were kept
+            criteria.and(VERSION_FIELD).is(expectedVersion == null ? null : toLong(expectedVersion));
+        }
+        T previous = mongoTemplate.findAndModify(query(criteria), update, FindAndModifyOptions.options().returnNew(false), type);
+        if (previous == null) {
+            String name = type.getSimpleName();
+            if (versioned && mongoTemplate.exists(query(where("_id").is(id)), type)) {
+                throw new OptimisticLockingFailureException(name + " " + id + " was changed by another request");
+            }
+            throw new ResourceNotFoundException(name + " not found");
+        }
+        return previous;
+    }
+
+    private static <T> T withNextVersion(MongoPersistentEntity<?> entity, T previous, PersistentPropertyAccessor<T> current) {
+        MongoPersistentProperty version = entity.getPersistentProperty(VERSION_FIELD);
+        if (version != null) {
+            Object previousVersion = entity.getPropertyAccessor(previous).getProperty(version);
+            current.setProperty(version, previousVersion == null ? 1L : toLong(previousVersion) + 1);
+        }
+        return current.getBean();
+    }
+
+    private <T> T convert(Map<String, Object> values, Class<T> type) {
+        try {
+            return objectMapper.convertValue(values, type);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Invalid field value: " + e.getMessage());
+        }
+    }
+
+    private <T> T copy(T source, Class<T> type) {
+        MongoConverter converter = mongoTemplate.getConverter();
+        Document document = new Document();
+        converter.write(source, document);
+        return converter.read(type, document);
+    }
+
+    private static long toLong(Object version) {
+        if (version instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(version.toString());
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("Invalid version: " + version);
+        }
+    }
+}
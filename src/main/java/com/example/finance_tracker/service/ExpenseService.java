@@ -3,10 +3,14 @@ package com.example.finance_tracker.service;
 import com.example.finance_tracker.model.Expense;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ExpenseService {
     Expense addExpense(Expense expense);
+    List<Expense> addExpenses(List<Expense> expenses);
     Expense updateExpense(Expense expense);
+
+    Expense patchExpense(String id, Map<String, Object> changes);
     boolean deleteExpense(String id);
     List<Expense> getExpensesByUser(String userId);
 
@@ -13,6 +13,8 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service("expenseService")
@@ -23,17 +25,24 @@ public class ExpenseServiceImpl implements ExpenseService {
     private final ExpenseRepository expenseRepository;
     private final CurrencyConverterImpl currencyConverterImpl;
     private final CurrencyUtil currencyUtil;
+    private final DocumentPatcher documentPatcher;
+
+    // Fields a client may change with a PATCH; the owner and the transaction link are fixed
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "category", "amount", "date", "description", "tags", "currencyCode");
 
     @Autowired
-    public ExpenseServiceImpl(ExpenseRepository expenseRepository, CurrencyConverterImpl currencyConverterImpl, CurrencyUtil currencyUtil) {
+    public ExpenseServiceImpl(ExpenseRepository expenseRepository, CurrencyConverterImpl currencyConverterImpl, CurrencyUtil currencyUtil,
+                              DocumentPatcher documentPatcher) {
         this.expenseRepository = expenseRepository;
         this.currencyConverterImpl = currencyConverterImpl;
         this.currencyUtil = currencyUtil;
+        this.documentPatcher = documentPatcher;
     }
 
     @Override
     public Expense addExpense(Expense expense) {
-        logger.info("Attempting to add expense: {}", expense);
+        logger.debug("Adding expense: {}", expense);
 
         // Set default values for optional fields if they are null
         if (expense.getDescription() == null) {
@@ -47,29 +56,58 @@ public class ExpenseServiceImpl implements ExpenseService {
         }
 
         Expense savedExpense = expenseRepository.save(expense);
-        logger.info("Expense added successfully: {}", savedExpense);
+        logger.info("Expense added: id={} userId={}", savedExpense.getId(), savedExpense.getUserId());
         return savedExpense;
     }
 
+    @Override
+    public List<Expense> addExpenses(List<Expense> expenses) {
+        for (Expense expense : expenses) {
+            if (expense.getDescription() == null) {
+                expense.setDescription("");
+            }
+            if (expense.getTags() == null) {
+                expense.setTags(new ArrayList<>());
+            }
+            if (expense.getRecurrencePattern() == null) {
+                expense.setRecurrencePattern("");
+            }
+        }
+
+        // One insert for all of them
+        List<Expense> savedExpenses = expenseRepository.insert(expenses);
+        logger.info("Expenses added: count={}", savedExpenses.size());
+        return savedExpenses;
+    }
+
     @Override
     public Expense updateExpense(Expense expense) {
-        logger.info("Attempting to update expense: {}", expense);
+        logger.debug("Updating expense: {}", expense);
         if (expense == null || expense.getId() == null) {
             logger.error("Invalid expense data provided: {}", expense);
             throw new InvalidInputException("Invalid expense data provided");
         }
-        if (!expenseRepository.existsById(expense.getId())) {
-            logger.error("Expense not found with ID: {}", expense.getId());
-            throw new ResourceNotFoundException("Expense not found");
+        // Checks and increments the version; fails if the expense does not exist
+        Expense updatedExpense = documentPatcher.replace(Expense.class, expense).current();
+        logger.info("Expense updated: id={} version={}", updatedExpense.getId(), updatedExpense.getVersion());
+        return updatedExpense;
+    }
+
+    @Override
+    public Expense patchExpense(String id, Map<String, Object> changes) {
+        logger.debug("Updating expense: id={} fields={}", id, changes.keySet());
+        if (id == null) {
+            logger.error("Expense ID cannot be null");
+            throw new InvalidInputException("Expense ID cannot be null");
         }
-        Expense updatedExpense = expenseRepository.save(expense);
-        logger.info("Expense updated successfully: {}", updatedExpense);
+        Expense updatedExpense = documentPatcher.apply(Expense.class, id, changes, PATCHABLE_FIELDS).current();
+        logger.info("Expense updated: id={} version={}", id, updatedExpense.getVersion());
         return updatedExpense;
     }
 
     @Override
     public boolean deleteExpense(String id) {
-        logger.info("Attempting to delete expense with ID: {}", id);
+        logger.debug("Deleting expense: id={}", id);
         if (id == null) {
             logger.error("Expense ID cannot be null");
             throw new InvalidInputException("Expense ID cannot be null");
@@ -79,43 +117,42 @@ public class ExpenseServiceImpl implements ExpenseService {
             throw new ResourceNotFoundException("Expense not found");
         }
         expenseRepository.deleteById(id);
-        logger.info("Expense deleted successfully with ID: {}", id);
+        logger.info("Expense deleted: id={}", id);
         return true;
     }
 
     @Override
     public List<Expense> getExpensesByUser(String userId) {
-        logger.info("Fetching expenses for user with ID: {}", userId);
+        logger.debug("Fetching expenses: userId={}", userId);
         if (userId == null) {
             logger.error("User ID cannot be null");
             throw new InvalidInputException("User ID cannot be null");
         }
         List<Expense> expenses = expenseRepository.findByUserId(userId);
-        logger.info("Found {} expenses for user with ID: {}", expenses.size(), userId);
+        logger.debug("Found expenses: userId={} count={}", userId, expenses.size());
         return expenses;
     }
 
     @Override
     public List<Expense> getExpensesByUserInPreferredCurrency(String userId, String preferredCurrency) {
-        logger.info("Fetching expenses for user with ID: {} in preferred currency: {}", userId, preferredCurrency);
+        logger.debug("Fetching expenses: userId={} currency={}", userId, preferredCurrency);
         if (userId == null || preferredCurrency == null) {
             logger.error("User ID and preferred currency cannot be null");
             throw new InvalidInputException("User ID and preferred currency cannot be null");
         }
         List<Expense> expenses = expenseRepository.findByUserId(userId);
-        logger.info("Found {} expenses for user with ID: {}", expenses.size(), userId);
+        logger.debug("Found expenses: userId={} count={}", userId, expenses.size());
 
         // Convert each expense's amount to the preferred currency
         List<Expense> convertedExpenses = expenses.stream()
                 .map(expense -> convertExpenseToPreferredCurrency(expense, preferredCurrency))
                 .collect(Collectors.toList());
-        logger.info("Converted {} expenses to preferred currency: {}", convertedExpenses.size(), preferredCurrency);
+        logger.debug("Converted expenses: count={} currency={}", convertedExpenses.size(), preferredCurrency);
         return convertedExpenses;
     }
 
     @Override
     public Expense convertExpenseToPreferredCurrency(Expense expense, String preferredCurrency) {
-        logger.info("Converting expense to preferred currency: {}", preferredCurrency);
         if (expense == null || preferredCurrency == null) {
             logger.error("Expense and preferred currency cannot be null");
             throw new InvalidInputException("Expense and preferred currency cannot be null");
@@ -125,7 +162,7 @@ public class ExpenseServiceImpl implements ExpenseService {
 
         // Fetch the user's base currency
         String baseCurrency = currencyUtil.getBaseCurrencyForUser(expense.getUserId());
-        logger.debug("Base currency for user: {}", baseCurrency);
+        logger.debug("Base currency: userId={} currency={}", expense.getUserId(), baseCurrency);
 
         try {
             // Convert the amount to the preferred currency
@@ -142,7 +179,7 @@ public class ExpenseServiceImpl implements ExpenseService {
             convertedExpense.setDate(expense.getDate());
             convertedExpense.setDescription(expense.getDescription());
 
-            logger.info("Expense converted successfully: {}", convertedExpense);
+            logger.debug("Expense converted: {}", convertedExpense);
             return convertedExpense;
         } catch (Exception e) {
             logger.error("Failed to convert currency for expense: {}", expense, e);
@@ -152,19 +189,18 @@ public class ExpenseServiceImpl implements ExpenseService {
 
     @Override
     public List<Expense> getExpensesByUserAndCategory(String userId, String category) {
-        logger.info("Fetching expenses for user with ID: {} and category: {}", userId, category);
+        logger.debug("Fetching expenses: userId={} category={}", userId, category);
         if (userId == null || category == null) {
             logger.error("User ID and category cannot be null");
             throw new InvalidInputException("User ID and category cannot be null");
         }
         List<Expense> expenses = expenseRepository.findByUserIdAndCategory(userId, category);
-        logger.info("Found {} expenses for user with ID: {} and category: {}", expenses.size(), userId, category);
+        logger.debug("Found expenses: userId={} category={} count={}", userId, category, expenses.size());
         return expenses;
     }
 
     @Override
     public boolean isOwner(String expenseId, String userId) {
-        logger.info("Checking if user with ID: {} is the owner of expense with ID: {}", userId, expenseId);
         if (expenseId == null || userId == null) {
             logger.error("Expense ID and User ID cannot be null");
             throw new InvalidInputException("Expense ID and User ID cannot be null");
@@ -175,23 +211,23 @@ public class ExpenseServiceImpl implements ExpenseService {
                     return new ResourceNotFoundException("Expense not found");
                 });
         boolean isOwner = expense.getUserId().equals(userId);
-        logger.info("User with ID: {} is owner of expense with ID: {}: {}", userId, expenseId, isOwner);
+        logger.debug("Expense ownership: id={} userId={} owner={}", expenseId, userId, isOwner);
         return isOwner;
     }
 
     @Override
     public double calculateTotalExpensesInBaseCurrency(String userId) {
-        logger.info("Calculating total expenses in base currency for user with ID: {}", userId);
+        logger.debug("Totalling expenses: userId={}", userId);
         if (userId == null) {
             logger.error("User ID cannot be null");
             throw new InvalidInputException("User ID cannot be null");
         }
         List<Expense> expenses = expenseRepository.findByUserId(userId);
-        logger.info("Found {} expenses for user with ID: {}", expenses.size(), userId);
+        logger.debug("Found expenses: userId={} count={}", userId, expenses.size());
 
         // Fetch the user's base currency
         String baseCurrency = currencyUtil.getBaseCurrencyForUser(userId);
-        logger.debug("Base currency for user: {}", baseCurrency);
+        logger.debug("Base currency: userId={} currency={}", userId, baseCurrency);
 
         // Convert each expense's amount to the base currency and sum them up
         double total = expenses.stream()
@@ -204,13 +240,13 @@ public class ExpenseServiceImpl implements ExpenseService {
                     }
                 })
                 .sum();
-        logger.info("Total expenses in base currency for user with ID: {}: {}", userId, total);
+        logger.debug("Total expenses: userId={} total={}", userId, total);
         return total;
     }
 
     @Override
     public Expense getExpenseById(String expenseId) {
-        logger.info("Fetching expense with ID: {}", expenseId);
+        logger.debug("Fetching expense: id={}", expenseId);
         if (expenseId == null) {
             logger.error("Expense ID cannot be null");
             throw new InvalidInputException("Expense ID cannot be null");
@@ -0,0 +1,11 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.model.CurrencyTotals;
+
+import java.util.List;
+
+public interface GlobalTotalsService {
+    List<CurrencyTotals> getTotalsByCurrency();
+
+    void reconcile();
+}
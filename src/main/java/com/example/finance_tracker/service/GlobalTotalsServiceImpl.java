@@ -0,0 +1,206 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
+import com.example.finance_tracker.model.CurrencyTotals;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.CurrencyTotalsRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Keeps running income/expense totals per currency so the admin dashboard never scans the transactions collection.
+ * Totals are adjusted on every transaction write and periodically recomputed from the source of truth; the
+ * recomputation corrects the totals by the drift it finds instead of overwriting them.
+ */
+@Service
+public class GlobalTotalsServiceImpl implements GlobalTotalsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalTotalsServiceImpl.class);
+
+    static final String UNKNOWN_CURRENCY = "UNKNOWN";
+
+    private static final String INCOME = "income";
+    private static final String EXPENSE = "expense";
+
+    private final CurrencyTotalsRepository currencyTotalsRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ShardedJobRunner shardedJobRunner;
+
+    @Value("${admin.totals.reconcile-cron:0 30 2 * * ?}")
+    private String reconcileCron = "0 30 2 * * ?";
+
+    @Autowired
+    public GlobalTotalsServiceImpl(CurrencyTotalsRepository currencyTotalsRepository, MongoTemplate mongoTemplate,
+                                   ShardedJobRunner shardedJobRunner) {
+        this.currencyTotalsRepository = currencyTotalsRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.shardedJobRunner = shardedJobRunner;
+    }
+
+    @Override
+    public List<CurrencyTotals> getTotalsByCurrency() {
+        return currencyTotalsRepository.findAll();
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        try {
+            if (event.getPrevious() != null) {
+                applyDelta(event.getPrevious(), -1);
+            }
+            if (event.getCurrent() != null) {
+                applyDelta(event.getCurrent(), 1);
+            }
+        } catch (RuntimeException e) {
+            // The next reconciliation repairs any drift
+            logger.warn("Failed to update global totals for user {}: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onTransactionsCreated(TransactionsCreatedEvent event) {
+        try {
+            // Summed per currency first, so a batch costs one upsert per currency rather than one per transaction
+            Map<String, double[]> deltas = new HashMap<>();
+            for (Transaction transaction : event.getTransactions()) {
+                int slot = isIncome(transaction) ? 0 : isExpense(transaction) ? 1 : -1;
+                if (slot < 0) {
+                    continue;
+                }
+                double[] delta = deltas.computeIfAbsent(currencyKey(transaction.getCurrencyCode()), code -> new double[3]);
+                delta[slot] += transaction.getAmount();
+                delta[2]++;
+            }
+            Date now = new Date();
+            deltas.forEach((currencyCode, delta) -> mongoTemplate.upsert(query(where("_id").is(currencyCode)), new Update()
+                    .inc("totalIncome", delta[0])
+                    .inc("totalExpenses", delta[1])
+                    .inc("transactionCount", (long) delta[2])
+                    .set("updatedAt", now), CurrencyTotals.class));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to update global totals for user {}: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    // Seed the counters on first start so the admin dashboard is correct before the first scheduled run
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedIfEmpty() {
+        if (currencyTotalsRepository.count() == 0) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${admin.totals.reconcile-cron:0 30 2 * * ?}") // Runs every day at 2:30 AM
+    public void scheduledReconcile() {
+        // Every instance fires; one of them recomputes the totals
+        shardedJobRunner.runOnce("globalTotals", ShardedJobRunner.runKey(reconcileCron), this::reconcile);
+    }
+
+    @Override
+    public void reconcile() {
+        logger.info("Reconciling global transaction totals");
+
+        // Read just before the aggregation; the correction is the difference from these, not the recomputed value
+        Map<String, CurrencyTotals> counted = new HashMap<>();
+        for (CurrencyTotals existing : currencyTotalsRepository.findAll()) {
+            counted.put(existing.getCurrencyCode(), existing);
+        }
+
+        // Types are matched case-insensitively, as transactions are accepted in any case
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project("currencyCode", "amount").and(StringOperators.valueOf("type").toLower()).as("type"),
+                Aggregation.match(Criteria.where("type").in(INCOME, EXPENSE)),
+                Aggregation.group("currencyCode", "type").sum("amount").as("total").count().as("count"));
+        List<Document> groups = mongoTemplate.aggregate(aggregation, Transaction.class, Document.class).getMappedResults();
+
+        Map<String, double[]> totals = new HashMap<>(); // Income, expenses, count
+        for (Document group : groups) {
+            Document key = group.get("_id", Document.class);
+            double[] currencyTotals = totals.computeIfAbsent(currencyKey(key.getString("currencyCode")), code -> new double[3]);
+            currencyTotals[INCOME.equals(key.getString("type")) ? 0 : 1] = ((Number) group.get("total")).doubleValue();
+            currencyTotals[2] += ((Number) group.get("count")).longValue();
+        }
+        // Currencies that no longer have any transactions are reset rather than left with stale counts
+        counted.keySet().forEach(code -> totals.computeIfAbsent(code, c -> new double[3]));
+
+        Date now = new Date();
+        int corrected = 0;
+        for (Map.Entry<String, double[]> entry : totals.entrySet()) {
+            if (correct(entry.getKey(), entry.getValue(), counted.get(entry.getKey()), now)) {
+                corrected++;
+            }
+        }
+        logger.info("Reconciled global totals for {} currencies, {} had drifted and were corrected", totals.size(), corrected);
+    }
+
+    // Adds the difference between the recomputed totals and the totals as read, rather than setting them, so
+    // adjustments that land while reconciling are kept. An adjustment whose transaction the aggregation already
+    // counted but whose increment lands after the totals were read is counted twice; the next run corrects it
+    private boolean correct(String currencyCode, double[] totals, CurrencyTotals counted, Date now) {
+        double income = totals[0] - (counted == null ? 0 : counted.getTotalIncome());
+        double expenses = totals[1] - (counted == null ? 0 : counted.getTotalExpenses());
+        long count = (long) totals[2] - (counted == null ? 0 : counted.getTransactionCount());
+        boolean drifted = counted == null || income != 0 || expenses != 0 || count != 0;
+        if (drifted) {
+            logger.debug("Correcting global totals of {} by {} income, {} expenses, {} transactions",
+                    currencyCode, income, expenses, count);
+        }
+        mongoTemplate.upsert(query(where("_id").is(currencyCode)), new Update()
+                .inc("totalIncome", income)
+                .inc("totalExpenses", expenses)
+                .inc("transactionCount", count)
+                .set("updatedAt", now)
+                .set("reconciledAt", now), CurrencyTotals.class);
+        return drifted;
+    }
+
+    private void applyDelta(Transaction transaction, int sign) {
+        String field;
+        if (isIncome(transaction)) {
+            field = "totalIncome";
+        } else if (isExpense(transaction)) {
+            field = "totalExpenses";
+        } else {
+            return;
+        }
+
+        Update update = new Update()
+                .inc(field, sign * transaction.getAmount())
+                .inc("transactionCount", sign)
+                .set("updatedAt", new Date());
+        mongoTemplate.upsert(query(where("_id").is(currencyKey(transaction.getCurrencyCode()))), update, CurrencyTotals.class);
+    }
+
+    private static boolean isIncome(Transaction transaction) {
+        return INCOME.equalsIgnoreCase(transaction.getType());
+    }
+
+    private static boolean isExpense(Transaction transaction) {
+        return EXPENSE.equalsIgnoreCase(transaction.getType());
+    }
+
+    private static String currencyKey(String currencyCode) {
+        return currencyCode != null ? currencyCode : UNKNOWN_CURRENCY;
+    }
+}
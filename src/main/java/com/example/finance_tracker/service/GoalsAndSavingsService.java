@@ -38,6 +38,8 @@ public interface GoalsAndSavingsService {
 
     void checkAndNotifyNearOverdueGoals();
 
+    void checkAndNotifyNearOverdueGoals(JobShard shard);
+
     List<Goal> getOverdueGoals(String userId);
 
     void linkBudgetToGoal(String goalId, String budgetId);
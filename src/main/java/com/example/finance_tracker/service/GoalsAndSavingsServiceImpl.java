@@ -1,21 +1,61 @@
 package com.example.finance_tracker.service;
 
+import com.example.finance_tracker.event.GoalChangedEvent;
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
 import com.example.finance_tracker.model.*;
 import com.example.finance_tracker.repository.*;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
+import com.example.finance_tracker.util.DateUtil;
+import com.example.finance_tracker.util.TimeZoneUtil;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 @Service("goalService")
 public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GoalsAndSavingsServiceImpl.class);
+
+    static final String GOALS_CATEGORY = "Goals";
+    static final String SAVINGS_CATEGORY = "Savings";
+    static final int NEAR_DEADLINE_DAYS = 7;
+    static final String DEADLINE_SWEEP_CRON = "0 0 8 * * ?"; // Every day at 8:00 AM
+
+    // Running totals within this of the transactions' sum are not rewritten by the reconciliation
+    private static final double CONTRIBUTION_TOLERANCE = 1e-6;
+
     private final GoalRepository goalRepository;
     private final TransactionService transactionService;
     private final NotificationService notificationService;
@@ -25,10 +65,24 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
     private final IncomeService incomeService;
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardedJobRunner shardedJobRunner;
+    private final TimeZoneUtil timeZoneUtil;
+    private final MongoTemplate mongoTemplate;
+    private final MongoTransactions mongoTransactions;
+    private final int sweepPageSize;
+
+    @Value("${goals.contributions.reconcile-cron:0 45 2 * * ?}")
+    private String reconcileCron = "0 45 2 * * ?";
+
     @Autowired
     public GoalsAndSavingsServiceImpl(GoalRepository goalRepository, TransactionService transactionService,
                                       NotificationService notificationService, BudgetRepository budgetRepository,
-                                      ExpenseService expenseService, IncomeService incomeService, UserRepository userRepository) {
+                                      ExpenseService expenseService, IncomeService incomeService, UserRepository userRepository,
+                                      ApplicationEventPublisher eventPublisher, ShardedJobRunner shardedJobRunner,
+                                      TimeZoneUtil timeZoneUtil, MongoTemplate mongoTemplate,
+                                      @Value("${goals.deadline-sweep.page-size:1000}") int sweepPageSize,
+                                      MongoTransactions mongoTransactions) {
         this.goalRepository = goalRepository;
         this.transactionService = transactionService;
         this.notificationService = notificationService;
@@ -36,6 +90,12 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
         this.expenseService = expenseService;
         this.incomeService = incomeService;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardedJobRunner = shardedJobRunner;
+        this.timeZoneUtil = timeZoneUtil;
+        this.mongoTemplate = mongoTemplate;
+        this.sweepPageSize = sweepPageSize;
+        this.mongoTransactions = mongoTransactions;
     }
 
     @Override
@@ -55,8 +115,10 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
         if (goal.getProgressPercentage() == 0) {
             goal.setProgressPercentage(0.0);
         }
+        // A new goal has no transactions yet
+        goal.setContributedAmount(0.0);
 
-        return goalRepository.save(goal);
+        return saveGoal(goal);
     }
 
     @Override
@@ -74,7 +136,19 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
             throw new IllegalArgumentException("Deadline cannot be in the past");
         }
 
-        return goalRepository.save(goal);
+        // Only the fields a client edits are set, so the amounts kept with $inc are not overwritten; the progress
+        // is recomputed against the new target in the same update
+        AggregationUpdate update = withProgress(AggregationUpdate.update()
+                .set("name").toValue(goal.getName())
+                .set("targetAmount").toValue(goal.getTargetAmount())
+                .set("deadline").toValue(goal.getDeadline()));
+        Goal updatedGoal = mongoTemplate.findAndModify(query(where("_id").is(goal.getId())), update,
+                FindAndModifyOptions.options().returnNew(true), Goal.class);
+        if (updatedGoal == null) {
+            throw new ResourceNotFoundException("Goal not found");
+        }
+        eventPublisher.publishEvent(new GoalChangedEvent(updatedGoal.getUserId(), updatedGoal.getId()));
+        return updatedGoal;
     }
 
     @Override
@@ -83,6 +157,7 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
             throw new ResourceNotFoundException("Goal not found");
         }
         goalRepository.deleteById(goalId);
+        eventPublisher.publishEvent(new GoalChangedEvent(null, goalId));
         return true;
     }
 
@@ -99,21 +174,17 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
 
     @Override
     public Goal addManualContribution(String goalId, double amount) {
-        Goal goal = goalRepository.findById(goalId)
-                .orElseThrow(() -> new ResourceNotFoundException("Goal not found"));
-
-        // Add the manual contribution
-        goal.setManualContribution(goal.getManualContribution() + amount);
-
-        // Update the current amount and progress percentage
-        double totalSavings = goal.getCurrentAmount() + amount;
-        goal.setCurrentAmount(totalSavings);
-
-        double progressPercentage = (totalSavings / goal.getTargetAmount()) * 100;
-        goal.setProgressPercentage(progressPercentage);
-
-        // Save the updated goal
-        return goalRepository.save(goal);
+        // Applied on the server in one update, so concurrent contributions to the same goal are all counted
+        AggregationUpdate contribution = withProgress(AggregationUpdate.update()
+                .set("manualContribution").toValue(ArithmeticOperators.valueOf("manualContribution").add(amount))
+                .set("currentAmount").toValue(ArithmeticOperators.valueOf("currentAmount").add(amount)));
+        Goal goal = mongoTemplate.findAndModify(query(where("_id").is(goalId)), contribution,
+                FindAndModifyOptions.options().returnNew(true), Goal.class);
+        if (goal == null) {
+            throw new ResourceNotFoundException("Goal not found");
+        }
+        eventPublisher.publishEvent(new GoalChangedEvent(goal.getUserId(), goal.getId()));
+        return goal;
     }
 
 
@@ -126,53 +197,26 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
         Budget budget = budgetRepository.findByGoalId(goalId)
                 .orElse(null);
 
-        // Calculate total savings allocated to this goal from transactions
-        double totalSavingsFromTransactions = transactionService.getTransactionsByUser(goal.getUserId()).stream()
-                .filter(transaction -> transaction.getCategory().equals("Goals") && transaction.getGoalId() != null && transaction.getGoalId().equals(goalId))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        // Savings allocated to this goal from transactions, kept as a running total on the goal
+        getContributedAmount(goal);
 
         // Calculate total savings allocated to this goal from the budget (if a budget is linked)
         double totalSavingsFromBudget = (budget != null) ? budget.getLimit() : 0;
 
-        // Include manual contributions (if any)
-        double totalSavingsFromManualContributions = goal.getManualContribution();
-
-        // Update the current amount
-        double totalSavings = totalSavingsFromTransactions + totalSavingsFromBudget + totalSavingsFromManualContributions;
-        goal.setCurrentAmount(totalSavings);
-
-        // Calculate progress percentage
-        double progressPercentage = (totalSavings / goal.getTargetAmount()) * 100;
-        goal.setProgressPercentage(progressPercentage);
-
-        // Save the updated goal
-        goalRepository.save(goal);
-
-        // Notify user if the goal is achieved
-        if (progressPercentage >= 100) {
-            notifyUserAboutGoalProgress(goal, "Goal Achieved", "Congratulations! You have achieved your goal: " + goal.getName());
+        // The current amount and progress are recomputed from the stored parts in the update itself,
+        // so a contribution made since the goal was read is not overwritten
+        Goal updatedGoal = mongoTemplate.findAndModify(query(where("_id").is(goalId)), recomputeProgress(totalSavingsFromBudget),
+                FindAndModifyOptions.options().returnNew(true), Goal.class);
+        if (updatedGoal == null) {
+            throw new ResourceNotFoundException("Goal not found");
         }
+        eventPublisher.publishEvent(new GoalChangedEvent(updatedGoal.getUserId(), updatedGoal.getId()));
 
-        // Notify user if the goal is nearing its deadline
-        LocalDate today = LocalDate.now();
-
-        // Convert java.util.Date to LocalDate
-        LocalDate deadline = goal.getDeadline().toInstant()
-                .atZone(ZoneId.systemDefault())
-                .toLocalDate();
-
-        long daysRemaining = ChronoUnit.DAYS.between(today, deadline);
-
-        if (daysRemaining <= 7 && daysRemaining > 0) {
-            String message = String.format(
-                    "Your goal '%s' is nearing its deadline. Only %d days remaining!",
-                    goal.getName(), daysRemaining
-            );
-            notifyUserAboutGoalProgress(goal, "Goal Nearing Deadline", message);
-        }
+        // Notify user if the goal was just achieved or is nearing its deadline
+        ZoneId zone = timeZoneUtil.getZoneIdForUser(updatedGoal.getUserId());
+        sendGoalAlerts(updatedGoal.getUserId(), progressAlerts(updatedGoal, goal.getProgressPercentage(), zone, new Date()));
 
-        return goal;
+        return updatedGoal;
     }
 
     //------------------------------ Savings ------------------------------//
@@ -185,8 +229,12 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
         // Fetch converted total expenses to base currency
         double totalExpenses = expenseService.calculateTotalExpensesInBaseCurrency(userId);
 
+        // Money moved to goals is saved, not spent. Allocations and other goal contributions are recorded as expenses
+        // in the user's base currency, so they are added back
+        double goalContributions = transactionService.sumAmountByCategory(userId, GOALS_CATEGORY);
+
         // Calculate net savings
-        double netSavings = totalIncome - totalExpenses;
+        double netSavings = totalIncome - totalExpenses + goalContributions;
 
         // Allocate net savings to goals
 //        if (netSavings > 0) {
@@ -203,30 +251,66 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
         }
 
         // Fetch the user's active goals
-        List<Goal> activeGoals = goalRepository.findByUserIdAndDeadlineAfter(userId, new Date());
+        Date now = new Date();
+        List<Goal> activeGoals = goalRepository.findByUserIdAndDeadlineAfter(userId, now);
 
         // Allocate savings proportionally to each goal based on their target amounts
         double totalTargetAmount = activeGoals.stream()
                 .mapToDouble(Goal::getTargetAmount)
                 .sum();
+        if (activeGoals.isEmpty() || totalTargetAmount <= 0) {
+            return;
+        }
 
+        // All shares are computed first and written with one insert; its event adds them to the goals' running totals
+        List<Transaction> allocations = new ArrayList<>(activeGoals.size());
         for (Goal goal : activeGoals) {
             double allocation = (goal.getTargetAmount() / totalTargetAmount) * amount;
-            transactionService.addTransaction(new Transaction(
-                    userId, allocation, "Savings", new Date(), "Savings allocation for goal: " + goal.getName()
-            ));
-
-            // Update goal progress
-            trackGoalProgress(goal.getId());
+            Transaction transaction = new Transaction();
+            transaction.setUserId(userId);
+            transaction.setType("Expense");
+            transaction.setCategory(GOALS_CATEGORY);
+            transaction.setGoalId(goal.getId());
+            transaction.setAmount(allocation);
+            transaction.setDate(now);
+            transaction.setDescription("Savings allocation for goal: " + goal.getName());
+            allocations.add(transaction);
         }
+        // Missing totals are counted before the insert, so the event's $inc applies to them. Both are written in one
+        // transaction, and the event follows its commit
+        mongoTransactions.run(() -> {
+            initContributedAmounts(activeGoals);
+            transactionService.addTransactions(allocations);
+        });
+
+        // Re-evaluate the progress of the allocated goals only, with one bulk update
+        Map<String, Double> budgetLimits = new HashMap<>();
+        budgetRepository.findByGoalIdIn(activeGoals.stream().map(Goal::getId).toList())
+                .forEach(budget -> budgetLimits.put(budget.getGoalId(), budget.getLimit()));
+        BulkOperations progress = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Goal.class);
+        ZoneId zone = timeZoneUtil.getZoneIdForUser(userId);
+        List<Notification> alerts = new ArrayList<>();
+        for (int i = 0; i < activeGoals.size(); i++) {
+            Goal goal = activeGoals.get(i);
+            double previousProgress = goal.getProgressPercentage();
+            goal.setContributedAmount(goal.getContributedAmount() + allocations.get(i).getAmount());
+            double totalSavings = goal.getContributedAmount() + budgetLimits.getOrDefault(goal.getId(), 0.0) + goal.getManualContribution();
+            goal.setCurrentAmount(totalSavings);
+            goal.setProgressPercentage((totalSavings / goal.getTargetAmount()) * 100);
+            progress.updateOne(query(where("_id").is(goal.getId())),
+                    recomputeProgress(budgetLimits.getOrDefault(goal.getId(), 0.0)));
+            alerts.addAll(progressAlerts(goal, previousProgress, zone, now));
+        }
+        progress.execute();
+        eventPublisher.publishEvent(new GoalChangedEvent(userId, null));
+        sendGoalAlerts(userId, alerts);
     }
 
     @Override
     public double calculateTotalSavings(String userId) {
-        return transactionService.getTransactionsByUser(userId).stream()
-                .filter(transaction -> transaction.getCategory().equals("Savings"))
-                .mapToDouble(Transaction::getAmount)
-                .sum();
+        // Savings allocated to goals are recorded under the goals' category, and still count as savings
+        return transactionService.sumAmountByCategory(userId, SAVINGS_CATEGORY)
+                + transactionService.sumAmountByCategory(userId, GOALS_CATEGORY);
     }
 
     @Override
@@ -250,28 +334,85 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
 
     @Override
     public void checkAndNotifyNearOverdueGoals() {
-        LocalDate today = LocalDate.now();
-        List<Goal> activeGoals = goalRepository.findByDeadlineAfter(new Date()); // Fetch all active goals
+        checkAndNotifyNearOverdueGoals(JobShard.ALL);
+    }
 
-        for (Goal goal : activeGoals) {
-            LocalDate deadline = LocalDate.parse(goal.getDeadline().toString()); // Convert deadline to LocalDate
-            long daysRemaining = ChronoUnit.DAYS.between(today, deadline);
+    @Override
+    public void checkAndNotifyNearOverdueGoals(JobShard shard) {
+        Date now = new Date();
+
+        // Only this shard's goals due within the window are read, through the { shardBucket, deadline } index. The window
+        // has an extra day because days remaining are counted in calendar days of the user's time zone; the exact check
+        // is done per goal.
+        Date windowEnd = new Date(now.getTime() + TimeUnit.DAYS.toMillis(NEAR_DEADLINE_DAYS + 1));
+        Query dueSoon = query(shard.restrict(where("deadline").gt(now).lte(windowEnd))).cursorBatchSize(sweepPageSize);
+        dueSoon.fields().include("userId", "name", "deadline");
+
+        int goals = 0;
+        int notified = 0;
+        try (Stream<Goal> stream = mongoTemplate.stream(dueSoon, Goal.class)) {
+            List<Goal> page = new ArrayList<>(sweepPageSize);
+            for (Goal goal : (Iterable<Goal>) stream::iterator) {
+                if (shard.isRevoked()) {
+                    logger.warn("Shard {} was revoked after {} goals", shard, goals);
+                    page.clear();
+                    break;
+                }
+                page.add(goal);
+                if (page.size() == sweepPageSize) {
+                    notified += notifyNearDeadline(page, now);
+                    goals += page.size();
+                    page.clear();
+                }
+            }
+            if (!page.isEmpty()) {
+                notified += notifyNearDeadline(page, now);
+                goals += page.size();
+            }
+        }
+        logger.info("Shard {}: checked {} goals due within {} days, notified {}", shard, goals, NEAR_DEADLINE_DAYS, notified);
+    }
 
-            // Notify user if the goal is nearing overdue (e.g., 7 days or less remaining)
-            if (daysRemaining <= 7 && daysRemaining > 0) {
+    // Loads the owners of a page of goals with one query and sends their alerts together
+    private int notifyNearDeadline(List<Goal> page, Date now) {
+        Set<String> userIds = new HashSet<>();
+        page.forEach(goal -> userIds.add(goal.getUserId()));
+        Query owners = query(where("_id").in(userIds));
+        owners.fields().include("email", "timeZone");
+        Map<String, User> usersById = new HashMap<>();
+        mongoTemplate.find(owners, User.class).forEach(user -> usersById.put(user.getId(), user));
+
+        List<Notification> alerts = new ArrayList<>();
+        for (Goal goal : page) {
+            User user = usersById.get(goal.getUserId());
+            if (user == null) {
+                continue;
+            }
+            ZoneId zone = timeZoneUtil.getZoneId(user);
+            long daysRemaining = DateUtil.daysBetween(now, goal.getDeadline(), zone);
+            if (daysRemaining <= NEAR_DEADLINE_DAYS && daysRemaining > 0) {
                 String message = String.format(
                         "Your goal '%s' is nearing its deadline. Only %d days remaining!",
                         goal.getName(), daysRemaining
                 );
-                notifyUserAboutGoalProgress(goal, "Goal Nearing Deadline", message);
+                Notification alert = goalAlert(goal, "Goal Nearing Deadline", message, DateUtil.dayKey(now, zone));
+                alert.setEmail(user.getEmail());
+                alerts.add(alert);
             }
         }
+        if (!alerts.isEmpty()) {
+            notificationService.sendNotifications(alerts);
+            alerts.forEach(notificationService::sendEmailNotification);
+        }
+        return alerts.size();
     }
 
     // Scheduled task to check for near-overdue goals daily
-    @Scheduled(cron = "0 0 8 * * ?") // Runs every day at 8:00 AM
+    @Scheduled(cron = DEADLINE_SWEEP_CRON)
     public void scheduledCheckForNearOverdueGoals() {
-        checkAndNotifyNearOverdueGoals();
+        // Every instance fires; the shards of users are divided between them so each goal is notified once
+        shardedJobRunner.runSharded("nearOverdueGoals", ShardedJobRunner.runKey(DEADLINE_SWEEP_CRON),
+                this::checkAndNotifyNearOverdueGoals);
     }
 
     @Override
@@ -293,7 +434,7 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
 
         // Link the budget to the goal
         goal.setBudgetId(budgetId);
-        goalRepository.save(goal);
+        setBudgetId(goal);
 
         // Notify the user
         String message = String.format("Budget '%s' has been linked to goal '%s'", budget.getCategory(), goal.getName());
@@ -308,7 +449,7 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
 
         // Unlink the budget from the goal
         goal.setBudgetId(null);
-        goalRepository.save(goal);
+        setBudgetId(goal);
 
         // Notify the user
         String message = String.format("Budget has been unlinked from goal '%s'", goal.getName());
@@ -323,6 +464,218 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
         return goal.getUserId().equals(userId);
     }
 
+    /**
+     * Keeps the running totals of goal contributions in step with the transactions, and announces the goals whose
+     * totals changed.
+     */
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        List<Transaction> contributions = new ArrayList<>(2);
+        for (Transaction transaction : new Transaction[]{event.getPrevious(), event.getCurrent()}) {
+            if (isContribution(transaction)) {
+                contributions.add(transaction);
+            }
+        }
+        if (contributions.isEmpty()) {
+            return;
+        }
+        try {
+            adjustContributedAmount(event.getPrevious(), -1);
+            adjustContributedAmount(event.getCurrent(), 1);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to update goal contributions for user {}: {}", event.getUserId(), e.getMessage());
+            Set<String> goalIds = new HashSet<>();
+            contributions.forEach(transaction -> goalIds.add(transaction.getGoalId()));
+            resetContributedAmounts(goalIds);
+        }
+        publishGoalsChanged(contributions);
+    }
+
+    @EventListener
+    public void onTransactionsCreated(TransactionsCreatedEvent event) {
+        Map<String, Double> contributions = new HashMap<>();
+        List<Transaction> contributed = new ArrayList<>();
+        for (Transaction transaction : event.getTransactions()) {
+            if (isContribution(transaction)) {
+                contributions.merge(transaction.getGoalId(), transaction.getAmount(), Double::sum);
+                contributed.add(transaction);
+            }
+        }
+        if (contributions.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Goal.class);
+            contributions.forEach((goalId, amount) -> bulk.updateOne(
+                    query(where("_id").is(goalId).and("contributedAmount").ne(null)),
+                    new Update().inc("contributedAmount", amount)));
+            bulk.execute();
+        } catch (RuntimeException e) {
+            // Some of the increments may have been applied, so the totals are recounted rather than retried
+            logger.warn("Failed to update goal contributions for user {}: {}", event.getUserId(), e.getMessage());
+            resetContributedAmounts(contributions.keySet());
+        }
+        publishGoalsChanged(contributed);
+    }
+
+    // One event per user whose goals the contributions changed, naming the goal when only one of theirs did
+    private void publishGoalsChanged(List<Transaction> contributions) {
+        Map<String, Set<String>> goalIdsByUser = new HashMap<>();
+        for (Transaction transaction : contributions) {
+            goalIdsByUser.computeIfAbsent(transaction.getUserId(), userId -> new HashSet<>()).add(transaction.getGoalId());
+        }
+        goalIdsByUser.forEach((userId, goalIds) ->
+                eventPublisher.publishEvent(new GoalChangedEvent(userId, goalIds.size() == 1 ? goalIds.iterator().next() : null)));
+    }
+
+    // The transactions are already stored, so a failed $inc is not reported to their writer. The goals' totals are
+    // dropped instead, to be counted again from the transactions when next used; if that fails too, the daily
+    // reconciliation corrects them
+    private void resetContributedAmounts(Set<String> goalIds) {
+        if (goalIds.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.updateMulti(query(where("_id").in(goalIds)), new Update().unset("contributedAmount"), Goal.class);
+        } catch (RuntimeException e) {
+            logger.error("Failed to reset the contributions of goals {}, left to the daily reconciliation: {}", goalIds, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${goals.contributions.reconcile-cron:0 45 2 * * ?}") // Runs every day at 2:45 AM
+    public void scheduledReconcileContributions() {
+        // Every instance fires; one of them recomputes the totals
+        shardedJobRunner.runOnce("goalContributions", ShardedJobRunner.runKey(reconcileCron), this::reconcileContributions);
+    }
+
+    /**
+     * Recomputes the running totals of goal contributions from the transactions and corrects the ones that drifted,
+     * e.g. after an increment was lost. A total that changed while this ran is left for the next run.
+     */
+    public void reconcileContributions() {
+        // Totals are read before the aggregation, so one incremented after that point is not overwritten
+        Query counted = query(where("contributedAmount").ne(null));
+        counted.fields().include("contributedAmount");
+        Map<String, Double> totals = new HashMap<>();
+        try (Stream<Goal> goals = mongoTemplate.stream(counted, Goal.class)) {
+            goals.forEach(goal -> totals.put(goal.getId(), goal.getContributedAmount()));
+        }
+
+        Map<String, Double> sums = sumContributions(where("goalId").ne(null));
+
+        List<String> corrected = new ArrayList<>();
+        int skipped = 0;
+        for (Map.Entry<String, Double> total : totals.entrySet()) {
+            double sum = sums.getOrDefault(total.getKey(), 0.0);
+            if (Math.abs(sum - total.getValue()) <= CONTRIBUTION_TOLERANCE) {
+                continue;
+            }
+            boolean unchanged = mongoTemplate.updateFirst(
+                    query(where("_id").is(total.getKey()).and("contributedAmount").is(total.getValue())),
+                    new Update().set("contributedAmount", sum), Goal.class).getMatchedCount() > 0;
+            if (unchanged) {
+                corrected.add(total.getKey());
+            } else {
+                skipped++;
+            }
+        }
+
+        // The current amounts of the corrected goals are recomputed from their new totals
+        if (!corrected.isEmpty()) {
+            Map<String, Double> budgetLimits = new HashMap<>();
+            budgetRepository.findByGoalIdIn(corrected).forEach(budget -> budgetLimits.put(budget.getGoalId(), budget.getLimit()));
+            BulkOperations progress = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Goal.class);
+            corrected.forEach(goalId -> progress.updateOne(query(where("_id").is(goalId)),
+                    recomputeProgress(budgetLimits.getOrDefault(goalId, 0.0))));
+            progress.execute();
+        }
+        logger.info("Reconciled contributions of {} goals, corrected {}, {} changed meanwhile and were skipped",
+                totals.size(), corrected.size(), skipped);
+    }
+
+    private static boolean isContribution(Transaction transaction) {
+        return transaction != null && transaction.getGoalId() != null && GOALS_CATEGORY.equals(transaction.getCategory());
+    }
+
+    private void adjustContributedAmount(Transaction transaction, int sign) {
+        if (isContribution(transaction)) {
+            goalRepository.incrementContributedAmount(transaction.getGoalId(), sign * transaction.getAmount());
+        }
+    }
+
+    // Goals saved before the running total existed, or whose total was reset after a failed increment, are counted
+    // once with an aggregation
+    private double getContributedAmount(Goal goal) {
+        if (goal.getContributedAmount() != null) {
+            return goal.getContributedAmount();
+        }
+        double total = transactionService.sumGoalContributions(goal.getId());
+        goalRepository.initContributedAmount(goal.getId(), total);
+        goal.setContributedAmount(total);
+        return total;
+    }
+
+    // Counts the totals of the goals without one with a single aggregation, and stores them with one bulk update
+    private void initContributedAmounts(List<Goal> goals) {
+        List<String> uncounted = goals.stream().filter(goal -> goal.getContributedAmount() == null).map(Goal::getId).toList();
+        if (uncounted.isEmpty()) {
+            return;
+        }
+        Map<String, Double> sums = sumContributions(where("goalId").in(uncounted));
+        BulkOperations init = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Goal.class);
+        for (Goal goal : goals) {
+            if (goal.getContributedAmount() == null) {
+                goal.setContributedAmount(sums.getOrDefault(goal.getId(), 0.0));
+                // Sets the running total unless a concurrent writer already did
+                init.updateOne(query(where("_id").is(goal.getId()).and("contributedAmount").is(null)),
+                        new Update().set("contributedAmount", goal.getContributedAmount()));
+            }
+        }
+        init.execute();
+    }
+
+    // Sum of the contributions per goal, for the goals matching the criteria on the transactions
+    private Map<String, Double> sumContributions(Criteria goals) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(goals.and("category").is(GOALS_CATEGORY)),
+                Aggregation.group("goalId").sum("amount").as("total"));
+        Map<String, Double> sums = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, Transaction.class, Document.class)) {
+            sums.put(group.getString("_id"), ((Number) group.get("total")).doubleValue());
+        }
+        return sums;
+    }
+
+    // Sets the current amount to the sum of its stored parts and the linked budget's limit, then the progress from it
+    private static AggregationUpdate recomputeProgress(double budgetLimit) {
+        return withProgress(AggregationUpdate.update().set("currentAmount").toValue(
+                ArithmeticOperators.valueOf(ConditionalOperators.ifNull("contributedAmount").then(0))
+                        .add("manualContribution")
+                        .add(budgetLimit)));
+    }
+
+    // Adds a stage deriving the progress percentage from the current amount the previous stages set
+    private static AggregationUpdate withProgress(AggregationUpdate update) {
+        return update.set("progressPercentage").toValue(
+                ConditionalOperators.when(ComparisonOperators.valueOf("targetAmount").greaterThanValue(0))
+                        .then(ArithmeticOperators.valueOf(ArithmeticOperators.valueOf("currentAmount").divideBy("targetAmount"))
+                                .multiplyBy(100))
+                        .otherwise(0));
+    }
+
+    private Goal saveGoal(Goal goal) {
+        Goal savedGoal = goalRepository.save(goal);
+        eventPublisher.publishEvent(new GoalChangedEvent(goal.getUserId(), goal.getId()));
+        return savedGoal;
+    }
+
+    // Sets only the link, so the rest of the goal is not overwritten with what was read
+    private void setBudgetId(Goal goal) {
+        Update update = goal.getBudgetId() != null ? new Update().set("budgetId", goal.getBudgetId()) : new Update().unset("budgetId");
+        mongoTemplate.updateFirst(query(where("_id").is(goal.getId())), update, Goal.class);
+        eventPublisher.publishEvent(new GoalChangedEvent(goal.getUserId(), goal.getId()));
+    }
+
     private Notification createNotification(String userId, String title, String message) {
         Notification notification = new Notification();
         notification.setUserId(userId);
@@ -332,30 +685,58 @@ public class GoalsAndSavingsServiceImpl implements GoalsAndSavingsService {
         return notification;
     }
 
+    // The alerts a goal's progress calls for: achieved, when the progress reaches 100% from below, and nearing its
+    // deadline, sent once a day. An achieved goal that is updated again is not alerted, as that would mark the
+    // notification the user already read as unread
+    private List<Notification> progressAlerts(Goal goal, double previousProgress, ZoneId zone, Date now) {
+        List<Notification> alerts = new ArrayList<>(1);
+        if (goal.getProgressPercentage() >= 100 && previousProgress < 100) {
+            alerts.add(goalAlert(goal, "Goal Achieved", "Congratulations! You have achieved your goal: " + goal.getName(), "achieved"));
+        }
+
+        // Whole calendar days until the deadline in the user's time zone
+        long daysRemaining = DateUtil.daysBetween(now, goal.getDeadline(), zone);
+        if (daysRemaining <= NEAR_DEADLINE_DAYS && daysRemaining > 0) {
+            String message = String.format(
+                    "Your goal '%s' is nearing its deadline. Only %d days remaining!",
+                    goal.getName(), daysRemaining
+            );
+            alerts.add(goalAlert(goal, "Goal Nearing Deadline", message, DateUtil.dayKey(now, zone)));
+        }
+        return alerts;
+    }
+
     /**
-     * Helper method to notify the user about goal progress.
+     * Helper method to build a notification about goal progress.
      *
      * @param goal    The goal for which the notification is being sent.
      * @param title   The title of the notification.
      * @param message The message of the notification.
+     * @param period  Repeats of this alert for the goal within the period are coalesced into one notification.
      */
-    private void notifyUserAboutGoalProgress(Goal goal, String title, String message) {
-
-        User user = userRepository.findById(goal.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        String userEmail = user.getEmail();
-
+    private Notification goalAlert(Goal goal, String title, String message, String period) {
         Notification notification = new Notification();
         notification.setUserId(goal.getUserId());
         notification.setTitle(title);
         notification.setMessage(message);
         notification.setType("GOAL_ALERT");
         notification.setCreatedAt(new Date());
-        notification.setEmail(userEmail);
+        notification.setDedupeKey(Notification.dedupeKey(goal.getUserId(), "GOAL_ALERT", title + ":" + goal.getId(), period));
+        return notification;
+    }
 
-        // Send the notification
-        notificationService.sendNotification(notification);
-        notificationService.sendEmailNotification(notification);
+    // Looks the user up once for all of the alerts
+    private void sendGoalAlerts(String userId, List<Notification> alerts) {
+        if (alerts.isEmpty()) {
+            return;
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        for (Notification notification : alerts) {
+            notification.setEmail(user.getEmail());
+            notificationService.sendNotification(notification);
+            notificationService.sendEmailNotification(notification);
+        }
     }
 
 }
\ No newline at end of file
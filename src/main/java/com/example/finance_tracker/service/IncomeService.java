@@ -3,12 +3,16 @@ package com.example.finance_tracker.service;
 import com.example.finance_tracker.model.Income;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IncomeService {
     Income addIncome(Income income);
+    List<Income> addIncomes(List<Income> incomes);
 
     Income updateIncome(Income income);
 
+    Income patchIncome(String id, Map<String, Object> changes);
+
     void deleteIncome(String id);
 
     List<Income> getIncomesByUser(String userId);
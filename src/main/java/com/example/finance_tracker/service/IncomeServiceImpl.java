@@ -12,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service("incomeService")
@@ -22,27 +24,41 @@ public class IncomeServiceImpl implements IncomeService {
     private final IncomeRepository incomeRepository;
     private final CurrencyConverterImpl currencyConverterImpl;
     private final CurrencyUtil currencyUtil;
+    private final DocumentPatcher documentPatcher;
+
+    // Fields a client may change with a PATCH; the owner and the transaction link are fixed
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("source", "amount", "date", "currencyCode");
 
     @Autowired
-    public IncomeServiceImpl(IncomeRepository incomeRepository, CurrencyConverterImpl currencyConverterImpl, CurrencyUtil currencyUtil) {
+    public IncomeServiceImpl(IncomeRepository incomeRepository, CurrencyConverterImpl currencyConverterImpl, CurrencyUtil currencyUtil,
+                             DocumentPatcher documentPatcher) {
         this.incomeRepository = incomeRepository;
         this.currencyConverterImpl = currencyConverterImpl;
         this.currencyUtil = currencyUtil;
+        this.documentPatcher = documentPatcher;
     }
 
     @Override
     public Income addIncome(Income income) {
-        logger.info("Attempting to add income: {}", income);
+        logger.debug("Adding income: {}", income);
 
         // Save income
         Income savedIncome = incomeRepository.save(income);
-        logger.info("Income added successfully: {}", savedIncome);
+        logger.info("Income added: id={} userId={}", savedIncome.getId(), savedIncome.getUserId());
         return savedIncome;
     }
 
+    @Override
+    public List<Income> addIncomes(List<Income> incomes) {
+        // One insert for all of them
+        List<Income> savedIncomes = incomeRepository.insert(incomes);
+        logger.info("Incomes added: count={}", savedIncomes.size());
+        return savedIncomes;
+    }
+
     @Override
     public Income updateIncome(Income income) {
-        logger.info("Attempting to update income with ID: {}", income.getId());
+        logger.debug("Updating income: {}", income);
 
         // Validate input
         if (income == null || income.getId() == null) {
@@ -50,21 +66,31 @@ public class IncomeServiceImpl implements IncomeService {
             throw new InvalidInputException("Invalid income data provided");
         }
 
-        // Check if income exists
-        if (!incomeRepository.existsById(income.getId())) {
-            logger.error("Income not found with ID: {}", income.getId());
-            throw new ResourceNotFoundException("Income not found");
+        // Update income, checking and incrementing its version; fails if it does not exist
+        Income updatedIncome = documentPatcher.replace(Income.class, income).current();
+        logger.info("Income updated: id={} version={}", updatedIncome.getId(), updatedIncome.getVersion());
+        return updatedIncome;
+    }
+
+    @Override
+    public Income patchIncome(String id, Map<String, Object> changes) {
+        logger.debug("Updating income: id={} fields={}", id, changes.keySet());
+
+        // Validate input
+        if (id == null) {
+            logger.error("Income ID cannot be null");
+            throw new InvalidInputException("Income ID cannot be null");
         }
 
-        // Update income
-        Income updatedIncome = incomeRepository.save(income);
-        logger.info("Income updated successfully: {}", updatedIncome);
+        // Set only the given fields
+        Income updatedIncome = documentPatcher.apply(Income.class, id, changes, PATCHABLE_FIELDS).current();
+        logger.info("Income updated: id={} version={}", id, updatedIncome.getVersion());
         return updatedIncome;
     }
 
     @Override
     public void deleteIncome(String id) {
-        logger.info("Attempting to delete income with ID: {}", id);
+        logger.debug("Deleting income: id={}", id);
 
         // Validate input
         if (id == null) {
@@ -80,12 +106,12 @@ public class IncomeServiceImpl implements IncomeService {
 
         // Delete income
         incomeRepository.deleteById(id);
-        logger.info("Income deleted successfully with ID: {}", id);
+        logger.info("Income deleted: id={}", id);
     }
 
     @Override
     public List<Income> getIncomesByUser(String userId) {
-        logger.info("Fetching incomes for user: {}", userId);
+        logger.debug("Fetching incomes: userId={}", userId);
 
         // Validate input
         if (userId == null) {
@@ -95,13 +121,13 @@ public class IncomeServiceImpl implements IncomeService {
 
         // Fetch incomes
         List<Income> incomes = incomeRepository.findByUserId(userId);
-        logger.info("Found {} incomes for user: {}", incomes.size(), userId);
+        logger.debug("Found incomes: userId={} count={}", userId, incomes.size());
         return incomes;
     }
 
     @Override
     public List<Income> getIncomesByUserInPreferredCurrency(String userId, String preferredCurrency) {
-        logger.info("Fetching incomes for user: {} in preferred currency: {}", userId, preferredCurrency);
+        logger.debug("Fetching incomes: userId={} currency={}", userId, preferredCurrency);
 
         // Validate input
         if (userId == null || preferredCurrency == null) {
@@ -111,20 +137,18 @@ public class IncomeServiceImpl implements IncomeService {
 
         // Fetch incomes
         List<Income> incomes = incomeRepository.findByUserId(userId);
-        logger.info("Found {} incomes for user: {}", incomes.size(), userId);
+        logger.debug("Found incomes: userId={} count={}", userId, incomes.size());
 
         // Convert incomes to preferred currency
         List<Income> convertedIncomes = incomes.stream()
                 .map(income -> convertIncomeToPreferredCurrency(income, preferredCurrency))
                 .collect(Collectors.toList());
-        logger.info("Converted {} incomes to preferred currency: {}", convertedIncomes.size(), preferredCurrency);
+        logger.debug("Converted incomes: count={} currency={}", convertedIncomes.size(), preferredCurrency);
         return convertedIncomes;
     }
 
     @Override
     public Income convertIncomeToPreferredCurrency(Income income, String preferredCurrency) {
-        logger.info("Converting income to preferred currency: {}", preferredCurrency);
-
         // Validate input
         if (income == null || preferredCurrency == null) {
             logger.error("Income and preferred currency cannot be null");
@@ -133,7 +157,7 @@ public class IncomeServiceImpl implements IncomeService {
 
         // Fetch base currency
         String baseCurrency = currencyUtil.getBaseCurrencyForUser(income.getUserId());
-        logger.debug("Base currency for user: {}", baseCurrency);
+        logger.debug("Base currency: userId={} currency={}", income.getUserId(), baseCurrency);
 
         try {
             // Convert amount
@@ -149,7 +173,7 @@ public class IncomeServiceImpl implements IncomeService {
             convertedIncome.setSource(income.getSource());
             convertedIncome.setDate(income.getDate());
 
-            logger.info("Income converted successfully: {}", convertedIncome);
+            logger.debug("Income converted: {}", convertedIncome);
             return convertedIncome;
         } catch (Exception e) {
             logger.error("Failed to convert currency for income: {}", income, e);
@@ -159,7 +183,7 @@ public class IncomeServiceImpl implements IncomeService {
 
     @Override
     public Income getIncomeById(String id) {
-        logger.info("Fetching income with ID: {}", id);
+        logger.debug("Fetching income: id={}", id);
 
         // Validate input
         if (id == null) {
@@ -177,8 +201,6 @@ public class IncomeServiceImpl implements IncomeService {
 
     @Override
     public boolean isOwner(String incomeId, String userId) {
-        logger.info("Checking if user: {} is the owner of income: {}", userId, incomeId);
-
         // Validate input
         if (incomeId == null || userId == null) {
             logger.error("Income ID and User ID cannot be null");
@@ -194,13 +216,13 @@ public class IncomeServiceImpl implements IncomeService {
 
         // Check ownership
         boolean isOwner = income.getUserId().equals(userId);
-        logger.info("User: {} is owner of income: {}: {}", userId, incomeId, isOwner);
+        logger.debug("Income ownership: id={} userId={} owner={}", incomeId, userId, isOwner);
         return isOwner;
     }
 
     @Override
     public double calculateTotalIncomeInBaseCurrency(String userId) {
-        logger.info("Calculating total income in base currency for user: {}", userId);
+        logger.debug("Totalling incomes: userId={}", userId);
 
         // Validate input
         if (userId == null) {
@@ -210,11 +232,11 @@ public class IncomeServiceImpl implements IncomeService {
 
         // Fetch incomes
         List<Income> incomes = incomeRepository.findByUserId(userId);
-        logger.info("Found {} incomes for user: {}", incomes.size(), userId);
+        logger.debug("Found incomes: userId={} count={}", userId, incomes.size());
 
         // Fetch base currency
         String baseCurrency = currencyUtil.getBaseCurrencyForUser(userId);
-        logger.debug("Base currency for user: {}", baseCurrency);
+        logger.debug("Base currency: userId={} currency={}", userId, baseCurrency);
 
         // Calculate total income
         double totalIncome = incomes.stream()
@@ -228,7 +250,7 @@ public class IncomeServiceImpl implements IncomeService {
                 })
                 .sum();
 
-        logger.info("Total income in base currency: {} for user: {}", totalIncome, userId);
+        logger.debug("Total income: userId={} total={}", userId, totalIncome);
         return totalIncome;
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.example.finance_tracker.service;
+
+import lombok.Getter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * One hash partition of the users processed by a sharded scheduled job.
+ * <p>
+ * Users are hashed into {@link #BUCKETS} fixed buckets, stored on their documents as {@code shardBucket}, and a
+ * shard owns a contiguous range of them. A shard's documents are therefore read with a range condition on an
+ * indexed field, and the buckets stay valid when the shard count changes.
+ */
+@Getter
+public final class JobShard {
+
+    public static final JobShard ALL = new JobShard(0, 1);
+
+    public static final int BUCKETS = 1024;
+    public static final String BUCKET_FIELD = "shardBucket";
+
+    private final int index;
+    private final int count;
+    private final int firstBucket;
+    private final int endBucket; // Exclusive
+
+    // Set when this instance lost the shard's lease, after which another instance runs the shard
+    private volatile boolean revoked;
+
+    public JobShard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+        this.firstBucket = (int) ((long) index * BUCKETS / count);
+        this.endBucket = (int) ((long) (index + 1) * BUCKETS / count);
+    }
+
+    public static int bucketOf(String userId) {
+        return userId == null ? 0 : Math.floorMod(userId.hashCode(), BUCKETS);
+    }
+
+    public boolean owns(String userId) {
+        int bucket = bucketOf(userId);
+        return count == 1 || (bucket >= firstBucket && bucket < endBucket);
+    }
+
+    /**
+     * Adds the condition selecting this shard's documents to {@code criteria}. {@link #ALL} adds none, so it also
+     * covers documents without a bucket.
+     */
+    public Criteria restrict(Criteria criteria) {
+        return count == 1 ? criteria : criteria.and(BUCKET_FIELD).gte(firstBucket).lt(endBucket);
+    }
+
+    /**
+     * Whether the task should stop: the instance could not renew the shard's lease, so another may have taken it.
+     */
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    void revoke() {
+        revoked = true;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
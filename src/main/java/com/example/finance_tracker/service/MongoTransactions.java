@@ -0,0 +1,87 @@
+package com.example.finance_tracker.service;
+
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a group of Mongo writes in one multi-document transaction, so they apply together or not at all.
+ * Writes through {@link org.springframework.data.mongodb.core.MongoTemplate} and the repositories join it, as does
+ * a nested {@link #execute}. Events should be published through {@link #afterCommit}, so listeners only see committed
+ * changes, once, even when the transaction was retried or is part of an enclosing one.
+ * When transactions are disabled the writes run directly, as they did before.
+ */
+@Component
+public class MongoTransactions {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoTransactions.class);
+
+    // A transaction that conflicted with a concurrent one is aborted as a whole and can be run again
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TransactionTemplate transactionTemplate; // Null when transactions are disabled
+
+    @Autowired
+    public MongoTransactions(ObjectProvider<MongoTransactionManager> transactionManager) {
+        this(transactionManager.getIfAvailable());
+    }
+
+    public MongoTransactions(MongoTransactionManager transactionManager) {
+        this.transactionTemplate = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+    }
+
+    public <T> T execute(Supplier<T> writes) {
+        if (transactionTemplate == null) {
+            return writes.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> writes.get());
+            } catch (DataAccessException e) {
+                if (attempt >= MAX_ATTEMPTS || !isTransient(e)) {
+                    throw e;
+                }
+                logger.debug("Retrying transaction after a transient error, attempt={}: {}", attempt, e.getMessage());
+            }
+        }
+    }
+
+    public void run(Runnable writes) {
+        execute(() -> {
+            writes.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code action} once the enclosing transaction commits, or right away outside of one. Dropped if the
+     * transaction is rolled back; a retry registers it again.
+     */
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static boolean isTransient(DataAccessException e) {
+        return e.getCause() instanceof MongoException cause
+                && cause.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+    }
+}
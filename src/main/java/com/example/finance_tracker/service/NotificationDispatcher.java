@@ -0,0 +1,518 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.service.email.EmailSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Takes notification writes and emails off the calling thread.
+ * <p>
+ * Notifications go into a bounded queue drained by a single writer thread, which inserts them in batches of up to
+ * {@code batchSize} or whatever arrived within {@code flushIntervalMs} of the first one. When the queue stays full
+ * for {@code offerTimeoutMs} the caller writes its notification itself, so producers slow down to the pace of the
+ * database instead of notifications being lost. Emails are handed to a bounded executor and dropped when it is full.
+ * Notifications are not visible to reads until their batch is written, and are pushed to the user's
+ * {@link NotificationStream} as stored once it is. A batch that fails to write is retried up to {@code writeAttempts}
+ * times, waiting {@code retryBackoffMs} and then twice as long before each retry, and only then dropped with its dedupe
+ * keys logged.
+ * <p>
+ * Notifications with a {@link Notification#getDedupeKey() dedupe key} are coalesced: a repeat of one still queued
+ * is merged into it, and the writer upserts by key into the unique index, so the user keeps one notification per key
+ * whose {@code occurrences} counts the repeats and whose message is the latest one; a repeat of a read notification
+ * makes it unread again. Their email goes out once per key
+ * and instance, tracked in an LRU of recently emailed keys.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailSender emailSender;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStream notificationStream;
+    private final Executor emailExecutor;
+    private final BlockingQueue<Notification> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int writeAttempts;
+    private final long retryBackoffMs;
+
+    private final Counter enqueued;
+    private final Counter overflowed;
+    private final Counter written;
+    private final Counter writeFailures;
+    private final Counter writeRetries;
+    private final Counter emailsRejected;
+    private final Counter emailFailures;
+    private final Counter coalesced;
+    private final Counter emailsDeduplicated;
+    private final Timer batchWrites;
+
+    // Held while taking a batch off the queue until it is written, so flush() also waits for the batch in flight.
+    // Fair, so the writer re-taking it in a loop does not starve flush()
+    private final ReentrantLock drainLock = new ReentrantLock(true);
+
+    private final Map<String, Notification> queuedByKey = new HashMap<>(); // Keyed notifications still in the queue
+    private final Map<String, Boolean> emailedKeys;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public NotificationDispatcher(MongoTemplate mongoTemplate, EmailSender emailSender, UnreadNotificationCounter unreadCounter,
+                                  NotificationStream notificationStream,
+                                  @Qualifier("notificationEmailExecutor") Executor emailExecutor, MeterRegistry meterRegistry,
+                                  @Value("${notifications.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${notifications.batch-size:100}") int batchSize,
+                                  @Value("${notifications.flush-interval-ms:500}") long flushIntervalMs,
+                                  @Value("${notifications.offer-timeout-ms:50}") long offerTimeoutMs,
+                                  @Value("${notifications.dedupe.email-cache-size:10000}") int emailCacheSize,
+                                  @Value("${notifications.write-attempts:3}") int writeAttempts,
+                                  @Value("${notifications.write-retry-backoff-ms:200}") long retryBackoffMs) {
+        if (queueCapacity < 1 || batchSize < 1 || writeAttempts < 1) {
+            throw new IllegalArgumentException("Notification queue capacity, batch size and write attempts must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.emailSender = emailSender;
+        this.unreadCounter = unreadCounter;
+        this.notificationStream = notificationStream;
+        this.emailExecutor = emailExecutor;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.writeAttempts = writeAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.emailedKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > emailCacheSize;
+            }
+        };
+
+        Gauge.builder("notifications.queue.size", queue, BlockingQueue::size)
+                .description("Notifications waiting to be written")
+                .register(meterRegistry);
+        this.enqueued = meterRegistry.counter("notifications.enqueued");
+        this.overflowed = meterRegistry.counter("notifications.overflow");
+        this.written = meterRegistry.counter("notifications.written");
+        this.writeFailures = meterRegistry.counter("notifications.write.failures");
+        this.writeRetries = meterRegistry.counter("notifications.write.retries");
+        this.emailsRejected = meterRegistry.counter("notifications.email.rejected");
+        this.emailFailures = meterRegistry.counter("notifications.email.failures");
+        this.batchWrites = meterRegistry.timer("notifications.batch.write");
+        this.coalesced = meterRegistry.counter("notifications.coalesced");
+        this.emailsDeduplicated = meterRegistry.counter("notifications.email.deduplicated");
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "notification-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer after its current batch and writes whatever is still queued.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        flush();
+    }
+
+    /**
+     * Queues a notification for the next batch. Returns immediately unless the queue is full.
+     */
+    public void enqueue(Notification notification) {
+        enqueueAll(List.of(notification));
+    }
+
+    /**
+     * Queues notifications for the next batches. Once the queue is full, the rest are written together
+     * on the calling thread.
+     */
+    public void enqueueAll(Collection<Notification> notifications) {
+        List<Notification> overflow = new ArrayList<>(0);
+        for (Notification notification : notifications) {
+            if (coalesce(notification)) {
+                continue;
+            }
+            if (overflow.isEmpty() && offer(notification)) {
+                enqueued.increment();
+                continue;
+            }
+            if (notification.getDedupeKey() != null) {
+                synchronized (queuedByKey) {
+                    queuedByKey.remove(notification.getDedupeKey(), notification);
+                }
+            }
+            overflow.add(notification);
+        }
+        if (overflow.isEmpty()) {
+            return;
+        }
+        if (running) {
+            overflowed.increment(overflow.size());
+            logger.debug("Notification queue full, writing {} notifications inline", overflow.size());
+        }
+        write(overflow);
+    }
+
+    // Merges a repeat into the queued notification with the same key; otherwise tracks it as the queued one
+    private boolean coalesce(Notification notification) {
+        if (notification.getCreatedAt() == null) {
+            notification.setCreatedAt(new Date());
+        }
+        String key = notification.getDedupeKey();
+        if (key == null) {
+            return false;
+        }
+        if (notification.getLastOccurredAt() == null) {
+            notification.setLastOccurredAt(notification.getCreatedAt());
+        }
+        synchronized (queuedByKey) {
+            Notification queued = queuedByKey.get(key);
+            if (queued != null) {
+                queued.setOccurrences(queued.getOccurrences() + notification.getOccurrences());
+                queued.setMessage(notification.getMessage());
+                queued.setLastOccurredAt(notification.getLastOccurredAt());
+                coalesced.increment();
+                return true;
+            }
+            if (running) {
+                queuedByKey.put(key, notification);
+            }
+        }
+        return false;
+    }
+
+    private boolean offer(Notification notification) {
+        try {
+            return running && queue.offer(notification, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Sends the notification's email on the email executor; a no-op if it has no address.
+     */
+    public void sendEmail(Notification notification) {
+        if (notification.getEmail() == null) {
+            return;
+        }
+        if (notification.getDedupeKey() != null) {
+            synchronized (emailedKeys) {
+                if (emailedKeys.put(notification.getDedupeKey(), Boolean.TRUE) != null) {
+                    emailsDeduplicated.increment();
+                    return;
+                }
+            }
+        }
+        try {
+            emailExecutor.execute(() -> deliver(notification));
+        } catch (RejectedExecutionException e) {
+            emailsRejected.increment();
+            logger.warn("Email queue full, dropped email '{}' for user {}", notification.getTitle(), notification.getUserId());
+        }
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread; returns once all of it has been written.
+     */
+    public void flush() {
+        drainLock.lock();
+        try {
+            List<Notification> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            drainLock.lock();
+            try {
+                Notification first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Notification> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Notification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Notification writer failed: {}", e.getMessage(), e);
+            } finally {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    private void write(List<Notification> batch) {
+        List<Notification> inserts = new ArrayList<>(batch.size());
+        List<Notification> upserts = new ArrayList<>();
+        synchronized (queuedByKey) {
+            // Repeats arriving from now on start a new queued notification instead of merging into this batch
+            for (Notification notification : batch) {
+                if (notification.getDedupeKey() == null) {
+                    inserts.add(notification);
+                } else {
+                    queuedByKey.remove(notification.getDedupeKey(), notification);
+                    upserts.add(notification);
+                }
+            }
+        }
+        // Ids are set here rather than by the driver, so a retry can tell which inserts the failed attempt stored
+        for (Notification notification : inserts) {
+            if (notification.getId() == null) {
+                notification.setId(new ObjectId().toHexString());
+            }
+        }
+        Map<String, Long> createdByUser = new HashMap<>();
+        List<Notification> stored = new ArrayList<>(batch.size());
+        // Each step is done at most once, so a retry resumes after the last one that succeeded. An upsert step that
+        // failed after some of its upserts applied counts their repeats again in occurrences, and leaves the unread
+        // counters of the ones it created to the daily repair
+        boolean inserted = inserts.isEmpty();
+        boolean upserted = upserts.isEmpty();
+        boolean found = upserts.isEmpty();
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long timerStart = System.nanoTime();
+                if (!inserted) {
+                    insert(inserts, attempt > 1);
+                    stored.addAll(inserts);
+                    inserts.forEach(notification -> createdByUser.merge(notification.getUserId(), 1L, Long::sum));
+                    inserted = true;
+                }
+                if (!upserted) {
+                    upsertByKey(upserts, createdByUser);
+                    upserted = true;
+                }
+                if (!found) {
+                    stored.addAll(findUpserted(upserts, createdByUser));
+                    found = true;
+                }
+                batchWrites.record(System.nanoTime() - timerStart, TimeUnit.NANOSECONDS);
+                written.increment(batch.size());
+                break;
+            } catch (RuntimeException e) {
+                if (attempt >= writeAttempts || !backOff(backoffMs)) {
+                    dropped(inserted ? List.of() : inserts, upserted ? List.of() : upserts, attempt, e);
+                    break;
+                }
+                writeRetries.increment();
+                logger.warn("Failed to write {} notifications (attempt {} of {}), retrying in {} ms: {}",
+                        batch.size(), attempt, writeAttempts, backoffMs, e.getMessage());
+                backoffMs *= 2;
+            }
+        }
+        try {
+            unreadCounter.increment(createdByUser);
+        } catch (RuntimeException e) {
+            logger.error("Failed to update unread counters of {} users: {}", createdByUser.size(), e.getMessage());
+        }
+        stored.forEach(notificationStream::publish);
+    }
+
+    // A retry inserts only the notifications the failed attempt did not store, found by their ids
+    private void insert(List<Notification> inserts, boolean retry) {
+        List<Notification> remaining = inserts;
+        if (retry) {
+            Query storedIds = query(where("_id").in(inserts.stream().map(Notification::getId).toList()));
+            storedIds.fields().include("_id");
+            Set<String> alreadyStored = new HashSet<>();
+            mongoTemplate.find(storedIds, Notification.class).forEach(notification -> alreadyStored.add(notification.getId()));
+            remaining = inserts.stream().filter(notification -> !alreadyStored.contains(notification.getId())).toList();
+        }
+        if (!remaining.isEmpty()) {
+            mongoTemplate.insert(remaining, Notification.class);
+        }
+    }
+
+    // Returns false, without waiting out the backoff, if the thread is interrupted
+    private static boolean backOff(long backoffMs) {
+        try {
+            Thread.sleep(backoffMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void dropped(List<Notification> inserts, List<Notification> upserts, int attempts, RuntimeException e) {
+        writeFailures.increment(inserts.size() + upserts.size());
+        List<String> keys = upserts.stream().map(Notification::getDedupeKey).toList();
+        logger.warn("Dropped {} notifications after {} attempts, {} without a dedupe key and these keys: {}",
+                inserts.size() + upserts.size(), attempts, inserts.size(), keys, e);
+    }
+
+    // Adds the users of the notifications that did not exist yet to createdByUser; repeats are already counted
+    private void upsertByKey(List<Notification> notifications, Map<String, Long> createdByUser) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class);
+        for (Notification notification : notifications) {
+            bulk.upsert(byKey(notification), coalescingUpdate(notification));
+        }
+        try {
+            countCreated(bulk.execute(), notifications, createdByUser);
+        } catch (BulkOperationException e) {
+            // Another writer inserted the same key concurrently; retried, the upsert matches its notification
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                    throw e;
+                }
+            }
+            countCreated(e.getResult(), notifications, createdByUser);
+            for (BulkWriteError error : e.getErrors()) {
+                Notification notification = notifications.get(error.getIndex());
+                UpdateResult result = mongoTemplate.upsert(byKey(notification), coalescingUpdate(notification), Notification.class);
+                if (result != null && result.getUpsertedId() != null) {
+                    createdByUser.merge(notification.getUserId(), 1L, Long::sum);
+                }
+            }
+        }
+    }
+
+    // Loads the upserted notifications as stored, to be published. A repeat of a notification the user already read
+    // makes it unread again, counted in unreadByUser. Runs after the upserts, so a notification read in between was
+    // read after the repeat and stays read
+    private List<Notification> findUpserted(List<Notification> notifications, Map<String, Long> unreadByUser) {
+        List<String> keys = notifications.stream().map(Notification::getDedupeKey).toList();
+        List<Notification> stored = mongoTemplate.find(query(where("dedupeKey").in(keys)), Notification.class);
+        for (Notification notification : stored) {
+            if (!notification.isRead()) {
+                continue;
+            }
+            UpdateResult result = mongoTemplate.updateFirst(query(where("_id").is(notification.getId()).and("read").is(true)),
+                    new Update().set("read", false).unset("readAt"), Notification.class);
+            // Only the writer that flipped it counts it, as mark-as-read only subtracts what it flipped
+            if (result.getModifiedCount() > 0) {
+                unreadByUser.merge(notification.getUserId(), 1L, Long::sum);
+            }
+            notification.setRead(false);
+            notification.setReadAt(null);
+        }
+        return stored;
+    }
+
+    private static void countCreated(BulkWriteResult result, List<Notification> notifications, Map<String, Long> createdByUser) {
+        if (result == null) {
+            return;
+        }
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            createdByUser.merge(notifications.get(upsert.getIndex()).getUserId(), 1L, Long::sum);
+        }
+    }
+
+    private static Query byKey(Notification notification) {
+        return query(where("dedupeKey").is(notification.getDedupeKey()));
+    }
+
+    // Creates the notification on the first occurrence; later ones count the repeat and replace the message
+    private static Update coalescingUpdate(Notification notification) {
+        return new Update()
+                .setOnInsert("userId", notification.getUserId())
+                .setOnInsert("title", notification.getTitle())
+                .setOnInsert("type", notification.getType())
+                .setOnInsert("read", false)
+                .setOnInsert("createdAt", notification.getCreatedAt())
+                .setOnInsert("email", notification.getEmail())
+                .set("message", notification.getMessage())
+                .set("lastOccurredAt", notification.getLastOccurredAt())
+                .inc("occurrences", notification.getOccurrences());
+    }
+
+    private void deliver(Notification notification) {
+        try {
+            emailSender.send(notification.getEmail(), notification.getTitle(), notification.getMessage());
+        } catch (RuntimeException e) {
+            emailFailures.increment();
+            logger.error("Failed to send email for notification '{}' to user {}: {}",
+                    notification.getTitle(), notification.getUserId(), e.getMessage());
+        }
+    }
+}
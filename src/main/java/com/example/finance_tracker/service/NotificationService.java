@@ -1,14 +1,20 @@
 package com.example.finance_tracker.service;
 
 import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.model.NotificationInbox;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationService {
     void sendNotification(Notification notification);
+    void sendNotifications(List<Notification> notifications);
     void sendEmailNotification(Notification notification); // New method for email notifications
     List<Notification> getNotificationsByUser(String userId);
+    NotificationInbox getInbox(String userId, int page, int size, boolean unreadOnly);
+    long getUnreadCount(String userId);
     void markNotificationAsRead(String notificationId);
+    long markAsRead(String userId, Collection<String> notificationIds);
 
     boolean isOwner(String notificationId, String userId);
 
@@ -1,34 +1,59 @@
 package com.example.finance_tracker.service;
 
 import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.model.NotificationInbox;
 import com.example.finance_tracker.repository.NotificationRepository;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 @Service( "notificationService")
 public class NotificationServiceImpl implements NotificationService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final MongoTemplate mongoTemplate;
+    private final UnreadNotificationCounter unreadCounter;
 
     @Autowired
-    public NotificationServiceImpl(NotificationRepository notificationRepository) {
+    public NotificationServiceImpl(NotificationRepository notificationRepository, NotificationDispatcher notificationDispatcher,
+                                   MongoTemplate mongoTemplate, UnreadNotificationCounter unreadCounter) {
         this.notificationRepository = notificationRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.mongoTemplate = mongoTemplate;
+        this.unreadCounter = unreadCounter;
     }
 
     @Override
     public void sendNotification(Notification notification) {
-        notificationRepository.save(notification);
+        // Written in the background with other notifications, so callers do not wait on the insert; pushed to the
+        // user's stream once written
+        notificationDispatcher.enqueue(notification);
+    }
+
+    @Override
+    public void sendNotifications(List<Notification> notifications) {
+        notificationDispatcher.enqueueAll(notifications);
     }
 
     @Override
     public void sendEmailNotification(Notification notification) {
-        if (notification.getEmail() != null) {
-            // Logic to send email
-            System.out.println("Sending email to " + notification.getEmail() + ": " + notification.getMessage());
-        }
+        notificationDispatcher.sendEmail(notification);
     }
 
     @Override
@@ -36,18 +61,63 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepository.findByUserId(userId);
     }
 
+    @Override
+    public NotificationInbox getInbox(String userId, int page, int size, boolean unreadOnly) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), pageSize);
+        Slice<Notification> slice = unreadOnly
+                ? notificationRepository.findByUserIdAndReadOrderByCreatedAtDesc(userId, false, pageRequest)
+                : notificationRepository.findByUserIdOrderByReadAscCreatedAtDesc(userId, pageRequest);
+        return new NotificationInbox(slice.getContent(), unreadCounter.get(userId),
+                pageRequest.getPageNumber(), pageSize, slice.hasNext());
+    }
+
+    @Override
+    public long getUnreadCount(String userId) {
+        return unreadCounter.get(userId);
+    }
+
     @Override
     public void markNotificationAsRead(String notificationId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
-        notification.setRead(true);
-        notificationRepository.save(notification);
+        // One round trip; the previous state tells whether the owner's unread count changes
+        Notification previous = mongoTemplate.findAndModify(query(where("_id").is(notificationId)),
+                new Update().set("read", true).set("readAt", new Date()),
+                FindAndModifyOptions.options().returnNew(false), Notification.class);
+        if (previous == null) {
+            throw new ResourceNotFoundException("Notification not found");
+        }
+        if (!previous.isRead()) {
+            unreadCounter.decrement(previous.getUserId(), 1);
+        }
+    }
+
+    /**
+     * Marks the given notifications of the user as read, or all of them if none are given, with a single update.
+     * Ids of other users' notifications are ignored.
+     *
+     * @return the number of notifications that were unread
+     */
+    @Override
+    public long markAsRead(String userId, Collection<String> notificationIds) {
+        Criteria unread = where("userId").is(userId).and("read").is(false);
+        if (notificationIds != null && !notificationIds.isEmpty()) {
+            unread.and("_id").in(notificationIds);
+        }
+        long modified = mongoTemplate.updateMulti(query(unread),
+                new Update().set("read", true).set("readAt", new Date()), Notification.class).getModifiedCount();
+        unreadCounter.decrement(userId, modified);
+        return modified;
     }
 
     @Override
     public boolean isOwner(String notificationId, String userId) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
-        return notification.getUserId().equals(userId);
+        // Existence checks on the key fields only, the notification itself is not loaded
+        if (mongoTemplate.exists(query(where("_id").is(notificationId).and("userId").is(userId)), Notification.class)) {
+            return true;
+        }
+        if (!mongoTemplate.exists(query(where("_id").is(notificationId)), Notification.class)) {
+            throw new ResourceNotFoundException("Notification not found");
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,243 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.model.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes notifications to connected clients as server-sent events, so they do not have to poll the inbox.
+ * Subscriptions are kept in memory per user; a client connected to another instance only receives the
+ * notifications raised there and catches up on the others from the inbox when it reconnects.
+ * <p>
+ * Each subscription buffers a bounded number of notifications. Publishing only adds to the buffer; the events are
+ * written by the stream executor, so a slow client delays its own events and, once its buffer is full, loses
+ * the oldest ones instead of blocking the caller.
+ */
+@Component
+public class NotificationStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStream.class);
+
+    static final String NOTIFICATION_EVENT = "notification";
+
+    private final Executor streamExecutor;
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final int maxPerUser;
+    private final long heartbeatMs;
+
+    private final Map<String, Set<Subscription>> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    private final Counter pushed;
+    private final Counter dropped;
+    private final Counter rejected;
+
+    @Autowired
+    public NotificationStream(@Qualifier("notificationStreamExecutor") Executor streamExecutor, MeterRegistry meterRegistry,
+                              @Value("${notifications.stream.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${notifications.stream.buffer-size:32}") int bufferSize,
+                              @Value("${notifications.stream.max-per-user:5}") int maxPerUser,
+                              @Value("${notifications.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        if (bufferSize < 1 || maxPerUser < 1) {
+            throw new IllegalArgumentException("Notification stream buffer size and subscriptions per user must be positive");
+        }
+        this.streamExecutor = streamExecutor;
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        this.maxPerUser = maxPerUser;
+        this.heartbeatMs = heartbeatMs;
+
+        Gauge.builder("notifications.stream.subscribers", subscriptionCount, AtomicInteger::get)
+                .description("Open notification streams")
+                .register(meterRegistry);
+        this.pushed = meterRegistry.counter("notifications.stream.pushed");
+        this.dropped = meterRegistry.counter("notifications.stream.dropped");
+        this.rejected = meterRegistry.counter("notifications.stream.rejected");
+    }
+
+    /**
+     * Opens a stream of the user's notifications. The stream ends after the configured timeout, after which
+     * the client reconnects.
+     */
+    public SseEmitter subscribe(String userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(userId, emitter);
+        return emitter;
+    }
+
+    /**
+     * Registers an emitter for the user's notifications. When the user already has the maximum number of
+     * streams, the oldest one is closed.
+     */
+    public void register(String userId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(userId, emitter);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+
+        // Added inside compute, so a concurrent remove() cannot drop the set this subscription goes into
+        Set<Subscription> subscriptions = subscriptionsByUser.compute(userId, (id, existing) -> {
+            Set<Subscription> set = existing != null ? existing : new CopyOnWriteArraySet<>();
+            set.add(subscription);
+            return set;
+        });
+        subscriptionCount.incrementAndGet();
+        while (subscriptions.size() > maxPerUser) {
+            Subscription oldest = subscriptions.iterator().next();
+            remove(oldest);
+            oldest.emitter.complete();
+        }
+    }
+
+    /**
+     * Queues the notification for the user's open streams. Returns immediately.
+     */
+    public void publish(Notification notification) {
+        if (notification.getUserId() == null) {
+            return;
+        }
+        Set<Subscription> subscriptions = subscriptionsByUser.get(notification.getUserId());
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(notification);
+        }
+    }
+
+    /**
+     * Sends a comment on streams that had no event for a heartbeat interval, so proxies keep idle connections
+     * open and closed connections are noticed.
+     */
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:15000}",
+            initialDelayString = "${notifications.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        long idleSince = System.currentTimeMillis() - heartbeatMs;
+        for (Set<Subscription> subscriptions : subscriptionsByUser.values()) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.lastSentAt < idleSince) {
+                    subscription.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptionCount.get();
+    }
+
+    public int getSubscriberCount(String userId) {
+        Set<Subscription> subscriptions = subscriptionsByUser.get(userId);
+        return subscriptions == null ? 0 : subscriptions.size();
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptionsByUser.computeIfPresent(subscription.userId, (userId, subscriptions) -> {
+            if (subscriptions.remove(subscription)) {
+                subscriptionCount.decrementAndGet();
+            }
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private final class Subscription {
+
+        private final String userId;
+        private final SseEmitter emitter;
+        private final Deque<Notification> buffer = new ArrayDeque<>(); // Guarded by this
+        private boolean draining; // Guarded by this
+        private final Object sendLock = new Object(); // Separate from the buffer's lock, so offer() never waits on the client
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Subscription(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Notification notification) {
+            synchronized (this) {
+                if (buffer.size() == bufferSize) {
+                    buffer.pollFirst();
+                    dropped.increment();
+                }
+                buffer.addLast(notification);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                streamExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // The buffered notifications go out with the next one published to this stream
+                synchronized (this) {
+                    draining = false;
+                }
+                rejected.increment();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Collection<Notification> notifications;
+                synchronized (this) {
+                    if (buffer.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    notifications = new ArrayDeque<>(buffer);
+                    buffer.clear();
+                }
+                for (Notification notification : notifications) {
+                    if (!send(SseEmitter.event().name(NOTIFICATION_EVENT).data(notification, MediaType.APPLICATION_JSON))) {
+                        synchronized (this) {
+                            buffer.clear();
+                            draining = false;
+                        }
+                        return;
+                    }
+                    pushed.increment();
+                }
+            }
+        }
+
+        // Serialised per stream; the emitter does not allow concurrent writes
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            synchronized (sendLock) {
+                try {
+                    emitter.send(event);
+                    lastSentAt = System.currentTimeMillis();
+                    return true;
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Closing notification stream of user {}: {}", userId, e.getMessage());
+                    remove(this);
+                    emitter.completeWithError(e);
+                    return false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
+import com.example.finance_tracker.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Keeps the most recent transactions of recently active users in memory, newest first.
+ * New transactions are added on write; updates and deletes drop the user's buffer so the next read reloads it.
+ * Writes on other instances are not seen here, so a buffer is reloaded once it is older than the TTL.
+ * Transactions are copied in and out, so callers cannot change what the buffer holds.
+ */
+@Component
+public class RecentTransactionsCache {
+
+    private static final Comparator<Date> NEWEST_FIRST = Comparator.nullsLast(Comparator.reverseOrder());
+
+    private final int capacity;
+    private final long ttlMillis;
+    private final Map<String, RecentBuffer> buffers;
+
+    // Bumped on every write so a load that raced with a write is not cached
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypassed;
+
+    public RecentTransactionsCache(MeterRegistry meterRegistry,
+                                   @Value("${transactions.recent-cache.capacity:5}") int capacity,
+                                   @Value("${transactions.recent-cache.max-users:10000}") int maxUsers,
+                                   @Value("${transactions.recent-cache.ttl-ms:30000}") long ttlMillis) {
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.buffers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RecentBuffer> eldest) {
+                return size() > maxUsers;
+            }
+        };
+
+        // Read without the lock, so a scrape never waits on a request; a slightly stale size is fine for a gauge
+        Gauge.builder("transactions.recent.cache.size", buffers, Map::size)
+                .description("Users whose recent transactions are cached")
+                .register(meterRegistry);
+        this.hits = meterRegistry.counter("transactions.recent.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("transactions.recent.cache.requests", "result", "miss");
+        this.bypassed = meterRegistry.counter("transactions.recent.cache.requests", "result", "bypass");
+    }
+
+    /**
+     * Returns up to {@code limit} of the user's newest transactions, loading {@code capacity} of them on a miss.
+     * Requests for more than the buffer holds go straight to the loader.
+     * The returned transactions are copies.
+     */
+    public List<Transaction> getRecent(String userId, int limit, IntFunction<List<Transaction>> loader) {
+        if (limit > capacity) {
+            bypassed.increment();
+            return loader.apply(limit);
+        }
+        long now = System.currentTimeMillis();
+        synchronized (buffers) {
+            RecentBuffer buffer = buffers.get(userId);
+            if (buffer != null && buffer.expiresAt > now) {
+                hits.increment();
+                return buffer.newest(limit);
+            }
+        }
+        misses.increment();
+
+        long sequence = writeSequence.get();
+        List<Transaction> loaded = loader.apply(capacity);
+        RecentBuffer buffer = new RecentBuffer(capacity, loaded, now + ttlMillis);
+        synchronized (buffers) {
+            if (writeSequence.get() == sequence) {
+                buffers.put(userId, buffer);
+            }
+        }
+        return buffer.newest(limit);
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        writeSequence.incrementAndGet();
+        synchronized (buffers) {
+            if (!event.isCreated()) {
+                buffers.remove(event.getUserId());
+                return;
+            }
+            RecentBuffer buffer = buffers.get(event.getUserId());
+            if (buffer != null) {
+                buffer.add(event.getCurrent());
+            }
+        }
+    }
+
+    @EventListener
+    public void onTransactionsCreated(TransactionsCreatedEvent event) {
+        writeSequence.incrementAndGet();
+        synchronized (buffers) {
+            RecentBuffer buffer = buffers.get(event.getUserId());
+            if (buffer != null) {
+                event.getTransactions().forEach(buffer::add);
+            }
+        }
+    }
+
+    /**
+     * Fixed-size buffer ordered by date, newest first; adding to a full buffer drops the oldest entry.
+     * Guarded by the lock on {@code buffers}.
+     */
+    private static final class RecentBuffer {
+        private final int capacity;
+        private final long expiresAt;
+        private final ArrayDeque<Transaction> items;
+
+        private RecentBuffer(int capacity, List<Transaction> newestFirst, long expiresAt) {
+            this.capacity = capacity;
+            this.expiresAt = expiresAt;
+            this.items = new ArrayDeque<>(capacity);
+            for (Transaction transaction : newestFirst) {
+                if (items.size() == capacity) {
+                    break;
+                }
+                items.addLast(copy(transaction));
+            }
+        }
+
+        private void add(Transaction added) {
+            Transaction transaction = copy(added);
+            if (items.isEmpty() || NEWEST_FIRST.compare(transaction.getDate(), items.peekFirst().getDate()) <= 0) {
+                items.addFirst(transaction);
+            } else if (items.size() == capacity && NEWEST_FIRST.compare(transaction.getDate(), items.peekLast().getDate()) > 0) {
+                // Back-dated transaction older than everything kept
+                return;
+            } else {
+                List<Transaction> sorted = new ArrayList<>(items);
+                int index = 0;
+                while (index < sorted.size() && NEWEST_FIRST.compare(sorted.get(index).getDate(), transaction.getDate()) <= 0) {
+                    index++;
+                }
+                sorted.add(index, transaction);
+                items.clear();
+                items.addAll(sorted);
+            }
+            if (items.size() > capacity) {
+                items.removeLast();
+            }
+        }
+
+        private List<Transaction> newest(int limit) {
+            List<Transaction> result = new ArrayList<>(Math.min(limit, items.size()));
+            Iterator<Transaction> iterator = items.iterator();
+            while (iterator.hasNext() && result.size() < limit) {
+                result.add(copy(iterator.next()));
+            }
+            return result;
+        }
+    }
+
+    private static Transaction copy(Transaction transaction) {
+        return transaction.toBuilder()
+                .date(copy(transaction.getDate()))
+                .recurrenceEndDate(copy(transaction.getRecurrenceEndDate()))
+                .nextRunAt(copy(transaction.getNextRunAt()))
+                .tags(transaction.getTags() == null ? null : new ArrayList<>(transaction.getTags()))
+                .build();
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+}
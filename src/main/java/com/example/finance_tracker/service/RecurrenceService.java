@@ -2,15 +2,18 @@ package com.example.finance_tracker.service;
 
 import com.example.finance_tracker.model.Transaction;
 
+import java.time.ZoneId;
 import java.util.Date;
 
 public interface RecurrenceService {
     void processRecurringTransactions();
-    boolean shouldProcessTransaction(Transaction transaction);
-    boolean isSameDayOfWeek(Date date1, Date date2);
-    boolean isSameDayOfMonth(Date date1, Date date2);
+    void processRecurringTransactions(JobShard shard);
+    void processDueTemplates();
+    int processTemplate(Transaction template, Date now);
     boolean isRecurrenceEnded(Transaction transaction);
-    Transaction createRecurringTransaction(Transaction transaction);
+    Transaction createRecurringTransaction(Transaction template, Date occurrenceDate);
     Date calculateNextRecurrenceDate(Transaction transaction);
+    Date calculateNextRecurrenceDate(String recurrencePattern, Date date);
+    Date calculateNextRecurrenceDate(String recurrencePattern, Date date, ZoneId zone);
     void sendUpcomingTransactionNotification(Transaction transaction);
-}
\ No newline at end of file
+}
@@ -2,91 +2,249 @@ package com.example.finance_tracker.service;
 
 import com.example.finance_tracker.model.Notification;
 import com.example.finance_tracker.model.Transaction;
-import com.example.finance_tracker.repository.TransactionRepository;
+import com.example.finance_tracker.util.RecurrenceRule;
+import com.example.finance_tracker.util.TimeZoneUtil;
+import com.mongodb.bulk.BulkWriteError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Calendar;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 @Service
 public class RecurrenceServiceImpl implements RecurrenceService {
 
-    private final TransactionRepository transactionRepository;
+    private static final Logger logger = LoggerFactory.getLogger(RecurrenceServiceImpl.class);
+
+    // Upper bound on occurrences generated for one template in one run; the rest are caught up on the next run
+    static final int MAX_OCCURRENCES_PER_RUN = 500;
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionService transactionService;
     private final NotificationService notificationService;
+    private final ShardedJobRunner shardedJobRunner;
+    private final RecurrenceWheel recurrenceWheel;
+    private final TimeZoneUtil timeZoneUtil;
+    private final MongoTransactions mongoTransactions;
+
+    @Value("${recurrence.cron:0 0 8 * * ?}")
+    private String recurrenceCron = "0 0 8 * * ?";
+
+    @Value("${recurrence.tick-cron:0 * * * * ?}")
+    private String tickCron = "0 * * * * ?";
 
     @Autowired
-    public RecurrenceServiceImpl(TransactionRepository transactionRepository, NotificationService notificationService) {
-        this.transactionRepository = transactionRepository;
+    public RecurrenceServiceImpl(MongoTemplate mongoTemplate, TransactionService transactionService,
+                                 NotificationService notificationService, ShardedJobRunner shardedJobRunner,
+                                 RecurrenceWheel recurrenceWheel, TimeZoneUtil timeZoneUtil,
+                                 MongoTransactions mongoTransactions) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactionService = transactionService;
         this.notificationService = notificationService;
+        this.shardedJobRunner = shardedJobRunner;
+        this.recurrenceWheel = recurrenceWheel;
+        this.timeZoneUtil = timeZoneUtil;
+        this.mongoTransactions = mongoTransactions;
     }
 
     @Override
-    @Scheduled(cron = "0 0 8 * * ?") // Runs every day at 8:00 AM
+    @Scheduled(cron = "${recurrence.cron:0 0 8 * * ?}") // Runs every day at 8:00 AM by default
     public void processRecurringTransactions() {
-        List<Transaction> recurringTransactions = transactionRepository.findByIsRecurring(true);
+        // Every instance fires; the shards of users are divided between them
+        shardedJobRunner.runSharded("recurrence", ShardedJobRunner.runKey(recurrenceCron), this::processRecurringTransactions);
+    }
 
-        for (Transaction transaction : recurringTransactions) {
-            // Check if the transaction should be processed today
-            if (shouldProcessTransaction(transaction)) {
-                // Create a new transaction based on the recurrence pattern
-                Transaction newTransaction = createRecurringTransaction(transaction);
+    @Override
+    @Scheduled(cron = "${recurrence.tick-cron:0 * * * * ?}") // Runs every minute by default
+    public void processDueTemplates() {
+        // The local wheel only decides whether a run is needed: a template scheduled in another instance's wheel may
+        // fall in a shard this instance leases, so each shard's due templates are read from Mongo
+        Date now = new Date();
+        List<Transaction> due = recurrenceWheel.pollDue(now);
+        if (due.isEmpty()) {
+            return;
+        }
 
-                // Save the new transaction
-                transactionRepository.save(newTransaction);
+        List<String> templateIds = new ArrayList<>();
+        due.forEach(template -> templateIds.add(template.getId()));
+        try {
+            shardedJobRunner.runSharded("recurrence-tick", ShardedJobRunner.runKey(tickCron),
+                    shard -> processDueTemplates(shard, now));
+        } finally {
+            // Reschedules the polled entries from the stored nextRunAt; one read before another instance finished
+            // its shard fires again on the next tick, which then finds nothing due
+            recurrenceWheel.reload(templateIds);
+        }
+    }
 
-                // Send a notification for the upcoming transaction
-                sendUpcomingTransactionNotification(newTransaction);
-            }
+    private void processDueTemplates(JobShard shard, Date now) {
+        Query due = query(shard.restrict(where("IsRecurring").is(true).and("nextRunAt").lte(now)))
+                .with(Sort.by("nextRunAt"));
+        Processed processed = processTemplates(due, shard, now);
+        logger.debug("Shard {}: generated {} occurrences from {} due templates", shard, processed.occurrences(), processed.templates());
+    }
+
+    @Override
+    public void processRecurringTransactions(JobShard shard) {
+        Date now = new Date();
+
+        // Only this shard's due templates are read, through the { IsRecurring, shardBucket, nextRunAt } index.
+        // Templates created before nextRunAt existed have no value yet and are picked up once to initialise it.
+        Query due = query(shard.restrict(where("IsRecurring").is(true))
+                .orOperator(where("nextRunAt").lte(now), where("nextRunAt").is(null)))
+                .with(Sort.by("nextRunAt"));
 
-            // Check if the recurrence has ended
-            if (isRecurrenceEnded(transaction)) {
-                // Mark the transaction as non-recurring
-                transaction.setIsRecurring(false);
-                transactionRepository.save(transaction);
+        Processed processed = processTemplates(due, shard, now);
+        logger.info("Shard {}: processed {} due recurring transactions, generated {} occurrences", shard,
+                processed.templates(), processed.occurrences());
+    }
+
+    private Processed processTemplates(Query due, JobShard shard, Date now) {
+        int templates = 0;
+        int generated = 0;
+        try (Stream<Transaction> stream = mongoTemplate.stream(due, Transaction.class)) {
+            for (Transaction template : (Iterable<Transaction>) stream::iterator) {
+                if (shard.isRevoked()) {
+                    logger.warn("Shard {} was revoked after {} recurring transactions", shard, templates);
+                    break;
+                }
+                try {
+                    generated += processTemplate(template, now);
+                    templates++;
+                } catch (RuntimeException e) {
+                    logger.error("Failed to process recurring transaction {}: {}", template.getId(), e.getMessage(), e);
+                }
             }
         }
+        return new Processed(templates, generated);
     }
 
-    @Override
-    public boolean shouldProcessTransaction(Transaction transaction) {
-        Date today = new Date();
-        Date lastProcessedDate = transaction.getDate();
-
-        switch (transaction.getRecurrencePattern()) {
-            case "daily":
-                return true; // Process every day
-            case "weekly":
-                return isSameDayOfWeek(today, lastProcessedDate);
-            case "monthly":
-                return isSameDayOfMonth(today, lastProcessedDate);
-            default:
-                return false;
-        }
+    private record Processed(int templates, int occurrences) {
     }
 
+    /**
+     * Generates every occurrence of the template that is due at {@code now}, with their income or expense records,
+     * then advances its nextRunAt, all in one Mongo transaction. Occurrences carry an idempotency key, so a run that
+     * overlaps or repeats another never creates duplicates.
+     *
+     * @return the number of occurrences inserted by this call
+     */
     @Override
-    public boolean isSameDayOfWeek(Date date1, Date date2) {
-        Calendar cal1 = Calendar.getInstance();
-        cal1.setTime(date1);
+    public int processTemplate(Transaction template, Date now) {
+        // Occurrences follow the user's calendar, e.g. monthly on the 1st in their time zone
+        ZoneId zone = timeZoneUtil.getZoneIdForUser(template.getUserId());
+        Date expectedNextRunAt = template.getNextRunAt();
+        Date cursor = expectedNextRunAt != null ? expectedNextRunAt
+                : calculateNextRecurrenceDate(template.getRecurrencePattern(), template.getDate(), zone);
+        Date endDate = template.getRecurrenceEndDate();
 
-        Calendar cal2 = Calendar.getInstance();
-        cal2.setTime(date2);
+        List<Transaction> occurrences = new ArrayList<>();
+        while (!cursor.after(now) && (endDate == null || !cursor.after(endDate))
+                && occurrences.size() < MAX_OCCURRENCES_PER_RUN) {
+            occurrences.add(createRecurringTransaction(template, cursor));
+            cursor = calculateNextRecurrenceDate(template.getRecurrencePattern(), cursor, zone);
+        }
 
-        return cal1.get(Calendar.DAY_OF_WEEK) == cal2.get(Calendar.DAY_OF_WEEK);
+        // Compare-and-set on the value read, so a concurrent run that already advanced the template wins
+        Update advance = new Update().set("nextRunAt", cursor);
+        if (endDate != null && cursor.after(endDate)) {
+            advance.set("IsRecurring", false);
+        }
+
+        List<Transaction> inserted = mongoTransactions.execute(() -> {
+            List<Transaction> generated = recordOccurrences(occurrences);
+            Transaction advanced = mongoTemplate.findAndModify(
+                    query(where("_id").is(template.getId()).and("nextRunAt").is(expectedNextRunAt)), advance, Transaction.class);
+            if (advanced == null) {
+                logger.debug("Recurring transaction {} was advanced concurrently", template.getId());
+            }
+            if (!generated.isEmpty()) {
+                Transaction latest = generated.get(generated.size() - 1);
+                mongoTransactions.afterCommit(() -> sendUpcomingTransactionNotification(latest));
+            }
+            return generated;
+        });
+        return inserted.size();
     }
 
-    @Override
-    public boolean isSameDayOfMonth(Date date1, Date date2) {
-        Calendar cal1 = Calendar.getInstance();
-        cal1.setTime(date1);
+    /**
+     * Inserts the occurrences not stored yet, and creates the income and expense records of the new ones with one
+     * event for all of them. Without transactions, a run that failed after its insert left occurrences without
+     * records; a key conflict would skip them forever, so stored occurrences without a record are recorded here too.
+     *
+     * @return the occurrences inserted by this call
+     */
+    private List<Transaction> recordOccurrences(List<Transaction> occurrences) {
+        if (occurrences.isEmpty()) {
+            return occurrences;
+        }
+        // Read first, as a duplicate key error inside a transaction aborts it
+        List<String> keys = occurrences.stream().map(Transaction::getOccurrenceKey).toList();
+        List<Transaction> stored = mongoTemplate.find(query(where("occurrenceKey").in(keys)), Transaction.class);
+        Set<String> storedKeys = new HashSet<>();
+        stored.forEach(occurrence -> storedKeys.add(occurrence.getOccurrenceKey()));
 
-        Calendar cal2 = Calendar.getInstance();
-        cal2.setTime(date2);
+        List<Transaction> inserted = insertIgnoringDuplicates(occurrences.stream()
+                .filter(occurrence -> !storedKeys.contains(occurrence.getOccurrenceKey()))
+                .toList());
+        List<Transaction> unrecorded = new ArrayList<>(inserted);
+        if (!stored.isEmpty()) {
+            List<Transaction> repaired = transactionService.findUnrecordedTransactions(stored);
+            if (!repaired.isEmpty()) {
+                logger.warn("Recording {} stored occurrences that have no income or expense record", repaired.size());
+                unrecorded.addAll(repaired);
+            }
+        }
+        if (!unrecorded.isEmpty()) {
+            transactionService.recordInsertedTransactions(unrecorded);
+        }
+        return inserted;
+    }
 
-        return cal1.get(Calendar.DAY_OF_MONTH) == cal2.get(Calendar.DAY_OF_MONTH);
+    private List<Transaction> insertIgnoringDuplicates(List<Transaction> occurrences) {
+        if (occurrences.isEmpty()) {
+            return occurrences;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class).insert(occurrences).execute();
+            return occurrences;
+        } catch (BulkOperationException e) {
+            Set<Integer> duplicates = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                    throw e;
+                }
+                duplicates.add(error.getIndex());
+            }
+            List<Transaction> inserted = new ArrayList<>();
+            for (int i = 0; i < occurrences.size(); i++) {
+                if (!duplicates.contains(i)) {
+                    inserted.add(occurrences.get(i));
+                }
+            }
+            logger.debug("Skipped {} occurrences that were already generated", duplicates.size());
+            return inserted;
+        }
     }
 
     @Override
@@ -98,43 +256,38 @@ public class RecurrenceServiceImpl implements RecurrenceService {
     }
 
     @Override
-    public Transaction createRecurringTransaction(Transaction transaction) {
+    public Transaction createRecurringTransaction(Transaction template, Date occurrenceDate) {
+        // Occurrences are plain transactions; only the template recurs
         return Transaction.builder()
-                .userId(transaction.getUserId())
-                .type(transaction.getType())
-                .amount(transaction.getAmount())
-                .currencyCode(transaction.getCurrencyCode())
-                .category(transaction.getCategory())
-                .source(transaction.getSource())
-                .date(calculateNextRecurrenceDate(transaction)) // Update the date
-                .description(transaction.getDescription())
-                .tags(transaction.getTags())
-                .IsRecurring(true)
-                .recurrencePattern(transaction.getRecurrencePattern())
-                .recurrenceEndDate(transaction.getRecurrenceEndDate())
+                .userId(template.getUserId())
+                .type(template.getType())
+                .amount(template.getAmount())
+                .currencyCode(template.getCurrencyCode())
+                .category(template.getCategory())
+                .source(template.getSource())
+                .date(occurrenceDate)
+                .description(template.getDescription())
+                .tags(template.getTags())
+                .IsRecurring(false)
+                .recurrenceTemplateId(template.getId())
+                .occurrenceKey(template.getId() + ":" + occurrenceDate.toInstant())
                 .build();
     }
 
     @Override
     public Date calculateNextRecurrenceDate(Transaction transaction) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(transaction.getDate());
-
-        switch (transaction.getRecurrencePattern()) {
-            case "daily":
-                calendar.add(Calendar.DAY_OF_MONTH, 1);
-                break;
-            case "weekly":
-                calendar.add(Calendar.WEEK_OF_YEAR, 1);
-                break;
-            case "monthly":
-                calendar.add(Calendar.MONTH, 1);
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid recurrence pattern: " + transaction.getRecurrencePattern());
-        }
+        return calculateNextRecurrenceDate(transaction.getRecurrencePattern(), transaction.getDate(),
+                timeZoneUtil.getZoneIdForUser(transaction.getUserId()));
+    }
 
-        return calendar.getTime();
+    @Override
+    public Date calculateNextRecurrenceDate(String recurrencePattern, Date date) {
+        return calculateNextRecurrenceDate(recurrencePattern, date, timeZoneUtil.getDefaultZoneId());
+    }
+
+    @Override
+    public Date calculateNextRecurrenceDate(String recurrencePattern, Date date, ZoneId zone) {
+        return RecurrenceRule.parse(recurrencePattern).next(date, zone);
     }
 
     @Override
@@ -153,4 +306,4 @@ public class RecurrenceServiceImpl implements RecurrenceService {
         notification.setMessage(message);
         notificationService.sendNotification(notification);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,237 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.util.HierarchicalTimingWheel;
+import com.example.finance_tracker.util.RecurrenceRule;
+import com.example.finance_tracker.util.TimeZoneUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * In-memory schedule of the recurring templates due within the horizon, kept in a hierarchical timing wheel.
+ * The wheel is loaded from Mongo on startup and topped up periodically; changes made through this instance are
+ * applied directly. The due-template sweep in {@link RecurrenceServiceImpl} remains the safety net for anything
+ * changed elsewhere.
+ * <p>
+ * Due times are computed before taking the lock, as they may need the user's time zone, so the lock only covers
+ * the wheel itself.
+ */
+@Component
+public class RecurrenceWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecurrenceWheel.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final TimeZoneUtil timeZoneUtil;
+
+    @Value("${recurrence.wheel.tick-ms:60000}")
+    private long tickMs = 60_000;
+
+    @Value("${recurrence.wheel.horizon-hours:24}")
+    private long horizonHours = 24;
+
+    private HierarchicalTimingWheel<Entry> wheel;
+    private final Map<String, Long> scheduledDueAt = new HashMap<>(); // Template id -> due time of its live entry
+    private long loadedUntil;
+
+    @Autowired
+    public RecurrenceWheel(MongoTemplate mongoTemplate, TimeZoneUtil timeZoneUtil, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.timeZoneUtil = timeZoneUtil;
+
+        // Read without the lock, so a scrape never waits on a refill; a slightly stale size is fine for a gauge
+        Gauge.builder("recurrence.wheel.scheduled", scheduledDueAt, Map::size)
+                .description("Recurring templates scheduled in the wheel")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            wheel = new HierarchicalTimingWheel<>(tickMs, 60, now);
+            scheduledDueAt.clear();
+            loadedUntil = now;
+        }
+        refill();
+    }
+
+    /**
+     * Loads the templates that become due before the end of the horizon.
+     */
+    @Scheduled(fixedDelayString = "${recurrence.wheel.refill-ms:3600000}", initialDelayString = "${recurrence.wheel.refill-ms:3600000}")
+    public void refill() {
+        long horizonEnd = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(horizonHours);
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            loadedUntil = horizonEnd;
+        }
+        Query due = query(where("IsRecurring").is(true)
+                .orOperator(where("nextRunAt").lt(new Date(horizonEnd)), where("nextRunAt").is(null)));
+        due.fields().include("userId", "date", "IsRecurring", "recurrencePattern", "nextRunAt");
+
+        int loaded = 0;
+        try (Stream<Transaction> templates = mongoTemplate.stream(due, Transaction.class)) {
+            for (Transaction template : (Iterable<Transaction>) templates::iterator) {
+                Long dueAt = dueAtOf(template);
+                if (dueAt == null) {
+                    continue;
+                }
+                synchronized (this) {
+                    if (schedule(new Entry(template, dueAt))) {
+                        loaded++;
+                    }
+                }
+            }
+        }
+        logger.info("Recurrence wheel loaded {} templates due before {}, {} scheduled", loaded, new Date(horizonEnd), size());
+    }
+
+    /**
+     * Removes and returns the templates whose due time has passed. Entries superseded by a later schedule are dropped.
+     */
+    public synchronized List<Transaction> pollDue(Date now) {
+        List<Transaction> due = new ArrayList<>();
+        if (wheel == null) {
+            return due;
+        }
+        wheel.advance(now.getTime(), entry -> {
+            String id = entry.template().getId();
+            Long dueAt = scheduledDueAt.get(id);
+            if (dueAt != null && dueAt == entry.dueAt()) {
+                scheduledDueAt.remove(id);
+                due.add(entry.template());
+            }
+        });
+        return due;
+    }
+
+    public synchronized int size() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    /**
+     * Re-reads the given templates and schedules their next run, e.g. after they were processed.
+     */
+    public void reload(Collection<String> templateIds) {
+        if (templateIds.isEmpty()) {
+            return;
+        }
+        Query byIds = query(where("_id").in(templateIds));
+        byIds.fields().include("userId", "date", "IsRecurring", "recurrencePattern", "nextRunAt");
+        List<Transaction> templates = mongoTemplate.find(byIds, Transaction.class);
+        List<Entry> entries = entriesOf(templates);
+        synchronized (this) {
+            templateIds.forEach(scheduledDueAt::remove);
+            entries.forEach(this::schedule);
+        }
+    }
+
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        Transaction current = event.getCurrent();
+        if (current != null && current.isIsRecurring()) {
+            List<Entry> entries = entriesOf(List.of(current));
+            synchronized (this) {
+                entries.forEach(this::schedule);
+            }
+        } else if (event.getPrevious() != null) {
+            synchronized (this) {
+                scheduledDueAt.remove(event.getPrevious().getId());
+            }
+        }
+    }
+
+    @EventListener
+    public void onTransactionsCreated(TransactionsCreatedEvent event) {
+        List<Entry> entries = entriesOf(event.getTransactions());
+        if (entries.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            entries.forEach(this::schedule);
+        }
+    }
+
+    // Adds the template if it falls due within the loaded horizon; returns false if it is not scheduled.
+    // Called with the lock held.
+    private boolean schedule(Entry scheduled) {
+        Transaction template = scheduled.template();
+        long dueAt = scheduled.dueAt();
+        if (wheel == null || !template.isIsRecurring() || template.getId() == null) {
+            return false;
+        }
+        if (dueAt >= loadedUntil) {
+            return false; // Picked up by a later refill
+        }
+        Long existing = scheduledDueAt.put(template.getId(), dueAt);
+        if (existing == null || existing != dueAt) {
+            Transaction copy = Transaction.builder()
+                    .id(template.getId())
+                    .userId(template.getUserId())
+                    .date(template.getDate())
+                    .IsRecurring(true)
+                    .recurrencePattern(template.getRecurrencePattern())
+                    .nextRunAt(template.getNextRunAt())
+                    .build();
+            wheel.add(new Entry(copy, dueAt), dueAt);
+        }
+        return true;
+    }
+
+    // The recurring templates among the transactions with their due times
+    private List<Entry> entriesOf(Collection<Transaction> transactions) {
+        List<Entry> entries = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            Long dueAt = transaction.isIsRecurring() ? dueAtOf(transaction) : null;
+            if (dueAt != null) {
+                entries.add(new Entry(transaction, dueAt));
+            }
+        }
+        return entries;
+    }
+
+    // Null if the template's pattern is invalid; may load the user's time zone, so never called with the lock held
+    private Long dueAtOf(Transaction template) {
+        if (template.getNextRunAt() != null) {
+            return template.getNextRunAt().getTime();
+        }
+        try {
+            return RecurrenceRule.parse(template.getRecurrencePattern())
+                    .next(template.getDate(), timeZoneUtil.getZoneIdForUser(template.getUserId())).getTime();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Recurring transaction {} has an invalid pattern: {}", template.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    // A scheduled template with the due time it was scheduled for, so polling compares it without recomputing it
+    private record Entry(Transaction template, long dueAt) {
+    }
+}
@@ -5,6 +5,8 @@ import com.example.finance_tracker.model.Expense;
 import com.example.finance_tracker.repository.BudgetRepository;
 import com.example.finance_tracker.repository.ExpenseRepository;
 import com.example.finance_tracker.util.CurrencyUtil;
+import com.example.finance_tracker.util.DateUtil;
+import com.example.finance_tracker.util.TimeZoneUtil;
 import com.example.finance_tracker.exception.InvalidInputException;
 import com.example.finance_tracker.exception.CurrencyConversionException;
 import org.slf4j.Logger;
@@ -12,9 +14,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
-import java.time.Period;
-import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,6 +29,7 @@ public class ReportServiceImpl implements ReportService {
     private final IncomeService incomeService;
     private final GoalsAndSavingsService goalsAndSavingsService;
     private final CurrencyUtil currencyUtil;
+    private final TimeZoneUtil timeZoneUtil;
 
     @Autowired
     public ReportServiceImpl(BudgetRepository budgetRepository,
@@ -38,7 +38,8 @@ public class ReportServiceImpl implements ReportService {
                              ExpenseService expenseService,
                              IncomeService incomeService,
                              GoalsAndSavingsService goalsAndSavingsService,
-                             CurrencyUtil currencyUtil) {
+                             CurrencyUtil currencyUtil,
+                             TimeZoneUtil timeZoneUtil) {
         this.budgetRepository = budgetRepository;
         this.expenseRepository = expenseRepository;
         this.currencyConverter = currencyConverter;
@@ -46,11 +47,12 @@ public class ReportServiceImpl implements ReportService {
         this.incomeService = incomeService;
         this.goalsAndSavingsService = goalsAndSavingsService;
         this.currencyUtil = currencyUtil;
+        this.timeZoneUtil = timeZoneUtil;
     }
 
     @Override
     public Map<String, Object> generateSpendingTrendReport(String userId, Date startDate, Date endDate) {
-        logger.info("Generating spending trend report for user: {}, from {} to {}", userId, startDate, endDate);
+        logger.debug("Generating spending trend report: userId={} from={} to={}", userId, startDate, endDate);
         validateInput(userId, startDate, endDate);
 
         // Fetch budgets
@@ -68,14 +70,14 @@ public class ReportServiceImpl implements ReportService {
 
         // Prepare the report
         Map<String, Object> report = createReport(userId, startDate, endDate, financialSummary, spendingTrends);
-        logger.info("Spending trend report generated successfully for user: {}", userId);
+        logger.debug("Spending trend report generated: userId={}", userId);
 
         return report;
     }
 
     @Override
     public Map<String, Object> generateIncomeVsExpenseReport(String userId, Date startDate, Date endDate) {
-        logger.info("Generating income vs expense report for user: {}, from {} to {}", userId, startDate, endDate);
+        logger.debug("Generating income vs expense report: userId={} from={} to={}", userId, startDate, endDate);
         validateInput(userId, startDate, endDate);
 
         // Calculate income, expenses, and savings
@@ -83,14 +85,14 @@ public class ReportServiceImpl implements ReportService {
 
         // Prepare the report without spending trends
         Map<String, Object> report = createReport(userId, startDate, endDate, financialSummary, null);
-        logger.info("Income vs expense report generated successfully for user: {}", userId);
+        logger.debug("Income vs expense report generated: userId={}", userId);
 
         return report;
     }
 
     @Override
     public Map<String, Object> generateCategoryWiseReport(String userId, String category, Date startDate, Date endDate) {
-        logger.info("Generating category-wise report for user: {}, category: {}, from {} to {}",
+        logger.debug("Generating category report: userId={} category={} from={} to={}",
                 userId, category, startDate, endDate);
 
         validateCategoryInput(userId, category, startDate, endDate);
@@ -107,7 +109,7 @@ public class ReportServiceImpl implements ReportService {
         report.put("endDate", endDate);
         report.put("totalSpending", totalSpending);
 
-        logger.info("Category-wise report generated successfully for user: {}, category: {}", userId, category);
+        logger.debug("Category report generated: userId={} category={}", userId, category);
 
         return report;
     }
@@ -192,7 +194,7 @@ public class ReportServiceImpl implements ReportService {
         String baseCurrency = currencyUtil.getBaseCurrencyForUser(userId);
         logger.debug("Base currency for user {}: {}", userId, baseCurrency);
 
-        int numberOfMonths = getNumberOfMonths(startDate, endDate);
+        int numberOfMonths = DateUtil.monthsSpanned(startDate, endDate, timeZoneUtil.getZoneIdForUser(userId));
         logger.debug("Number of months between {} and {}: {}", startDate, endDate, numberOfMonths);
 
         // Normalize expenses by category (convert to lowercase)
@@ -271,13 +273,6 @@ public class ReportServiceImpl implements ReportService {
                 .sum();
     }
 
-    private int getNumberOfMonths(Date startDate, Date endDate) {
-        LocalDate start = startDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        LocalDate end = endDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        Period period = Period.between(start, end);
-        return period.getYears() * 12 + period.getMonths() + 1; // Include the start month
-    }
-
     private Map<String, Object> createReport(String userId, Date startDate, Date endDate,
                                              FinancialSummary summary, Map<String, Map<String, Object>> spendingTrends) {
         Map<String, Object> report = new HashMap<>();
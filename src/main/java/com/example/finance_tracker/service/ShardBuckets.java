@@ -0,0 +1,68 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.model.Goal;
+import com.example.finance_tracker.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Stamps transactions and goals with the {@link JobShard} bucket of their user whenever they are saved or inserted,
+ * and fills it in on startup for the documents the sharded jobs read that were written before it existed.
+ */
+@Component
+public class ShardBuckets implements BeforeConvertCallback<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardBuckets.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    // Lazy, as the template looks up its callbacks, including this one, when it is created
+    @Autowired
+    public ShardBuckets(@Lazy MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Object onBeforeConvert(Object entity, String collection) {
+        if (entity instanceof Transaction transaction) {
+            transaction.setShardBucket(JobShard.bucketOf(transaction.getUserId()));
+        } else if (entity instanceof Goal goal) {
+            goal.setShardBucket(JobShard.bucketOf(goal.getUserId()));
+        }
+        return entity;
+    }
+
+    // Both conditions are served by the indexes the sharded jobs use
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        backfill(where("IsRecurring").is(true), Transaction.class);
+        backfill(new Criteria(), Goal.class);
+    }
+
+    private void backfill(Criteria criteria, Class<?> type) {
+        Criteria missing = criteria.and(JobShard.BUCKET_FIELD).is(null);
+        List<String> userIds = mongoTemplate.findDistinct(query(missing), "userId", type, String.class);
+        long updated = 0;
+        for (String userId : userIds) {
+            updated += mongoTemplate.updateMulti(query(where("userId").is(userId).and(JobShard.BUCKET_FIELD).is(null)),
+                    new Update().set(JobShard.BUCKET_FIELD, JobShard.bucketOf(userId)), type).getModifiedCount();
+        }
+        if (updated > 0) {
+            logger.info("Set the shard bucket of {} {} documents", updated, mongoTemplate.getCollectionName(type));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.model.SchedulerLease;
+import com.mongodb.client.result.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Runs a scheduled job across all application instances without duplicating work.
+ * The job is split into hash shards of users; an instance processes a shard only while it holds the
+ * shard's lease in Mongo, and a shard finished for a run is not picked up again for that run.
+ * Leases expire when their owner stops renewing them, so the shards of a dead instance are taken over; an instance
+ * that fails to renew a lease revokes its shard, and the task stops at its next {@link JobShard#isRevoked()} check.
+ */
+@Component
+public class ShardedJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedJobRunner.class);
+
+    // The scheduler may start a task a moment before its fire time; it still belongs to that firing
+    private static final Duration EARLY_FIRING = Duration.ofSeconds(1);
+    private static final Duration MAX_CRON_PERIOD = Duration.ofDays(400);
+
+    private final MongoTemplate mongoTemplate;
+    private final Executor shardExecutor;
+    private final String ownerId;
+
+    @Value("${scheduler.shard-count:8}")
+    private int shardCount = 8;
+
+    @Value("${scheduler.lease-ttl-seconds:60}")
+    private long leaseTtlSeconds = 60;
+
+    @Value("${scheduler.poll-interval-ms:2000}")
+    private long pollIntervalMs = 2000;
+
+    @Value("${scheduler.max-run-minutes:30}")
+    private long maxRunMinutes = 30;
+
+    @Autowired
+    public ShardedJobRunner(MongoTemplate mongoTemplate, @Qualifier("shardExecutor") Executor shardExecutor) {
+        this(mongoTemplate, shardExecutor, defaultOwnerId());
+    }
+
+    public ShardedJobRunner(MongoTemplate mongoTemplate, Executor shardExecutor, String ownerId) {
+        this.mongoTemplate = mongoTemplate;
+        this.shardExecutor = shardExecutor;
+        this.ownerId = ownerId;
+    }
+
+    /**
+     * Identifies the firing of {@code cron} being run: its latest fire time at or before now, in the scheduler's time
+     * zone. Instances agree on it however late they start, as long as they start before the next fire time.
+     */
+    public static String runKey(String cron) {
+        return runKey(CronExpression.parse(cron), ZonedDateTime.now());
+    }
+
+    public static String runKey(CronExpression cron, ZonedDateTime now) {
+        ZonedDateTime until = now.plus(EARLY_FIRING);
+        // Looks back over a doubling window until it holds a fire time, then walks forward to the last one
+        for (Duration window = Duration.ofMinutes(1); window.compareTo(MAX_CRON_PERIOD) <= 0; window = window.multipliedBy(2)) {
+            ZonedDateTime fireTime = cron.next(until.minus(window));
+            if (fireTime == null || fireTime.isAfter(until)) {
+                continue;
+            }
+            for (ZonedDateTime next = cron.next(fireTime); next != null && !next.isAfter(until); next = cron.next(next)) {
+                fireTime = next;
+            }
+            return fireTime.toInstant().toString();
+        }
+        throw new IllegalArgumentException("Cron expression " + cron + " has not fired within " + MAX_CRON_PERIOD);
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * Processes every shard of {@code jobName} for the run identified by {@code runKey} exactly once across instances.
+     * Returns when all shards are finished, by this or another instance, or when the run has taken too long.
+     */
+    public void runSharded(String jobName, String runKey, Consumer<JobShard> task) {
+        run(jobName, runKey, shardCount, task);
+    }
+
+    /**
+     * Runs {@code task} for the run identified by {@code runKey} on one instance only, whichever acquires the job's
+     * lease first, for jobs that cannot be split by user. Returns once the task has finished on some instance.
+     */
+    public void runOnce(String jobName, String runKey, Runnable task) {
+        run(jobName, runKey, 1, shard -> task.run());
+    }
+
+    private void run(String jobName, String runKey, int shardCount, Consumer<JobShard> task) {
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(maxRunMinutes);
+        Map<Integer, CompletableFuture<Void>> running = new HashMap<>();
+        Map<Integer, JobShard> shards = new HashMap<>();
+        Map<Integer, Long> renewedAt = new HashMap<>();
+        Set<Integer> finished = new HashSet<>();
+        Set<Integer> failed = new HashSet<>();
+
+        // Start at an instance-specific shard so instances do not all contend for shard 0 first
+        int offset = Math.floorMod(ownerId.hashCode(), shardCount);
+
+        while (true) {
+            for (int i = 0; i < shardCount; i++) {
+                int shard = (offset + i) % shardCount;
+                if (!finished.contains(shard) && !failed.contains(shard) && !running.containsKey(shard) && tryAcquire(leaseId(jobName, shard), runKey)) {
+                    JobShard jobShard = new JobShard(shard, shardCount);
+                    shards.put(shard, jobShard);
+                    renewedAt.put(shard, System.currentTimeMillis());
+                    running.put(shard, CompletableFuture.runAsync(() -> task.accept(jobShard), shardExecutor));
+                    logger.debug("{} acquired {} shard {}/{} for run {}", ownerId, jobName, shard, shardCount, runKey);
+                }
+            }
+
+            awaitAny(running.values());
+            for (Iterator<Map.Entry<Integer, CompletableFuture<Void>>> it = running.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Integer, CompletableFuture<Void>> entry = it.next();
+                String leaseId = leaseId(jobName, entry.getKey());
+                JobShard jobShard = shards.get(entry.getKey());
+                if (!entry.getValue().isDone()) {
+                    if (!jobShard.isRevoked() && !renew(leaseId, entry.getKey(), renewedAt)) {
+                        logger.warn("{} lost the lease of {} shard {} for run {}; stopping it", ownerId, jobName, jobShard, runKey);
+                        jobShard.revoke();
+                    }
+                    continue;
+                }
+                it.remove();
+                if (jobShard.isRevoked()) {
+                    // Whoever holds the lease now finishes the shard; completion is picked up from the lease document
+                    continue;
+                }
+                if (entry.getValue().isCompletedExceptionally()) {
+                    // Leave the shard to the other instances for the rest of this run
+                    logger.error("{} shard {} failed for run {}", jobName, entry.getKey(), runKey);
+                    release(leaseId);
+                    failed.add(entry.getKey());
+                } else {
+                    complete(leaseId, runKey);
+                    finished.add(entry.getKey());
+                }
+            }
+
+            if (running.isEmpty()) {
+                finished.addAll(completedShards(jobName, runKey, shardCount));
+                failed.removeAll(finished);
+                if (finished.size() == shardCount) {
+                    logger.info("{} run {} complete", jobName, runKey);
+                    return;
+                }
+                if (finished.size() + failed.size() == shardCount) {
+                    logger.warn("{} run {} finished with failed shards {}", jobName, runKey, failed);
+                    return;
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    logger.warn("{} run {} gave up with {} of {} shards complete", jobName, runKey, finished.size(), shardCount);
+                    return;
+                }
+            }
+        }
+    }
+
+    boolean tryAcquire(String leaseId, String runKey) {
+        Date now = new Date();
+        Update update = new Update()
+                .set("owner", ownerId)
+                .set("expiresAt", new Date(now.getTime() + TimeUnit.SECONDS.toMillis(leaseTtlSeconds)));
+        try {
+            // Matches a free or own lease of a shard not yet finished for this run; otherwise the upsert
+            // collides with the existing document and the lease stays with its holder
+            SchedulerLease lease = mongoTemplate.findAndModify(
+                    query(where("_id").is(leaseId).and("completedRunKey").ne(runKey)
+                            .orOperator(where("expiresAt").lt(now), where("owner").is(ownerId))),
+                    update, FindAndModifyOptions.options().upsert(true).returnNew(true), SchedulerLease.class);
+            return lease != null && ownerId.equals(lease.getOwner());
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // Returns false once the lease may belong to another instance: it was taken over, or could not be renewed in time
+    private boolean renew(String leaseId, int shard, Map<Integer, Long> renewedAt) {
+        long now = System.currentTimeMillis();
+        try {
+            UpdateResult result = mongoTemplate.updateFirst(query(where("_id").is(leaseId).and("owner").is(ownerId)),
+                    new Update().set("expiresAt", new Date(now + TimeUnit.SECONDS.toMillis(leaseTtlSeconds))),
+                    SchedulerLease.class);
+            if (result.getMatchedCount() == 0) {
+                return false;
+            }
+            renewedAt.put(shard, now);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("{} failed to renew lease {}: {}", ownerId, leaseId, e.getMessage());
+            return now - renewedAt.get(shard) < TimeUnit.SECONDS.toMillis(leaseTtlSeconds);
+        }
+    }
+
+    private void complete(String leaseId, String runKey) {
+        mongoTemplate.updateFirst(query(where("_id").is(leaseId).and("owner").is(ownerId)),
+                new Update().set("completedRunKey", runKey).set("expiresAt", new Date()), SchedulerLease.class);
+    }
+
+    private void release(String leaseId) {
+        mongoTemplate.updateFirst(query(where("_id").is(leaseId).and("owner").is(ownerId)),
+                new Update().set("expiresAt", new Date()), SchedulerLease.class);
+    }
+
+    private Set<Integer> completedShards(String jobName, String runKey, int shardCount) {
+        List<String> leaseIds = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            leaseIds.add(leaseId(jobName, shard));
+        }
+        Set<Integer> completed = new HashSet<>();
+        for (SchedulerLease lease : mongoTemplate.find(
+                query(where("_id").in(leaseIds).and("completedRunKey").is(runKey)), SchedulerLease.class)) {
+            completed.add(Integer.parseInt(lease.getId().substring(jobName.length() + 1)));
+        }
+        return completed;
+    }
+
+    // Waits up to one poll interval for a running shard to finish
+    private void awaitAny(Iterable<CompletableFuture<Void>> futures) {
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        futures.forEach(pending::add);
+        try {
+            if (pending.isEmpty()) {
+                Thread.sleep(pollIntervalMs);
+            } else {
+                CompletableFuture.anyOf(pending.toArray(new CompletableFuture[0])).get(pollIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running sharded job", e);
+        } catch (TimeoutException | ExecutionException e) {
+            // Failures are handled per shard by the caller
+        }
+    }
+
+    private static String leaseId(String jobName, int shard) {
+        return jobName + ":" + shard;
+    }
+
+    private static String defaultOwnerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + UUID.randomUUID();
+    }
+}
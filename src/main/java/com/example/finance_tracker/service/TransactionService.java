@@ -3,24 +3,39 @@ package com.example.finance_tracker.service;
 import com.example.finance_tracker.model.Transaction;
 
 import java.util.List;
+import java.util.Map;
 
 public interface TransactionService {
     Transaction addTransaction(Transaction transaction);
+    List<Transaction> addTransactions(List<Transaction> transactions);
+
+    /**
+     * Creates the income and expense records of transactions already inserted elsewhere, such as generated
+     * occurrences, and publishes one {@link com.example.finance_tracker.event.TransactionsCreatedEvent} per user.
+     */
+    void recordInsertedTransactions(List<Transaction> insertedTransactions);
+
+    /**
+     * The stored transactions among {@code transactions} that have no income or expense record, such as occurrences
+     * inserted by a run that failed before recording them.
+     */
+    List<Transaction> findUnrecordedTransactions(List<Transaction> transactions);
     Transaction updateTransaction(Transaction transaction);
+
+    Transaction patchTransaction(String transactionId, Map<String, Object> changes);
     boolean deleteTransaction(String transactionId);
     List<Transaction> getTransactionsByUser(String userId);
     List<Transaction> getTransactionsByCategory(String userId, String category);
     List<Transaction> getTransactionsByTags(String userId, List<String> tags);
 
+    double sumGoalContributions(String goalId);
+    double sumAmountByCategory(String userId, String category);
+
     Transaction getTransactionById(String id);
 
     List<Transaction> getTransactionsByUserInPreferredCurrency(String userId, String preferredCurrency);
 
     Transaction convertTransactionToPreferredCurrency(Transaction transaction, String preferredCurrency);
 
-    double calculateTotalIncome();
-
-    double calculateTotalExpenses();
-
     double calculateNetSavings(String userId);
 }
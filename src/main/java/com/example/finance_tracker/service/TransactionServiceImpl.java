@@ -3,16 +3,26 @@ package com.example.finance_tracker.service;
 import com.example.finance_tracker.model.Transaction;
 import com.example.finance_tracker.model.Income;
 import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.repository.ExpenseRepository;
+import com.example.finance_tracker.repository.IncomeRepository;
 import com.example.finance_tracker.repository.TransactionRepository;
 import com.example.finance_tracker.util.CurrencyUtil;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service("transactionService")
 public class TransactionServiceImpl implements TransactionService {
@@ -23,43 +33,148 @@ public class TransactionServiceImpl implements TransactionService {
     private final CurrencyConverter currencyConverter;
     private final IncomeService incomeService;
     private final ExpenseService expenseService;
+    private final IncomeRepository incomeRepository;
+    private final ExpenseRepository expenseRepository;
     private final CurrencyUtil currencyUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentPatcher documentPatcher;
+    private final MongoTransactions mongoTransactions;
+
+    // Fields a client may change with a PATCH. The currency is the user's base currency, and recurrence
+    // is changed through the recurring transaction endpoints
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "type", "amount", "category", "source", "date", "description", "tags", "goalId");
 
     @Autowired
     public TransactionServiceImpl(TransactionRepository transactionRepository, CurrencyConverterImpl currencyConverterImpl, CurrencyConverter currencyConverter,
-                                  IncomeService incomeService, ExpenseService expenseService, CurrencyUtil currencyUtil) {
+                                  IncomeService incomeService, ExpenseService expenseService, IncomeRepository incomeRepository,
+                                  ExpenseRepository expenseRepository, CurrencyUtil currencyUtil, ApplicationEventPublisher eventPublisher,
+                                  DocumentPatcher documentPatcher, MongoTransactions mongoTransactions) {
         this.transactionRepository = transactionRepository;
         this.currencyConverter = currencyConverter;
         this.incomeService = incomeService;
         this.expenseService = expenseService;
+        this.incomeRepository = incomeRepository;
+        this.expenseRepository = expenseRepository;
         this.currencyUtil = currencyUtil;
+        this.eventPublisher = eventPublisher;
+        this.documentPatcher = documentPatcher;
+        this.mongoTransactions = mongoTransactions;
     }
 
     @Override
     public Transaction addTransaction(Transaction transaction) {
+        if (!isIncome(transaction) && !isExpense(transaction)) {
+            throw new IllegalArgumentException("Invalid transaction type. Must be 'Income' or 'Expense'.");
+        }
         String baseCurrency = currencyUtil.getBaseCurrencyForUser(transaction.getUserId());
         transaction.setCurrencyCode(baseCurrency);
-        Transaction savedTransaction = transactionRepository.save(transaction);
-
-        // Automatically create an income or expense record based on the transaction type
-        if ("Income".equalsIgnoreCase(transaction.getType())) {
-            Income income = new Income();
-            income.setUserId(transaction.getUserId());
-            income.setAmount(transaction.getAmount());
-            income.setCurrencyCode(baseCurrency);
-            income.setSource(transaction.getSource());
-            income.setDate(transaction.getDate());
-            incomeService.addIncome(income);
-        } else if ("Expense".equalsIgnoreCase(transaction.getType())) {
-            Expense expense = getExpense(transaction);
-            expense.setCurrencyCode(baseCurrency);
-
-            expenseService.addExpense(expense);
-        } else {
-            throw new IllegalArgumentException("Invalid transaction type. Must be 'Income' or 'Expense'.");
+        Transaction savedTransaction = mongoTransactions.execute(() -> {
+            Transaction saved = transactionRepository.save(transaction);
+
+            // Automatically create an income or expense record based on the transaction type.
+            // The record carries the transaction id so later updates and deletes can find it.
+            if (isIncome(saved)) {
+                incomeService.addIncome(getIncome(saved));
+            } else {
+                expenseService.addExpense(getExpense(saved));
+            }
+            return saved;
+        });
+
+        mongoTransactions.afterCommit(() -> eventPublisher.publishEvent(TransactionChangedEvent.created(savedTransaction)));
+        return savedTransaction;
+    }
+
+    /**
+     * Adds several transactions with one insert, and their income and expense records with one insert each, in one
+     * Mongo transaction. Listeners get one {@link TransactionsCreatedEvent} per user instead of an event per transaction.
+     */
+    @Override
+    public List<Transaction> addTransactions(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
         }
+        Map<String, String> baseCurrencyByUser = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            if (!isIncome(transaction) && !isExpense(transaction)) {
+                throw new IllegalArgumentException("Invalid transaction type. Must be 'Income' or 'Expense'.");
+            }
+            transaction.setCurrencyCode(baseCurrencyByUser.computeIfAbsent(transaction.getUserId(), currencyUtil::getBaseCurrencyForUser));
+        }
+        List<Transaction> savedTransactions = mongoTransactions.execute(() -> {
+            List<Transaction> saved = transactionRepository.insert(transactions);
+            insertProjections(saved);
+            return saved;
+        });
+        publishCreated(savedTransactions);
+        return savedTransactions;
+    }
 
-        return savedTransaction;
+    @Override
+    public void recordInsertedTransactions(List<Transaction> savedTransactions) {
+        if (savedTransactions.isEmpty()) {
+            return;
+        }
+        insertProjections(savedTransactions);
+        publishCreated(savedTransactions);
+    }
+
+    @Override
+    public List<Transaction> findUnrecordedTransactions(List<Transaction> transactions) {
+        List<String> incomeIds = new ArrayList<>();
+        List<String> expenseIds = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            (isIncome(transaction) ? incomeIds : expenseIds).add(transaction.getId());
+        }
+        Set<String> recorded = new HashSet<>();
+        if (!incomeIds.isEmpty()) {
+            incomeRepository.findByTransactionIdIn(incomeIds).forEach(income -> recorded.add(income.getTransactionId()));
+        }
+        if (!expenseIds.isEmpty()) {
+            expenseRepository.findByTransactionIdIn(expenseIds).forEach(expense -> recorded.add(expense.getTransactionId()));
+        }
+        return transactions.stream()
+                .filter(transaction -> !recorded.contains(transaction.getId()))
+                .toList();
+    }
+
+    private void insertProjections(List<Transaction> savedTransactions) {
+        List<Income> incomes = new ArrayList<>();
+        List<Expense> expenses = new ArrayList<>();
+        for (Transaction savedTransaction : savedTransactions) {
+            if (isIncome(savedTransaction)) {
+                incomes.add(getIncome(savedTransaction));
+            } else {
+                expenses.add(getExpense(savedTransaction));
+            }
+        }
+        if (!incomes.isEmpty()) {
+            incomeService.addIncomes(incomes);
+        }
+        if (!expenses.isEmpty()) {
+            expenseService.addExpenses(expenses);
+        }
+    }
+
+    private void publishCreated(List<Transaction> savedTransactions) {
+        Map<String, List<Transaction>> savedByUser = new LinkedHashMap<>();
+        for (Transaction savedTransaction : savedTransactions) {
+            savedByUser.computeIfAbsent(savedTransaction.getUserId(), userId -> new ArrayList<>()).add(savedTransaction);
+        }
+        savedByUser.forEach((userId, saved) ->
+                mongoTransactions.afterCommit(() -> eventPublisher.publishEvent(new TransactionsCreatedEvent(userId, saved))));
+    }
+
+    private static Income getIncome(Transaction transaction) {
+        Income income = new Income();
+        income.setUserId(transaction.getUserId());
+        income.setAmount(transaction.getAmount());
+        income.setCurrencyCode(transaction.getCurrencyCode());
+        income.setSource(transaction.getSource());
+        income.setDate(transaction.getDate());
+        income.setTransactionId(transaction.getId());
+        return income;
     }
 
     private static Expense getExpense(Transaction transaction) {
@@ -72,20 +187,117 @@ public class TransactionServiceImpl implements TransactionService {
         expense.setTags(transaction.getTags());
         expense.setRecurrencePattern(transaction.getRecurrencePattern());
         expense.setRecurring(transaction.isIsRecurring());
+        expense.setCurrencyCode(transaction.getCurrencyCode());
+        expense.setTransactionId(transaction.getId());
         return expense;
     }
 
     @Override
     public Transaction updateTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        // The transaction and its income/expense record change together, and the event follows the commit. The
+        // previous state comes from the versioned update itself
+        DocumentPatcher.Patch<Transaction> replaced = mongoTransactions.execute(() -> {
+            DocumentPatcher.Patch<Transaction> applied = documentPatcher.replace(Transaction.class, transaction);
+            syncProjection(applied.previous(), applied.current());
+            return applied;
+        });
+        mongoTransactions.afterCommit(() -> eventPublisher.publishEvent(new TransactionChangedEvent(replaced.previous(), replaced.current())));
+        return replaced.current();
+    }
+
+    @Override
+    public Transaction patchTransaction(String transactionId, Map<String, Object> changes) {
+        String type = String.valueOf(changes.get("type"));
+        if (changes.containsKey("type") && !"Income".equalsIgnoreCase(type) && !"Expense".equalsIgnoreCase(type)) {
+            throw new IllegalArgumentException("Invalid transaction type. Must be 'Income' or 'Expense'.");
+        }
+        // The previous state comes from the update itself, so the event describes exactly this change
+        DocumentPatcher.Patch<Transaction> patch = mongoTransactions.execute(() -> {
+            DocumentPatcher.Patch<Transaction> applied = documentPatcher.apply(Transaction.class, transactionId, changes, PATCHABLE_FIELDS);
+            syncProjection(applied.previous(), applied.current());
+            return applied;
+        });
+        mongoTransactions.afterCommit(() -> eventPublisher.publishEvent(new TransactionChangedEvent(patch.previous(), patch.current())));
+        return patch.current();
     }
 
     @Override
     public boolean deleteTransaction(String transactionId) {
-        transactionRepository.deleteById(transactionId);
+        Transaction previous = mongoTransactions.execute(() -> {
+            Transaction existing = transactionRepository.findById(transactionId).orElse(null);
+            transactionRepository.deleteById(transactionId);
+            if (existing != null) {
+                syncProjection(existing, null);
+            }
+            return existing;
+        });
+        if (previous != null) {
+            mongoTransactions.afterCommit(() -> eventPublisher.publishEvent(TransactionChangedEvent.deleted(previous)));
+        }
         return true;
     }
 
+    /**
+     * Brings the income/expense record of a transaction in line with its current state.
+     * The record is keyed by transaction id, so it is replaced in place, moved when the type changes
+     * and removed with the transaction. A transaction without a linked record, such as one created before the
+     * link existed, gets none: its unlinked record cannot be told apart, and a new one would count it twice.
+     */
+    private void syncProjection(Transaction previous, Transaction current) {
+        if (current == null) {
+            deleteLinkedRecord(previous);
+            return;
+        }
+        String linkedId = null;
+        if (previous != null) {
+            linkedId = linkedRecordId(previous);
+            if (linkedId == null) {
+                logger.debug("Transaction {} has no linked income/expense record; not creating one", current.getId());
+                return;
+            }
+            if (isIncome(previous) != isIncome(current)) {
+                deleteLinkedRecord(previous);
+                linkedId = null;
+            }
+        }
+
+        if (isIncome(current)) {
+            Income income = getIncome(current);
+            income.setId(linkedId);
+            incomeRepository.save(income);
+        } else if (isExpense(current)) {
+            Expense expense = getExpense(current);
+            expense.setId(linkedId);
+            expenseRepository.save(expense);
+        }
+        logger.debug("Synced income/expense record for transaction {}", current.getId());
+    }
+
+    private String linkedRecordId(Transaction transaction) {
+        if (isIncome(transaction)) {
+            return incomeRepository.findByTransactionId(transaction.getId()).map(Income::getId).orElse(null);
+        } else if (isExpense(transaction)) {
+            return expenseRepository.findByTransactionId(transaction.getId()).map(Expense::getId).orElse(null);
+        }
+        return null;
+    }
+
+    private void deleteLinkedRecord(Transaction transaction) {
+        if (isIncome(transaction)) {
+            incomeRepository.deleteByTransactionId(transaction.getId());
+        } else if (isExpense(transaction)) {
+            expenseRepository.deleteByTransactionId(transaction.getId());
+        }
+    }
+
+    private static boolean isIncome(Transaction transaction) {
+        return "Income".equalsIgnoreCase(transaction.getType());
+    }
+
+    private static boolean isExpense(Transaction transaction) {
+        return "Expense".equalsIgnoreCase(transaction.getType());
+    }
+
     @Override
     public List<Transaction> getTransactionsByUser(String userId) {
         return transactionRepository.findByUserId(userId);
@@ -96,6 +308,18 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionRepository.findByUserIdAndCategory(userId, category);
     }
 
+    @Override
+    public double sumGoalContributions(String goalId) {
+        Double total = transactionRepository.sumGoalContributions(goalId);
+        return total != null ? total : 0;
+    }
+
+    @Override
+    public double sumAmountByCategory(String userId, String category) {
+        Double total = transactionRepository.sumAmountByUserAndCategory(userId, category);
+        return total != null ? total : 0;
+    }
+
     @Override
     public List<Transaction> getTransactionsByTags(String userId, List<String> tags) {
         return transactionRepository.findByUserIdAndTagsIn(userId, tags);
@@ -130,9 +354,8 @@ public class TransactionServiceImpl implements TransactionService {
                     baseCurrency
             );
 
-            // Log the conversion details
-            logger.info("Converting {} {} to {} using base currency {}", transaction.getAmount(), transaction.getCurrencyCode(), preferredCurrency, baseCurrency);
-            logger.info("Converted Amount: {}", convertedAmount);
+            logger.debug("Converted transaction: id={} amount={} currency={} to={} {} base={}", transaction.getId(),
+                    transaction.getAmount(), transaction.getCurrencyCode(), convertedAmount, preferredCurrency, baseCurrency);
 
             // Create a new transaction object with the converted amount and preferred currency
             Transaction convertedTransaction = getTransaction(transaction, preferredCurrency, convertedAmount);
@@ -153,28 +376,13 @@ public class TransactionServiceImpl implements TransactionService {
         // Convert the amount to the preferred currency using CurrencyConverter
         double convertedAmount = currencyConverter.convertCurrency(originalCurrency, preferredCurrency, originalAmount, baseCurrency);
 
-        // Log the conversion details
-        logger.info("Converting {} {} to {} using base currency {}", originalAmount, originalCurrency, preferredCurrency, baseCurrency);
-        logger.info("Converted Amount: {}", convertedAmount);
+        logger.debug("Converted transaction: id={} amount={} currency={} to={} {} base={}", transaction.getId(),
+                originalAmount, originalCurrency, convertedAmount, preferredCurrency, baseCurrency);
 
         // Create a new transaction object with the converted amount and preferred currency
         return getTransaction(transaction, preferredCurrency, convertedAmount);
     }
 
-    @Override
-    public double calculateTotalIncome() {
-        List<Transaction> incomeTransactions = transactionRepository.findAllIncomeTransactions();
-        logger.info("Fetched {} income transactions for admin", incomeTransactions.size()); // Debug log
-        return incomeTransactions.stream().mapToDouble(Transaction::getAmount).sum();
-    }
-
-    @Override
-    public double calculateTotalExpenses() {
-        List<Transaction> expenseTransactions = transactionRepository.findAllExpenseTransactions();
-        logger.info("Fetched {} expense transactions for admin", expenseTransactions.size()); // Debug log
-        return expenseTransactions.stream().mapToDouble(Transaction::getAmount).sum();
-    }
-
     @Override
     public double calculateNetSavings(String userId) {
         List<Transaction> incomeTransactions = transactionRepository.findIncomeTransactionsByUser(userId);
@@ -183,7 +391,7 @@ public class TransactionServiceImpl implements TransactionService {
         double totalIncome = incomeTransactions.stream().mapToDouble(Transaction::getAmount).sum();
         double totalExpenses = expenseTransactions.stream().mapToDouble(Transaction::getAmount).sum();
 
-        logger.info("Net Savings for user {}: {}", userId, (totalIncome - totalExpenses)); // Debug log
+        logger.debug("Net savings: userId={} amount={}", userId, totalIncome - totalExpenses);
         return totalIncome - totalExpenses;
     }
 
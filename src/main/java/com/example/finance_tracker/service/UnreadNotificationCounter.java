@@ -0,0 +1,121 @@
+package com.example.finance_tracker.service;
+
+import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.model.NotificationCounter;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Keeps the number of unread notifications of each user, so the inbox badge does not count the collection.
+ * Writers add the notifications they created and mark-as-read subtracts the ones it changed, creating the counter
+ * if needed. A user without a counter, or with a negative one, is recounted from the notifications, and a daily
+ * repair recounts the users whose counter differs from their notifications.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ShardedJobRunner shardedJobRunner;
+
+    @Value("${notifications.counter.repair-cron:0 15 3 * * ?}")
+    private String repairCron = "0 15 3 * * ?";
+
+    @Autowired
+    public UnreadNotificationCounter(MongoTemplate mongoTemplate, ShardedJobRunner shardedJobRunner) {
+        this.mongoTemplate = mongoTemplate;
+        this.shardedJobRunner = shardedJobRunner;
+    }
+
+    public void increment(Map<String, Long> newByUser) {
+        if (newByUser.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        newByUser.forEach((userId, count) -> bulk.upsert(query(where("_id").is(userId)), new Update().inc("unread", count)));
+        bulk.execute();
+    }
+
+    public void decrement(String userId, long count) {
+        if (count > 0) {
+            mongoTemplate.upsert(query(where("_id").is(userId)), new Update().inc("unread", -count), NotificationCounter.class);
+        }
+    }
+
+    public long get(String userId) {
+        NotificationCounter counter = mongoTemplate.findById(userId, NotificationCounter.class);
+        if (counter == null || counter.getUnread() < 0) {
+            if (counter != null) {
+                logger.warn("Unread counter of user {} is negative ({}), recounting", userId, counter.getUnread());
+            }
+            return recount(userId);
+        }
+        return counter.getUnread();
+    }
+
+    @Scheduled(cron = "${notifications.counter.repair-cron:0 15 3 * * ?}") // Runs every day at 3:15 AM
+    public void scheduledRepair() {
+        // Every instance fires; one of them repairs the counters
+        shardedJobRunner.runOnce("unreadCounters", ShardedJobRunner.runKey(repairCron), this::repair);
+    }
+
+    /**
+     * Recounts every user whose counter differs from their unread notifications, including users whose counter
+     * is missing or whose notifications are all read.
+     */
+    public void repair() {
+        Map<String, Long> unreadByUser = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(where("read").is(false)),
+                Aggregation.group("userId").count().as("unread"));
+        for (Document group : mongoTemplate.aggregate(aggregation, Notification.class, Document.class)) {
+            unreadByUser.put(group.getString("_id"), ((Number) group.get("unread")).longValue());
+        }
+
+        Set<String> drifted = new HashSet<>();
+        Set<String> counted = new HashSet<>();
+        for (NotificationCounter counter : mongoTemplate.findAll(NotificationCounter.class)) {
+            counted.add(counter.getId());
+            if (counter.getUnread() != unreadByUser.getOrDefault(counter.getId(), 0L)) {
+                drifted.add(counter.getId());
+            }
+        }
+        unreadByUser.keySet().stream().filter(userId -> !counted.contains(userId)).forEach(drifted::add);
+
+        // Recounted one by one, as a user's notifications may have changed since the aggregation
+        drifted.forEach(this::recount);
+        logger.info("Repaired unread counters of {} users", drifted.size());
+    }
+
+    // Adds the difference between the notifications and the counter as read before counting, rather than setting
+    // the count, so increments and decrements that land while counting are kept. A notification inserted before the
+    // count whose increment lands after the counter was read is counted twice; the daily repair corrects it
+    private long recount(String userId) {
+        NotificationCounter before = mongoTemplate.findById(userId, NotificationCounter.class);
+        long counted = before == null ? 0 : before.getUnread();
+        long unread = mongoTemplate.count(query(where("userId").is(userId).and("read").is(false)), Notification.class);
+        logger.debug("Recounting unread counter of user {}: {} counted, {} unread", userId, counted, unread);
+        NotificationCounter after = mongoTemplate.findAndModify(query(where("_id").is(userId)), new Update().inc("unread", unread - counted),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), NotificationCounter.class);
+        return after == null ? unread : after.getUnread();
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.validation.Valid;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -12,6 +13,8 @@ public interface UserService {
     User registerUser(@Valid User user);
     String authenticatedUser(String username, String password);
     User updateUser(@Valid User user);
+
+    User patchUser(String userId, Map<String, Object> changes);
     boolean deleteUser(String userId);
     List<User> getAllUsers();
     Optional<User> getUserById(String userId);
@@ -2,16 +2,23 @@ package com.example.finance_tracker.service;
 
 import com.example.finance_tracker.model.User;
 import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.exception.ResourceNotFoundException;
 import com.example.finance_tracker.exception.UserNotFoundException;
+import com.example.finance_tracker.util.TimeZoneUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Validated
@@ -19,11 +26,19 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final DocumentPatcher documentPatcher;
+    private final TimeZoneUtil timeZoneUtil;
+
+    // Fields a user may change with a PATCH; the username, email and roles are not changed this way
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("password", "baseCurrency", "timeZone");
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, DocumentPatcher documentPatcher,
+                           TimeZoneUtil timeZoneUtil) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.documentPatcher = documentPatcher;
+        this.timeZoneUtil = timeZoneUtil;
     }
 
     @Override
@@ -38,6 +53,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
             throw new IllegalArgumentException("Email already exists");
         }
 
+        validateTimeZone(user.getTimeZone());
+
         // Encode the password before saving
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
@@ -66,17 +83,45 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     @Override
     public User updateUser( User user) {
         // Check if the user exists
-        if (!userRepository.existsById(user.getId())) {
-            throw new UserNotFoundException("User not found with ID: " + user.getId());
-        }
+        User existing = userRepository.findById(user.getId())
+                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + user.getId()));
+
+        validateTimeZone(user.getTimeZone());
 
-        // Encode the password if it has changed
-        if (user.getPassword() != null) {
+        // Encode the password if it has changed; a client sending back the stored hash has not changed it
+        if (user.getPassword() != null && !user.getPassword().equals(existing.getPassword())) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
 
-        // Update the user
-        return userRepository.save(user);
+        // Update the user, checking and incrementing its version; other instances pick up a changed time zone when
+        // their cached one expires
+        User saved = documentPatcher.replace(User.class, user).current();
+        timeZoneUtil.evict(user.getId());
+        return saved;
+    }
+
+    @Override
+    public User patchUser(String userId, Map<String, Object> changes) {
+        Map<String, Object> values = new HashMap<>(changes);
+        Object timeZone = values.get("timeZone");
+        validateTimeZone(timeZone != null ? timeZone.toString() : null);
+
+        // Only a password that is part of the patch is hashed
+        if (values.containsKey("password")) {
+            Object password = values.get("password");
+            if (!(password instanceof String raw) || raw.length() < 8) {
+                throw new IllegalArgumentException("Password must be at least 8 characters");
+            }
+            values.put("password", passwordEncoder.encode(raw));
+        }
+
+        try {
+            User patched = documentPatcher.apply(User.class, userId, values, PATCHABLE_FIELDS).current();
+            timeZoneUtil.evict(userId);
+            return patched;
+        } catch (ResourceNotFoundException e) {
+            throw new UserNotFoundException("User not found with ID: " + userId);
+        }
     }
 
     @Override
@@ -117,4 +162,15 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 
         return user;
     }
-}
\ No newline at end of file
+
+    private void validateTimeZone(String timeZone) {
+        if (timeZone == null) {
+            return;
+        }
+        try {
+            ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid time zone: " + timeZone);
+        }
+    }
+}
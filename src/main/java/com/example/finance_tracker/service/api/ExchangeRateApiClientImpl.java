@@ -1,7 +1,11 @@
 package com.example.finance_tracker.service.api;
 
 import com.example.finance_tracker.config.ExchangeRateApiConfig;
+import com.example.finance_tracker.metrics.RequestResources;
 import com.example.finance_tracker.model.ExchangeRateResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,16 +20,22 @@ public class ExchangeRateApiClientImpl implements ExchangeRateApiClient {
 
     private final ExchangeRateApiConfig apiConfig;
     private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
 
-    public ExchangeRateApiClientImpl(ExchangeRateApiConfig apiConfig, RestTemplate restTemplate) {
+    public ExchangeRateApiClientImpl(ExchangeRateApiConfig apiConfig, RestTemplate restTemplate, MeterRegistry meterRegistry) {
         this.apiConfig = apiConfig;
         this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
     }
 
     public Map<String, Double> getLatestExchangeRates(String baseCurrency) {
         String url = apiConfig.getApiUrl() + "/v6/" + apiConfig.getApiKey() + "/latest/" + baseCurrency;
-        log.info("Fetching exchange rates from URL: {}", url);
+        // The URL carries the API key, so only the base currency is logged
+        log.debug("Fetching exchange rates: base={}", baseCurrency);
 
+        // Timed here rather than by the RestTemplate metrics, whose uri tag would carry the API key
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String error = null;
         try {
             ResponseEntity<ExchangeRateResponse> responseEntity = restTemplate.getForEntity(url, ExchangeRateResponse.class);
 
@@ -34,24 +44,42 @@ public class ExchangeRateApiClientImpl implements ExchangeRateApiClient {
             if (responseEntity.getStatusCode() == HttpStatus.OK && responseEntity.getBody() != null) {
                 ExchangeRateResponse response = responseEntity.getBody();
 
-                log.info("Exchange rate API result: {}", response.getResult());
-
                 if ("success".equals(response.getResult())) {
-                    log.info("Exchange rates retrieved successfully");
+                    log.debug("Exchange rates retrieved: base={}", baseCurrency);
 
                     return response.getConversionRates();
 
                 } else {
                     log.error("API returned an error response: {}", response);
+                    error = "api_error";
                     return null;
                 }
             } else {
                 log.error("Failed to fetch exchange rates. HTTP Status: {}", responseEntity.getStatusCode());
+                error = "http_" + responseEntity.getStatusCode().value();
                 return null;
             }
         } catch (Exception e) {
             log.error("Error fetching exchange rates: {}", e.getMessage(), e);
+            error = e.getClass().getSimpleName();
             return null;
+        } finally {
+            record(sample, error);
+        }
+    }
+
+    private void record(Timer.Sample sample, String error) {
+        RequestResources.exchangeRateCall();
+        sample.stop(Timer.builder("exchange.rates.requests")
+                .description("Calls to the exchange-rate API")
+                .tag("outcome", error == null ? "success" : "error")
+                .register(meterRegistry));
+        if (error != null) {
+            Counter.builder("exchange.rates.errors")
+                    .description("Failed calls to the exchange-rate API")
+                    .tag("reason", error)
+                    .register(meterRegistry)
+                    .increment();
         }
     }
 }
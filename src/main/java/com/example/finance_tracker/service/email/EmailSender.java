@@ -0,0 +1,9 @@
+package com.example.finance_tracker.service.email;
+
+/**
+ * Delivers a plain-text email. Implementations may block on network I/O, so they are called from the
+ * notification email executor rather than from business code.
+ */
+public interface EmailSender {
+    void send(String to, String subject, String body);
+}
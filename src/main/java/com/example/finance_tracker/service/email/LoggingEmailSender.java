@@ -0,0 +1,17 @@
+package com.example.finance_tracker.service.email;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Used when no SMTP server is configured: emails are only logged.
+ */
+public class LoggingEmailSender implements EmailSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingEmailSender.class);
+
+    @Override
+    public void send(String to, String subject, String body) {
+        logger.info("Email to {} not sent, no mail server configured: {}", to, subject);
+    }
+}
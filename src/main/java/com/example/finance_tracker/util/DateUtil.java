@@ -0,0 +1,115 @@
+package com.example.finance_tracker.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Calendar arithmetic on {@link Date}s in a given time zone, done on epoch days (days since 1970-01-01 in that zone).
+ * Day counts and comparisons only need the zone offset at the instant, so they avoid building {@code Calendar}
+ * or {@code ZonedDateTime} objects; month arithmetic goes through {@link LocalDate} since it needs the calendar fields.
+ */
+public final class DateUtil {
+
+    public static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private DateUtil() {
+    }
+
+    /**
+     * Returns the local calendar day of {@code date} in {@code zone} as days since 1970-01-01.
+     */
+    public static long epochDay(Date date, ZoneId zone) {
+        return epochDay(date.getTime(), zone);
+    }
+
+    public static long epochDay(long epochMilli, ZoneId zone) {
+        return Math.floorDiv(epochMilli + offsetMillis(epochMilli, zone), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Returns today's epoch day in {@code zone}.
+     */
+    public static long today(ZoneId zone) {
+        return epochDay(System.currentTimeMillis(), zone);
+    }
+
+    /**
+     * Returns the number of calendar days from {@code from} to {@code to} in {@code zone}, negative if {@code to} is earlier.
+     */
+    public static long daysBetween(Date from, Date to, ZoneId zone) {
+        return epochDay(to, zone) - epochDay(from, zone);
+    }
+
+    /**
+     * Returns the first instant of the given epoch day in {@code zone}.
+     */
+    public static Date startOfDay(long epochDay, ZoneId zone) {
+        if (zone instanceof ZoneOffset offset) {
+            return new Date(epochDay * MILLIS_PER_DAY - offset.getTotalSeconds() * 1000L);
+        }
+        return Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant());
+    }
+
+    /**
+     * Returns the first instant of the month containing {@code date} in {@code zone}.
+     */
+    public static Date startOfMonth(Date date, ZoneId zone) {
+        return startOfDay(LocalDate.ofEpochDay(epochDay(date, zone)).withDayOfMonth(1).toEpochDay(), zone);
+    }
+
+    /**
+     * Returns the first instant of the month after the one containing {@code date} in {@code zone}.
+     */
+    public static Date startOfNextMonth(Date date, ZoneId zone) {
+        return startOfDay(LocalDate.ofEpochDay(epochDay(date, zone)).withDayOfMonth(1).plusMonths(1).toEpochDay(), zone);
+    }
+
+    /**
+     * Moves {@code date} by a number of calendar months in {@code zone}, keeping the local time of day.
+     * The day of month is clamped to the length of the target month.
+     */
+    public static Date plusMonths(Date date, long months, ZoneId zone) {
+        return Date.from(date.toInstant().atZone(zone).plusMonths(months).toInstant());
+    }
+
+    /**
+     * Returns the number of calendar months touched by the range, counting a partial month at the start:
+     * 2023-01-01 to 2023-12-31 is 12 months and two dates in the same month are 1.
+     */
+    public static int monthsSpanned(Date start, Date end, ZoneId zone) {
+        LocalDate from = LocalDate.ofEpochDay(epochDay(start, zone));
+        LocalDate to = LocalDate.ofEpochDay(epochDay(end, zone));
+        long months = (to.getYear() * 12L + to.getMonthValue()) - (from.getYear() * 12L + from.getMonthValue());
+        if (months > 0 && to.getDayOfMonth() < from.getDayOfMonth()) {
+            months--; // The last month is not complete
+        } else if (months < 0 && to.getDayOfMonth() > from.getDayOfMonth()) {
+            months++;
+        }
+        return Math.toIntExact(months + 1);
+    }
+
+    /**
+     * Returns the local date of {@code date} in {@code zone} as "yyyy-MM-dd".
+     */
+    public static String dayKey(Date date, ZoneId zone) {
+        return LocalDate.ofEpochDay(epochDay(date, zone)).toString();
+    }
+
+    /**
+     * Returns the local month of {@code date} in {@code zone} as "yyyy-MM".
+     */
+    public static String monthKey(Date date, ZoneId zone) {
+        return YearMonth.from(LocalDate.ofEpochDay(epochDay(date, zone))).toString();
+    }
+
+    private static long offsetMillis(long epochMilli, ZoneId zone) {
+        if (zone instanceof ZoneOffset offset) {
+            return offset.getTotalSeconds() * 1000L;
+        }
+        return zone.getRules().getOffset(Instant.ofEpochMilli(epochMilli)).getTotalSeconds() * 1000L;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.finance_tracker.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel holding items until their due time.
+ * <p>
+ * The lowest level has {@code wheelSize} buckets of {@code tickMs}; each higher level has buckets the size of the
+ * whole level below and is created on demand, so adding and expiring an item costs O(1) per level regardless of how
+ * many items are scheduled. Items of a higher-level bucket are moved down when the lower level reaches them.
+ * An item is handed out by {@link #advance} once the tick containing its due time has fully elapsed, so it may be
+ * up to one tick late but never early. Not thread-safe.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Entry<T>>> buckets;
+
+    private long currentTime; // Start of the next bucket to drain, always a multiple of tickMs
+    private HierarchicalTimingWheel<T> overflow;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize greater than 1");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = Math.floorDiv(startMs, tickMs) * tickMs;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules an item. Items already due are handed out by the next {@link #advance}.
+     */
+    public void add(T item, long dueAtMs) {
+        place(new Entry<>(item, dueAtMs));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMs} and passes every item whose tick has elapsed to {@code expired}.
+     */
+    public void advance(long nowMs, Consumer<T> expired) {
+        while (currentTime + tickMs <= nowMs) {
+            if (overflow != null) {
+                overflow.cascade(currentTime, this::place);
+            }
+            List<Entry<T>> bucket = bucketFor(currentTime);
+            if (!bucket.isEmpty()) {
+                List<Entry<T>> due = new ArrayList<>(bucket);
+                bucket.clear();
+                size -= due.size();
+                for (Entry<T> entry : due) {
+                    expired.accept(entry.item);
+                }
+            }
+            currentTime += tickMs;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.dueAtMs < currentTime + interval) {
+            // Overdue items go into the next bucket to drain
+            bucketFor(Math.max(entry.dueAtMs, currentTime)).add(entry);
+        } else {
+            if (overflow == null) {
+                overflow = new HierarchicalTimingWheel<>(interval, wheelSize, currentTime);
+            }
+            overflow.place(entry);
+        }
+    }
+
+    // Hands the items of every bucket starting at or before lowerTime down to the level below
+    private void cascade(long lowerTime, Consumer<Entry<T>> lower) {
+        while (currentTime <= lowerTime) {
+            if (overflow != null) {
+                overflow.cascade(currentTime, this::place);
+            }
+            List<Entry<T>> bucket = bucketFor(currentTime);
+            if (!bucket.isEmpty()) {
+                List<Entry<T>> entries = new ArrayList<>(bucket);
+                bucket.clear();
+                entries.forEach(lower);
+            }
+            currentTime += tickMs;
+        }
+    }
+
+    private List<Entry<T>> bucketFor(long timeMs) {
+        return buckets.get((int) Math.floorMod(Math.floorDiv(timeMs, tickMs), (long) wheelSize));
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long dueAtMs;
+
+        private Entry(T item, long dueAtMs) {
+            this.item = item;
+            this.dueAtMs = dueAtMs;
+        }
+    }
+}
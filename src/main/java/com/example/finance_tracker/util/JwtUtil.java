@@ -54,7 +54,7 @@ public class JwtUtil {
         final String username = extractUsername(token);
         final String userId = extractUserId(token);
 
-        logger.info("Validating token for user: {}", username);
+        logger.debug("Validating token: username={}", username);
         logger.debug("Extracted user ID from token: {}", userId);
         logger.debug("UserDetails user ID: {}", ((User) userDetails).getId());
 
@@ -76,7 +76,7 @@ public class JwtUtil {
         boolean isValid = isUsernameValid && isUserIdValid && isTokenNotExpired;
 
         if (isValid) {
-            logger.info("Token validation successful for user: {}", username);
+            logger.debug("Token valid: username={}", username);
         } else {
             logger.warn("Token validation failed for user: {}", username);
         }
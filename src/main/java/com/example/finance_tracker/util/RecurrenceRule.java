@@ -0,0 +1,226 @@
+package com.example.finance_tracker.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A recurrence pattern compiled into a next-occurrence function.
+ * <p>
+ * Accepts the legacy names ("daily", "weekly", "biweekly", "monthly", "yearly") and a subset of RFC 5545 RRULE:
+ * {@code FREQ} (MINUTELY, HOURLY, DAILY, WEEKLY, MONTHLY, YEARLY), {@code INTERVAL}, and for monthly rules
+ * {@code BYMONTHDAY} (negative counts from the end of the month) or {@code BYDAY} with {@code BYSETPOS}.
+ * For example {@code FREQ=DAILY;INTERVAL=3}, {@code FREQ=MONTHLY;BYMONTHDAY=-1} or, for the last business day
+ * of the month, {@code FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1}.
+ * The time of day of the previous occurrence is kept.
+ */
+public final class RecurrenceRule {
+
+    private static final Map<String, RecurrenceRule> COMPILED = new ConcurrentHashMap<>();
+
+    private final String pattern;
+    private final ChronoUnit frequency;
+    private final int interval;
+    private final Integer byMonthDay;
+    private final Set<DayOfWeek> byDay;
+    private final Integer bySetPos;
+
+    private RecurrenceRule(String pattern, ChronoUnit frequency, int interval, Integer byMonthDay,
+                           Set<DayOfWeek> byDay, Integer bySetPos) {
+        this.pattern = pattern;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byMonthDay = byMonthDay;
+        this.byDay = byDay;
+        this.bySetPos = bySetPos;
+    }
+
+    /**
+     * Compiles a pattern; compiled rules are cached since templates share a handful of patterns.
+     *
+     * @throws IllegalArgumentException if the pattern is missing or not supported
+     */
+    public static RecurrenceRule parse(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            throw new IllegalArgumentException("Invalid recurrence pattern: " + pattern);
+        }
+        return COMPILED.computeIfAbsent(pattern.trim(), RecurrenceRule::compile);
+    }
+
+    private static RecurrenceRule compile(String pattern) {
+        switch (pattern.toLowerCase(Locale.ROOT)) {
+            case "daily":
+                return new RecurrenceRule(pattern, ChronoUnit.DAYS, 1, null, null, null);
+            case "weekly":
+                return new RecurrenceRule(pattern, ChronoUnit.WEEKS, 1, null, null, null);
+            case "biweekly":
+                return new RecurrenceRule(pattern, ChronoUnit.WEEKS, 2, null, null, null);
+            case "monthly":
+                return new RecurrenceRule(pattern, ChronoUnit.MONTHS, 1, null, null, null);
+            case "yearly":
+                return new RecurrenceRule(pattern, ChronoUnit.YEARS, 1, null, null, null);
+            default:
+                return compileRrule(pattern);
+        }
+    }
+
+    private static RecurrenceRule compileRrule(String pattern) {
+        String body = pattern.regionMatches(true, 0, "RRULE:", 0, 6) ? pattern.substring(6) : pattern;
+        ChronoUnit frequency = null;
+        int interval = 1;
+        Integer byMonthDay = null;
+        Set<DayOfWeek> byDay = null;
+        Integer bySetPos = null;
+
+        try {
+            for (String part : body.split(";")) {
+                String[] keyValue = part.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Invalid recurrence pattern: " + pattern);
+                }
+                String value = keyValue[1].trim().toUpperCase(Locale.ROOT);
+                switch (keyValue[0].trim().toUpperCase(Locale.ROOT)) {
+                    case "FREQ":
+                        frequency = frequency(value, pattern);
+                        break;
+                    case "INTERVAL":
+                        interval = Integer.parseInt(value);
+                        break;
+                    case "BYMONTHDAY":
+                        byMonthDay = Integer.parseInt(value);
+                        break;
+                    case "BYDAY":
+                        byDay = EnumSet.noneOf(DayOfWeek.class);
+                        for (String day : value.split(",")) {
+                            byDay.add(dayOfWeek(day.trim(), pattern));
+                        }
+                        break;
+                    case "BYSETPOS":
+                        bySetPos = Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unsupported recurrence rule part '" + keyValue[0] + "' in " + pattern);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid recurrence pattern: " + pattern, e);
+        }
+
+        if (frequency == null || interval < 1) {
+            throw new IllegalArgumentException("Invalid recurrence pattern: " + pattern);
+        }
+        if ((byMonthDay != null || byDay != null) && frequency != ChronoUnit.MONTHS) {
+            throw new IllegalArgumentException("BYMONTHDAY and BYDAY are only supported with FREQ=MONTHLY: " + pattern);
+        }
+        if (byMonthDay != null && (byMonthDay == 0 || Math.abs(byMonthDay) > 31)) {
+            throw new IllegalArgumentException("Invalid BYMONTHDAY in " + pattern);
+        }
+        if (bySetPos != null && (byDay == null || bySetPos == 0)) {
+            throw new IllegalArgumentException("BYSETPOS requires BYDAY and must not be 0: " + pattern);
+        }
+        return new RecurrenceRule(pattern, frequency, interval, byMonthDay, byDay, bySetPos);
+    }
+
+    private static ChronoUnit frequency(String value, String pattern) {
+        switch (value) {
+            case "MINUTELY":
+                return ChronoUnit.MINUTES;
+            case "HOURLY":
+                return ChronoUnit.HOURS;
+            case "DAILY":
+                return ChronoUnit.DAYS;
+            case "WEEKLY":
+                return ChronoUnit.WEEKS;
+            case "MONTHLY":
+                return ChronoUnit.MONTHS;
+            case "YEARLY":
+                return ChronoUnit.YEARS;
+            default:
+                throw new IllegalArgumentException("Unsupported FREQ '" + value + "' in " + pattern);
+        }
+    }
+
+    private static DayOfWeek dayOfWeek(String value, String pattern) {
+        switch (value) {
+            case "MO": return DayOfWeek.MONDAY;
+            case "TU": return DayOfWeek.TUESDAY;
+            case "WE": return DayOfWeek.WEDNESDAY;
+            case "TH": return DayOfWeek.THURSDAY;
+            case "FR": return DayOfWeek.FRIDAY;
+            case "SA": return DayOfWeek.SATURDAY;
+            case "SU": return DayOfWeek.SUNDAY;
+            default:
+                throw new IllegalArgumentException("Invalid BYDAY '" + value + "' in " + pattern);
+        }
+    }
+
+    /**
+     * Returns the first occurrence strictly after {@code previous}, evaluated in {@code zone}.
+     */
+    public Date next(Date previous, ZoneId zone) {
+        return Date.from(next(previous.toInstant().atZone(zone)).toInstant());
+    }
+
+    /**
+     * Returns the first occurrence strictly after {@code previous}, in the zone of {@code previous}.
+     */
+    public ZonedDateTime next(ZonedDateTime previous) {
+        if (byMonthDay == null && byDay == null) {
+            return previous.plus(interval, frequency);
+        }
+
+        // Monthly rules with a day selector: search forward month by month for the first matching day
+        LocalDate month = previous.toLocalDate().withDayOfMonth(1);
+        for (int i = 0; i < 12 * 31; i++) {
+            for (LocalDate candidate : daysInMonth(month)) {
+                ZonedDateTime occurrence = candidate.atTime(previous.toLocalTime()).atZone(previous.getZone());
+                if (occurrence.isAfter(previous)) {
+                    return occurrence;
+                }
+            }
+            month = month.plusMonths(interval);
+        }
+        throw new IllegalStateException("No occurrence found for recurrence pattern: " + pattern);
+    }
+
+    // The selected days of the month in ascending order; empty when the month has no such day (e.g. the 31st in April)
+    private List<LocalDate> daysInMonth(LocalDate firstOfMonth) {
+        int length = firstOfMonth.lengthOfMonth();
+        if (byMonthDay != null) {
+            int day = byMonthDay > 0 ? byMonthDay : length + byMonthDay + 1;
+            return day >= 1 && day <= length ? List.of(firstOfMonth.withDayOfMonth(day)) : List.of();
+        }
+
+        List<LocalDate> matches = new ArrayList<>();
+        for (int day = 1; day <= length; day++) {
+            LocalDate date = firstOfMonth.withDayOfMonth(day);
+            if (byDay.contains(date.getDayOfWeek())) {
+                matches.add(date);
+            }
+        }
+        if (bySetPos == null) {
+            return matches;
+        }
+        int index = bySetPos > 0 ? bySetPos - 1 : matches.size() + bySetPos;
+        return index >= 0 && index < matches.size() ? List.of(matches.get(index)) : List.of();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.finance_tracker.util;
+
+import com.example.finance_tracker.model.User;
+import com.example.finance_tracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class TimeZoneUtil {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeZoneUtil.class);
+
+    @Value("${app.time-zone:}")
+    private String defaultTimeZone;
+
+    // How long a user's time zone is reused; a changed preference applies on every instance within this time
+    @Value("${app.time-zone.cache-ttl-ms:60000}")
+    private long cacheTtlMillis = 60_000;
+
+    @Value("${app.time-zone.cache-size:10000}")
+    private int cacheSize = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Least recently used first; guarded by its own lock
+    private final Map<String, CachedZone> zones = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedZone> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Get the time zone used for a user's calendar dates.
+     * If the user has not set a valid preference, or is unknown, use the default time zone.
+     * The zone is cached per user, so jobs and reports looking it up per record do not each load the user.
+     */
+    public ZoneId getZoneIdForUser(String userId) {
+        if (userId == null) {
+            return getDefaultZoneId();
+        }
+        long now = System.currentTimeMillis();
+        synchronized (zones) {
+            CachedZone cached = zones.get(userId);
+            if (cached != null && cached.expiresAt() > now) {
+                return cached.zone();
+            }
+        }
+
+        // Loaded outside the lock; two concurrent misses for one user both load it, which is harmless
+        ZoneId zone = getZoneId(userRepository.findById(userId).orElse(null));
+        synchronized (zones) {
+            zones.put(userId, new CachedZone(zone, now + cacheTtlMillis));
+        }
+        return zone;
+    }
+
+    /**
+     * Drop a user's cached time zone, e.g. after the user changed it on this instance.
+     */
+    public void evict(String userId) {
+        synchronized (zones) {
+            zones.remove(userId);
+        }
+    }
+
+    /**
+     * Get the time zone of an already loaded user, falling back to the default time zone like {@link #getZoneIdForUser}.
+     */
+    public ZoneId getZoneId(User user) {
+        String timeZone = user == null ? null : user.getTimeZone();
+        if (timeZone != null) {
+            try {
+                return ZoneId.of(timeZone);
+            } catch (DateTimeException e) {
+                logger.warn("Ignoring invalid time zone '{}' of user {}", timeZone, user.getId());
+            }
+        }
+        return getDefaultZoneId();
+    }
+
+    /**
+     * The configured application time zone, or the system time zone if none is configured.
+     */
+    public ZoneId getDefaultZoneId() {
+        return defaultTimeZone == null || defaultTimeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(defaultTimeZone);
+    }
+
+    private record CachedZone(ZoneId zone, long expiresAt) {
+    }
+}
@@ -341,10 +341,7 @@ public class BudgetServiceImplIntegrationTest {
         assertEquals(700.0, updatedBudget.getLimit()); // 1000 - 300
 
         // Verify goal was updated
-        verify(goalsAndSavingsService).updateGoal(argThat(goal ->
-                goal.getId().equals(goalId) &&
-                        goal.getCurrentAmount() == 800.0 // 500 + 300
-        ));
+        verify(goalsAndSavingsService).addManualContribution(goalId, allocationAmount);
 
         // Verify notification was sent
         ArgumentCaptor<Notification> notificationCaptor = ArgumentCaptor.forClass(Notification.class);
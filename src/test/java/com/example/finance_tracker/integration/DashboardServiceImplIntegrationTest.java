@@ -0,0 +1,125 @@
+package com.example.finance_tracker.integration;
+
+import com.example.finance_tracker.metrics.RequestResources;
+import com.example.finance_tracker.metrics.ResourceUsage;
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.Dashboard;
+import com.example.finance_tracker.model.Goal;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.BudgetRepository;
+import com.example.finance_tracker.repository.DashboardSnapshotRepository;
+import com.example.finance_tracker.repository.GoalRepository;
+import com.example.finance_tracker.repository.TransactionRepository;
+import com.example.finance_tracker.service.DashboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds the user dashboard to a budget of MongoDB commands, counted by {@link RequestResources} as for a request.
+ */
+@SpringBootTest
+public class DashboardServiceImplIntegrationTest {
+
+    private static final String USER_ID = "dashboard-user";
+
+    // A snapshot read, plus headroom for a future lookup; the whole dashboard comes from the snapshot
+    private static final long SNAPSHOT_COMMAND_BUDGET = 3;
+
+    // The snapshot read, one query per section, two for the net savings and the snapshot write
+    private static final long REBUILD_COMMAND_BUDGET = 7;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private DashboardSnapshotRepository dashboardSnapshotRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Clear the user's data before each test
+        transactionRepository.deleteAll(transactionRepository.findByUserId(USER_ID));
+        budgetRepository.deleteAll(budgetRepository.findByUserId(USER_ID));
+        goalRepository.deleteAll(goalRepository.findByUserId(USER_ID));
+        dashboardSnapshotRepository.deleteById(USER_ID);
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            transactions.add(Transaction.builder()
+                    .userId(USER_ID)
+                    .type(i % 4 == 0 ? "Income" : "Expense")
+                    .category(i % 4 == 0 ? "Salary" : "Food")
+                    .amount(10.0 + i)
+                    .currencyCode("USD")
+                    .date(new Date(System.currentTimeMillis() - i * 60_000L))
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+
+        Budget budget = new Budget();
+        budget.setUserId(USER_ID);
+        budget.setCategory("Food");
+        budget.setLimit(500.0);
+        budgetRepository.save(budget);
+
+        Goal goal = new Goal();
+        goal.setUserId(USER_ID);
+        goal.setName("Holiday");
+        goal.setTargetAmount(1000.0);
+        goal.setDeadline(new Date(System.currentTimeMillis() + 100000000)); // Future date
+        goalRepository.save(goal);
+    }
+
+    @Test
+    void getUserDashboardSummary_FromSnapshot_StaysWithinCommandBudget() {
+        // Arrange: the first read builds the snapshot
+        dashboardService.getUserDashboardSummary(USER_ID);
+
+        // Act
+        Dashboard summary;
+        ResourceUsage usage;
+        try (RequestResources resources = RequestResources.open()) {
+            summary = dashboardService.getUserDashboardSummary(USER_ID);
+            usage = resources.usage();
+        }
+
+        // Assert
+        assertEquals(1, summary.getGoals().size());
+        assertEquals(1, summary.getBudgets().size());
+        assertFalse(summary.getRecentTransactions().isEmpty());
+        assertTrue(usage.mongoCommands() <= SNAPSHOT_COMMAND_BUDGET,
+                "Dashboard from snapshot sent " + usage.mongoCommands() + " MongoDB commands: " + usage.toHeader());
+    }
+
+    @Test
+    void getUserDashboardSummary_Rebuild_StaysWithinCommandBudget() {
+        // Act: no snapshot yet, so every section is queried, on the dashboard executor's threads
+        Dashboard summary;
+        ResourceUsage usage;
+        try (RequestResources resources = RequestResources.open()) {
+            summary = dashboardService.getUserDashboardSummary(USER_ID);
+            usage = resources.usage();
+        }
+
+        // Assert
+        assertTrue(summary.getDegradedSections().isEmpty());
+        assertTrue(usage.mongoCommands() <= REBUILD_COMMAND_BUDGET,
+                "Dashboard rebuild sent " + usage.mongoCommands() + " MongoDB commands: " + usage.toHeader());
+    }
+}
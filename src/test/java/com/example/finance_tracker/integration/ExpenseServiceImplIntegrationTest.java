@@ -8,8 +8,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -178,6 +180,33 @@ public class ExpenseServiceImplIntegrationTest {
         assertEquals("Food", filteredExpenses.get(0).getCategory());
     }
 
+    @Test
+    void patchExpense_ShouldSetOnlyTheGivenFieldsAndRejectAStaleVersion() {
+        // Arrange
+        Expense expense = new Expense();
+        expense.setUserId("user123");
+        expense.setAmount(100.0);
+        expense.setCurrencyCode("USD");
+        expense.setCategory("Food");
+        expense = expenseRepository.save(expense);
+        String id = expense.getId();
+
+        // Act
+        Expense patched = expenseService.patchExpense(id, Map.of("amount", 150.0));
+
+        // Assert
+        Expense stored = expenseRepository.findById(id).orElseThrow();
+        assertEquals(150.0, stored.getAmount());
+        assertEquals("Food", stored.getCategory());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(1L, patched.getVersion());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> expenseService.patchExpense(id, Map.of("category", "Groceries", "version", 0)));
+        expenseService.patchExpense(id, Map.of("description", "Lunch", "version", 1));
+        assertEquals(2L, expenseRepository.findById(id).orElseThrow().getVersion());
+        assertEquals("Food", expenseRepository.findById(id).orElseThrow().getCategory());
+    }
+
     @Test
     void isOwner_ShouldReturnTrueIfUserIsOwner() {
         // Arrange
@@ -10,8 +10,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -106,4 +112,37 @@ public class GoalsAndSavingsServiceImplIntegrationTest {
         assertNotNull(updatedGoal);
         assertEquals(700.0, updatedGoal.getCurrentAmount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void addManualContribution_ConcurrentContributions_AreAllCounted() throws Exception {
+        // Arrange
+        goalRepository.save(goal);
+        int threads = 64;
+        int contributionsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < contributionsPerThread; j++) {
+                    goalsAndSavingsService.addManualContribution("123", 1.0);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        Goal updatedGoal = goalRepository.findById("123").orElseThrow();
+        assertEquals(threads * contributionsPerThread, updatedGoal.getManualContribution());
+        assertEquals(500.0 + threads * contributionsPerThread, updatedGoal.getCurrentAmount());
+        assertEquals(updatedGoal.getCurrentAmount() / 10, updatedGoal.getProgressPercentage(), 1e-9);
+    }
+}
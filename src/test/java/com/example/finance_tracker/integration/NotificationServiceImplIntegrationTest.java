@@ -1,8 +1,11 @@
 package com.example.finance_tracker.integration;
 
 import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.model.NotificationCounter;
+import com.example.finance_tracker.model.NotificationInbox;
 import com.example.finance_tracker.repository.NotificationRepository;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
+import com.example.finance_tracker.service.NotificationDispatcher;
 import com.example.finance_tracker.service.NotificationServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +16,7 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,6 +31,9 @@ public class NotificationServiceImplIntegrationTest {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
     @Autowired
     private MongoTemplate mongoTemplate;
 
@@ -36,6 +43,7 @@ public class NotificationServiceImplIntegrationTest {
     void setUp() {
         // Clear the notifications collection before each test
         mongoTemplate.dropCollection(Notification.class);
+        mongoTemplate.dropCollection(NotificationCounter.class);
 
         notification = new Notification();
         notification.setUserId("user123");
@@ -47,6 +55,7 @@ public class NotificationServiceImplIntegrationTest {
     void sendNotification_Success() {
         // Act
         notificationService.sendNotification(notification);
+        notificationDispatcher.flush(); // Notifications are written in batches
 
         // Assert
         // Using MongoTemplate to verify
@@ -175,4 +184,31 @@ public class NotificationServiceImplIntegrationTest {
         Notification foundNotification = mongoTemplate.findOne(query, Notification.class);
         assertNull(foundNotification);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getInbox_ReturnsUnreadFirstAndTracksUnreadCount() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            Notification stored = new Notification();
+            stored.setUserId("user123");
+            stored.setMessage("Notification " + i);
+            stored.setRead(i % 2 == 0);
+            stored.setCreatedAt(new Date(1_700_000_000_000L + i * 1000L));
+            mongoTemplate.save(stored);
+        }
+
+        // Act
+        NotificationInbox firstPage = notificationService.getInbox("user123", 0, 3, false);
+        long marked = notificationService.markAsRead("user123", null);
+
+        // Assert
+        assertEquals(3, firstPage.getNotifications().size());
+        assertTrue(firstPage.isHasNext());
+        assertEquals(2, firstPage.getUnreadCount());
+        assertFalse(firstPage.getNotifications().get(0).isRead());
+        assertEquals("Notification 3", firstPage.getNotifications().get(0).getMessage());
+        assertFalse(firstPage.getNotifications().get(1).isRead());
+        assertEquals(2, marked);
+        assertEquals(0, notificationService.getUnreadCount("user123"));
+    }
+}
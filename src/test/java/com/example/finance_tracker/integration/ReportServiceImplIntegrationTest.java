@@ -6,6 +6,7 @@ import com.example.finance_tracker.repository.BudgetRepository;
 import com.example.finance_tracker.repository.ExpenseRepository;
 import com.example.finance_tracker.service.*;
 import com.example.finance_tracker.util.CurrencyUtil;
+import com.example.finance_tracker.util.TimeZoneUtil;
 import com.example.finance_tracker.exception.InvalidInputException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,6 +53,9 @@ public class ReportServiceImplIntegrationTest {
     @Mock
     private CurrencyUtil currencyUtil;
 
+    @Mock
+    private TimeZoneUtil timeZoneUtil;
+
     private SimpleDateFormat dateFormat;
     private Date startDate;
     private Date endDate;
@@ -88,7 +93,8 @@ public class ReportServiceImplIntegrationTest {
                 expenseService,
                 incomeService,
                 goalsAndSavingsService,
-                currencyUtil
+                currencyUtil,
+                timeZoneUtil
         );
 
         // Configure mocks
@@ -101,6 +107,7 @@ public class ReportServiceImplIntegrationTest {
                 .thenReturn(mockExpenses);
 
         when(currencyUtil.getBaseCurrencyForUser(userId)).thenReturn("USD");
+        when(timeZoneUtil.getZoneIdForUser(userId)).thenReturn(ZoneId.systemDefault());
 
         when(incomeService.calculateTotalIncomeInBaseCurrency(userId)).thenReturn(3000.0);
         when(expenseService.calculateTotalExpensesInBaseCurrency(userId)).thenReturn(860.0);
@@ -0,0 +1,123 @@
+package com.example.finance_tracker.integration;
+
+import com.example.finance_tracker.model.SchedulerLease;
+import com.example.finance_tracker.service.ShardedJobRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several runners with distinct owner ids stand in for separate application instances sharing one database. A runner
+ * coordinates with the others only through its leases in the database and keeps no other shared state, so each one
+ * gets its own owner id and shard pool and they share the context's {@link MongoTemplate}, as instances share the
+ * server.
+ */
+@SpringBootTest
+public class ShardedJobRunnerIntegrationTest {
+
+    private static final int SHARDS = 16;
+
+    private final List<ExecutorService> shardPools = new ArrayList<>();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        mongoTemplate.dropCollection(SchedulerLease.class);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        for (ExecutorService pool : shardPools) {
+            pool.shutdownNow();
+        }
+        for (ExecutorService pool : shardPools) {
+            assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS), "Shard pool did not terminate");
+        }
+        shardPools.clear();
+    }
+
+    @Test
+    public void runSharded_ConcurrentInstances_ProcessEachShardExactlyOnce() throws Exception {
+        Map<Integer, AtomicInteger> runs = new ConcurrentHashMap<>();
+        Map<Integer, String> owners = new ConcurrentHashMap<>();
+        ExecutorService instances = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                ShardedJobRunner runner = runner("node-" + i);
+                futures.add(instances.submit(() -> runner.runSharded("test-job", "run-1", shard -> {
+                    runs.computeIfAbsent(shard.getIndex(), k -> new AtomicInteger()).incrementAndGet();
+                    owners.put(shard.getIndex(), runner.getOwnerId());
+                    sleep(50);
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            instances.shutdownNow();
+        }
+
+        assertEquals(SHARDS, runs.size());
+        runs.values().forEach(count -> assertEquals(1, count.get()));
+        assertTrue(owners.values().stream().distinct().count() > 1, "Work should be spread across instances");
+
+        // A second firing of the same run does nothing
+        AtomicInteger repeated = new AtomicInteger();
+        runner("node-late").runSharded("test-job", "run-1", shard -> repeated.incrementAndGet());
+        assertEquals(0, repeated.get());
+    }
+
+    @Test
+    public void runSharded_ExpiredLeaseOfDeadInstance_IsTakenOver() {
+        // node-dead acquired shard 0 and stopped renewing it
+        mongoTemplate.save(new SchedulerLease("test-job:0", "node-dead", new Date(System.currentTimeMillis() - 1000), null));
+        // node-alive holds shard 1 with a fresh lease and finishes it
+        mongoTemplate.save(new SchedulerLease("test-job:1", "node-alive", new Date(System.currentTimeMillis() + 60_000), "run-1"));
+
+        Map<Integer, AtomicInteger> runs = new ConcurrentHashMap<>();
+        runner("node-survivor").runSharded("test-job", "run-1",
+                shard -> runs.computeIfAbsent(shard.getIndex(), k -> new AtomicInteger()).incrementAndGet());
+
+        assertEquals(SHARDS - 1, runs.size());
+        assertTrue(runs.containsKey(0));
+        assertFalse(runs.containsKey(1));
+    }
+
+    private ShardedJobRunner runner(String ownerId) {
+        ExecutorService shardPool = Executors.newFixedThreadPool(2);
+        shardPools.add(shardPool);
+        ShardedJobRunner runner = new ShardedJobRunner(mongoTemplate, shardPool, ownerId);
+        ReflectionTestUtils.setField(runner, "shardCount", SHARDS);
+        ReflectionTestUtils.setField(runner, "pollIntervalMs", 20L);
+        ReflectionTestUtils.setField(runner, "maxRunMinutes", 1L);
+        return runner;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.finance_tracker.integration;
+
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.TransactionRepository;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TransactionRepositoryIntegrationTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private CommandCapture commandCapture;
+
+    @BeforeEach
+    public void setUp() {
+        mongoTemplate.dropCollection(Transaction.class);
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (IndexDefinition index : resolver.resolveIndexFor(Transaction.class)) {
+            mongoTemplate.indexOps(Transaction.class).ensureIndex(index);
+        }
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setUserId(i % 2 == 0 ? "user123" : "otherUser");
+            transaction.setType("Expense");
+            transaction.setAmount(i);
+            transaction.setDate(new Date(1_700_000_000_000L + i * 60_000L));
+            transactions.add(transaction);
+        }
+        mongoTemplate.insertAll(transactions);
+    }
+
+    @Test
+    public void findRecentTransactionsByUser_ReturnsNewestFirstWithLimit() {
+        List<Transaction> recent = transactionRepository.findRecentTransactionsByUser("user123", 5);
+
+        assertEquals(5, recent.size());
+        assertEquals(498.0, recent.get(0).getAmount());
+        assertEquals(490.0, recent.get(4).getAmount());
+    }
+
+    @Test
+    public void findRecentTransactionsByUser_ExaminesOnlyLimitDocuments() {
+        // Explain the find the repository actually sent, so a change to the derived query is caught here
+        commandCapture.clear();
+        transactionRepository.findRecentTransactionsByUser("user123", 5);
+        Document find = commandCapture.find(mongoTemplate.getCollectionName(Transaction.class));
+        assertNotNull(find);
+        assertEquals(5, find.getInteger("limit"));
+
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain", find)
+                .append("verbosity", "executionStats"));
+
+        Document stats = explain.get("executionStats", Document.class);
+        assertEquals(5, stats.getInteger("nReturned"));
+        assertEquals(5, stats.getInteger("totalDocsExamined"));
+        assertTrue(stats.getInteger("totalKeysExamined") <= 5);
+    }
+
+    @TestConfiguration
+    static class CommandCaptureConfig {
+        @Bean
+        public CommandCapture commandCapture() {
+            return new CommandCapture();
+        }
+
+        @Bean
+        public MongoClientSettingsBuilderCustomizer commandCapturing(CommandCapture commandCapture) {
+            return settings -> settings.addCommandListener(commandCapture);
+        }
+    }
+
+    /**
+     * Keeps the find commands sent to the server, without the driver's session and routing fields.
+     */
+    static class CommandCapture implements CommandListener {
+        private final List<Document> finds = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (!"find".equals(event.getCommandName())) {
+                return;
+            }
+            Document command = new Document();
+            event.getCommand().forEach((key, value) -> {
+                if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                    command.put(key, value);
+                }
+            });
+            finds.add(command);
+        }
+
+        void clear() {
+            finds.clear();
+        }
+
+        Document find(String collection) {
+            return finds.stream().filter(command -> collection.equals(command.getString("find"))).reduce((first, last) -> last).orElse(null);
+        }
+    }
+}
@@ -3,19 +3,31 @@ package com.example.finance_tracker.unit;
 import com.example.finance_tracker.model.*;
 import com.example.finance_tracker.repository.BudgetRepository;
 import com.example.finance_tracker.service.BudgetServiceImpl;
+import com.example.finance_tracker.service.DocumentPatcher;
+import com.example.finance_tracker.service.GoalsAndSavingsService;
+import com.example.finance_tracker.service.NotificationService;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.bson.Document;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,9 +36,21 @@ public class BudgetServiceImplTest {
     @Mock
     private BudgetRepository budgetRepository;
 
-//    @Mock
-//    private NotificationService notificationService;
-//
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GoalsAndSavingsService goalsAndSavingsService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DocumentPatcher documentPatcher;
+
 //    @Mock
 //    private ExpenseRepository expenseRepository;
 //
@@ -34,9 +58,6 @@ public class BudgetServiceImplTest {
 //    private CurrencyConverterImpl currencyConverterImpl;
 //
 //    @Mock
-//    private GoalsAndSavingsService goalsAndSavingsService;
-//
-//    @Mock
 //    private CurrencyUtil currencyUtil;
 
     @InjectMocks
@@ -125,6 +146,72 @@ public class BudgetServiceImplTest {
 //        verify(notificationService, times(1)).sendNotification(any(Notification.class));
 //    }
 //
+    @Test
+    public void testAllocateBudgetToGoal_DeductsAndContributesAtomically() {
+        // Arrange
+        Budget remaining = new Budget();
+        remaining.setId(budgetId);
+        remaining.setLimit(800.0);
+        remaining.setCurrencyCode("USD");
+        ArgumentCaptor<Query> condition = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> deduction = ArgumentCaptor.forClass(Update.class);
+        when(mongoTemplate.findAndModify(condition.capture(), deduction.capture(), any(FindAndModifyOptions.class), eq(Budget.class)))
+                .thenReturn(remaining);
+        when(goalsAndSavingsService.addManualContribution(goal.getId(), 200.0)).thenReturn(goal);
+
+        // Act
+        budgetService.allocateBudgetToGoal(userId, goal.getId(), 200.0);
+
+        // Assert: the limit is checked and decremented in one update, and nothing is saved whole
+        assertEquals(200.0, ((Document) condition.getValue().getQueryObject().get("limit")).get("$gte"));
+        assertEquals(-200.0, ((Document) deduction.getValue().getUpdateObject().get("$inc")).get("limit"));
+        verify(budgetRepository, never()).save(any(Budget.class));
+        verify(goalsAndSavingsService, never()).updateGoal(any(Goal.class));
+        verify(notificationService, times(1)).sendNotification(any(Notification.class));
+    }
+
+    @Test
+    public void testAllocateBudgetToGoal_GoalNotFound_LeavesBudgetUntouched() {
+        // Arrange
+        when(goalsAndSavingsService.getGoalById(goal.getId())).thenThrow(new ResourceNotFoundException("Goal not found"));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> budgetService.allocateBudgetToGoal(userId, goal.getId(), 200.0));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    public void testAllocateBudgetToGoal_GoalUpdateFails_ReturnsAmountToBudget() {
+        // Arrange
+        Budget remaining = new Budget();
+        remaining.setId(budgetId);
+        remaining.setLimit(800.0);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Budget.class)))
+                .thenReturn(remaining);
+        when(goalsAndSavingsService.addManualContribution(goal.getId(), 200.0))
+                .thenThrow(new ResourceNotFoundException("Goal not found"));
+        ArgumentCaptor<Query> refunded = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> refund = ArgumentCaptor.forClass(Update.class);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> budgetService.allocateBudgetToGoal(userId, goal.getId(), 200.0));
+        verify(mongoTemplate).updateFirst(refunded.capture(), refund.capture(), eq(Budget.class));
+        assertEquals(budgetId, refunded.getValue().getQueryObject().get("_id"));
+        assertEquals(200.0, ((Document) refund.getValue().getUpdateObject().get("$inc")).get("limit"));
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(notificationService, never()).sendNotification(any(Notification.class));
+    }
+
+    @Test
+    public void testAllocateBudgetToGoal_NoSavingsBudget() {
+        // Arrange
+        when(budgetRepository.findByUserIdAndCategory(userId, "Savings")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> budgetService.allocateBudgetToGoal(userId, goal.getId(), 200.0));
+        verify(goalsAndSavingsService, never()).addManualContribution(anyString(), anyDouble());
+    }
+
     @Test
     public void testAllocateBudgetToGoal_ExceedsLimit() {
         // Arrange
@@ -137,6 +224,22 @@ public class BudgetServiceImplTest {
         });
     }
 
+    @Test
+    public void testPatchBudget_CurrencyCodeIsNotPatchable() {
+        // Arrange
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Set<String>> patchable = ArgumentCaptor.forClass(Set.class);
+        when(documentPatcher.apply(eq(Budget.class), eq(budgetId), anyMap(), patchable.capture()))
+                .thenReturn(new DocumentPatcher.Patch<>(budget, budget, Set.of("limit")));
+
+        // Act
+        budgetService.patchBudget(budgetId, Map.of("limit", 500.0));
+
+        // Assert: the currency stays the owner's base currency, as setBudget sets it
+        assertTrue(patchable.getValue().contains("limit"));
+        assertFalse(patchable.getValue().contains("currencyCode"));
+    }
+
     @Test
     public void testIsOwner_True() {
         // Arrange
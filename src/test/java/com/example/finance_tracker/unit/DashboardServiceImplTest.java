@@ -0,0 +1,224 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.CurrencyTotals;
+import com.example.finance_tracker.model.Dashboard;
+import com.example.finance_tracker.model.DashboardSnapshot;
+import com.example.finance_tracker.model.Goal;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.BudgetRepository;
+import com.example.finance_tracker.repository.GoalRepository;
+import com.example.finance_tracker.repository.TransactionRepository;
+import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.service.DashboardServiceImpl;
+import com.example.finance_tracker.service.DashboardSnapshotService;
+import com.example.finance_tracker.service.GlobalTotalsService;
+import com.example.finance_tracker.service.RecentTransactionsCache;
+import com.example.finance_tracker.service.TransactionService;
+import com.example.finance_tracker.service.api.ExchangeRateApiClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private GoalRepository goalRepository;
+
+    @Mock
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Mock
+    private GlobalTotalsService globalTotalsService;
+
+    @Mock
+    private ExchangeRateApiClient exchangeRateApiClient;
+
+    @InjectMocks
+    private DashboardServiceImpl dashboardService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newFixedThreadPool(4);
+        ReflectionTestUtils.setField(dashboardService, "dashboardExecutor", executor);
+        ReflectionTestUtils.setField(dashboardService, "sectionTimeoutMs", 500L);
+        ReflectionTestUtils.setField(dashboardService, "reportingCurrency", "LKR");
+        ReflectionTestUtils.setField(dashboardService, "recentTransactionsCache", new RecentTransactionsCache(new SimpleMeterRegistry(), 5, 100, 60_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getAdminDashboardSummary_UsesCurrencyTotalsWithoutScanningTransactions() {
+        // Arrange
+        when(userRepository.count()).thenReturn(1_000L);
+        when(globalTotalsService.getTotalsByCurrency()).thenReturn(List.of(
+                new CurrencyTotals("LKR", 600_000.0, 200_000.0, 900_000L, new Date(), new Date()),
+                new CurrencyTotals("USD", 1_000.0, 500.0, 100_000L, new Date(), new Date())));
+        when(exchangeRateApiClient.getLatestExchangeRates("LKR")).thenReturn(Map.of("LKR", 1.0, "USD", 0.0033));
+
+        // Act
+        Dashboard result = dashboardService.getAdminDashboardSummary();
+
+        // Assert
+        assertEquals(1_000, result.getTotalUsers());
+        assertEquals("LKR", result.getReportingCurrency());
+        assertEquals(600_000.0 + 1_000.0 / 0.0033, result.getTotalIncome(), 0.001);
+        assertEquals(200_000.0 + 500.0 / 0.0033, result.getTotalExpenses(), 0.001);
+        assertEquals(Map.of("LKR", 600_000.0, "USD", 1_000.0), result.getIncomeByCurrency());
+        verify(exchangeRateApiClient, times(1)).getLatestExchangeRates("LKR");
+        verifyNoInteractions(transactionRepository, transactionService);
+    }
+
+    @Test
+    void getAdminDashboardSummary_RatesUnavailable_ReportsPerCurrencyOnly() {
+        // Arrange
+        when(globalTotalsService.getTotalsByCurrency()).thenReturn(List.of(
+                new CurrencyTotals("USD", 1_000.0, 500.0, 10L, new Date(), new Date())));
+        when(exchangeRateApiClient.getLatestExchangeRates("LKR")).thenReturn(null);
+
+        // Act
+        Dashboard result = dashboardService.getAdminDashboardSummary();
+
+        // Assert
+        assertEquals(List.of("reportingTotals"), result.getDegradedSections());
+        assertEquals(Map.of("USD", 500.0), result.getExpensesByCurrency());
+        assertEquals(0.0, result.getTotalIncome());
+    }
+
+    @Test
+    void getUserDashboardSummary_AllSectionsLoaded() {
+        // Arrange
+        String userId = "user123";
+        when(transactionRepository.findRecentTransactionsByUser(userId, 5)).thenReturn(List.of(new Transaction()));
+        when(budgetRepository.findByUserId(userId)).thenReturn(List.of(new Budget()));
+        when(goalRepository.findByUserId(userId)).thenReturn(List.of(new Goal()));
+        when(transactionService.calculateNetSavings(userId)).thenReturn(250.0);
+
+        // Act
+        Dashboard result = dashboardService.getUserDashboardSummary(userId);
+
+        // Assert
+        assertEquals(1, result.getRecentTransactions().size());
+        assertEquals(1, result.getBudgets().size());
+        assertEquals(1, result.getGoals().size());
+        assertEquals(250.0, result.getNetSavings());
+        assertTrue(result.getDegradedSections().isEmpty());
+        assertEquals(List.of("recentTransactions", "budgets", "goals", "netSavings"),
+                List.copyOf(result.getSectionTimings().keySet()));
+        verify(dashboardSnapshotService, times(1)).saveSnapshot(userId, result, -1L);
+    }
+
+    @Test
+    void getUserDashboardSummary_FreshSnapshot_SkipsSourceQueries() {
+        // Arrange
+        String userId = "user123";
+        DashboardSnapshot snapshot = new DashboardSnapshot(userId, List.of(new Transaction()), List.of(new Budget()),
+                List.of(new Goal()), 120.0, 1, 7L, false, new Date());
+        when(dashboardSnapshotService.getSnapshot(userId)).thenReturn(Optional.of(snapshot));
+        when(dashboardSnapshotService.isFresh(snapshot)).thenReturn(true);
+
+        // Act
+        Dashboard result = dashboardService.getUserDashboardSummary(userId);
+
+        // Assert
+        assertEquals(120.0, result.getNetSavings());
+        assertEquals(1, result.getRecentTransactions().size());
+        assertTrue(result.getSectionTimings().containsKey("snapshot"));
+        verifyNoInteractions(transactionRepository, budgetRepository, goalRepository, transactionService);
+        verify(dashboardSnapshotService, never()).saveSnapshot(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void getUserDashboardSummary_StaleSnapshot_RebuildsFromVersion() {
+        // Arrange
+        String userId = "user123";
+        DashboardSnapshot snapshot = new DashboardSnapshot(userId, List.of(), List.of(), List.of(), 0.0, 1, 7L, true, new Date());
+        when(dashboardSnapshotService.getSnapshot(userId)).thenReturn(Optional.of(snapshot));
+        when(dashboardSnapshotService.isFresh(snapshot)).thenReturn(false);
+        when(transactionService.calculateNetSavings(userId)).thenReturn(40.0);
+
+        // Act
+        Dashboard result = dashboardService.getUserDashboardSummary(userId);
+
+        // Assert
+        assertEquals(40.0, result.getNetSavings());
+        verify(dashboardSnapshotService, times(1)).saveSnapshot(userId, result, 7L);
+    }
+
+    @Test
+    void getUserDashboardSummary_SlowSectionDegrades() {
+        // Arrange
+        String userId = "user123";
+        when(transactionRepository.findRecentTransactionsByUser(userId, 5)).thenReturn(List.of(new Transaction()));
+        when(budgetRepository.findByUserId(userId)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of(new Budget());
+        });
+        when(goalRepository.findByUserId(userId)).thenReturn(List.of(new Goal()));
+        when(transactionService.calculateNetSavings(userId)).thenReturn(250.0);
+
+        // Act
+        Dashboard result = dashboardService.getUserDashboardSummary(userId);
+
+        // Assert
+        assertEquals(Collections.emptyList(), result.getBudgets());
+        assertEquals(List.of("budgets"), result.getDegradedSections());
+        assertEquals(1, result.getGoals().size());
+        assertEquals(250.0, result.getNetSavings());
+        verify(dashboardSnapshotService, never()).saveSnapshot(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void getUserDashboardSummary_FailingSectionDegrades() {
+        // Arrange
+        String userId = "user123";
+        when(transactionRepository.findRecentTransactionsByUser(userId, 5)).thenReturn(List.of(new Transaction()));
+        when(budgetRepository.findByUserId(userId)).thenReturn(List.of(new Budget()));
+        when(goalRepository.findByUserId(userId)).thenReturn(List.of(new Goal()));
+        when(transactionService.calculateNetSavings(userId)).thenThrow(new IllegalStateException("boom"));
+
+        // Act
+        Dashboard result = dashboardService.getUserDashboardSummary(userId);
+
+        // Assert
+        assertEquals(0.0, result.getNetSavings());
+        assertEquals(List.of("netSavings"), result.getDegradedSections());
+        assertEquals(1, result.getRecentTransactions().size());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.event.BudgetChangedEvent;
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
+import com.example.finance_tracker.model.Budget;
+import com.example.finance_tracker.model.DashboardSnapshot;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.BudgetRepository;
+import com.example.finance_tracker.repository.DashboardSnapshotRepository;
+import com.example.finance_tracker.repository.GoalRepository;
+import com.example.finance_tracker.service.DashboardSnapshotServiceImpl;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DashboardSnapshotServiceImplTest {
+
+    @Mock
+    private DashboardSnapshotRepository dashboardSnapshotRepository;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private GoalRepository goalRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private DashboardSnapshotServiceImpl dashboardSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void isFresh_CurrentSnapshot_ReturnsTrue() {
+        DashboardSnapshot snapshot = new DashboardSnapshot("user123", List.of(), List.of(), List.of(), 0.0,
+                DashboardSnapshotServiceImpl.SCHEMA_VERSION, 3L, false, new Date());
+
+        assertTrue(dashboardSnapshotService.isFresh(snapshot));
+    }
+
+    @Test
+    void isFresh_StaleOrOutdatedSnapshot_ReturnsFalse() {
+        DashboardSnapshot stale = new DashboardSnapshot("user123", List.of(), List.of(), List.of(), 0.0,
+                DashboardSnapshotServiceImpl.SCHEMA_VERSION, 3L, true, new Date());
+        DashboardSnapshot oldSchema = new DashboardSnapshot("user123", List.of(), List.of(), List.of(), 0.0,
+                DashboardSnapshotServiceImpl.SCHEMA_VERSION - 1, 3L, false, new Date());
+        DashboardSnapshot expired = new DashboardSnapshot("user123", List.of(), List.of(), List.of(), 0.0,
+                DashboardSnapshotServiceImpl.SCHEMA_VERSION, 3L, false, new Date(System.currentTimeMillis() - 86_400_000L));
+
+        assertFalse(dashboardSnapshotService.isFresh(null));
+        assertFalse(dashboardSnapshotService.isFresh(stale));
+        assertFalse(dashboardSnapshotService.isFresh(oldSchema));
+        assertFalse(dashboardSnapshotService.isFresh(expired));
+    }
+
+    @Test
+    void onTransactionChanged_Created_AppliesIncrementalUpdate() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setUserId("user123");
+        transaction.setType("Expense");
+        transaction.setAmount(40.0);
+
+        // Act
+        dashboardSnapshotService.onTransactionChanged(TransactionChangedEvent.created(transaction));
+
+        // Assert
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(DashboardSnapshot.class));
+        Document updateObject = update.getValue().getUpdateObject();
+        assertEquals(-40.0, ((Document) updateObject.get("$inc")).get("netSavings"));
+        assertTrue(((Document) updateObject.get("$push")).containsKey("recentTransactions"));
+    }
+
+    @Test
+    void onTransactionsCreated_GoalAllocations_DoNotReduceNetSavings() {
+        // Arrange
+        Transaction allocation = new Transaction();
+        allocation.setUserId("user123");
+        allocation.setType("Expense");
+        allocation.setCategory("Goals");
+        allocation.setGoalId("goal1");
+        allocation.setAmount(100.0);
+        Transaction expense = new Transaction();
+        expense.setUserId("user123");
+        expense.setType("Expense");
+        expense.setCategory("Food");
+        expense.setAmount(40.0);
+
+        // Act
+        dashboardSnapshotService.onTransactionsCreated(new TransactionsCreatedEvent("user123", List.of(allocation, expense)));
+
+        // Assert
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(DashboardSnapshot.class));
+        assertEquals(-40.0, ((Document) update.getValue().getUpdateObject().get("$inc")).get("netSavings"));
+    }
+
+    @Test
+    void onTransactionChanged_Deleted_MarksSnapshotStale() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setUserId("user123");
+        transaction.setType("Income");
+
+        // Act
+        dashboardSnapshotService.onTransactionChanged(TransactionChangedEvent.deleted(transaction));
+
+        // Assert
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(DashboardSnapshot.class));
+        assertEquals(true, ((Document) update.getValue().getUpdateObject().get("$set")).get("stale"));
+    }
+
+    @Test
+    void onBudgetChanged_RefreshesBudgetSection() {
+        // Arrange
+        when(budgetRepository.findByUserId("user123")).thenReturn(List.of(new Budget()));
+
+        // Act
+        dashboardSnapshotService.onBudgetChanged(new BudgetChangedEvent("user123", "budget1"));
+
+        // Assert
+        verify(budgetRepository, times(1)).findByUserId("user123");
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(DashboardSnapshot.class));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.util.DateUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateUtilTest {
+
+    private static final ZoneId COLOMBO = ZoneId.of("Asia/Colombo");
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    @Test
+    void epochDay_UsesTheLocalCalendarDay() {
+        // 20:00 UTC on 31 Dec is already 1 Jan in Colombo (+05:30) but still 31 Dec in New York
+        Date instant = at(2024, 12, 31, 20, 0, ZoneOffset.UTC);
+
+        assertEquals(LocalDate.of(2024, 12, 31).toEpochDay(), DateUtil.epochDay(instant, ZoneOffset.UTC));
+        assertEquals(LocalDate.of(2025, 1, 1).toEpochDay(), DateUtil.epochDay(instant, COLOMBO));
+        assertEquals(LocalDate.of(2024, 12, 31).toEpochDay(), DateUtil.epochDay(instant, NEW_YORK));
+        assertEquals(LocalDate.of(1969, 12, 31).toEpochDay(), DateUtil.epochDay(new Date(-1), ZoneOffset.UTC));
+    }
+
+    @Test
+    void daysBetween_CountsCalendarDaysAcrossDaylightSaving() {
+        // The 23-hour day of the March 2025 switch still counts as one day
+        Date before = at(2025, 3, 8, 23, 30, NEW_YORK);
+        Date after = at(2025, 3, 10, 0, 30, NEW_YORK);
+
+        assertEquals(2, DateUtil.daysBetween(before, after, NEW_YORK));
+        assertEquals(-2, DateUtil.daysBetween(after, before, NEW_YORK));
+        assertEquals(0, DateUtil.daysBetween(after, after, NEW_YORK));
+    }
+
+    @Test
+    void monthBounds_AreMidnightInTheZone() {
+        Date date = at(2024, 2, 15, 13, 45, COLOMBO);
+
+        assertEquals(at(2024, 2, 1, 0, 0, COLOMBO), DateUtil.startOfMonth(date, COLOMBO));
+        assertEquals(at(2024, 3, 1, 0, 0, COLOMBO), DateUtil.startOfNextMonth(date, COLOMBO));
+        assertEquals(at(2024, 3, 1, 0, 0, ZoneOffset.UTC),
+                DateUtil.startOfNextMonth(at(2024, 2, 29, 23, 59, ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    void plusMonths_ClampsToTheEndOfTheMonth() {
+        assertEquals(at(2025, 2, 28, 9, 0, COLOMBO), DateUtil.plusMonths(at(2025, 5, 31, 9, 0, COLOMBO), -3, COLOMBO));
+        assertEquals(at(2024, 2, 29, 9, 0, COLOMBO), DateUtil.plusMonths(at(2024, 5, 31, 9, 0, COLOMBO), -3, COLOMBO));
+    }
+
+    @Test
+    void monthsSpanned_IncludesTheStartMonth() {
+        assertEquals(12, DateUtil.monthsSpanned(at(2023, 1, 1, 0, 0, COLOMBO), at(2023, 12, 31, 0, 0, COLOMBO), COLOMBO));
+        assertEquals(3, DateUtil.monthsSpanned(at(2023, 1, 1, 0, 0, COLOMBO), at(2023, 3, 31, 0, 0, COLOMBO), COLOMBO));
+        assertEquals(1, DateUtil.monthsSpanned(at(2023, 1, 15, 0, 0, COLOMBO), at(2023, 2, 10, 0, 0, COLOMBO), COLOMBO));
+        assertEquals(1, DateUtil.monthsSpanned(at(2023, 1, 15, 0, 0, COLOMBO), at(2023, 1, 15, 0, 0, COLOMBO), COLOMBO));
+    }
+
+    private static Date at(int year, int month, int day, int hour, int minute, ZoneId zone) {
+        return Date.from(ZonedDateTime.of(year, month, day, hour, minute, 0, 0, zone).toInstant());
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.exception.InvalidInputException;
+import com.example.finance_tracker.exception.ResourceNotFoundException;
+import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.service.DocumentPatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DocumentPatcherTest {
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("category", "amount", "description", "tags");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private DocumentPatcher documentPatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        documentPatcher = new DocumentPatcher(mongoTemplate, new ObjectMapper());
+    }
+
+    @Test
+    void apply_SetsOnlyTheGivenFieldsAndIncrementsTheVersion() {
+        // Arrange
+        Expense previous = expense(3L);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(mongoTemplate.findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Expense.class)))
+                .thenReturn(previous);
+
+        // Act
+        DocumentPatcher.Patch<Expense> patch = documentPatcher.apply(Expense.class, "exp1",
+                Map.of("amount", 25, "tags", List.of("lunch")), PATCHABLE_FIELDS);
+
+        // Assert
+        assertEquals(new Document("_id", "exp1"), query.getValue().getQueryObject());
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(Set.of("amount", "tags"), set.keySet());
+        assertEquals(25.0, set.get("amount"));
+        assertEquals(1, ((Document) update.getValue().getUpdateObject().get("$inc")).get("version"));
+
+        assertSame(previous, patch.previous());
+        assertEquals(10.0, patch.previous().getAmount());
+        assertEquals(25.0, patch.current().getAmount());
+        assertEquals(List.of("lunch"), patch.current().getTags());
+        assertEquals("Food", patch.current().getCategory());
+        assertEquals(4L, patch.current().getVersion());
+    }
+
+    @Test
+    void apply_WithVersion_OnlyUpdatesThatVersion() {
+        // Arrange
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(Expense.class)))
+                .thenReturn(expense(3L));
+
+        // Act
+        documentPatcher.apply(Expense.class, "exp1", Map.of("version", 3, "description", "Lunch"), PATCHABLE_FIELDS);
+
+        // Assert
+        assertEquals(3L, query.getValue().getQueryObject().get("version"));
+    }
+
+    @Test
+    void apply_DocumentWithoutVersion_StartsAtOne() {
+        // Arrange
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("version", null);
+        changes.put("category", "Travel");
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(Expense.class)))
+                .thenReturn(expense(null));
+
+        // Act
+        DocumentPatcher.Patch<Expense> patch = documentPatcher.apply(Expense.class, "exp1", changes, PATCHABLE_FIELDS);
+
+        // Assert
+        assertTrue(query.getValue().getQueryObject().containsKey("version"));
+        assertNull(query.getValue().getQueryObject().get("version"));
+        assertEquals(1L, patch.current().getVersion());
+    }
+
+    @Test
+    void apply_StaleVersion_ThrowsConflict() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Expense.class)))
+                .thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(Expense.class))).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                documentPatcher.apply(Expense.class, "exp1", Map.of("version", 2, "amount", 5), PATCHABLE_FIELDS));
+    }
+
+    @Test
+    void apply_MissingDocument_ThrowsNotFound() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Expense.class)))
+                .thenReturn(null);
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () ->
+                documentPatcher.apply(Expense.class, "exp1", Map.of("amount", 5), PATCHABLE_FIELDS));
+        assertEquals("Expense not found", exception.getMessage());
+    }
+
+    @Test
+    void apply_FieldNotPatchable_IsRejected() {
+        // Act & Assert
+        InvalidInputException exception = assertThrows(InvalidInputException.class, () ->
+                documentPatcher.apply(Expense.class, "exp1", Map.of("userId", "someoneElse"), PATCHABLE_FIELDS));
+        assertEquals("Field cannot be updated: userId", exception.getMessage());
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), any(Class.class));
+    }
+
+    @Test
+    void apply_NullForNumber_IsRejected() {
+        // Arrange
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("amount", null);
+
+        // Act & Assert
+        assertThrows(InvalidInputException.class, () -> documentPatcher.apply(Expense.class, "exp1", changes, PATCHABLE_FIELDS));
+    }
+
+    @Test
+    void apply_OnlyVersion_IsRejected() {
+        // Act & Assert
+        assertThrows(InvalidInputException.class, () ->
+                documentPatcher.apply(Transaction.class, "txn1", Map.of("version", 1), PATCHABLE_FIELDS));
+    }
+
+    @Test
+    void replace_SetsAllFieldsUnsetsNullsAndIncrementsTheVersion() {
+        // Arrange
+        Expense previous = expense(3L);
+        Expense replacement = expense(3L);
+        replacement.setAmount(25.0);
+        replacement.setCategory(null);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(mongoTemplate.findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(Expense.class)))
+                .thenReturn(previous);
+
+        // Act
+        DocumentPatcher.Patch<Expense> patch = documentPatcher.replace(Expense.class, replacement);
+
+        // Assert
+        assertEquals("exp1", query.getValue().getQueryObject().get("_id"));
+        assertEquals(3L, query.getValue().getQueryObject().get("version"));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(25.0, set.get("amount"));
+        assertEquals("user123", set.get("userId"));
+        assertFalse(set.containsKey("_id"));
+        assertFalse(set.containsKey("version"));
+        assertTrue(((Document) update.getValue().getUpdateObject().get("$unset")).containsKey("category"));
+        assertEquals(1, ((Document) update.getValue().getUpdateObject().get("$inc")).get("version"));
+
+        assertSame(previous, patch.previous());
+        assertEquals(25.0, patch.current().getAmount());
+        assertNull(patch.current().getCategory());
+        assertEquals(4L, patch.current().getVersion());
+    }
+
+    @Test
+    void replace_StaleVersion_ThrowsConflict() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Expense.class)))
+                .thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(Expense.class))).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> documentPatcher.replace(Expense.class, expense(2L)));
+    }
+
+    private static Expense expense(Long version) {
+        Expense expense = new Expense();
+        expense.setId("exp1");
+        expense.setUserId("user123");
+        expense.setCategory("Food");
+        expense.setAmount(10.0);
+        expense.setVersion(version);
+        return expense;
+    }
+}
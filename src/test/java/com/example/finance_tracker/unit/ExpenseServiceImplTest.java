@@ -3,6 +3,7 @@ package com.example.finance_tracker.unit;
 import com.example.finance_tracker.model.Expense;
 import com.example.finance_tracker.repository.ExpenseRepository;
 import com.example.finance_tracker.service.CurrencyConverterImpl;
+import com.example.finance_tracker.service.DocumentPatcher;
 import com.example.finance_tracker.service.ExpenseServiceImpl;
 import com.example.finance_tracker.util.CurrencyUtil;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
@@ -14,6 +15,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +31,9 @@ class ExpenseServiceImplTest {
     @Mock
     private CurrencyUtil currencyUtil;
 
+    @Mock
+    private DocumentPatcher documentPatcher;
+
     @InjectMocks
     private ExpenseServiceImpl expenseService;
 
@@ -63,15 +68,15 @@ class ExpenseServiceImplTest {
         expense.setId("123");
         expense.setUserId("user123");
 
-        when(expenseRepository.existsById("123")).thenReturn(true);
-        when(expenseRepository.save(expense)).thenReturn(expense);
+        when(documentPatcher.replace(Expense.class, expense)).thenReturn(new DocumentPatcher.Patch<>(expense, expense, Set.of()));
 
         // Act
         Expense result = expenseService.updateExpense(expense);
 
-        // Assert
+        // Assert: the version is checked and incremented by the update, the document is not saved whole
         assertNotNull(result);
-        verify(expenseRepository, times(1)).save(expense);
+        verify(documentPatcher, times(1)).replace(Expense.class, expense);
+        verify(expenseRepository, never()).save(expense);
     }
 
     @Test
@@ -80,7 +85,7 @@ class ExpenseServiceImplTest {
         Expense expense = new Expense();
         expense.setId("123");
 
-        when(expenseRepository.existsById("123")).thenReturn(false);
+        when(documentPatcher.replace(Expense.class, expense)).thenThrow(new ResourceNotFoundException("Expense not found"));
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -271,4 +276,25 @@ class ExpenseServiceImplTest {
 //        assertEquals("Expense not found", exception.getMessage());
 //    }
 
-}
\ No newline at end of file
+
+    @Test
+    void addExpenses_SetsDefaultsAndInsertsOnce() {
+        // Arrange
+        Expense expense = new Expense();
+        expense.setUserId("user123");
+        expense.setAmount(25.0);
+        List<Expense> expenses = List.of(expense);
+
+        when(expenseRepository.insert(expenses)).thenReturn(expenses);
+
+        // Act
+        List<Expense> result = expenseService.addExpenses(expenses);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("", expense.getDescription());
+        assertNotNull(expense.getTags());
+        assertEquals("", expense.getRecurrencePattern());
+        verify(expenseRepository, times(1)).insert(expenses);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
+import com.example.finance_tracker.model.CurrencyTotals;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.repository.CurrencyTotalsRepository;
+import com.example.finance_tracker.service.GlobalTotalsServiceImpl;
+import com.example.finance_tracker.service.ShardedJobRunner;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GlobalTotalsServiceImplTest {
+
+    @Mock
+    private CurrencyTotalsRepository currencyTotalsRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ShardedJobRunner shardedJobRunner;
+
+    @InjectMocks
+    private GlobalTotalsServiceImpl globalTotalsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void onTransactionChanged_Created_IncrementsCurrencyTotals() {
+        // Arrange
+        Transaction transaction = transaction("Income", 150.0, "USD");
+
+        // Act
+        globalTotalsService.onTransactionChanged(TransactionChangedEvent.created(transaction));
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(CurrencyTotals.class));
+        assertEquals("USD", query.getValue().getQueryObject().get("_id"));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(150.0, inc.get("totalIncome"));
+        assertEquals(1, inc.get("transactionCount"));
+    }
+
+    @Test
+    void onTransactionChanged_Updated_RevertsPreviousAndAppliesCurrent() {
+        // Arrange
+        Transaction previous = transaction("Expense", 80.0, "LKR");
+        Transaction current = transaction("Expense", 100.0, "LKR");
+
+        // Act
+        globalTotalsService.onTransactionChanged(new TransactionChangedEvent(previous, current));
+
+        // Assert
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), update.capture(), eq(CurrencyTotals.class));
+        List<Object> deltas = update.getAllValues().stream()
+                .map(u -> ((Document) u.getUpdateObject().get("$inc")).get("totalExpenses"))
+                .collect(Collectors.toList());
+        assertEquals(List.of(-80.0, 100.0), deltas);
+    }
+
+    @Test
+    void onTransactionChanged_OtherType_Ignored() {
+        // Act
+        globalTotalsService.onTransactionChanged(TransactionChangedEvent.created(transaction("Transfer", 10.0, "USD")));
+
+        // Assert
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void reconcile_IncrementsTotalsByTheirDriftFromAggregation() {
+        // Arrange
+        List<Document> groups = List.of(
+                new Document("_id", new Document("currencyCode", "USD").append("type", "income")).append("total", 300.0).append("count", 3),
+                new Document("_id", new Document("currencyCode", "USD").append("type", "expense")).append("total", 120.0).append("count", 2),
+                new Document("_id", new Document("currencyCode", "LKR").append("type", "expense")).append("total", 70.0).append("count", 1));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Transaction.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(groups, new Document()));
+        when(currencyTotalsRepository.findAll()).thenReturn(List.of(
+                new CurrencyTotals("USD", 290.0, 120.0, 4L, null, null),
+                new CurrencyTotals("EUR", 50.0, 0.0, 1L, null, null)));
+
+        // Act
+        globalTotalsService.reconcile();
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, times(3)).upsert(query.capture(), update.capture(), eq(CurrencyTotals.class));
+        Map<Object, Document> incById = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            Document updateObject = update.getAllValues().get(i).getUpdateObject();
+            assertNull(updateObject.get("$set", Document.class).get("totalIncome"));
+            incById.put(query.getAllValues().get(i).getQueryObject().get("_id"), (Document) updateObject.get("$inc"));
+        }
+        assertEquals(10.0, incById.get("USD").get("totalIncome"));
+        assertEquals(0.0, incById.get("USD").get("totalExpenses"));
+        assertEquals(1L, incById.get("USD").get("transactionCount"));
+        assertEquals(-50.0, incById.get("EUR").get("totalIncome"));
+        assertEquals(-1L, incById.get("EUR").get("transactionCount"));
+        assertEquals(70.0, incById.get("LKR").get("totalExpenses"));
+        assertEquals(1L, incById.get("LKR").get("transactionCount"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(CurrencyTotals.class));
+    }
+
+    @Test
+    void reconcile_TotalsAdjustedDuringReconcile_KeepTheAdjustment() {
+        // Arrange: one income counted by both, a second one added after the totals were read
+        when(currencyTotalsRepository.findAll()).thenReturn(List.of(new CurrencyTotals("USD", 10.0, 0.0, 1L, null, null)));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Transaction.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", new Document("currencyCode", "USD").append("type", "income")).append("total", 10.0).append("count", 1)),
+                        new Document()));
+
+        // Act
+        globalTotalsService.reconcile();
+
+        // Assert: no drift, so the increment the second income made meanwhile is left as it is
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(CurrencyTotals.class));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(0.0, inc.get("totalIncome"));
+        assertEquals(0L, inc.get("transactionCount"));
+        assertFalse(update.getValue().getUpdateObject().get("$set", Document.class).containsKey("totalIncome"));
+    }
+
+    @Test
+    void onTransactionChanged_LowerCaseType_Counted() {
+        // Act
+        globalTotalsService.onTransactionChanged(TransactionChangedEvent.created(transaction("income", 25.0, "USD")));
+
+        // Assert
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(CurrencyTotals.class));
+        Document inc = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(25.0, inc.get("totalIncome"));
+    }
+
+    private static Transaction transaction(String type, double amount, String currencyCode) {
+        Transaction transaction = new Transaction();
+        transaction.setUserId("user123");
+        transaction.setType(type);
+        transaction.setAmount(amount);
+        transaction.setCurrencyCode(currencyCode);
+        return transaction;
+    }
+
+    @Test
+    void onTransactionsCreated_WritesOneUpsertPerCurrency() {
+        // Arrange
+        List<Transaction> transactions = List.of(
+                transaction("Expense", 40.0, "USD"),
+                transaction("Expense", 60.0, "USD"),
+                transaction("Income", 500.0, "USD"),
+                transaction("Expense", 10.0, "EUR"));
+
+        // Act
+        globalTotalsService.onTransactionsCreated(new TransactionsCreatedEvent("user123", transactions));
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, times(2)).upsert(query.capture(), update.capture(), eq(CurrencyTotals.class));
+        int usd = "USD".equals(query.getAllValues().get(0).getQueryObject().get("_id")) ? 0 : 1;
+        Document inc = (Document) update.getAllValues().get(usd).getUpdateObject().get("$inc");
+        assertEquals(100.0, inc.get("totalExpenses"));
+        assertEquals(500.0, inc.get("totalIncome"));
+        assertEquals(3L, inc.get("transactionCount"));
+    }
+}
@@ -1,20 +1,41 @@
 package com.example.finance_tracker.unit;
 
+import com.example.finance_tracker.event.GoalChangedEvent;
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
 import com.example.finance_tracker.model.*;
 import com.example.finance_tracker.repository.*;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
 import com.example.finance_tracker.service.*;
+import com.example.finance_tracker.util.TimeZoneUtil;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class GoalsAndSavingsServiceImplTest {
@@ -40,12 +61,31 @@ class GoalsAndSavingsServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ShardedJobRunner shardedJobRunner;
+
+    @Mock
+    private TimeZoneUtil timeZoneUtil;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
     private GoalsAndSavingsServiceImpl goalsAndSavingsService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        goalsAndSavingsService = new GoalsAndSavingsServiceImpl(goalRepository, transactionService, notificationService,
+                budgetRepository, expenseService, incomeService, userRepository, eventPublisher, shardedJobRunner,
+                timeZoneUtil, mongoTemplate, 1000, new MongoTransactions((MongoTransactionManager) null));
+        when(timeZoneUtil.getZoneIdForUser(any())).thenReturn(ZoneOffset.UTC);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Goal.class)).thenReturn(bulkOperations);
     }
 
     @Test
@@ -106,14 +146,21 @@ class GoalsAndSavingsServiceImplTest {
         goal.setDeadline(new Date(System.currentTimeMillis() + 100000000)); // Future date
 
         when(goalRepository.existsById("123")).thenReturn(true);
-        when(goalRepository.save(goal)).thenReturn(goal);
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class), any(FindAndModifyOptions.class), eq(Goal.class)))
+                .thenReturn(goal);
 
         // Act
         Goal result = goalsAndSavingsService.updateGoal(goal);
 
-        // Assert
+        // Assert: the edited fields are set, not the whole goal, so the running totals are kept
         assertNotNull(result);
-        verify(goalRepository, times(1)).save(goal);
+        verify(goalRepository, never()).save(any(Goal.class));
+        ArgumentCaptor<AggregationUpdate> update = ArgumentCaptor.forClass(AggregationUpdate.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Goal.class));
+        String pipeline = update.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+        assertTrue(pipeline.contains("targetAmount"));
+        assertFalse(pipeline.contains("contributedAmount"));
+        assertFalse(pipeline.contains("manualContribution"));
     }
 
     @Test
@@ -216,22 +263,42 @@ class GoalsAndSavingsServiceImplTest {
     void addManualContribution_Success() {
         // Arrange
         String goalId = "123";
-        Goal goal = new Goal();
-        goal.setId(goalId);
-        goal.setTargetAmount(1000.0);
-        goal.setCurrentAmount(500.0);
+        Goal updated = new Goal();
+        updated.setId(goalId);
+        updated.setUserId("user123");
+        updated.setTargetAmount(1000.0);
+        updated.setCurrentAmount(700.0);
+        updated.setProgressPercentage(70.0);
 
-        when(goalRepository.findById(goalId)).thenReturn(Optional.of(goal));
-        when(goalRepository.save(goal)).thenReturn(goal);
+        ArgumentCaptor<AggregationUpdate> update = ArgumentCaptor.forClass(AggregationUpdate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Goal.class)))
+                .thenReturn(updated);
 
         // Act
         Goal result = goalsAndSavingsService.addManualContribution(goalId, 200.0);
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(700.0, result.getCurrentAmount());
-        assertEquals(70.0, result.getProgressPercentage());
-        verify(goalRepository, times(1)).save(goal);
+        // Assert: one server-side update adds to both amounts and derives the progress from the new amount
+        assertSame(updated, result);
+        String pipeline = update.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+        assertTrue(pipeline.contains("manualContribution=Document{{$add=[$manualContribution, 200.0]}}"), pipeline);
+        assertTrue(pipeline.contains("currentAmount=Document{{$add=[$currentAmount, 200.0]}}"), pipeline);
+        assertTrue(pipeline.indexOf("progressPercentage") > pipeline.indexOf("currentAmount"), pipeline);
+        verify(goalRepository, never()).findById(anyString());
+        verify(goalRepository, never()).save(any(Goal.class));
+        verify(eventPublisher, times(1)).publishEvent(any(GoalChangedEvent.class));
+    }
+
+    @Test
+    void addManualContribution_GoalNotFound_ThrowsException() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class), any(FindAndModifyOptions.class), eq(Goal.class)))
+                .thenReturn(null);
+
+        // Act & Assert
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> goalsAndSavingsService.addManualContribution("missing", 200.0));
+        assertEquals("Goal not found", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
 //    @Test
@@ -286,6 +353,117 @@ class GoalsAndSavingsServiceImplTest {
 //    }
 
 
+    @Test
+    void trackGoalProgress_RecomputesTheAmountOnTheServer() {
+        // Arrange
+        String goalId = "123";
+        Goal goal = new Goal();
+        goal.setId(goalId);
+        goal.setUserId("user123");
+        goal.setName("Car");
+        goal.setTargetAmount(1000.0);
+        goal.setManualContribution(100.0);
+        goal.setContributedAmount(200.0);
+        goal.setDeadline(new Date(System.currentTimeMillis() + 30L * 24 * 60 * 60 * 1000));
+        Budget budget = new Budget();
+        budget.setGoalId(goalId);
+        budget.setLimit(150.0);
+        Goal updated = new Goal();
+        updated.setId(goalId);
+        updated.setUserId("user123");
+        updated.setName("Car");
+        updated.setTargetAmount(1000.0);
+        updated.setCurrentAmount(450.0);
+        updated.setProgressPercentage(45.0);
+        updated.setDeadline(goal.getDeadline());
+
+        when(goalRepository.findById(goalId)).thenReturn(Optional.of(goal));
+        when(budgetRepository.findByGoalId(goalId)).thenReturn(Optional.of(budget));
+        ArgumentCaptor<AggregationUpdate> update = ArgumentCaptor.forClass(AggregationUpdate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Goal.class)))
+                .thenReturn(updated);
+
+        // Act
+        Goal result = goalsAndSavingsService.trackGoalProgress(goalId);
+
+        // Assert: the stored parts are added in the update, not written back from the copy read before
+        assertSame(updated, result);
+        String pipeline = update.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+        assertTrue(pipeline.contains("$manualContribution"), pipeline);
+        assertTrue(pipeline.contains("150.0"), pipeline);
+        assertFalse(pipeline.contains("300.0"), pipeline);
+        verify(goalRepository, never()).save(any(Goal.class));
+        verify(transactionService, never()).sumGoalContributions(anyString());
+        verify(transactionService, never()).getTransactionsByUser(anyString());
+    }
+
+    @Test
+    void trackGoalProgress_WithoutRunningTotal_CountsItOnce() {
+        // Arrange
+        String goalId = "123";
+        Goal goal = new Goal();
+        goal.setId(goalId);
+        goal.setUserId("user123");
+        goal.setName("Car");
+        goal.setTargetAmount(1000.0);
+        goal.setDeadline(new Date(System.currentTimeMillis() + 30L * 24 * 60 * 60 * 1000));
+
+        when(goalRepository.findById(goalId)).thenReturn(Optional.of(goal));
+        when(budgetRepository.findByGoalId(goalId)).thenReturn(Optional.empty());
+        when(transactionService.sumGoalContributions(goalId)).thenReturn(250.0);
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class), any(FindAndModifyOptions.class), eq(Goal.class)))
+                .thenReturn(goal);
+
+        // Act
+        goalsAndSavingsService.trackGoalProgress(goalId);
+
+        // Assert: the total is stored before the update that adds it up
+        InOrder inOrder = inOrder(goalRepository, mongoTemplate);
+        inOrder.verify(goalRepository).initContributedAmount(goalId, 250.0);
+        inOrder.verify(mongoTemplate).findAndModify(any(Query.class), any(AggregationUpdate.class), any(FindAndModifyOptions.class), eq(Goal.class));
+    }
+
+    @Test
+    void onTransactionChanged_AdjustsTheGoalsRunningTotal() {
+        // Arrange
+        Transaction previous = new Transaction();
+        previous.setUserId("user123");
+        previous.setCategory("Goals");
+        previous.setGoalId("goal1");
+        previous.setAmount(100.0);
+        Transaction current = new Transaction();
+        current.setUserId("user123");
+        current.setCategory("Goals");
+        current.setGoalId("goal2");
+        current.setAmount(150.0);
+
+        // Act
+        goalsAndSavingsService.onTransactionChanged(new TransactionChangedEvent(previous, current));
+
+        // Assert
+        verify(goalRepository, times(1)).incrementContributedAmount("goal1", -100.0);
+        verify(goalRepository, times(1)).incrementContributedAmount("goal2", 150.0);
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof GoalChangedEvent changed
+                && "user123".equals(changed.getUserId()) && changed.getGoalId() == null));
+    }
+
+    @Test
+    void onTransactionChanged_OtherCategory_IsIgnored() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setUserId("user123");
+        transaction.setCategory("Food");
+        transaction.setGoalId("goal1");
+        transaction.setAmount(100.0);
+
+        // Act
+        goalsAndSavingsService.onTransactionChanged(TransactionChangedEvent.created(transaction));
+
+        // Assert
+        verify(goalRepository, never()).incrementContributedAmount(anyString(), anyDouble());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void calculateNetSavings_Success() throws ParseException {
         // Arrange
@@ -297,12 +475,13 @@ class GoalsAndSavingsServiceImplTest {
 
         when(incomeService.calculateTotalIncomeInBaseCurrency(userId)).thenReturn(10000.0);
         when(expenseService.calculateTotalExpensesInBaseCurrency(userId)).thenReturn(8000.0);
+        when(transactionService.sumAmountByCategory(userId, "Goals")).thenReturn(1500.0);
 
         // Act
         double result = goalsAndSavingsService.calculateNetSavings(userId, startDate, endDate);
 
-        // Assert
-        assertEquals(2000.0, result);
+        // Assert: the 1500 allocated to goals is among the expenses but is saved, not spent
+        assertEquals(3500.0, result);
     }
 
 //    @Test
@@ -328,20 +507,246 @@ class GoalsAndSavingsServiceImplTest {
 //    }
 
     @Test
-    void calculateTotalSavings_Success() {
+    void allocateSavings_HundredGoals_WritesInBulk() {
         // Arrange
         String userId = "user123";
+        List<Goal> goals = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Goal goal = new Goal();
+            goal.setId("goal" + i);
+            goal.setUserId(userId);
+            goal.setName("Goal " + i);
+            goal.setTargetAmount(i < 50 ? 1000.0 : 3000.0);
+            goal.setContributedAmount(0.0);
+            goal.setDeadline(new Date(System.currentTimeMillis() + 90L * 24 * 60 * 60 * 1000));
+            goals.add(goal);
+        }
+
+        when(goalRepository.findByUserIdAndDeadlineAfter(eq(userId), any(Date.class))).thenReturn(goals);
+        when(budgetRepository.findByGoalIdIn(anyCollection())).thenReturn(Collections.emptyList());
+
+        // Act
+        goalsAndSavingsService.allocateSavings(userId, 20_000.0);
+
+        // Assert: one insert of all shares and one bulk progress update
+        ArgumentCaptor<List<Transaction>> allocations = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, times(1)).addTransactions(allocations.capture());
+        assertEquals(100, allocations.getValue().size());
+        assertEquals(20_000.0, allocations.getValue().stream().mapToDouble(Transaction::getAmount).sum(), 1e-6);
+        assertEquals(100.0, allocations.getValue().get(0).getAmount(), 1e-9);
+        assertEquals(300.0, allocations.getValue().get(99).getAmount(), 1e-9);
+        assertTrue(allocations.getValue().stream().allMatch(t -> "Goals".equals(t.getCategory()) && t.getGoalId() != null));
+        verify(transactionService, never()).addTransaction(any(Transaction.class));
+        verify(bulkOperations, times(100)).updateOne(any(Query.class), any(AggregationUpdate.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(budgetRepository, times(1)).findByGoalIdIn(anyCollection());
+        verify(goalRepository, never()).findById(anyString());
+        verify(goalRepository, never()).save(any(Goal.class));
+        assertEquals(10.0, goals.get(0).getProgressPercentage(), 1e-9);
+        verify(eventPublisher, times(1)).publishEvent(any(GoalChangedEvent.class));
+        verifyNoInteractions(userRepository, notificationService);
+    }
+
+    @Test
+    void allocateSavings_GoalsWithoutTotals_AreCountedWithOneAggregation() {
+        // Arrange
+        String userId = "user123";
+        List<Goal> goals = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Goal goal = new Goal();
+            goal.setId("goal" + i);
+            goal.setUserId(userId);
+            goal.setName("Goal " + i);
+            goal.setTargetAmount(1000.0);
+            goal.setContributedAmount(i < 50 ? null : 0.0);
+            goal.setDeadline(new Date(System.currentTimeMillis() + 90L * 24 * 60 * 60 * 1000));
+            goals.add(goal);
+        }
+        when(goalRepository.findByUserIdAndDeadlineAfter(eq(userId), any(Date.class))).thenReturn(goals);
+        when(budgetRepository.findByGoalIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Transaction.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", "goal0").append("total", 250.0)), new Document()));
+
+        // Act
+        goalsAndSavingsService.allocateSavings(userId, 10_000.0);
+
+        // Assert: the 50 missing totals are counted together, before the allocations are inserted
+        InOrder inOrder = inOrder(mongoTemplate, bulkOperations, transactionService);
+        inOrder.verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq(Transaction.class), eq(Document.class));
+        inOrder.verify(bulkOperations, times(50)).updateOne(any(Query.class), any(Update.class));
+        inOrder.verify(bulkOperations).execute();
+        inOrder.verify(transactionService).addTransactions(anyList());
+        verify(transactionService, never()).sumGoalContributions(anyString());
+        verify(goalRepository, never()).initContributedAmount(anyString(), anyDouble());
+        assertEquals(350.0, goals.get(0).getContributedAmount(), 1e-9);
+    }
+
+    @Test
+    void allocateSavings_GoalReached_SendsOneAlertWithOneUserLookup() {
+        // Arrange
+        String userId = "user123";
+        Goal goal = new Goal();
+        goal.setId("goal1");
+        goal.setUserId(userId);
+        goal.setName("Laptop");
+        goal.setTargetAmount(500.0);
+        goal.setContributedAmount(400.0);
+        goal.setDeadline(new Date(System.currentTimeMillis() + 90L * 24 * 60 * 60 * 1000));
+        User user = new User();
+        user.setEmail("user@example.com");
+
+        when(goalRepository.findByUserIdAndDeadlineAfter(eq(userId), any(Date.class))).thenReturn(List.of(goal));
+        when(budgetRepository.findByGoalIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        goalsAndSavingsService.allocateSavings(userId, 100.0);
+
+        // Assert
+        assertEquals(100.0, goal.getProgressPercentage(), 1e-9);
+        verify(userRepository, times(1)).findById(userId);
+        verify(notificationService, times(1)).sendNotification(argThat(n -> "Goal Achieved".equals(n.getTitle())));
+    }
+
+    @Test
+    void allocateSavings_GoalAlreadyAchieved_IsNotAlertedAgain() {
+        // Arrange
+        String userId = "user123";
+        Goal goal = new Goal();
+        goal.setId("goal1");
+        goal.setUserId(userId);
+        goal.setName("Laptop");
+        goal.setTargetAmount(500.0);
+        goal.setContributedAmount(500.0);
+        goal.setCurrentAmount(500.0);
+        goal.setProgressPercentage(100.0);
+        goal.setDeadline(new Date(System.currentTimeMillis() + 90L * 24 * 60 * 60 * 1000));
+
+        when(goalRepository.findByUserIdAndDeadlineAfter(eq(userId), any(Date.class))).thenReturn(List.of(goal));
+        when(budgetRepository.findByGoalIdIn(anyCollection())).thenReturn(Collections.emptyList());
+
+        // Act
+        goalsAndSavingsService.allocateSavings(userId, 100.0);
+
+        // Assert
+        assertEquals(120.0, goal.getProgressPercentage(), 1e-9);
+        verify(notificationService, never()).sendNotification(any(Notification.class));
+        verify(userRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void trackGoalProgress_GoalAlreadyAchieved_IsNotAlertedAgain() {
+        // Arrange
+        String goalId = "123";
+        Goal goal = new Goal();
+        goal.setId(goalId);
+        goal.setUserId("user123");
+        goal.setName("Car");
+        goal.setTargetAmount(1000.0);
+        goal.setContributedAmount(1000.0);
+        goal.setProgressPercentage(100.0);
+        goal.setDeadline(new Date(System.currentTimeMillis() + 90L * 24 * 60 * 60 * 1000));
+
+        when(goalRepository.findById(goalId)).thenReturn(Optional.of(goal));
+        when(budgetRepository.findByGoalId(goalId)).thenReturn(Optional.empty());
+        when(mongoTemplate.findAndModify(any(Query.class), any(AggregationUpdate.class), any(FindAndModifyOptions.class), eq(Goal.class)))
+                .thenReturn(goal);
+
+        // Act
+        goalsAndSavingsService.trackGoalProgress(goalId);
+
+        // Assert
+        verify(notificationService, never()).sendNotification(any(Notification.class));
+    }
+
+    @Test
+    void onTransactionsCreated_IncrementsGoalsInOneBulk() {
+        // Arrange
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setUserId("user123");
+            transaction.setCategory("Goals");
+            transaction.setGoalId("goal" + (i % 2));
+            transaction.setAmount(50.0);
+            transactions.add(transaction);
+        }
+
+        // Act
+        goalsAndSavingsService.onTransactionsCreated(new TransactionsCreatedEvent("user123", transactions));
+
+        // Assert
+        verify(bulkOperations, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(goalRepository, never()).incrementContributedAmount(anyString(), anyDouble());
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof GoalChangedEvent changed
+                && "user123".equals(changed.getUserId())));
+    }
+
+    @Test
+    void onTransactionsCreated_FailedIncrement_ResetsTheTotalsToBeRecounted() {
+        // Arrange
         Transaction transaction = new Transaction();
-        transaction.setAmount(500.0);
-        transaction.setCategory("Savings");
+        transaction.setUserId("user123");
+        transaction.setCategory("Goals");
+        transaction.setGoalId("goal1");
+        transaction.setAmount(50.0);
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        // Act
+        goalsAndSavingsService.onTransactionsCreated(new TransactionsCreatedEvent("user123", List.of(transaction)));
 
-        when(transactionService.getTransactionsByUser(userId)).thenReturn(Collections.singletonList(transaction));
+        // Assert
+        verify(mongoTemplate).updateMulti(any(Query.class), argThat((Update update) ->
+                update.getUpdateObject().get("$unset", Document.class).containsKey("contributedAmount")), eq(Goal.class));
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof GoalChangedEvent changed
+                && "goal1".equals(changed.getGoalId())));
+    }
+
+    @Test
+    void reconcileContributions_CorrectsOnlyDriftedTotals() {
+        // Arrange
+        Goal accurate = new Goal();
+        accurate.setId("goal1");
+        accurate.setContributedAmount(100.0);
+        Goal drifted = new Goal();
+        drifted.setId("goal2");
+        drifted.setContributedAmount(40.0);
+        when(mongoTemplate.stream(any(Query.class), eq(Goal.class))).thenReturn(Stream.of(accurate, drifted));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Transaction.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", "goal1").append("total", 100.0),
+                        new Document("_id", "goal2").append("total", 90.0)), new Document()));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Goal.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        goalsAndSavingsService.reconcileContributions();
+
+        // Assert: set only if the total is still the one read before the aggregation
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).updateFirst(query.capture(), update.capture(), eq(Goal.class));
+        assertEquals("goal2", query.getValue().getQueryObject().get("_id"));
+        assertEquals(40.0, query.getValue().getQueryObject().get("contributedAmount"));
+        assertEquals(90.0, update.getValue().getUpdateObject().get("$set", Document.class).get("contributedAmount"));
+        verify(bulkOperations, times(1)).updateOne(any(Query.class), any(AggregationUpdate.class));
+    }
+
+    @Test
+    void calculateTotalSavings_Success() {
+        // Arrange
+        String userId = "user123";
+
+        when(transactionService.sumAmountByCategory(userId, "Savings")).thenReturn(500.0);
+        when(transactionService.sumAmountByCategory(userId, "Goals")).thenReturn(250.0);
 
         // Act
         double result = goalsAndSavingsService.calculateTotalSavings(userId);
 
-        // Assert
-        assertEquals(500.0, result);
+        // Assert: savings allocated to goals still count
+        assertEquals(750.0, result);
+        verify(transactionService, never()).getTransactionsByUser(userId);
     }
 
     @Test
@@ -354,7 +759,7 @@ class GoalsAndSavingsServiceImplTest {
         goal.setTargetAmount(1000.0);
 
         when(goalRepository.findById(goalId)).thenReturn(Optional.of(goal));
-        when(transactionService.getTransactionsByUser("user123")).thenReturn(Collections.emptyList());
+        when(transactionService.sumAmountByCategory("user123", "Savings")).thenReturn(0.0);
 
         // Act
         double result = goalsAndSavingsService.calculateRemainingAmountForGoal(goalId);
@@ -381,6 +786,72 @@ class GoalsAndSavingsServiceImplTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void checkAndNotifyNearOverdueGoals_NotifiesGoalsDueWithinAWeek() {
+        // Arrange
+        Goal dueSoon = new Goal();
+        dueSoon.setUserId("user123");
+        dueSoon.setName("Laptop");
+        dueSoon.setDeadline(new Date(System.currentTimeMillis() + 3L * 24 * 60 * 60 * 1000));
+        Goal dueTomorrowish = new Goal();
+        dueTomorrowish.setUserId("user456");
+        dueTomorrowish.setName("Phone");
+        dueTomorrowish.setDeadline(new Date(System.currentTimeMillis() + 2L * 24 * 60 * 60 * 1000));
+        User user = new User();
+        user.setId("user123");
+        user.setEmail("user@example.com");
+        User otherUser = new User();
+        otherUser.setId("user456");
+        otherUser.setEmail("other@example.com");
+
+        ArgumentCaptor<Query> window = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.stream(window.capture(), eq(Goal.class))).thenReturn(Stream.of(dueSoon, dueTomorrowish));
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of(user, otherUser));
+        when(timeZoneUtil.getZoneId(any(User.class))).thenReturn(ZoneOffset.UTC);
+
+        // Act
+        goalsAndSavingsService.checkAndNotifyNearOverdueGoals(JobShard.ALL);
+
+        // Assert: both owners are loaded with one query and the alerts are sent together
+        assertTrue(window.getValue().getQueryObject().containsKey("deadline"));
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(User.class));
+        verify(userRepository, never()).findById(anyString());
+        verify(timeZoneUtil, never()).getZoneIdForUser(anyString());
+        ArgumentCaptor<List<Notification>> alerts = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, times(1)).sendNotifications(alerts.capture());
+        assertEquals(2, alerts.getValue().size());
+        assertTrue(alerts.getValue().get(0).getMessage().contains("Laptop"));
+        assertTrue(alerts.getValue().get(0).getMessage().contains("3 days remaining"));
+        assertEquals("other@example.com", alerts.getValue().get(1).getEmail());
+        verify(notificationService, times(2)).sendEmailNotification(any(Notification.class));
+    }
+
+    @Test
+    void checkAndNotifyNearOverdueGoals_LoadsUsersOncePerPage() {
+        // Arrange: page size 2, five goals of the same shard
+        GoalsAndSavingsServiceImpl service = new GoalsAndSavingsServiceImpl(goalRepository, transactionService, notificationService,
+                budgetRepository, expenseService, incomeService, userRepository, eventPublisher, shardedJobRunner,
+                timeZoneUtil, mongoTemplate, 2, new MongoTransactions((MongoTransactionManager) null));
+        List<Goal> goals = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Goal goal = new Goal();
+            goal.setUserId("user" + i);
+            goal.setName("Goal " + i);
+            goal.setDeadline(new Date(System.currentTimeMillis() + 20L * 24 * 60 * 60 * 1000)); // Outside the week
+            goals.add(goal);
+        }
+
+        when(mongoTemplate.stream(any(Query.class), eq(Goal.class))).thenReturn(goals.stream());
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(Collections.emptyList());
+
+        // Act
+        service.checkAndNotifyNearOverdueGoals(JobShard.ALL);
+
+        // Assert
+        verify(mongoTemplate, times(3)).find(any(Query.class), eq(User.class));
+        verifyNoInteractions(notificationService);
+    }
+
     @Test
     void getCompletedGoals_Success() {
         // Arrange
@@ -435,14 +906,15 @@ class GoalsAndSavingsServiceImplTest {
 
         when(goalRepository.findById(goalId)).thenReturn(Optional.of(goal));
         when(budgetRepository.findById(budgetId)).thenReturn(Optional.of(budget));
-        when(goalRepository.save(goal)).thenReturn(goal);
 
         // Act
         goalsAndSavingsService.linkBudgetToGoal(goalId, budgetId);
 
         // Assert
         assertEquals(budgetId, goal.getBudgetId());
-        verify(goalRepository, times(1)).save(goal);
+        verify(goalRepository, never()).save(any(Goal.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), argThat((Update update) ->
+                budgetId.equals(update.getUpdateObject().get("$set", Document.class).get("budgetId"))), eq(Goal.class));
     }
 
     @Test
@@ -454,13 +926,14 @@ class GoalsAndSavingsServiceImplTest {
         goal.setBudgetId("456");
 
         when(goalRepository.findById(goalId)).thenReturn(Optional.of(goal));
-        when(goalRepository.save(goal)).thenReturn(goal);
 
         // Act
         goalsAndSavingsService.unlinkBudgetFromGoal(goalId);
 
         // Assert
         assertNull(goal.getBudgetId());
-        verify(goalRepository, times(1)).save(goal);
+        verify(goalRepository, never()).save(any(Goal.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), argThat((Update update) ->
+                update.getUpdateObject().containsKey("$unset")), eq(Goal.class));
     }
 }
\ No newline at end of file
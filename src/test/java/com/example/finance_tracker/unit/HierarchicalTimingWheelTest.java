@@ -0,0 +1,84 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.util.HierarchicalTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void advance_ReleasesItemsOnlyAfterTheirTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(MINUTE, 60, 0);
+        wheel.add("soon", 90_000);
+        wheel.add("later", 5 * MINUTE);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(2 * MINUTE - 1, expired::add);
+        assertEquals(List.of(), expired);
+
+        wheel.advance(2 * MINUTE, expired::add);
+        assertEquals(List.of("soon"), expired);
+
+        wheel.advance(6 * MINUTE, expired::add);
+        assertEquals(List.of("soon", "later"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_CascadesFromHigherLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(MINUTE, 60, 0);
+        long inThreeDays = 3 * 24 * 60 * MINUTE + 7 * MINUTE + 30_000;
+        wheel.add("far", inThreeDays);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(inThreeDays, expired::add);
+        assertEquals(List.of(), expired);
+
+        wheel.advance(inThreeDays + MINUTE, expired::add);
+        assertEquals(List.of("far"), expired);
+    }
+
+    @Test
+    void add_OverdueItemFiresOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(MINUTE, 60, 10 * MINUTE);
+        wheel.add("overdue", MINUTE);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(11 * MINUTE, expired::add);
+
+        assertEquals(List.of("overdue"), expired);
+    }
+
+    @Test
+    void advance_ManyItems_EachFiresOnceAndNeverEarly() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(MINUTE, 60, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> dueAt = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            long due = (long) (random.nextDouble() * 30 * 24 * 60 * MINUTE);
+            dueAt.put(i, due);
+            wheel.add(i, due);
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = 0; now <= 31L * 24 * 60 * MINUTE; now += 13 * MINUTE) {
+            long time = now;
+            wheel.advance(time, item -> assertNull(firedAt.put(item, time)));
+        }
+
+        assertEquals(dueAt.size(), firedAt.size());
+        dueAt.forEach((item, due) -> {
+            assertTrue(firedAt.get(item) >= due, "fired early");
+            assertTrue(firedAt.get(item) < due + MINUTE + 13 * MINUTE, "fired late");
+        });
+    }
+}
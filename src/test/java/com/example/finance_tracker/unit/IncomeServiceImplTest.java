@@ -3,6 +3,7 @@ package com.example.finance_tracker.unit;
 import com.example.finance_tracker.model.Income;
 import com.example.finance_tracker.repository.IncomeRepository;
 import com.example.finance_tracker.service.CurrencyConverterImpl;
+import com.example.finance_tracker.service.DocumentPatcher;
 import com.example.finance_tracker.service.IncomeServiceImpl;
 import com.example.finance_tracker.util.CurrencyUtil;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
@@ -14,6 +15,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +31,9 @@ class IncomeServiceImplTest {
     @Mock
     private CurrencyUtil currencyUtil;
 
+    @Mock
+    private DocumentPatcher documentPatcher;
+
     @InjectMocks
     private IncomeServiceImpl incomeService;
 
@@ -64,15 +69,15 @@ class IncomeServiceImplTest {
         income.setId("123");
         income.setUserId("user123");
 
-        when(incomeRepository.existsById("123")).thenReturn(true);
-        when(incomeRepository.save(income)).thenReturn(income);
+        when(documentPatcher.replace(Income.class, income)).thenReturn(new DocumentPatcher.Patch<>(income, income, Set.of()));
 
         // Act
         Income result = incomeService.updateIncome(income);
 
-        // Assert
+        // Assert: the version is checked and incremented by the update, the document is not saved whole
         assertNotNull(result);
-        verify(incomeRepository, times(1)).save(income);
+        verify(documentPatcher, times(1)).replace(Income.class, income);
+        verify(incomeRepository, never()).save(income);
     }
 
     @Test
@@ -81,7 +86,7 @@ class IncomeServiceImplTest {
         Income income = new Income();
         income.setId("123");
 
-        when(incomeRepository.existsById("123")).thenReturn(false);
+        when(documentPatcher.replace(Income.class, income)).thenThrow(new ResourceNotFoundException("Income not found"));
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
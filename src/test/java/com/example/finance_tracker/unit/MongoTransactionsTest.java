@@ -0,0 +1,125 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.service.MongoTransactions;
+import com.mongodb.MongoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MongoTransactionsTest {
+
+    @Mock
+    private MongoTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus status;
+
+    private MongoTransactions mongoTransactions;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(status);
+        mongoTransactions = new MongoTransactions(transactionManager);
+    }
+
+    @Test
+    void execute_CommitsTheWrites() {
+        // Act
+        String result = mongoTransactions.execute(() -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        verify(transactionManager, times(1)).commit(status);
+    }
+
+    @Test
+    void execute_TransientError_RunsTheWritesAgain() {
+        // Arrange
+        MongoException conflict = new MongoException(112, "WriteConflict");
+        conflict.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        String result = mongoTransactions.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new UncategorizedMongoDbException("conflict", conflict);
+            }
+            return "done";
+        });
+
+        // Assert
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+        verify(transactionManager, times(1)).rollback(status);
+        verify(transactionManager, times(1)).commit(status);
+    }
+
+    @Test
+    void execute_OtherError_RolledBackAndThrown() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(UncategorizedMongoDbException.class, () -> mongoTransactions.execute(() -> {
+            attempts.incrementAndGet();
+            throw new UncategorizedMongoDbException("failed", new MongoException("failed"));
+        }));
+        assertEquals(1, attempts.get());
+        verify(transactionManager, times(1)).rollback(status);
+        verify(transactionManager, never()).commit(status);
+    }
+
+    @Test
+    void execute_TransactionsDisabled_RunsTheWritesDirectly() {
+        // Act
+        String result = new MongoTransactions((MongoTransactionManager) null).execute(() -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void afterCommit_InsideATransaction_RunsOnceItCommits() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            mongoTransactions.afterCommit(runs::incrementAndGet);
+            assertEquals(0, runs.get());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void afterCommit_OutsideATransaction_RunsRightAway() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        mongoTransactions.afterCommit(runs::incrementAndGet);
+
+        // Assert
+        assertEquals(1, runs.get());
+    }
+}
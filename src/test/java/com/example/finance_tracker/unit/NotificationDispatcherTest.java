@@ -0,0 +1,483 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.service.NotificationDispatcher;
+import com.example.finance_tracker.service.NotificationStream;
+import com.example.finance_tracker.service.UnreadNotificationCounter;
+import com.example.finance_tracker.service.email.EmailSender;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private EmailSender emailSender;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private UnreadNotificationCounter unreadCounter;
+
+    @Mock
+    private NotificationStream notificationStream;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)).thenReturn(bulkOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void flush_WritesQueuedNotificationsInBatches() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 3, 200, 0);
+        dispatcher.start();
+        List<Integer> batchSizes = recordBatchSizes();
+
+        // Act
+        for (int i = 0; i < 7; i++) {
+            dispatcher.enqueue(notification("user" + i));
+        }
+        dispatcher.flush();
+
+        // Assert
+        assertEquals(7, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 3), "Batches must not exceed the batch size: " + batchSizes);
+        assertEquals(0, dispatcher.getQueueSize());
+        assertEquals(7.0, meterRegistry.counter("notifications.written").count());
+    }
+
+    @Test
+    void writer_FlushesAPartialBatchAfterTheInterval() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 50, 20, 0);
+        dispatcher.start();
+
+        // Act
+        dispatcher.enqueue(notification("user1"));
+        dispatcher.enqueue(notification("user2"));
+
+        // Assert
+        ArgumentCaptor<Collection<Notification>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(mongoTemplate, timeout(2000).atLeastOnce()).insert(batch.capture(), eq(Notification.class));
+        assertEquals(2, batch.getAllValues().stream().mapToInt(Collection::size).sum());
+    }
+
+    @Test
+    void flush_CountsCreatedNotificationsAsUnread() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 200, 0);
+        dispatcher.start();
+        ArgumentCaptor<Map<String, Long>> created = ArgumentCaptor.forClass(Map.class);
+
+        // Act
+        dispatcher.enqueue(notification("user1"));
+        dispatcher.enqueue(notification("user1"));
+        dispatcher.enqueue(notification("user2"));
+        dispatcher.flush();
+
+        // Assert
+        verify(unreadCounter, atLeastOnce()).increment(created.capture());
+        Map<String, Long> total = new HashMap<>();
+        created.getAllValues().forEach(byUser -> byUser.forEach((userId, count) -> total.merge(userId, count, Long::sum)));
+        assertEquals(Map.of("user1", 2L, "user2", 1L), total);
+    }
+
+    @Test
+    void write_PublishesNotificationsOnceWritten() {
+        // Arrange: not started, so the notifications are written inline
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 200, 0);
+        Notification notification = notification("user1");
+        Notification stored = notification("user2");
+        stored.setId("n1");
+        stored.setOccurrences(3);
+        stored.setDedupeKey("user2|BUDGET_ALERT|Budget Exceeded:Food|2025-10");
+        Notification repeat = notification("user2");
+        repeat.setDedupeKey(stored.getDedupeKey());
+        when(mongoTemplate.find(any(Query.class), eq(Notification.class))).thenReturn(List.of(stored));
+
+        // Act
+        dispatcher.enqueueAll(List.of(notification, repeat));
+
+        // Assert: the repeat is published as the stored notification it was coalesced into
+        InOrder inOrder = inOrder(mongoTemplate, notificationStream);
+        inOrder.verify(mongoTemplate).insert(anyCollection(), eq(Notification.class));
+        inOrder.verify(notificationStream).publish(notification);
+        inOrder.verify(notificationStream).publish(stored);
+        verify(notificationStream, never()).publish(repeat);
+    }
+
+    @Test
+    void enqueue_WhenQueueIsFull_WritesInlineAndCountsOverflow() {
+        // Arrange: the writer is blocked on its first batch, so the queue fills up
+        dispatcher = newDispatcher(Runnable::run, 1, 1, 200, 0);
+        Object gate = new Object();
+        when(mongoTemplate.insert(anyCollection(), eq(Notification.class))).thenAnswer(invocation -> {
+            if (!Thread.currentThread().getName().equals("notification-writer")) {
+                return invocation.getArgument(0);
+            }
+            synchronized (gate) {
+                gate.wait(2000);
+            }
+            return invocation.getArgument(0);
+        });
+        dispatcher.start();
+        dispatcher.enqueue(notification("user1"));
+        verify(mongoTemplate, timeout(2000)).insert(anyCollection(), eq(Notification.class));
+        dispatcher.enqueue(notification("user2"));
+
+        // Act
+        dispatcher.enqueue(notification("user3"));
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter("notifications.overflow").count());
+        verify(mongoTemplate, times(2)).insert(anyCollection(), eq(Notification.class));
+        synchronized (gate) {
+            gate.notifyAll();
+        }
+    }
+
+    @Test
+    void enqueueAll_WhenQueueFills_WritesTheRestInOneBatch() {
+        // Arrange: the writer is blocked on its first batch, so only one more notification fits in the queue
+        dispatcher = newDispatcher(Runnable::run, 1, 1, 200, 0);
+        Object gate = new Object();
+        List<Integer> inlineBatchSizes = new ArrayList<>();
+        when(mongoTemplate.insert(anyCollection(), eq(Notification.class))).thenAnswer(invocation -> {
+            Collection<?> batch = invocation.getArgument(0);
+            if (!Thread.currentThread().getName().equals("notification-writer")) {
+                inlineBatchSizes.add(batch.size());
+                return batch;
+            }
+            synchronized (gate) {
+                gate.wait(2000);
+            }
+            return batch;
+        });
+        dispatcher.start();
+        dispatcher.enqueue(notification("user1"));
+        verify(mongoTemplate, timeout(2000)).insert(anyCollection(), eq(Notification.class));
+
+        // Act
+        dispatcher.enqueueAll(List.of(notification("user2"), notification("user3"), notification("user4"), notification("user5")));
+
+        // Assert
+        assertEquals(List.of(3), inlineBatchSizes);
+        assertEquals(3.0, meterRegistry.counter("notifications.overflow").count());
+        synchronized (gate) {
+            gate.notifyAll();
+        }
+    }
+
+    @Test
+    void write_Failure_IsCountedAndDoesNotReachTheCaller() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 200, 0);
+        dispatcher.start();
+        when(mongoTemplate.insert(anyCollection(), eq(Notification.class)))
+                .thenThrow(new DataAccessResourceFailureException("Mongo unavailable"));
+
+        // Act
+        dispatcher.enqueue(notification("user1"));
+        dispatcher.enqueue(notification("user2"));
+        dispatcher.flush();
+
+        // Assert
+        assertEquals(2.0, meterRegistry.counter("notifications.write.failures").count());
+        assertEquals(2.0, meterRegistry.counter("notifications.write.retries").count());
+        verify(mongoTemplate, times(3)).insert(anyCollection(), eq(Notification.class));
+        verify(unreadCounter).increment(Map.of());
+    }
+
+    @Test
+    void write_TransientFailure_IsRetried() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 200, 0);
+        dispatcher.start();
+        when(mongoTemplate.insert(anyCollection(), eq(Notification.class)))
+                .thenThrow(new DataAccessResourceFailureException("Mongo unavailable"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        dispatcher.enqueue(notification("user1"));
+        dispatcher.flush();
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter("notifications.written").count());
+        assertEquals(0.0, meterRegistry.counter("notifications.write.failures").count());
+        verify(unreadCounter).increment(Map.of("user1", 1L));
+        verify(notificationStream, times(1)).publish(any(Notification.class));
+    }
+
+    @Test
+    void write_RetryAfterPartialInsert_InsertsOnlyTheRest() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 200, 0);
+        dispatcher.start();
+        Notification first = notification("user1");
+        Notification second = notification("user2");
+        List<Collection<?>> attempts = new ArrayList<>();
+        when(mongoTemplate.insert(anyCollection(), eq(Notification.class))).thenAnswer(invocation -> {
+            attempts.add(new ArrayList<>((Collection<?>) invocation.getArgument(0)));
+            if (attempts.size() == 1) {
+                throw new DataAccessResourceFailureException("Connection reset");
+            }
+            return invocation.getArgument(0);
+        });
+        // The failed attempt stored the first one before the connection dropped
+        when(mongoTemplate.find(any(Query.class), eq(Notification.class))).thenAnswer(invocation -> List.of(first));
+
+        // Act
+        dispatcher.enqueueAll(List.of(first, second));
+        dispatcher.flush();
+
+        // Assert
+        assertNotNull(first.getId());
+        assertEquals(List.of(second), attempts.get(1));
+        verify(unreadCounter).increment(Map.of("user1", 1L, "user2", 1L));
+    }
+
+    @Test
+    void enqueue_SetsCreatedAt() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 60_000, 0);
+        Notification notification = notification("user1");
+
+        // Act
+        dispatcher.enqueue(notification);
+
+        // Assert
+        assertNotNull(notification.getCreatedAt());
+    }
+
+    @Test
+    void sendEmail_DeliversThroughTheSender() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 60_000, 0);
+        Notification notification = notification("user1");
+        notification.setEmail("user1@example.com");
+
+        // Act
+        dispatcher.sendEmail(notification);
+
+        // Assert
+        verify(emailSender).send("user1@example.com", "Budget Exceeded", "Message for user1");
+    }
+
+    @Test
+    void sendEmail_WithoutAddress_DoesNothing() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 60_000, 0);
+
+        // Act
+        dispatcher.sendEmail(notification("user1"));
+
+        // Assert
+        verifyNoInteractions(emailSender);
+    }
+
+    @Test
+    void sendEmail_WhenExecutorIsFull_DropsAndCounts() {
+        // Arrange
+        dispatcher = newDispatcher(task -> {
+            throw new RejectedExecutionException("full");
+        }, 100, 10, 60_000, 0);
+        Notification notification = notification("user1");
+        notification.setEmail("user1@example.com");
+
+        // Act
+        dispatcher.sendEmail(notification);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter("notifications.email.rejected").count());
+        verifyNoInteractions(emailSender);
+    }
+
+    @Test
+    void sendEmail_SenderFailure_IsCounted() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 60_000, 0);
+        doThrow(new IllegalStateException("SMTP down")).when(emailSender).send(anyString(), anyString(), anyString());
+        Notification notification = notification("user1");
+        notification.setEmail("user1@example.com");
+
+        // Act
+        dispatcher.sendEmail(notification);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter("notifications.email.failures").count());
+    }
+
+    @Test
+    void replayedAlerts_AreStoredOncePerKey() {
+        // Arrange: 1,000 budget checks raising the same alerts for 20 user/category pairs
+        dispatcher = newDispatcher(Runnable::run, 10_000, 100, 200, 0);
+        Map<String, Integer> occurrencesByKey = new HashMap<>();
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            String key = ((Query) invocation.getArgument(0)).getQueryObject().getString("dedupeKey");
+            Document inc = ((Update) invocation.getArgument(1)).getUpdateObject().get("$inc", Document.class);
+            synchronized (occurrencesByKey) {
+                occurrencesByKey.merge(key, inc.getInteger("occurrences"), Integer::sum);
+            }
+            return bulkOperations;
+        });
+        dispatcher.start();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            Notification notification = notification("user" + (i % 5));
+            notification.setDedupeKey(Notification.dedupeKey(notification.getUserId(), "BUDGET_ALERT",
+                    "Budget Exceeded:category" + (i % 4), "2025-10"));
+            dispatcher.enqueue(notification);
+        }
+        dispatcher.flush();
+
+        // Assert: one document per key, counting every occurrence
+        verify(mongoTemplate, never()).insert(anyCollection(), eq(Notification.class));
+        assertEquals(20, occurrencesByKey.size());
+        assertEquals(1000, occurrencesByKey.values().stream().mapToInt(Integer::intValue).sum());
+        assertTrue(meterRegistry.counter("notifications.coalesced").count() > 0);
+    }
+
+    @Test
+    void upsert_DuplicateKeyRace_IsRetried() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 200, 0);
+        dispatcher.start();
+        BulkWriteError duplicate = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0);
+        MongoBulkWriteException cause = new MongoBulkWriteException(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                List.of(duplicate), null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("duplicate", cause));
+        Notification notification = notification("user1");
+        notification.setDedupeKey("user1|BUDGET_ALERT|Budget Exceeded:Food|2025-10");
+
+        // Act
+        dispatcher.enqueue(notification);
+        dispatcher.flush();
+
+        // Assert
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(Notification.class));
+        assertEquals(0.0, meterRegistry.counter("notifications.write.failures").count());
+    }
+
+    @Test
+    void upsert_RepeatOfReadNotification_MarksItUnreadAndCountsIt() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 200, 0);
+        dispatcher.start();
+        Notification stored = notification("user1");
+        stored.setId("n1");
+        stored.setRead(true);
+        when(mongoTemplate.find(any(Query.class), eq(Notification.class))).thenReturn(List.of(stored));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Notification.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        Notification repeat = notification("user1");
+        repeat.setDedupeKey("user1|BUDGET_ALERT|Budget Exceeded:Food|2025-10");
+
+        // Act
+        dispatcher.enqueue(repeat);
+        dispatcher.flush();
+
+        // Assert
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(argThat((Query query) -> Boolean.TRUE.equals(query.getQueryObject().get("read"))),
+                update.capture(), eq(Notification.class));
+        assertEquals(false, update.getValue().getUpdateObject().get("$set", Document.class).get("read"));
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("readAt"));
+        verify(unreadCounter).increment(Map.of("user1", 1L));
+        assertFalse(stored.isRead());
+    }
+
+    @Test
+    void sendEmail_SameKey_IsSentOnce() {
+        // Arrange
+        dispatcher = newDispatcher(Runnable::run, 100, 10, 60_000, 0);
+        Notification first = notification("user1");
+        first.setEmail("user1@example.com");
+        first.setDedupeKey("user1|GOAL_ALERT|Goal Nearing Deadline:goal1|2025-10-19");
+        Notification repeat = notification("user1");
+        repeat.setEmail("user1@example.com");
+        repeat.setDedupeKey(first.getDedupeKey());
+
+        // Act
+        dispatcher.sendEmail(first);
+        dispatcher.sendEmail(repeat);
+
+        // Assert
+        verify(emailSender, times(1)).send(anyString(), anyString(), anyString());
+        assertEquals(1.0, meterRegistry.counter("notifications.email.deduplicated").count());
+    }
+
+    private NotificationDispatcher newDispatcher(Executor emailExecutor, int capacity, int batchSize,
+                                                 long flushIntervalMs, long offerTimeoutMs) {
+        return new NotificationDispatcher(mongoTemplate, emailSender, unreadCounter, notificationStream, emailExecutor, meterRegistry,
+                capacity, batchSize, flushIntervalMs, offerTimeoutMs, 100, 3, 1);
+    }
+
+    private List<Integer> recordBatchSizes() {
+        List<Integer> sizes = new ArrayList<>();
+        when(mongoTemplate.insert(anyCollection(), eq(Notification.class))).thenAnswer(invocation -> {
+            Collection<?> batch = invocation.getArgument(0);
+            synchronized (sizes) {
+                sizes.add(batch.size());
+            }
+            return batch;
+        });
+        return sizes;
+    }
+
+    private static Notification notification(String userId) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setTitle("Budget Exceeded");
+        notification.setMessage("Message for " + userId);
+        return notification;
+    }
+}
@@ -1,20 +1,32 @@
 package com.example.finance_tracker.unit;
 
 import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.model.NotificationInbox;
 import com.example.finance_tracker.repository.NotificationRepository;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
+import com.example.finance_tracker.service.NotificationDispatcher;
 import com.example.finance_tracker.service.NotificationServiceImpl;
+import com.example.finance_tracker.service.UnreadNotificationCounter;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class NotificationServiceImplTest {
@@ -22,6 +34,15 @@ class NotificationServiceImplTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UnreadNotificationCounter unreadCounter;
+
     @InjectMocks
     private NotificationServiceImpl notificationService;
 
@@ -37,13 +58,29 @@ class NotificationServiceImplTest {
         notification.setUserId("123");
         notification.setMessage("Test notification");
 
-        when(notificationRepository.save(notification)).thenReturn(notification);
-
         // Act
         notificationService.sendNotification(notification);
 
         // Assert
-        verify(notificationRepository, times(1)).save(notification);
+        verify(notificationDispatcher, times(1)).enqueue(notification);
+        verify(notificationRepository, never()).save(notification);
+    }
+
+    @Test
+    void sendNotifications_EnqueuesTogether() {
+        // Arrange
+        Notification first = new Notification();
+        first.setUserId("123");
+        Notification second = new Notification();
+        second.setUserId("456");
+        List<Notification> notifications = List.of(first, second);
+
+        // Act
+        notificationService.sendNotifications(notifications);
+
+        // Assert
+        verify(notificationDispatcher, times(1)).enqueueAll(notifications);
+        verify(notificationDispatcher, never()).enqueue(any(Notification.class));
     }
 
     @Test
@@ -57,7 +94,7 @@ class NotificationServiceImplTest {
         notificationService.sendEmailNotification(notification);
 
         // Assert
-        // Verify that the email logic is executed (e.g., System.out.println)
+        verify(notificationDispatcher, times(1)).sendEmail(notification);
     }
 
     @Test
@@ -77,27 +114,86 @@ class NotificationServiceImplTest {
     }
 
     @Test
-    void markNotificationAsRead_Success() {
+    void getInbox_ReturnsPageWithUnreadCount() {
         // Arrange
         Notification notification = new Notification();
-        notification.setId("123");
-        notification.setRead(false);
+        notification.setUserId("123");
+        PageRequest pageRequest = PageRequest.of(1, 20);
+
+        when(notificationRepository.findByUserIdOrderByReadAscCreatedAtDesc("123", pageRequest))
+                .thenReturn(new SliceImpl<>(List.of(notification), pageRequest, true));
+        when(unreadCounter.get("123")).thenReturn(7L);
+
+        // Act
+        NotificationInbox inbox = notificationService.getInbox("123", 1, 20, false);
+
+        // Assert
+        assertEquals(1, inbox.getNotifications().size());
+        assertEquals(7L, inbox.getUnreadCount());
+        assertEquals(1, inbox.getPage());
+        assertEquals(20, inbox.getSize());
+        assertTrue(inbox.isHasNext());
+    }
+
+    @Test
+    void getInbox_UnreadOnly_ClampsPageSize() {
+        // Arrange
+        PageRequest pageRequest = PageRequest.of(0, 100);
+
+        when(notificationRepository.findByUserIdAndReadOrderByCreatedAtDesc("123", false, pageRequest))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), pageRequest, false));
+
+        // Act
+        NotificationInbox inbox = notificationService.getInbox("123", -1, 5000, true);
+
+        // Assert
+        assertEquals(100, inbox.getSize());
+        assertFalse(inbox.isHasNext());
+        verify(notificationRepository, never()).findByUserIdOrderByReadAscCreatedAtDesc(anyString(), any());
+    }
+
+    @Test
+    void markNotificationAsRead_Success() {
+        // Arrange
+        Notification previous = new Notification();
+        previous.setId("123");
+        previous.setUserId("456");
+        previous.setRead(false);
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Notification.class)))
+                .thenReturn(previous);
 
-        when(notificationRepository.findById("123")).thenReturn(Optional.of(notification));
-        when(notificationRepository.save(notification)).thenReturn(notification);
+        // Act
+        notificationService.markNotificationAsRead("123");
+
+        // Assert
+        verify(unreadCounter, times(1)).decrement("456", 1);
+        verify(notificationRepository, never()).save(any());
+    }
+
+    @Test
+    void markNotificationAsRead_AlreadyRead_KeepsUnreadCount() {
+        // Arrange
+        Notification previous = new Notification();
+        previous.setId("123");
+        previous.setUserId("456");
+        previous.setRead(true);
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Notification.class)))
+                .thenReturn(previous);
 
         // Act
         notificationService.markNotificationAsRead("123");
 
         // Assert
-        assertTrue(notification.isRead());
-        verify(notificationRepository, times(1)).save(notification);
+        verify(unreadCounter, never()).decrement(anyString(), anyLong());
     }
 
     @Test
     void markNotificationAsRead_NotificationNotFound() {
         // Arrange
-        when(notificationRepository.findById("123")).thenReturn(Optional.empty());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Notification.class)))
+                .thenReturn(null);
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -108,25 +204,69 @@ class NotificationServiceImplTest {
     }
 
     @Test
-    void isOwner_Success() {
+    void markAsRead_GivenIds_UpdatesOnlyUnreadNotificationsOfTheUser() {
         // Arrange
-        Notification notification = new Notification();
-        notification.setId("123");
-        notification.setUserId("456");
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.updateMulti(query.capture(), any(Update.class), eq(Notification.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+        // Act
+        long marked = notificationService.markAsRead("456", List.of("1", "2", "3"));
 
-        when(notificationRepository.findById("123")).thenReturn(Optional.of(notification));
+        // Assert
+        assertEquals(2, marked);
+        Document filter = query.getValue().getQueryObject();
+        assertEquals("456", filter.get("userId"));
+        assertEquals(false, filter.get("read"));
+        assertEquals(List.of("1", "2", "3"), filter.get("_id", Document.class).get("$in"));
+        verify(unreadCounter, times(1)).decrement("456", 2L);
+    }
+
+    @Test
+    void markAsRead_WithoutIds_UpdatesAllUnreadNotificationsOfTheUser() {
+        // Arrange
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.updateMulti(query.capture(), any(Update.class), eq(Notification.class)))
+                .thenReturn(UpdateResult.acknowledged(5, 5L, null));
+
+        // Act
+        long marked = notificationService.markAsRead("456", null);
+
+        // Assert
+        assertEquals(5, marked);
+        assertFalse(query.getValue().getQueryObject().containsKey("_id"));
+        verify(unreadCounter, times(1)).decrement("456", 5L);
+    }
+
+    @Test
+    void getUnreadCount_ReadsTheCounter() {
+        // Arrange
+        when(unreadCounter.get("456")).thenReturn(3L);
+
+        // Act
+        long unread = notificationService.getUnreadCount("456");
+
+        // Assert
+        assertEquals(3L, unread);
+    }
+
+    @Test
+    void isOwner_Success() {
+        // Arrange
+        when(mongoTemplate.exists(any(Query.class), eq(Notification.class))).thenReturn(true);
 
         // Act
         boolean result = notificationService.isOwner("123", "456");
 
         // Assert
         assertTrue(result);
+        verify(mongoTemplate, never()).findById(anyString(), eq(Notification.class));
     }
 
     @Test
     void isOwner_NotificationNotFound() {
         // Arrange
-        when(notificationRepository.findById("123")).thenReturn(Optional.empty());
+        when(mongoTemplate.exists(any(Query.class), eq(Notification.class))).thenReturn(false);
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -139,11 +279,7 @@ class NotificationServiceImplTest {
     @Test
     void isOwner_NotOwner() {
         // Arrange
-        Notification notification = new Notification();
-        notification.setId("123");
-        notification.setUserId("456");
-
-        when(notificationRepository.findById("123")).thenReturn(Optional.of(notification));
+        when(mongoTemplate.exists(any(Query.class), eq(Notification.class))).thenReturn(false, true);
 
         // Act
         boolean result = notificationService.isOwner("123", "789");
@@ -151,4 +287,4 @@ class NotificationServiceImplTest {
         // Assert
         assertFalse(result);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.service.NotificationStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationStreamTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void publish_SendsToTheUsersStreamsOnly() {
+        // Arrange
+        NotificationStream stream = newStream(Runnable::run, 32, 5, 15_000);
+        RecordingEmitter user1 = new RecordingEmitter();
+        RecordingEmitter user2 = new RecordingEmitter();
+        stream.register("user1", user1);
+        stream.register("user2", user2);
+
+        // Act
+        stream.publish(notification("user1", "Budget Exceeded"));
+
+        // Assert
+        assertEquals(1, user1.events.size());
+        assertTrue(user1.events.get(0).contains("event:notification"));
+        assertTrue(user1.events.get(0).contains("Budget Exceeded"));
+        assertTrue(user2.events.isEmpty());
+        assertEquals(1.0, meterRegistry.counter("notifications.stream.pushed").count());
+    }
+
+    @Test
+    void publish_SlowStream_KeepsOnlyTheNewestBufferedNotifications() {
+        // Arrange: nothing is written until the executor runs the queued drain
+        List<Runnable> pending = new ArrayList<>();
+        NotificationStream stream = newStream(pending::add, 2, 5, 15_000);
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.register("user1", emitter);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            stream.publish(notification("user1", "Alert " + i));
+        }
+        pending.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, pending.size(), "One drain task per stream");
+        assertEquals(2, emitter.events.size());
+        assertTrue(emitter.events.get(0).contains("Alert 3"));
+        assertTrue(emitter.events.get(1).contains("Alert 4"));
+        assertEquals(3.0, meterRegistry.counter("notifications.stream.dropped").count());
+    }
+
+    @Test
+    void publish_ExecutorFull_IsCountedAndRetriedWithTheNextNotification() {
+        // Arrange
+        boolean[] reject = {true};
+        NotificationStream stream = newStream(task -> {
+            if (reject[0]) {
+                throw new RejectedExecutionException("full");
+            }
+            task.run();
+        }, 32, 5, 15_000);
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.register("user1", emitter);
+
+        // Act
+        stream.publish(notification("user1", "First"));
+        reject[0] = false;
+        stream.publish(notification("user1", "Second"));
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter("notifications.stream.rejected").count());
+        assertEquals(2, emitter.events.size());
+    }
+
+    @Test
+    void send_ClosedStream_IsRemoved() {
+        // Arrange
+        NotificationStream stream = newStream(Runnable::run, 32, 5, 15_000);
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        stream.register("user1", emitter);
+
+        // Act
+        stream.publish(notification("user1", "Budget Exceeded"));
+
+        // Assert
+        assertEquals(0, stream.getSubscriberCount("user1"));
+        assertEquals(0, stream.getSubscriberCount());
+    }
+
+    @Test
+    void register_OverTheLimit_ClosesTheOldestStream() {
+        // Arrange
+        NotificationStream stream = newStream(Runnable::run, 32, 2, 15_000);
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        RecordingEmitter third = new RecordingEmitter();
+
+        // Act
+        stream.register("user1", first);
+        stream.register("user1", second);
+        stream.register("user1", third);
+        stream.publish(notification("user1", "Budget Exceeded"));
+
+        // Assert
+        assertEquals(2, stream.getSubscriberCount("user1"));
+        assertTrue(first.events.isEmpty());
+        assertEquals(1, second.events.size());
+        assertEquals(1, third.events.size());
+    }
+
+    @Test
+    void sendHeartbeats_OnlyWritesToIdleStreams() throws InterruptedException {
+        // Arrange
+        NotificationStream stream = newStream(Runnable::run, 32, 5, 20);
+        RecordingEmitter idle = new RecordingEmitter();
+        stream.register("user1", idle);
+        Thread.sleep(50);
+        RecordingEmitter active = new RecordingEmitter();
+        stream.register("user2", active);
+
+        // Act
+        stream.sendHeartbeats();
+
+        // Assert
+        assertEquals(1, idle.events.size());
+        assertTrue(idle.events.get(0).contains(":heartbeat"));
+        assertTrue(active.events.isEmpty());
+    }
+
+    @Test
+    void publish_WithManyIdleSubscribers_OnlyTouchesTheTargetUser() {
+        // Arrange: 50,000 idle subscribers on one instance
+        NotificationStream stream = newStream(Runnable::run, 32, 5, 15_000);
+        for (int i = 0; i < 50_000; i++) {
+            stream.register("idle" + i, new SseEmitter(0L));
+        }
+        RecordingEmitter target = new RecordingEmitter();
+        stream.register("target", target);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            stream.publish(notification("target", "Alert " + i));
+        }
+
+        // Assert
+        assertEquals(50_001, stream.getSubscriberCount());
+        assertEquals(50_001.0, meterRegistry.get("notifications.stream.subscribers").gauge().value());
+        assertEquals(1000, target.events.size());
+    }
+
+    private NotificationStream newStream(Executor executor, int bufferSize, int maxPerUser, long heartbeatMs) {
+        return new NotificationStream(executor, meterRegistry, 60_000, bufferSize, maxPerUser, heartbeatMs);
+    }
+
+    private static Notification notification(String userId, String title) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setTitle(title);
+        notification.setMessage("Message for " + userId);
+        return notification;
+    }
+
+    /**
+     * Keeps the text of each event instead of writing it to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder event = new StringBuilder();
+            Set<DataWithMediaType> parts = builder.build();
+            for (DataWithMediaType part : parts) {
+                event.append(part.getData());
+            }
+            events.add(event.toString());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.metrics.QueryProfiler;
+import com.example.finance_tracker.metrics.QueryShape;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryProfilerTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryProfiler profiler;
+    private int requestId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        profiler = new QueryProfiler(meterRegistry, true, 100, 0.0, 10, 60_000, 5);
+    }
+
+    @Test
+    void shape_StripsLiteralsAndKeepsSort() {
+        // Arrange
+        BsonDocument command = BsonDocument.parse("{find: 'transactions', filter: {userId: 'user123', "
+                + "date: {$gte: {$date: 0}}, category: {$in: ['Food', 'Rent']}}, sort: {date: -1}, limit: 5}");
+
+        // Act
+        String shape = QueryShape.of("find", command);
+
+        // Assert
+        assertEquals("{\"userId\": ?, \"date\": {\"$gte\": ?}, \"category\": {\"$in\": [?]}} sort {\"date\": -1}", shape);
+        assertFalse(shape.contains("user123"));
+        assertEquals("transactions", QueryShape.collection("find", command, "finance"));
+    }
+
+    @Test
+    void run_SameShapeDifferentValues_AggregatedTogether() {
+        // Act
+        run("{find: 'transactions', filter: {userId: 'user1'}}", 2, "{cursor: {firstBatch: [{}, {}], id: 0}}");
+        run("{find: 'transactions', filter: {userId: 'user2'}}", 4, "{cursor: {firstBatch: [{}], id: 0}}");
+        run("{count: 'goals', query: {userId: 'user1'}}", 1, "{n: 3}");
+
+        // Assert
+        List<QueryProfiler.ShapeStats> top = profiler.top(10);
+        assertEquals(2, top.size());
+        assertEquals("transactions", top.get(0).collection());
+        assertEquals(2, top.get(0).count());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(6), top.get(0).totalNanos());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(4), top.get(0).maxNanos());
+        assertEquals(3, top.get(0).documents());
+        assertEquals(3, top.get(1).documents());
+    }
+
+    @Test
+    void run_OverThreshold_KeptAsSlowQuery() {
+        // Act
+        run("{find: 'transactions', filter: {userId: 'user1'}}", 250, "{cursor: {firstBatch: [], id: 0}}");
+        run("{find: 'transactions', filter: {userId: 'user1'}}", 5, "{cursor: {firstBatch: [], id: 0}}");
+
+        // Assert
+        assertEquals(1, profiler.slowQueries().size());
+        assertEquals(250.0, profiler.slowQueries().get(0).durationMs());
+        assertEquals("{\"userId\": ?}", profiler.slowQueries().get(0).shape());
+        assertEquals(1.0, meterRegistry.counter("mongodb.queries.slow").count());
+    }
+
+    @Test
+    void run_MoreShapesThanTheBound_CountedTogether() {
+        // Act
+        for (int i = 0; i < 15; i++) {
+            run("{find: 'transactions', filter: {field" + i + ": 1}}", 1, "{cursor: {firstBatch: [], id: 0}}");
+        }
+
+        // Assert
+        List<QueryProfiler.ShapeStats> top = profiler.top(20);
+        assertEquals(11, top.size());
+        assertEquals(15, top.stream().mapToLong(QueryProfiler.ShapeStats::count).sum());
+    }
+
+    @Test
+    void run_Disabled_RecordsNothing() {
+        // Arrange
+        profiler.setEnabled(false);
+
+        // Act
+        run("{find: 'transactions', filter: {userId: 'user1'}}", 250, "{cursor: {firstBatch: [], id: 0}}");
+
+        // Assert
+        assertTrue(profiler.top(10).isEmpty());
+        assertTrue(profiler.slowQueries().isEmpty());
+    }
+
+    private void run(String json, long millis, String response) {
+        BsonDocument command = BsonDocument.parse(json);
+        String commandName = command.getFirstKey();
+        int id = ++requestId;
+        profiler.commandStarted(new CommandStartedEvent(null, 1, id, CONNECTION, "finance", commandName, command));
+        profiler.commandSucceeded(new CommandSucceededEvent(null, 1, id, CONNECTION, "finance", commandName,
+                BsonDocument.parse(response), TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.service.RecentTransactionsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentTransactionsCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecentTransactionsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RecentTransactionsCache(meterRegistry, 3, 10, 60_000);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getRecent_SecondReadServedFromBuffer() {
+        // Arrange
+        IntFunction<List<Transaction>> loader = loader(List.of(transaction("t3", 3), transaction("t2", 2), transaction("t1", 1)));
+
+        // Act
+        cache.getRecent("user123", 3, loader);
+        List<Transaction> result = cache.getRecent("user123", 2, loader);
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(List.of("t3", "t2"), ids(result));
+        assertEquals(1.0, meterRegistry.counter("transactions.recent.cache.requests", "result", "miss").count());
+        assertEquals(1.0, meterRegistry.counter("transactions.recent.cache.requests", "result", "hit").count());
+    }
+
+    @Test
+    void onTransactionChanged_Created_KeepsNewestAndDropsOldest() {
+        // Arrange
+        IntFunction<List<Transaction>> loader = loader(List.of(transaction("t3", 3), transaction("t2", 2), transaction("t1", 1)));
+        cache.getRecent("user123", 3, loader);
+
+        // Act
+        cache.onTransactionChanged(TransactionChangedEvent.created(transaction("t4", 4)));
+        cache.onTransactionChanged(TransactionChangedEvent.created(transaction("t2b", 2)));
+        cache.onTransactionChanged(TransactionChangedEvent.created(transaction("t0", 0)));
+
+        // Assert
+        assertEquals(List.of("t4", "t3", "t2"), ids(cache.getRecent("user123", 3, loader)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onTransactionChanged_Deleted_ReloadsOnNextRead() {
+        // Arrange
+        Transaction deleted = transaction("t1", 1);
+        IntFunction<List<Transaction>> loader = loader(List.of(deleted));
+        cache.getRecent("user123", 3, loader);
+
+        // Act
+        cache.onTransactionChanged(TransactionChangedEvent.deleted(deleted));
+        cache.getRecent("user123", 3, loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getRecent_LimitAboveCapacity_BypassesBuffer() {
+        // Arrange
+        List<Integer> requestedLimits = new ArrayList<>();
+
+        // Act
+        cache.getRecent("user123", 10, limit -> {
+            requestedLimits.add(limit);
+            return List.of();
+        });
+
+        // Assert
+        assertEquals(List.of(10), requestedLimits);
+    }
+
+    @Test
+    void getRecent_BufferOlderThanTtl_Reloads() {
+        // Arrange
+        cache = new RecentTransactionsCache(meterRegistry, 3, 10, 0);
+        IntFunction<List<Transaction>> loader = loader(List.of(transaction("t1", 1)));
+        cache.getRecent("user123", 3, loader);
+
+        // Act
+        cache.getRecent("user123", 3, loader);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getRecent_ReturnsCopies() {
+        // Arrange
+        IntFunction<List<Transaction>> loader = loader(List.of(transaction("t1", 1)));
+        Transaction returned = cache.getRecent("user123", 3, loader).get(0);
+
+        // Act
+        returned.setAmount(999);
+        returned.getDate().setTime(0);
+
+        // Assert
+        Transaction cached = cache.getRecent("user123", 3, loader).get(0);
+        assertEquals(0, cached.getAmount());
+        assertEquals(86_400_000L, cached.getDate().getTime());
+        assertEquals(1, loads.get());
+    }
+
+    private IntFunction<List<Transaction>> loader(List<Transaction> transactions) {
+        return limit -> {
+            loads.incrementAndGet();
+            return transactions.subList(0, Math.min(limit, transactions.size()));
+        };
+    }
+
+    private static Transaction transaction(String id, long day) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setUserId("user123");
+        transaction.setDate(new Date(day * 86_400_000L));
+        return transaction;
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void onTransactionsCreated_AddsAllToTheBuffer() {
+        // Arrange
+        IntFunction<List<Transaction>> loader = loader(List.of(transaction("t3", 3), transaction("t2", 2), transaction("t1", 1)));
+        cache.getRecent("user123", 3, loader);
+
+        // Act
+        cache.onTransactionsCreated(new TransactionsCreatedEvent("user123", List.of(transaction("t5", 5), transaction("t4", 4))));
+
+        // Assert
+        assertEquals(List.of("t5", "t4", "t3"), ids(cache.getRecent("user123", 3, loader)));
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.util.RecurrenceRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Colombo");
+
+    @Test
+    void legacyPatterns_MatchPreviousBehaviour() {
+        ZonedDateTime start = ZonedDateTime.of(2025, 1, 31, 9, 0, 0, 0, ZONE);
+
+        assertEquals(start.plusDays(1), RecurrenceRule.parse("daily").next(start));
+        assertEquals(start.plusWeeks(1), RecurrenceRule.parse("weekly").next(start));
+        assertEquals(ZonedDateTime.of(2025, 2, 28, 9, 0, 0, 0, ZONE), RecurrenceRule.parse("monthly").next(start));
+    }
+
+    @Test
+    void everyNDays_AndBiweekly() {
+        ZonedDateTime start = ZonedDateTime.of(2025, 3, 1, 9, 0, 0, 0, ZONE);
+
+        assertEquals(start.plusDays(10), RecurrenceRule.parse("FREQ=DAILY;INTERVAL=10").next(start));
+        assertEquals(start.plusWeeks(2), RecurrenceRule.parse("RRULE:FREQ=WEEKLY;INTERVAL=2").next(start));
+        assertEquals(start.plusHours(6), RecurrenceRule.parse("FREQ=HOURLY;INTERVAL=6").next(start));
+    }
+
+    @Test
+    void lastBusinessDayOfMonth() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1");
+
+        // 31 May 2025 is a Saturday, so the last business day is Friday the 30th
+        ZonedDateTime may = rule.next(ZonedDateTime.of(2025, 5, 1, 9, 0, 0, 0, ZONE));
+        assertEquals(ZonedDateTime.of(2025, 5, 30, 9, 0, 0, 0, ZONE), may);
+        assertEquals(ZonedDateTime.of(2025, 6, 30, 9, 0, 0, 0, ZONE), rule.next(may));
+    }
+
+    @Test
+    void lastDayOfMonth_AndSkippedMonths() {
+        ZonedDateTime start = ZonedDateTime.of(2025, 1, 31, 9, 0, 0, 0, ZONE);
+
+        assertEquals(ZonedDateTime.of(2025, 2, 28, 9, 0, 0, 0, ZONE), RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=-1").next(start));
+        // Months without a 31st are skipped
+        assertEquals(ZonedDateTime.of(2025, 3, 31, 9, 0, 0, 0, ZONE), RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=31").next(start));
+    }
+
+    @Test
+    void invalidPatterns_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("sometimes"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;INTERVAL=0"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY;BYMONTHDAY=1"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=MONTHLY;BYSETPOS=-1"));
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.model.Transaction;
+import com.example.finance_tracker.service.JobShard;
+import com.example.finance_tracker.service.MongoTransactions;
+import com.example.finance_tracker.service.NotificationService;
+import com.example.finance_tracker.service.RecurrenceServiceImpl;
+import com.example.finance_tracker.service.RecurrenceWheel;
+import com.example.finance_tracker.service.ShardedJobRunner;
+import com.example.finance_tracker.service.TransactionService;
+import com.example.finance_tracker.util.TimeZoneUtil;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecurrenceServiceImplTest {
+
+    private static final long DAY = 86_400_000L;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private ShardedJobRunner shardedJobRunner;
+
+    @Mock
+    private RecurrenceWheel recurrenceWheel;
+
+    @Mock
+    private TimeZoneUtil timeZoneUtil;
+
+    // Transactions disabled, so the writes run directly against the mocks
+    @Spy
+    private MongoTransactions mongoTransactions = new MongoTransactions((MongoTransactionManager) null);
+
+    @InjectMocks
+    private RecurrenceServiceImpl recurrenceService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(timeZoneUtil.getZoneIdForUser(any())).thenReturn(ZoneOffset.UTC);
+        when(timeZoneUtil.getDefaultZoneId()).thenReturn(ZoneOffset.UTC);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processTemplate_CatchesUpMissedOccurrencesInOneBatch() {
+        // Arrange
+        Date base = Date.from(Instant.parse("2025-01-01T08:00:00Z"));
+        Transaction template = template(base, new Date(base.getTime() + 3 * DAY));
+        Date now = new Date(base.getTime() + 7 * DAY + 1);
+
+        // Act
+        int generated = recurrenceService.processTemplate(template, now);
+
+        // Assert
+        assertEquals(5, generated);
+        ArgumentCaptor<List<Transaction>> batch = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(1)).insert(batch.capture());
+        List<Transaction> occurrences = batch.getValue();
+        assertEquals(new Date(base.getTime() + 3 * DAY), occurrences.get(0).getDate());
+        assertEquals(new Date(base.getTime() + 7 * DAY), occurrences.get(4).getDate());
+        assertFalse(occurrences.get(0).isIsRecurring());
+        assertEquals("tmpl1", occurrences.get(0).getRecurrenceTemplateId());
+        assertEquals("tmpl1:2025-01-04T08:00:00Z", occurrences.get(0).getOccurrenceKey());
+        verify(transactionService, times(1)).recordInsertedTransactions(occurrences);
+        verify(notificationService, times(1)).sendNotification(any(Notification.class));
+    }
+
+    @Test
+    void processTemplate_AdvancesNextRunAtWithCompareAndSet() {
+        // Arrange
+        Date base = Date.from(Instant.parse("2025-01-01T08:00:00Z"));
+        Date nextRunAt = new Date(base.getTime() + DAY);
+        Transaction template = template(base, nextRunAt);
+
+        // Act
+        recurrenceService.processTemplate(template, new Date(base.getTime() + 2 * DAY));
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), eq(Transaction.class));
+        assertEquals(nextRunAt, query.getValue().getQueryObject().get("nextRunAt"));
+        Document set = (Document) update.getValue().getUpdateObject().get("$set");
+        assertEquals(new Date(base.getTime() + 3 * DAY), set.get("nextRunAt"));
+        assertFalse(set.containsKey("IsRecurring"));
+    }
+
+    @Test
+    void processTemplate_PastEndDate_StopsRecurring() {
+        // Arrange
+        Date base = Date.from(Instant.parse("2025-01-01T08:00:00Z"));
+        Transaction template = template(base, new Date(base.getTime() + DAY));
+        template.setRecurrenceEndDate(new Date(base.getTime() + 2 * DAY));
+
+        // Act
+        int generated = recurrenceService.processTemplate(template, new Date(base.getTime() + 10 * DAY));
+
+        // Assert
+        assertEquals(2, generated);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), eq(Transaction.class));
+        assertEquals(false, ((Document) update.getValue().getUpdateObject().get("$set")).get("IsRecurring"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processTemplate_AlreadyGeneratedOccurrencesAreSkipped() {
+        // Arrange
+        Date base = Date.from(Instant.parse("2025-01-01T08:00:00Z"));
+        Transaction template = template(base, new Date(base.getTime() + DAY));
+        BulkWriteError duplicate = new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0);
+        MongoBulkWriteException cause = new MongoBulkWriteException(BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                List.of(duplicate), null, new ServerAddress(), Set.of());
+        when(bulkOperations.execute()).thenThrow(new BulkOperationException("duplicate", cause));
+
+        // Act
+        int generated = recurrenceService.processTemplate(template, new Date(base.getTime() + 2 * DAY + 1));
+
+        // Assert
+        assertEquals(1, generated);
+        ArgumentCaptor<List<Transaction>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, times(1)).recordInsertedTransactions(recorded.capture());
+        assertEquals(List.of("tmpl1:2025-01-03T08:00:00Z"),
+                recorded.getValue().stream().map(Transaction::getOccurrenceKey).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processTemplate_StoredOccurrenceWithoutRecord_IsRecorded() {
+        // Arrange: an earlier run inserted the first occurrence and failed before recording it
+        Date base = Date.from(Instant.parse("2025-01-01T08:00:00Z"));
+        Transaction template = template(base, new Date(base.getTime() + DAY));
+        Transaction stored = recurrenceService.createRecurringTransaction(template, new Date(base.getTime() + DAY));
+        stored.setId("occ1");
+        when(mongoTemplate.find(any(Query.class), eq(Transaction.class))).thenReturn(List.of(stored));
+        when(transactionService.findUnrecordedTransactions(List.of(stored))).thenReturn(List.of(stored));
+
+        // Act
+        int generated = recurrenceService.processTemplate(template, new Date(base.getTime() + 2 * DAY + 1));
+
+        // Assert: only the new occurrence is inserted, and both get their records in the same transaction
+        assertEquals(1, generated);
+        ArgumentCaptor<List<Transaction>> batch = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(1)).insert(batch.capture());
+        assertEquals(List.of("tmpl1:2025-01-03T08:00:00Z"), batch.getValue().stream().map(Transaction::getOccurrenceKey).toList());
+        ArgumentCaptor<List<Transaction>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, times(1)).recordInsertedTransactions(recorded.capture());
+        assertEquals(List.of("tmpl1:2025-01-03T08:00:00Z", "tmpl1:2025-01-02T08:00:00Z"),
+                recorded.getValue().stream().map(Transaction::getOccurrenceKey).toList());
+        verify(mongoTransactions, times(1)).execute(any());
+    }
+
+    @Test
+    void processTemplate_NotDue_InsertsNothing() {
+        // Arrange
+        Date base = Date.from(Instant.parse("2025-01-01T08:00:00Z"));
+        Transaction template = template(base, new Date(base.getTime() + DAY));
+
+        // Act
+        int generated = recurrenceService.processTemplate(template, base);
+
+        // Assert
+        assertEquals(0, generated);
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Transaction.class));
+        verifyNoInteractions(notificationService, transactionService);
+    }
+
+    @Test
+    void processDueTemplates_NothingDue_DoesNotTouchDatabase() {
+        // Arrange
+        when(recurrenceWheel.pollDue(any(Date.class))).thenReturn(List.of());
+
+        // Act
+        recurrenceService.processDueTemplates();
+
+        // Assert
+        verifyNoInteractions(shardedJobRunner, mongoTemplate);
+    }
+
+    @Test
+    void processDueTemplates_RunsDueTemplatesAndReschedulesThem() {
+        // Arrange
+        Transaction due = template(new Date(), new Date());
+        when(recurrenceWheel.pollDue(any(Date.class))).thenReturn(List.of(due));
+
+        // Act
+        recurrenceService.processDueTemplates();
+
+        // Assert
+        verify(shardedJobRunner, times(1)).runSharded(eq("recurrence-tick"), anyString(), any());
+        verify(recurrenceWheel, times(1)).reload(List.of("tmpl1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processDueTemplates_ReadsDueTemplatesOfLeasedShardFromDatabase() {
+        // Arrange
+        when(recurrenceWheel.pollDue(any(Date.class))).thenReturn(List.of(template(new Date(), new Date())));
+        when(mongoTemplate.stream(any(Query.class), eq(Transaction.class))).thenReturn(Stream.empty());
+        doAnswer(invocation -> {
+            invocation.getArgument(2, Consumer.class).accept(new JobShard(1, 4));
+            return null;
+        }).when(shardedJobRunner).runSharded(eq("recurrence-tick"), anyString(), any());
+
+        // Act
+        recurrenceService.processDueTemplates();
+
+        // Assert
+        // Templates scheduled only in another instance's wheel are found too, as the shard is not limited to polled ids
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(1)).stream(query.capture(), eq(Transaction.class));
+        Document filter = query.getValue().getQueryObject();
+        assertFalse(filter.containsKey("_id"));
+        assertTrue(filter.containsKey("nextRunAt"));
+        assertEquals(new Document("$gte", 256).append("$lt", 512), filter.get("shardBucket"));
+    }
+
+    @Test
+    void calculateNextRecurrenceDate_SupportsRulePatterns() {
+        // Arrange
+        Date date = Date.from(Instant.parse("2025-01-01T08:00:00Z"));
+
+        // Act & Assert
+        assertEquals(new Date(date.getTime() + 3 * DAY), recurrenceService.calculateNextRecurrenceDate("FREQ=DAILY;INTERVAL=3", date));
+        assertEquals(new Date(date.getTime() + 14 * DAY), recurrenceService.calculateNextRecurrenceDate("biweekly", date));
+        assertThrows(IllegalArgumentException.class, () -> recurrenceService.calculateNextRecurrenceDate("fortnightly", date));
+    }
+
+    private static Transaction template(Date date, Date nextRunAt) {
+        Transaction template = new Transaction();
+        template.setId("tmpl1");
+        template.setUserId("user123");
+        template.setType("Expense");
+        template.setAmount(20.0);
+        template.setDate(date);
+        template.setIsRecurring(true);
+        template.setRecurrencePattern("daily");
+        template.setNextRunAt(nextRunAt);
+        return template;
+    }
+}
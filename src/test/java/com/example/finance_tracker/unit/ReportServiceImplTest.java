@@ -6,12 +6,14 @@ import com.example.finance_tracker.repository.BudgetRepository;
 import com.example.finance_tracker.repository.ExpenseRepository;
 import com.example.finance_tracker.service.*;
 import com.example.finance_tracker.util.CurrencyUtil;
+import com.example.finance_tracker.util.TimeZoneUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.ZoneId;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,12 +42,16 @@ class ReportServiceImplTest {
     @Mock
     private CurrencyUtil currencyUtil;
 
+    @Mock
+    private TimeZoneUtil timeZoneUtil;
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(timeZoneUtil.getZoneIdForUser(anyString())).thenReturn(ZoneId.systemDefault());
     }
 
     @Test
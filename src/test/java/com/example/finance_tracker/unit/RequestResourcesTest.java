@@ -0,0 +1,112 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.metrics.MongoResourceListener;
+import com.example.finance_tracker.metrics.RequestResources;
+import com.example.finance_tracker.metrics.ResourceUsage;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestResourcesTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MongoResourceListener listener = new MongoResourceListener();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void mongoCommands_InsideRequest_CountedWithDocumentsAndBytes() {
+        // Arrange
+        RawBsonDocument reply = raw("{cursor: {firstBatch: [{_id: 1}, {_id: 2}], id: 0}, ok: 1}");
+
+        // Act
+        ResourceUsage usage;
+        try (RequestResources resources = RequestResources.open()) {
+            run("{find: 'transactions', filter: {userId: 'user123'}}", reply);
+            run("{insert: 'transactions', documents: [{amount: 5}]}", raw("{n: 1, ok: 1}"));
+            run("{hello: 1}", raw("{ok: 1}"));
+            usage = resources.usage();
+        }
+
+        // Assert
+        assertEquals(2, usage.mongoCommands());
+        assertEquals(2, usage.documentsRead());
+        assertEquals(1, usage.documentsWritten());
+        assertTrue(usage.bytesSent() > 0);
+        assertTrue(usage.bytesReceived() >= reply.getByteBuffer().remaining());
+    }
+
+    @Test
+    void mongoCommands_OutsideRequest_NotCounted() {
+        // Act
+        run("{find: 'transactions', filter: {}}", raw("{cursor: {firstBatch: [], id: 0}, ok: 1}"));
+
+        // Assert
+        assertNull(RequestResources.current());
+    }
+
+    @Test
+    void propagate_WorkOnAnotherThread_CountedAgainstSubmittingRequest() throws Exception {
+        // Act
+        ResourceUsage usage;
+        try (RequestResources resources = RequestResources.open()) {
+            CompletableFuture.runAsync(() -> {
+                RequestResources.exchangeRateCall();
+                run("{count: 'goals', query: {}}", raw("{n: 4, ok: 1}"));
+            }, task -> executor.execute(RequestResources.propagate(task))).get();
+            RequestResources.exchangeRateCall();
+            usage = resources.usage();
+        }
+
+        // Assert
+        assertEquals(2, usage.exchangeRateCalls());
+        assertEquals(1, usage.mongoCommands());
+        assertNull(RequestResources.current());
+        assertNull(executor.submit(RequestResources::current).get());
+    }
+
+    @Test
+    void header_RoundTrips() {
+        // Arrange
+        ResourceUsage usage = new ResourceUsage(3, 42, 1, 1210, 8934, 2, 2150, 412360, 5400);
+
+        // Act
+        ResourceUsage parsed = ResourceUsage.parse(usage.toHeader());
+
+        // Assert
+        assertEquals(usage, parsed);
+        assertEquals("mongo=3, docsRead=42, docsWritten=1, bytesOut=1210, bytesIn=8934, fx=2, cpuUs=2150, "
+                + "allocBytes=412360, wallUs=5400", usage.toHeader());
+    }
+
+    private void run(String json, BsonDocument reply) {
+        BsonDocument command = BsonDocument.parse(json);
+        String commandName = command.getFirstKey();
+        listener.commandStarted(new CommandStartedEvent(null, 1, 1, CONNECTION, "finance", commandName, command));
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1, 1, CONNECTION, "finance", commandName, reply, 1_000));
+    }
+
+    private static RawBsonDocument raw(String json) {
+        return new RawBsonDocument(BsonDocument.parse(json), new BsonDocumentCodec());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.finance_tracker.unit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.example.finance_tracker.logging.SamplingTurboFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private LoggerContext context;
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setRates("com.example.hot=0, com.example.hot.Kept=1.0, not-a-rate, com.example.half=abc");
+        filter.start();
+    }
+
+    @Test
+    void decide_SampledOutLogger_DeniesInfoAndKeepsWarnings() {
+        // Arrange
+        Logger logger = context.getLogger("com.example.hot.Service");
+
+        // Act & Assert
+        assertEquals(FilterReply.DENY, decide(logger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR));
+    }
+
+    @Test
+    void decide_LongestMatchingNameApplies() {
+        // Act & Assert
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("com.example.hot.Kept"), Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("com.example.hotter.Service"), Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("com.example.half.Service"), Level.INFO));
+    }
+
+    @Test
+    void decide_BelowLoggerLevel_LeftToTheLevelCheck() {
+        // Act & Assert
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("com.example.hot.Service"), Level.DEBUG));
+    }
+
+    @Test
+    void decide_GuardedStatement_IsSampledOnce() {
+        // Arrange
+        SamplingTurboFilter halfFilter = new SamplingTurboFilter();
+        halfFilter.setContext(context);
+        halfFilter.setRates("com.example.half=0.5");
+        halfFilter.start();
+        Logger logger = context.getLogger("com.example.half.Service");
+        int checks = 20_000;
+        int logged = 0;
+
+        // Act: isInfoEnabled() consults the filter without a format, then info() with one
+        for (int i = 0; i < checks; i++) {
+            if (halfFilter.decide(null, logger, Level.INFO, null, null, null) == FilterReply.NEUTRAL
+                    && halfFilter.decide(null, logger, Level.INFO, "message", null, null) == FilterReply.NEUTRAL) {
+                logged++;
+            }
+        }
+
+        // Assert: about half pass, not a quarter
+        assertEquals(0.5, (double) logged / checks, 0.03);
+    }
+
+    @Test
+    void decide_UnguardedStatement_IsSampledAtTheRate() {
+        // Arrange
+        SamplingTurboFilter halfFilter = new SamplingTurboFilter();
+        halfFilter.setContext(context);
+        halfFilter.setRates("com.example.half=0.5");
+        halfFilter.start();
+        Logger logger = context.getLogger("com.example.half.Service");
+        int calls = 20_000;
+        int logged = 0;
+
+        // Act
+        for (int i = 0; i < calls; i++) {
+            if (halfFilter.decide(null, logger, Level.INFO, "message", null, null) == FilterReply.NEUTRAL) {
+                logged++;
+            }
+        }
+
+        // Assert
+        assertEquals(0.5, (double) logged / calls, 0.03);
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "message", null, null);
+    }
+}
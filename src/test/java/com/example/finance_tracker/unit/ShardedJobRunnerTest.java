@@ -0,0 +1,145 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.model.SchedulerLease;
+import com.example.finance_tracker.service.JobShard;
+import com.example.finance_tracker.service.ShardedJobRunner;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShardedJobRunnerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ShardedJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        runner = new ShardedJobRunner(mongoTemplate, Runnable::run, "node-a");
+        ReflectionTestUtils.setField(runner, "shardCount", 4);
+        ReflectionTestUtils.setField(runner, "pollIntervalMs", 10L);
+    }
+
+    @Test
+    void runSharded_AllLeasesAcquired_RunsEveryShardOnce() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(SchedulerLease.class)))
+                .thenReturn(new SchedulerLease("job:0", "node-a", new Date(), null));
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+
+        // Act
+        runner.runSharded("job", "run1", shard -> assertTrue(processed.add(shard.getIndex())));
+
+        // Assert
+        assertEquals(Set.of(0, 1, 2, 3), processed);
+        verify(mongoTemplate, times(4)).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(SchedulerLease.class));
+    }
+
+    @Test
+    void runSharded_ShardsHeldElsewhere_SkipsThemUntilCompleted() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(SchedulerLease.class)))
+                .thenAnswer(invocation -> {
+                    String leaseId = (String) invocation.getArgument(0, Query.class).getQueryObject().get("_id");
+                    if (leaseId.endsWith(":1") || leaseId.endsWith(":3")) {
+                        throw new DuplicateKeyException("held by node-b");
+                    }
+                    return new SchedulerLease(leaseId, "node-a", new Date(), null);
+                });
+        when(mongoTemplate.find(any(Query.class), eq(SchedulerLease.class))).thenReturn(List.of(
+                new SchedulerLease("job:1", "node-b", new Date(), "run1"),
+                new SchedulerLease("job:3", "node-b", new Date(), "run1")));
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+
+        // Act
+        runner.runSharded("job", "run1", shard -> processed.add(shard.getIndex()));
+
+        // Assert
+        assertEquals(Set.of(0, 2), processed);
+    }
+
+    @Test
+    void runSharded_LeaseLost_RevokesRunningShard() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        runner = new ShardedJobRunner(mongoTemplate, executor, "node-a");
+        ReflectionTestUtils.setField(runner, "shardCount", 1);
+        ReflectionTestUtils.setField(runner, "pollIntervalMs", 10L);
+        ReflectionTestUtils.setField(runner, "maxRunMinutes", 0L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(SchedulerLease.class)))
+                .thenReturn(new SchedulerLease("job:0", "node-a", new Date(), null))
+                .thenReturn(null);
+        // The renewal finds the lease held by another instance
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(SchedulerLease.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        AtomicBoolean revoked = new AtomicBoolean();
+
+        // Act
+        try {
+            runner.runSharded("job", "run1", shard -> {
+                long deadline = System.currentTimeMillis() + 5_000;
+                while (!shard.isRevoked() && System.currentTimeMillis() < deadline) {
+                    Thread.onSpinWait();
+                }
+                revoked.set(shard.isRevoked());
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertTrue(revoked.get());
+    }
+
+    @Test
+    void runKey_StartedLateOrEarly_IsTheScheduledFireTime() {
+        // Arrange
+        CronExpression daily = CronExpression.parse("0 0 8 * * ?");
+        CronExpression everyMinute = CronExpression.parse("0 * * * * ?");
+        ZonedDateTime eight = ZonedDateTime.of(2026, 3, 2, 8, 0, 0, 0, ZoneOffset.UTC);
+
+        // Act & Assert
+        assertEquals("2026-03-02T08:00:00Z", ShardedJobRunner.runKey(daily, eight.plusSeconds(45)));
+        assertEquals("2026-03-02T08:00:00Z", ShardedJobRunner.runKey(daily, eight.plusHours(3)));
+        assertEquals("2026-03-02T08:00:00Z", ShardedJobRunner.runKey(daily, eight.minusNanos(5_000_000)));
+        assertEquals("2026-03-02T08:01:00Z", ShardedJobRunner.runKey(everyMinute, eight.plusSeconds(61)));
+    }
+
+    @Test
+    void jobShard_PartitionsUsersDisjointly() {
+        // Arrange
+        List<JobShard> shards = List.of(new JobShard(0, 3), new JobShard(1, 3), new JobShard(2, 3));
+
+        // Act & Assert
+        for (String userId : List.of("user1", "user2", "user3", "65f0c0ffee", "")) {
+            assertEquals(1, shards.stream().filter(shard -> shard.owns(userId)).count());
+        }
+        assertTrue(JobShard.ALL.owns("anyone"));
+        assertEquals(JobShard.BUCKETS, shards.stream().mapToInt(shard -> shard.getEndBucket() - shard.getFirstBucket()).sum());
+    }
+}
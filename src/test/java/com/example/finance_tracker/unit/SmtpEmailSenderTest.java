@@ -0,0 +1,141 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.service.email.SmtpEmailSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpEmailSenderTest {
+
+    private SmtpStub smtpStub;
+    private SmtpEmailSender emailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpStub = new SmtpStub();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpStub.getPort());
+        emailSender = new SmtpEmailSender(mailSender, "no-reply@finance-tracker.local");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpStub.close();
+    }
+
+    @Test
+    void send_DeliversMessageToSmtpServer() {
+        // Act
+        emailSender.send("user@example.com", "Budget Exceeded", "Your budget for Food has been exceeded.");
+
+        // Assert
+        assertEquals(1, smtpStub.getMessages().size());
+        SmtpStub.Message message = smtpStub.getMessages().get(0);
+        assertEquals("<no-reply@finance-tracker.local>", message.from);
+        assertEquals(List.of("<user@example.com>"), message.recipients);
+        assertTrue(message.data.contains("Subject: Budget Exceeded"));
+        assertTrue(message.data.contains("Your budget for Food has been exceeded."));
+    }
+
+    /**
+     * Minimal single-connection-at-a-time SMTP server that accepts every message and keeps it in memory.
+     */
+    static class SmtpStub implements AutoCloseable {
+
+        static class Message {
+            String from;
+            final List<String> recipients = new ArrayList<>();
+            String data;
+        }
+
+        private final ServerSocket serverSocket;
+        private final List<Message> messages = new CopyOnWriteArrayList<>();
+        private final Thread acceptor;
+
+        SmtpStub() throws IOException {
+            serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+            acceptor = new Thread(this::acceptLoop, "smtp-stub");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        List<Message> getMessages() {
+            return messages;
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    converse(socket);
+                } catch (IOException e) {
+                    // Closed
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+            reply(out, "220 localhost SMTP stub");
+            Message message = new Message();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM:")) {
+                    message.from = line.substring(10).trim();
+                    reply(out, "250 OK");
+                } else if (command.startsWith("RCPT TO:")) {
+                    message.recipients.add(line.substring(8).trim());
+                    reply(out, "250 OK");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append('\n');
+                    }
+                    message.data = data.toString();
+                    messages.add(message);
+                    message = new Message();
+                    reply(out, "250 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.example.finance_tracker.exception.CurrencyConversionException;
 import com.example.finance_tracker.service.CurrencyConverter;
 import com.example.finance_tracker.service.ReportServiceImpl;
 import com.example.finance_tracker.util.CurrencyUtil;
+import com.example.finance_tracker.util.TimeZoneUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,6 +32,9 @@ public class SpendingTrendsCalculationTest {
     @Mock
     private CurrencyUtil currencyUtil;
 
+    @Mock
+    private TimeZoneUtil timeZoneUtil;
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
@@ -52,6 +57,7 @@ public class SpendingTrendsCalculationTest {
 
         // Configure mocks
         when(currencyUtil.getBaseCurrencyForUser(userId)).thenReturn("USD");
+        when(timeZoneUtil.getZoneIdForUser(userId)).thenReturn(ZoneId.systemDefault());
 
         // Setup currency conversion
         when(currencyConverter.convertToBaseCurrency(eq("USD"), anyDouble(), eq("USD")))
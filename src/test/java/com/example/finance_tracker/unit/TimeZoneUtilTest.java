@@ -0,0 +1,97 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.model.User;
+import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.util.TimeZoneUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TimeZoneUtilTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TimeZoneUtil timeZoneUtil;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(timeZoneUtil, "defaultTimeZone", "UTC");
+    }
+
+    @Test
+    void getZoneIdForUser_RepeatedLookups_LoadUserOnce() {
+        // Arrange
+        when(userRepository.findById("user123")).thenReturn(Optional.of(user("user123", "Asia/Colombo")));
+
+        // Act
+        ZoneId first = timeZoneUtil.getZoneIdForUser("user123");
+        ZoneId second = timeZoneUtil.getZoneIdForUser("user123");
+
+        // Assert
+        assertEquals(ZoneId.of("Asia/Colombo"), first);
+        assertEquals(first, second);
+        verify(userRepository, times(1)).findById("user123");
+    }
+
+    @Test
+    void getZoneIdForUser_Evicted_ReloadsChangedZone() {
+        // Arrange
+        when(userRepository.findById("user123"))
+                .thenReturn(Optional.of(user("user123", "Asia/Colombo")))
+                .thenReturn(Optional.of(user("user123", "Europe/London")));
+        timeZoneUtil.getZoneIdForUser("user123");
+
+        // Act
+        timeZoneUtil.evict("user123");
+        ZoneId zone = timeZoneUtil.getZoneIdForUser("user123");
+
+        // Assert
+        assertEquals(ZoneId.of("Europe/London"), zone);
+        verify(userRepository, times(2)).findById("user123");
+    }
+
+    @Test
+    void getZoneIdForUser_Expired_ReloadsUser() {
+        // Arrange
+        ReflectionTestUtils.setField(timeZoneUtil, "cacheTtlMillis", 0L);
+        when(userRepository.findById("user123")).thenReturn(Optional.of(user("user123", "Asia/Colombo")));
+
+        // Act
+        timeZoneUtil.getZoneIdForUser("user123");
+        timeZoneUtil.getZoneIdForUser("user123");
+
+        // Assert
+        verify(userRepository, times(2)).findById("user123");
+    }
+
+    @Test
+    void getZoneIdForUser_UnknownOrNullUser_UsesDefaultZone() {
+        // Arrange
+        when(userRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(ZoneId.of("UTC"), timeZoneUtil.getZoneIdForUser("missing"));
+        assertEquals(ZoneId.of("UTC"), timeZoneUtil.getZoneIdForUser(null));
+        verify(userRepository, times(1)).findById(anyString());
+    }
+
+    private User user(String id, String timeZone) {
+        User user = new User();
+        user.setId(id);
+        user.setTimeZone(timeZone);
+        return user;
+    }
+}
@@ -1,12 +1,18 @@
 package com.example.finance_tracker.unit;
 
+import com.example.finance_tracker.event.TransactionChangedEvent;
+import com.example.finance_tracker.event.TransactionsCreatedEvent;
 import com.example.finance_tracker.model.Transaction;
 import com.example.finance_tracker.model.Income;
 import com.example.finance_tracker.model.Expense;
+import com.example.finance_tracker.repository.ExpenseRepository;
+import com.example.finance_tracker.repository.IncomeRepository;
 import com.example.finance_tracker.repository.TransactionRepository;
 import com.example.finance_tracker.service.CurrencyConverterImpl;
+import com.example.finance_tracker.service.DocumentPatcher;
 import com.example.finance_tracker.service.ExpenseService;
 import com.example.finance_tracker.service.IncomeService;
+import com.example.finance_tracker.service.MongoTransactions;
 import com.example.finance_tracker.service.TransactionServiceImpl;
 import com.example.finance_tracker.util.CurrencyUtil;
 import com.example.finance_tracker.exception.ResourceNotFoundException;
@@ -14,13 +20,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class TransactionServiceImplTest {
@@ -37,9 +50,25 @@ class TransactionServiceImplTest {
     @Mock
     private ExpenseService expenseService;
 
+    @Mock
+    private IncomeRepository incomeRepository;
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
     @Mock
     private CurrencyUtil currencyUtil;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DocumentPatcher documentPatcher;
+
+    // Transactions disabled, so the writes run directly against the mocks
+    @Spy
+    private MongoTransactions mongoTransactions = new MongoTransactions((MongoTransactionManager) null);
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -110,15 +139,152 @@ class TransactionServiceImplTest {
         Transaction transaction = new Transaction();
         transaction.setId("123");
         transaction.setUserId("user123");
+        Transaction previous = new Transaction();
+        previous.setId("123");
 
-        when(transactionRepository.save(transaction)).thenReturn(transaction);
+        when(documentPatcher.replace(Transaction.class, transaction))
+                .thenReturn(new DocumentPatcher.Patch<>(previous, transaction, Set.of()));
 
         // Act
         Transaction result = transactionService.updateTransaction(transaction);
 
-        // Assert
+        // Assert: the version is checked and incremented by the update, the document is not saved whole
         assertNotNull(result);
-        verify(transactionRepository, times(1)).save(transaction);
+        verify(documentPatcher, times(1)).replace(Transaction.class, transaction);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof TransactionChangedEvent changed
+                && changed.getPrevious() == previous && changed.getCurrent() == transaction));
+    }
+
+    @Test
+    void patchTransaction_SyncsTheProjectionAndPublishesTheChange() {
+        // Arrange
+        Transaction previous = new Transaction();
+        previous.setId("123");
+        previous.setType("Expense");
+        previous.setAmount(50.0);
+        Transaction current = new Transaction();
+        current.setId("123");
+        current.setType("Expense");
+        current.setAmount(75.0);
+        Map<String, Object> changes = Map.of("amount", 75.0, "version", 2);
+        Expense existing = new Expense();
+        existing.setId("exp1");
+        when(documentPatcher.apply(eq(Transaction.class), eq("123"), eq(changes), anySet()))
+                .thenReturn(new DocumentPatcher.Patch<>(previous, current, Set.of("amount")));
+        when(expenseRepository.findByTransactionId("123")).thenReturn(Optional.of(existing));
+
+        // Act
+        Transaction result = transactionService.patchTransaction("123", changes);
+
+        // Assert
+        assertSame(current, result);
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(transactionRepository, never()).findById(anyString());
+        verify(expenseRepository, times(1)).save(argThat(expense -> "exp1".equals(expense.getId()) && expense.getAmount() == 75.0));
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) -> event instanceof TransactionChangedEvent changed
+                && changed.getPrevious() == previous && changed.getCurrent() == current));
+    }
+
+    @Test
+    void patchTransaction_InvalidType_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> transactionService.patchTransaction("123", Map.of("type", "Gift")));
+        verifyNoInteractions(documentPatcher);
+    }
+
+    @Test
+    void updateTransaction_ReplacesLinkedExpense() {
+        // Arrange
+        Transaction previous = new Transaction();
+        previous.setId("123");
+        previous.setType("Expense");
+        previous.setAmount(50.0);
+        Transaction transaction = new Transaction();
+        transaction.setId("123");
+        transaction.setType("Expense");
+        transaction.setAmount(75.0);
+        Expense existing = new Expense();
+        existing.setId("exp1");
+
+        when(documentPatcher.replace(Transaction.class, transaction))
+                .thenReturn(new DocumentPatcher.Patch<>(previous, transaction, Set.of()));
+        when(expenseRepository.findByTransactionId("123")).thenReturn(Optional.of(existing));
+
+        // Act
+        transactionService.updateTransaction(transaction);
+
+        // Assert
+        verify(expenseRepository, times(1)).save(argThat(expense ->
+                "exp1".equals(expense.getId()) && expense.getAmount() == 75.0 && "123".equals(expense.getTransactionId())));
+        verify(expenseRepository, never()).deleteByTransactionId(anyString());
+        verifyNoInteractions(incomeRepository);
+    }
+
+    @Test
+    void updateTransaction_TypeChanged_MovesLinkedRecord() {
+        // Arrange
+        Transaction previous = new Transaction();
+        previous.setId("123");
+        previous.setType("Expense");
+        Transaction transaction = new Transaction();
+        transaction.setId("123");
+        transaction.setType("Income");
+
+        Expense existing = new Expense();
+        existing.setId("exp1");
+
+        when(documentPatcher.replace(Transaction.class, transaction))
+                .thenReturn(new DocumentPatcher.Patch<>(previous, transaction, Set.of()));
+        when(expenseRepository.findByTransactionId("123")).thenReturn(Optional.of(existing));
+
+        // Act
+        transactionService.updateTransaction(transaction);
+
+        // Assert
+        verify(expenseRepository, times(1)).deleteByTransactionId("123");
+        verify(incomeRepository, times(1)).save(argThat(income -> income.getId() == null && "123".equals(income.getTransactionId())));
+    }
+
+    @Test
+    void updateTransaction_NoLinkedRecord_DoesNotCreateOne() {
+        // Arrange
+        Transaction previous = new Transaction();
+        previous.setId("123");
+        previous.setType("Expense");
+        Transaction transaction = new Transaction();
+        transaction.setId("123");
+        transaction.setType("Income");
+
+        when(documentPatcher.replace(Transaction.class, transaction))
+                .thenReturn(new DocumentPatcher.Patch<>(previous, transaction, Set.of()));
+        when(expenseRepository.findByTransactionId("123")).thenReturn(Optional.empty());
+
+        // Act
+        transactionService.updateTransaction(transaction);
+
+        // Assert
+        // A record from before transactions were linked would otherwise be counted twice
+        verify(expenseRepository, never()).save(any(Expense.class));
+        verify(expenseRepository, never()).deleteByTransactionId(anyString());
+        verify(incomeRepository, never()).save(any(Income.class));
+        verify(eventPublisher, times(1)).publishEvent(any(TransactionChangedEvent.class));
+    }
+
+    @Test
+    void deleteTransaction_RemovesLinkedIncome() {
+        // Arrange
+        Transaction previous = new Transaction();
+        previous.setId("123");
+        previous.setType("Income");
+        when(transactionRepository.findById("123")).thenReturn(Optional.of(previous));
+
+        // Act
+        transactionService.deleteTransaction("123");
+
+        // Assert
+        verify(incomeRepository, times(1)).deleteByTransactionId("123");
+        verify(incomeRepository, never()).save(any(Income.class));
     }
 
     @Test
@@ -301,4 +467,113 @@ class TransactionServiceImplTest {
         verify(currencyUtil, times(1)).getBaseCurrencyForUser(userId);
         verify(currencyConverterImpl, times(1)).convertCurrency("USD", preferredCurrency, 100.0, baseCurrency);
     }
-}
\ No newline at end of file
+
+    @Test
+    void sumGoalContributions_NoContributions_ReturnsZero() {
+        // Arrange
+        when(transactionRepository.sumGoalContributions("goal1")).thenReturn(null);
+
+        // Act
+        double total = transactionService.sumGoalContributions("goal1");
+
+        // Assert
+        assertEquals(0.0, total);
+    }
+
+    @Test
+    void sumAmountByCategory_ReturnsTheAggregatedTotal() {
+        // Arrange
+        when(transactionRepository.sumAmountByUserAndCategory("user123", "Savings")).thenReturn(750.0);
+
+        // Act
+        double total = transactionService.sumAmountByCategory("user123", "Savings");
+
+        // Assert
+        assertEquals(750.0, total);
+        verify(transactionRepository, never()).findByUserId("user123");
+    }
+
+    @Test
+    void addTransactions_InsertsOnceAndPublishesOneEvent() {
+        // Arrange
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setType(i == 0 ? "Income" : "Expense");
+            transaction.setUserId("user123");
+            transaction.setAmount(10.0 * (i + 1));
+            transactions.add(transaction);
+        }
+
+        when(currencyUtil.getBaseCurrencyForUser("user123")).thenReturn("USD");
+        when(transactionRepository.insert(transactions)).thenReturn(transactions);
+
+        // Act
+        List<Transaction> result = transactionService.addTransactions(transactions);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(transaction -> "USD".equals(transaction.getCurrencyCode())));
+        verify(currencyUtil, times(1)).getBaseCurrencyForUser("user123");
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(incomeService, times(1)).addIncomes(argThat(incomes -> incomes.size() == 1));
+        verify(expenseService, times(1)).addExpenses(argThat(expenses -> expenses.size() == 2));
+        verify(eventPublisher, times(1)).publishEvent(any(TransactionsCreatedEvent.class));
+    }
+
+    @Test
+    void addTransactions_InvalidType_WritesNothing() {
+        // Arrange
+        Transaction transaction = new Transaction();
+        transaction.setType("InvalidType");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> transactionService.addTransactions(List.of(transaction)));
+        verify(transactionRepository, never()).insert(anyList());
+    }
+
+    @Test
+    void recordInsertedTransactions_CreatesLinkedRecordsWithoutInserting() {
+        // Arrange
+        Transaction occurrence = new Transaction();
+        occurrence.setId("occ1");
+        occurrence.setType("Expense");
+        occurrence.setUserId("user123");
+        occurrence.setAmount(20.0);
+        occurrence.setCurrencyCode("LKR");
+
+        // Act
+        transactionService.recordInsertedTransactions(List.of(occurrence));
+
+        // Assert
+        verify(transactionRepository, never()).insert(anyList());
+        verify(expenseService, times(1)).addExpenses(argThat(expenses ->
+                expenses.size() == 1 && "occ1".equals(expenses.get(0).getTransactionId())));
+        verify(incomeService, never()).addIncomes(anyList());
+        verify(eventPublisher, times(1)).publishEvent(any(TransactionsCreatedEvent.class));
+    }
+
+    @Test
+    void findUnrecordedTransactions_ReturnsThoseWithoutALinkedRecord() {
+        // Arrange
+        Transaction recorded = new Transaction();
+        recorded.setId("occ1");
+        recorded.setType("Expense");
+        Transaction unrecorded = new Transaction();
+        unrecorded.setId("occ2");
+        unrecorded.setType("Expense");
+        Transaction income = new Transaction();
+        income.setId("occ3");
+        income.setType("Income");
+        Expense expense = new Expense();
+        expense.setTransactionId("occ1");
+        when(expenseRepository.findByTransactionIdIn(List.of("occ1", "occ2"))).thenReturn(List.of(expense));
+        when(incomeRepository.findByTransactionIdIn(List.of("occ3"))).thenReturn(List.of());
+
+        // Act
+        List<Transaction> result = transactionService.findUnrecordedTransactions(List.of(recorded, unrecorded, income));
+
+        // Assert
+        assertEquals(List.of(unrecorded, income), result);
+    }
+}
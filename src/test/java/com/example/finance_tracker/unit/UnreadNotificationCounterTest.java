@@ -0,0 +1,134 @@
+package com.example.finance_tracker.unit;
+
+import com.example.finance_tracker.model.Notification;
+import com.example.finance_tracker.model.NotificationCounter;
+import com.example.finance_tracker.service.ShardedJobRunner;
+import com.example.finance_tracker.service.UnreadNotificationCounter;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UnreadNotificationCounterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private ShardedJobRunner shardedJobRunner;
+
+    @InjectMocks
+    private UnreadNotificationCounter unreadCounter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    void get_ExistingCounter_DoesNotCountNotifications() {
+        // Arrange
+        when(mongoTemplate.findById("user1", NotificationCounter.class)).thenReturn(new NotificationCounter("user1", 4));
+
+        // Act
+        long unread = unreadCounter.get("user1");
+
+        // Assert
+        assertEquals(4, unread);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Notification.class));
+    }
+
+    @Test
+    void get_MissingCounter_IsInitialisedFromTheNotifications() {
+        // Arrange
+        when(mongoTemplate.count(any(Query.class), eq(Notification.class))).thenReturn(6L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(NotificationCounter.class)))
+                .thenReturn(new NotificationCounter("user1", 6));
+
+        // Act
+        long unread = unreadCounter.get("user1");
+
+        // Assert
+        assertEquals(6, unread);
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(NotificationCounter.class));
+    }
+
+    @Test
+    void get_NegativeCounter_IsRecountedByTheDifference() {
+        // Arrange
+        when(mongoTemplate.findById("user1", NotificationCounter.class)).thenReturn(new NotificationCounter("user1", -2));
+        when(mongoTemplate.count(any(Query.class), eq(Notification.class))).thenReturn(3L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(NotificationCounter.class)))
+                .thenReturn(new NotificationCounter("user1", 3));
+
+        // Act
+        long unread = unreadCounter.get("user1");
+
+        // Assert
+        assertEquals(3, unread);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(NotificationCounter.class));
+        assertEquals(5L, update.getValue().getUpdateObject().get("$inc", Document.class).get("unread"));
+    }
+
+    @Test
+    void increment_UpsertsOneCounterPerUser() {
+        // Act
+        unreadCounter.increment(Map.of("user1", 2L, "user2", 1L));
+
+        // Assert
+        verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+    }
+
+    @Test
+    void repair_RecountsOnlyDriftedUsers() {
+        // Arrange: user1 is right, user2 is off, user3 has no counter and user4 has read everything
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Notification.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(
+                        new Document("_id", "user1").append("unread", 2),
+                        new Document("_id", "user2").append("unread", 5),
+                        new Document("_id", "user3").append("unread", 1)), new Document()));
+        when(mongoTemplate.findAll(NotificationCounter.class)).thenReturn(List.of(
+                new NotificationCounter("user1", 2), new NotificationCounter("user2", 4), new NotificationCounter("user4", 1)));
+
+        // Act
+        unreadCounter.repair();
+
+        // Assert
+        verify(mongoTemplate, times(3)).count(any(Query.class), eq(Notification.class));
+        verify(mongoTemplate, never()).count(argThat((Query query) -> "user1".equals(query.getQueryObject().get("userId"))),
+                eq(Notification.class));
+    }
+
+    @Test
+    void decrement_Zero_DoesNothing() {
+        // Act
+        unreadCounter.decrement("user1", 0);
+
+        // Assert
+        verifyNoInteractions(mongoTemplate);
+    }
+}
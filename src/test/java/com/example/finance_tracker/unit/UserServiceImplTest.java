@@ -2,8 +2,11 @@ package com.example.finance_tracker.unit;
 
 import com.example.finance_tracker.model.User;
 import com.example.finance_tracker.repository.UserRepository;
+import com.example.finance_tracker.exception.ResourceNotFoundException;
 import com.example.finance_tracker.exception.UserNotFoundException;
+import com.example.finance_tracker.service.DocumentPatcher;
 import com.example.finance_tracker.service.UserServiceImpl;
+import com.example.finance_tracker.util.TimeZoneUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -15,9 +18,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class UserServiceImplTest {
@@ -28,6 +34,12 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private DocumentPatcher documentPatcher;
+
+    @Mock
+    private TimeZoneUtil timeZoneUtil;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -137,10 +149,13 @@ class UserServiceImplTest {
         user.setUsername("john_doe");
         user.setEmail("john.doe@example.com");
         user.setPassword("newpassword123");
+        User existing = new User();
+        existing.setId("123");
+        existing.setPassword("oldEncodedPassword");
 
-        when(userRepository.existsById("123")).thenReturn(true);
+        when(userRepository.findById("123")).thenReturn(Optional.of(existing));
         when(passwordEncoder.encode("newpassword123")).thenReturn("encodedPassword");
-        when(userRepository.save(user)).thenReturn(user);
+        when(documentPatcher.replace(User.class, user)).thenReturn(new DocumentPatcher.Patch<>(existing, user, Set.of()));
 
         // Act
         User updatedUser = userService.updateUser(user);
@@ -148,7 +163,29 @@ class UserServiceImplTest {
         // Assert
         assertNotNull(updatedUser);
         assertEquals("encodedPassword", updatedUser.getPassword());
-        verify(userRepository, times(1)).save(user);
+        verify(documentPatcher, times(1)).replace(User.class, user);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void updateUser_UnchangedPassword_IsNotHashedAgain() {
+        // Arrange
+        User user = new User();
+        user.setId("123");
+        user.setPassword("storedHash");
+        User existing = new User();
+        existing.setId("123");
+        existing.setPassword("storedHash");
+
+        when(userRepository.findById("123")).thenReturn(Optional.of(existing));
+        when(documentPatcher.replace(User.class, user)).thenReturn(new DocumentPatcher.Patch<>(existing, user, Set.of()));
+
+        // Act
+        User updatedUser = userService.updateUser(user);
+
+        // Assert
+        assertEquals("storedHash", updatedUser.getPassword());
+        verify(passwordEncoder, never()).encode(anyString());
     }
 
     @Test
@@ -157,7 +194,7 @@ class UserServiceImplTest {
         User user = new User();
         user.setId("123");
 
-        when(userRepository.existsById("123")).thenReturn(false);
+        when(userRepository.findById("123")).thenReturn(Optional.empty());
 
         // Act & Assert
         UserNotFoundException exception = assertThrows(UserNotFoundException.class, () -> {
@@ -167,6 +204,58 @@ class UserServiceImplTest {
         assertEquals("User not found with ID: 123", exception.getMessage());
     }
 
+    @Test
+    void patchUser_WithoutPassword_DoesNotHash() {
+        // Arrange
+        User current = new User();
+        current.setId("123");
+        current.setTimeZone("Asia/Colombo");
+        Map<String, Object> changes = Map.of("timeZone", "Asia/Colombo");
+        when(documentPatcher.apply(eq(User.class), eq("123"), eq(changes), anySet()))
+                .thenReturn(new DocumentPatcher.Patch<>(new User(), current, changes.keySet()));
+
+        // Act
+        User result = userService.patchUser("123", changes);
+
+        // Assert
+        assertSame(current, result);
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void patchUser_WithPassword_StoresTheHash() {
+        // Arrange
+        when(passwordEncoder.encode("newpassword123")).thenReturn("encodedPassword");
+        when(documentPatcher.apply(eq(User.class), eq("123"), anyMap(), anySet()))
+                .thenReturn(new DocumentPatcher.Patch<>(new User(), new User(), Set.of("password")));
+
+        // Act
+        userService.patchUser("123", Map.of("password", "newpassword123"));
+
+        // Assert
+        verify(documentPatcher).apply(eq(User.class), eq("123"), eq(Map.of("password", "encodedPassword")), anySet());
+    }
+
+    @Test
+    void patchUser_InvalidTimeZone_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.patchUser("123", Map.of("timeZone", "Mars/Olympus")));
+        verifyNoInteractions(documentPatcher);
+    }
+
+    @Test
+    void patchUser_UserNotFound() {
+        // Arrange
+        when(documentPatcher.apply(eq(User.class), eq("123"), anyMap(), anySet()))
+                .thenThrow(new ResourceNotFoundException("User not found"));
+
+        // Act & Assert
+        UserNotFoundException exception = assertThrows(UserNotFoundException.class,
+                () -> userService.patchUser("123", Map.of("baseCurrency", "EUR")));
+        assertEquals("User not found with ID: 123", exception.getMessage());
+    }
+
     @Test
     void deleteUser_Success() {
         // Arrange